@@ -0,0 +1,70 @@
+package socialmedia.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * BenchmarkMain runs the benchmarks with the usual JMH command line options,
+ * writing the results as JSON to {@code jmh-result.json} unless another result
+ * file or format is given, so that runs of different implementations or
+ * versions can be compared.
+ * <p>
+ * For example, after {@code mvn package}:
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar                       # everything
+ * java -jar benchmarks/target/benchmarks.jar Read -p size=1000,100000
+ * java -jar benchmarks/target/benchmarks.jar -p implementation=SocialMedia -rff base.json
+ * </pre>
+ *
+ * Graphs of 10M entities need a large heap, e.g. {@code -jvmArgsAppend -Xmx16g}.
+ * <p>
+ * Every implementation is benchmarked through the calls of
+ * {@link socialmedia.MiniSocialMediaPlatform} only, so the results compare the
+ * same work on each. The extensions are not benchmarked, and not all
+ * implementations have them:
+ * <ul>
+ * <li>{@code SocialMedia} has all of them;</li>
+ * <li>{@code ConcurrentSocialMedia} has the trending, threaded and batch calls,
+ * but not {@link socialmedia.EndorserAnalyticsPlatform}, the write-ahead log,
+ * delta snapshots or memory-mapped opening;</li>
+ * <li>{@code ColumnarSocialMedia} has none of them: no trending, threaded
+ * streaming or paging, batch calls, endorser analytics or durability.</li>
+ * </ul>
+ *
+ * @version 1.0
+ */
+public final class BenchmarkMain {
+
+	/** Result file written when none is given on the command line. */
+	public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+	private BenchmarkMain() {
+	}
+
+	/**
+	 * Method to run the benchmarks
+	 *
+	 * @param args JMH command line options
+	 * @throws Exception if the options are invalid or the benchmarks fail to run
+	 */
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions cli = new CommandLineOptions(args);
+		if (cli.shouldHelp() || cli.shouldList() || cli.shouldListProfilers()
+				|| cli.shouldListResultFormats() || cli.shouldListWithParams()) {
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+		if (!cli.getResultFormat().hasValue()) {
+			options.resultFormat(ResultFormatType.JSON);
+		}
+		if (!cli.getResult().hasValue()) {
+			options.result(DEFAULT_RESULT_FILE);
+		}
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,100 @@
+package socialmedia.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import socialmedia.MiniSocialMediaPlatform;
+
+/**
+ * Benchmarks of the operations changing a platform, run against a synthetic
+ * graph of the given size. Content created while measuring is added to the
+ * graph, so the platform grows slightly over a run.
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MutationBenchmark {
+
+	@Param({ "SocialMedia", "ConcurrentSocialMedia", "ColumnarSocialMedia" })
+	public String implementation;
+
+	@Param({ "1000", "100000", "10000000" })
+	public int size;
+
+	@Param("42")
+	public long seed;
+
+	MiniSocialMediaPlatform platform;
+	SyntheticGraph graph;
+	SplittableRandom random;
+	int nextAccount;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		platform = Platforms.create(implementation);
+		graph = SyntheticGraph.build(platform, size, seed);
+		random = new SplittableRandom(seed + 1);
+	}
+
+	/**
+	 * A post with comments and endorsements, created before each call of the
+	 * deletePost benchmark so that every call deletes a fresh one.
+	 */
+	@State(Scope.Thread)
+	public static class DeleteTarget {
+		int id;
+
+		@Setup(Level.Invocation)
+		public void setUp(MutationBenchmark benchmark) throws Exception {
+			String handle = benchmark.graph.randomHandle(benchmark.random);
+			id = benchmark.platform.createPost(handle, SyntheticGraph.MESSAGES[0]);
+			benchmark.platform.commentPost(handle, id, SyntheticGraph.MESSAGES[1]);
+			benchmark.platform.commentPost(handle, id, SyntheticGraph.MESSAGES[2]);
+			benchmark.platform.endorsePost(handle, id);
+		}
+	}
+
+	@Benchmark
+	public int createAccount() throws Exception {
+		return platform.createAccount("bench" + nextAccount++);
+	}
+
+	@Benchmark
+	public int createPost() throws Exception {
+		return platform.createPost(graph.randomHandle(random), SyntheticGraph.MESSAGES[0]);
+	}
+
+	@Benchmark
+	public int commentPost() throws Exception {
+		return platform.commentPost(graph.randomHandle(random), graph.randomActionable(random),
+				SyntheticGraph.MESSAGES[1]);
+	}
+
+	@Benchmark
+	public int endorsePost() throws Exception {
+		return platform.endorsePost(graph.randomHandle(random), graph.randomActionable(random));
+	}
+
+	@Benchmark
+	public void deletePost(DeleteTarget target) throws Exception {
+		platform.deletePost(target.id);
+	}
+}
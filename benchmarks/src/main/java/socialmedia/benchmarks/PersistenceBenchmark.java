@@ -0,0 +1,84 @@
+package socialmedia.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import socialmedia.MiniSocialMediaPlatform;
+
+/**
+ * Benchmarks of saving a platform holding a synthetic graph of the given size to
+ * a file, and of loading it back. Each call is timed on its own, since a call
+ * at the largest sizes takes seconds.
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PersistenceBenchmark {
+
+	@Param({ "SocialMedia", "ConcurrentSocialMedia", "ColumnarSocialMedia" })
+	public String implementation;
+
+	@Param({ "1000", "100000", "10000000" })
+	public int size;
+
+	@Param("42")
+	public long seed;
+
+	MiniSocialMediaPlatform platform;
+	Path directory;
+	String savedFile;
+	String loadedFile;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		platform = Platforms.create(implementation);
+		SyntheticGraph.build(platform, size, seed);
+		directory = Files.createTempDirectory("socialmedia-bench");
+		savedFile = directory.resolve("saved.ser").toString();
+		loadedFile = directory.resolve("loaded.ser").toString();
+		platform.savePlatform(loadedFile);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				Files.delete(file);
+			}
+		}
+		Files.delete(directory);
+	}
+
+	@Benchmark
+	public void savePlatform() throws Exception {
+		platform.savePlatform(savedFile);
+	}
+
+	@Benchmark
+	public MiniSocialMediaPlatform loadPlatform() throws Exception {
+		platform.loadPlatform(loadedFile);
+		return platform;
+	}
+}
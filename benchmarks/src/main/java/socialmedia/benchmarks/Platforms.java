@@ -0,0 +1,30 @@
+package socialmedia.benchmarks;
+
+import socialmedia.MiniSocialMediaPlatform;
+
+/**
+ * Platforms creates the implementation benchmarked from its class name, so that
+ * any implementation can be compared with {@code -p implementation=...}. The
+ * implementation is only used as a {@link MiniSocialMediaPlatform}, see
+ * {@link BenchmarkMain} for the extensions each one lacks.
+ *
+ * @version 1.0
+ */
+public final class Platforms {
+
+	private Platforms() {
+	}
+
+	/**
+	 * Method to create an empty platform
+	 *
+	 * @param implementation simple name of a class of the socialmedia package, or
+	 *                       a fully qualified class name
+	 * @return a new platform
+	 * @throws ReflectiveOperationException if the class cannot be instantiated
+	 */
+	public static MiniSocialMediaPlatform create(String implementation) throws ReflectiveOperationException {
+		String name = implementation.contains(".") ? implementation : "socialmedia." + implementation;
+		return (MiniSocialMediaPlatform) Class.forName(name).getDeclaredConstructor().newInstance();
+	}
+}
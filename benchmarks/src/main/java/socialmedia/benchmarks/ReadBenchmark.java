@@ -0,0 +1,70 @@
+package socialmedia.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import socialmedia.MiniSocialMediaPlatform;
+
+/**
+ * Benchmarks of the operations reading a platform, run against a synthetic
+ * graph of the given size. Posts are picked with the same skew as when the
+ * graph was built, so popular posts are read most often.
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadBenchmark {
+
+	@Param({ "SocialMedia", "ConcurrentSocialMedia", "ColumnarSocialMedia" })
+	public String implementation;
+
+	@Param({ "1000", "100000", "10000000" })
+	public int size;
+
+	@Param("42")
+	public long seed;
+
+	MiniSocialMediaPlatform platform;
+	SyntheticGraph graph;
+	SplittableRandom random;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		platform = Platforms.create(implementation);
+		graph = SyntheticGraph.build(platform, size, seed);
+		random = new SplittableRandom(seed + 1);
+	}
+
+	@Benchmark
+	public String showIndividualPost() throws Exception {
+		return platform.showIndividualPost(graph.randomActionable(random));
+	}
+
+	@Benchmark
+	public StringBuilder showPostChildrenDetails() throws Exception {
+		return platform.showPostChildrenDetails(graph.randomOriginal(random));
+	}
+
+	@Benchmark
+	public int getMostEndorsedPost() {
+		return platform.getMostEndorsedPost();
+	}
+}
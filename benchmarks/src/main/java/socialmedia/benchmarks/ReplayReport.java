@@ -0,0 +1,133 @@
+package socialmedia.benchmarks;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * ReplayReport holds the results of replaying the load phase of a trace: the
+ * overall throughput, and for each kind of operation its count, errors,
+ * throughput and latency percentiles.
+ *
+ * @version 1.0
+ */
+public class ReplayReport {
+
+	/**
+	 * Results of one kind of operation.
+	 */
+	public static class OperationStats {
+		private final long count;
+		private final long errors;
+		// latencies in nanoseconds, sorted
+		private final long[] latencies;
+
+		OperationStats(long[] latencies, long errors) {
+			this.latencies = latencies;
+			Arrays.sort(this.latencies);
+			this.count = latencies.length;
+			this.errors = errors;
+		}
+
+		/**
+		 * Getter method for the number of calls
+		 *
+		 * @return number of calls, including those that threw
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * Getter method for the number of calls that threw an exception
+		 *
+		 * @return number of errors
+		 */
+		public long getErrors() {
+			return errors;
+		}
+
+		/**
+		 * Method to find a latency percentile
+		 *
+		 * @param percentile between 0 and 100
+		 * @return the latency in nanoseconds, or 0 if there were no calls
+		 */
+		public long percentile(double percentile) {
+			if (latencies.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+			return latencies[Math.max(0, Math.min(index, latencies.length - 1))];
+		}
+	}
+
+	private final String implementation;
+	private final int threads;
+	private final long elapsedNanos;
+	private final EnumMap<TraceOperation.Kind, OperationStats> stats;
+
+	ReplayReport(String implementation, int threads, long elapsedNanos,
+			EnumMap<TraceOperation.Kind, OperationStats> stats) {
+		this.implementation = implementation;
+		this.threads = threads;
+		this.elapsedNanos = elapsedNanos;
+		this.stats = stats;
+	}
+
+	/**
+	 * Getter method for the results of each kind of operation replayed
+	 *
+	 * @return results by kind
+	 */
+	public Map<TraceOperation.Kind, OperationStats> getStats() {
+		return stats;
+	}
+
+	/**
+	 * Getter method for the time taken to replay the load phase
+	 *
+	 * @return elapsed time in nanoseconds
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * Method to compute the throughput of the load phase
+	 *
+	 * @return operations per second
+	 */
+	public double getThroughput() {
+		long count = 0;
+		for (OperationStats s : stats.values()) {
+			count += s.count;
+		}
+		return throughput(count);
+	}
+
+	private double throughput(long count) {
+		return elapsedNanos == 0 ? 0 : count * 1e9 / elapsedNanos;
+	}
+
+	/**
+	 * Method to format the report as a table, latencies in microseconds
+	 *
+	 * @return the report
+	 */
+	@Override
+	public String toString() {
+		StringBuilder out = new StringBuilder();
+		out.append(String.format("%s, %d thread(s): %.0f ops/s over %.3f s%n", implementation, threads,
+				getThroughput(), elapsedNanos / 1e9));
+		out.append(String.format("%-24s %10s %8s %12s %10s %10s %10s%n", "operation", "count", "errors", "ops/s",
+				"p50 us", "p99 us", "p999 us"));
+		for (Map.Entry<TraceOperation.Kind, OperationStats> e : stats.entrySet()) {
+			OperationStats s = e.getValue();
+			out.append(String.format("%-24s %10d %8d %12.0f %10.1f %10.1f %10.1f%n", e.getKey().getMethod(), s.count,
+					s.errors, throughput(s.count), s.percentile(50) / 1e3, s.percentile(99) / 1e3,
+					s.percentile(99.9) / 1e3));
+		}
+		return out.toString();
+	}
+}
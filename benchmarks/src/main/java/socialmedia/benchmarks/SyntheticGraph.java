@@ -0,0 +1,129 @@
+package socialmedia.benchmarks;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import socialmedia.MiniSocialMediaPlatform;
+
+/**
+ * SyntheticGraph fills a platform with a reproducible social graph of a given
+ * number of entities, through the platform's own API, so that every
+ * implementation is benchmarked against the same contents.
+ * <p>
+ * One entity in fifty is an account; the rest are original posts (30%),
+ * comments (40%) and endorsements (30%). Authors and the posts commented or
+ * endorsed are chosen with a skew towards the oldest ones, so that a few
+ * accounts and posts get most of the activity, as on a real platform, and
+ * comments on comments build threads of varying depth. The same seed always
+ * gives the same graph.
+ *
+ * @version 1.0
+ */
+public class SyntheticGraph {
+
+	/** Messages of the generated posts and comments. */
+	static final String[] MESSAGES = { "Hello world", "Has anyone tried the new release yet?",
+			"This is the example!", "I can prove it", "Can't you do better than this?",
+			"Completely agree with everything said above, thanks for sharing" };
+
+	// exponent skewing random choices towards the lowest indexes
+	private static final double SKEW = 3.0;
+
+	private final String[] handles;
+	private final int[] originalIds;
+	private final int[] actionableIds;
+
+	private SyntheticGraph(String[] handles, int[] originalIds, int[] actionableIds) {
+		this.handles = handles;
+		this.originalIds = originalIds;
+		this.actionableIds = actionableIds;
+	}
+
+	/**
+	 * Method to fill an empty platform with a synthetic graph
+	 *
+	 * @param platform empty platform to fill
+	 * @param entities number of accounts, posts, comments and endorsements to
+	 *                 create
+	 * @param seed     seed of the random choices
+	 * @return the handles and post IDs of the graph
+	 * @throws Exception if the platform rejects a generated operation
+	 */
+	public static SyntheticGraph build(MiniSocialMediaPlatform platform, int entities, long seed)
+			throws Exception {
+		SplittableRandom random = new SplittableRandom(seed);
+		String[] handles = new String[Math.max(1, entities / 50)];
+		for (int i = 0; i < handles.length; i++) {
+			handles[i] = "user" + i;
+			platform.createAccount(handles[i]);
+		}
+		int posts = entities - handles.length;
+		int[] originals = new int[posts];
+		int originalCount = 0;
+		int[] actionable = new int[posts];
+		int actionableCount = 0;
+		for (int i = 0; i < posts; i++) {
+			String handle = handles[skewed(random, handles.length)];
+			String message = MESSAGES[random.nextInt(MESSAGES.length)];
+			double kind = random.nextDouble();
+			if (actionableCount == 0 || kind < 0.3) {
+				int id = platform.createPost(handle, message);
+				originals[originalCount++] = id;
+				actionable[actionableCount++] = id;
+			} else if (kind < 0.7) {
+				int parent = actionable[skewed(random, actionableCount)];
+				actionable[actionableCount++] = platform.commentPost(handle, parent, message);
+			} else {
+				platform.endorsePost(handle, actionable[skewed(random, actionableCount)]);
+			}
+		}
+		return new SyntheticGraph(handles, Arrays.copyOf(originals, originalCount),
+				Arrays.copyOf(actionable, actionableCount));
+	}
+
+	/**
+	 * Picks an index below the bound, skewed towards the lowest ones.
+	 */
+	static int skewed(SplittableRandom random, int bound) {
+		return (int) (bound * Math.pow(random.nextDouble(), SKEW));
+	}
+
+	/**
+	 * Method to pick the handle of an account, skewed towards the most active
+	 *
+	 * @param random source of the choice
+	 * @return a handle of the graph
+	 */
+	public String randomHandle(SplittableRandom random) {
+		return handles[skewed(random, handles.length)];
+	}
+
+	/**
+	 * Method to pick an original post uniformly
+	 *
+	 * @param random source of the choice
+	 * @return the ID of an original post of the graph
+	 */
+	public int randomOriginal(SplittableRandom random) {
+		return originalIds[random.nextInt(originalIds.length)];
+	}
+
+	/**
+	 * Method to pick an original post or comment, skewed towards the most popular
+	 *
+	 * @param random source of the choice
+	 * @return the ID of a post or comment of the graph
+	 */
+	public int randomActionable(SplittableRandom random) {
+		return actionableIds[skewed(random, actionableIds.length)];
+	}
+
+	/**
+	 * Getter method for the number of accounts of the graph
+	 *
+	 * @return number of accounts
+	 */
+	public int getAccountCount() {
+		return handles.length;
+	}
+}
@@ -0,0 +1,143 @@
+package socialmedia.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Trace is a recorded workload: a setup phase, replayed on a single thread to
+ * create the accounts and initial content, followed by the load phase that is
+ * replayed and measured.
+ * <p>
+ * A trace file starts with the line {@code SMTRACE <tab> 1 <tab> N}, N being
+ * the number of setup operations, followed by one operation per line as
+ * written by {@link TraceOperation#format()}.
+ *
+ * @version 1.0
+ */
+public class Trace {
+
+	static final String MAGIC = "SMTRACE";
+	static final int VERSION = 1;
+
+	private final List<TraceOperation> operations;
+	private final int setupCount;
+	// reference of the post created by each operation, or -1
+	private final int[] createdRefs;
+	private final int refCount;
+
+	/**
+	 * Constructor to create a trace
+	 *
+	 * @param operations every operation, setup first
+	 * @param setupCount number of setup operations
+	 */
+	public Trace(List<TraceOperation> operations, int setupCount) {
+		if (setupCount < 0 || setupCount > operations.size()) {
+			throw new IllegalArgumentException("Setup count out of range");
+		}
+		this.operations = Collections.unmodifiableList(new ArrayList<>(operations));
+		this.setupCount = setupCount;
+		this.createdRefs = new int[operations.size()];
+		int refs = 0;
+		for (int i = 0; i < createdRefs.length; i++) {
+			TraceOperation operation = operations.get(i);
+			if (operation.getRef() >= refs) {
+				throw new IllegalArgumentException("Operation " + i + " refers to post " + operation.getRef()
+						+ " before it is created");
+			}
+			createdRefs[i] = operation.getKind().createsRef() ? refs++ : -1;
+		}
+		this.refCount = refs;
+	}
+
+	/**
+	 * Method to read a trace file
+	 *
+	 * @param file trace file
+	 * @return the trace
+	 * @throws IOException if the file cannot be read or is not a valid trace
+	 */
+	public static Trace read(Path file) throws IOException {
+		try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String header = in.readLine();
+			String[] fields = header == null ? new String[0] : header.split("\t");
+			if (fields.length != 3 || !fields[0].equals(MAGIC)) {
+				throw new IOException(file + " is not a workload trace");
+			}
+			if (!fields[1].equals(Integer.toString(VERSION))) {
+				throw new IOException("Unsupported trace version " + fields[1]);
+			}
+			ArrayList<TraceOperation> operations = new ArrayList<>();
+			String line;
+			try {
+				while ((line = in.readLine()) != null) {
+					operations.add(TraceOperation.parse(line));
+				}
+				return new Trace(operations, Integer.parseInt(fields[2]));
+			} catch (IllegalArgumentException e) {
+				throw new IOException("Invalid trace " + file + ": " + e.getMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * Method to write the trace to a file
+	 *
+	 * @param file trace file
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(Path file) throws IOException {
+		try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			out.write(MAGIC + "\t" + VERSION + "\t" + setupCount);
+			out.newLine();
+			for (TraceOperation operation : operations) {
+				out.write(operation.format());
+				out.newLine();
+			}
+		}
+	}
+
+	/**
+	 * Getter method for every operation, setup first
+	 *
+	 * @return the operations
+	 */
+	public List<TraceOperation> getOperations() {
+		return operations;
+	}
+
+	/**
+	 * Getter method for the number of setup operations
+	 *
+	 * @return number of operations replayed before measuring
+	 */
+	public int getSetupCount() {
+		return setupCount;
+	}
+
+	/**
+	 * Getter method for the post created by an operation
+	 *
+	 * @param index position of the operation
+	 * @return the reference of the post it creates, or -1
+	 */
+	public int createdRef(int index) {
+		return createdRefs[index];
+	}
+
+	/**
+	 * Getter method for the number of posts and comments created by the trace
+	 *
+	 * @return number of post references
+	 */
+	public int getRefCount() {
+		return refCount;
+	}
+}
@@ -0,0 +1,178 @@
+package socialmedia.benchmarks;
+
+/**
+ * TraceOperation is one call of a platform method recorded in a workload
+ * trace. Posts are referred to by their position among the posts and comments
+ * created by the trace, rather than by ID, since IDs are only known once the
+ * trace is replayed against an implementation.
+ * <p>
+ * In the trace file each operation is one line of tab separated fields: the
+ * code of its kind, then the handle, post reference and message it uses, in
+ * that order, for those of its kind.
+ *
+ * @version 1.0
+ */
+public class TraceOperation {
+
+	/**
+	 * Kinds of operation, with their codes in the trace file.
+	 */
+	public enum Kind {
+		CREATE_ACCOUNT('A', "createAccount", true, false, false, false),
+		CREATE_POST('P', "createPost", true, false, true, true),
+		COMMENT_POST('C', "commentPost", true, true, true, true),
+		ENDORSE_POST('E', "endorsePost", true, true, false, false),
+		DELETE_POST('D', "deletePost", false, true, false, false),
+		SHOW_INDIVIDUAL_POST('S', "showIndividualPost", false, true, false, false),
+		SHOW_POST_CHILDREN_DETAILS('T', "showPostChildrenDetails", false, true, false, false),
+		SHOW_ACCOUNT('U', "showAccount", true, false, false, false),
+		GET_MOST_ENDORSED_POST('M', "getMostEndorsedPost", false, false, false, false);
+
+		final char code;
+		final String method;
+		final boolean hasHandle;
+		final boolean hasRef;
+		final boolean hasMessage;
+		final boolean createsRef;
+
+		Kind(char code, String method, boolean hasHandle, boolean hasRef, boolean hasMessage, boolean createsRef) {
+			this.code = code;
+			this.method = method;
+			this.hasHandle = hasHandle;
+			this.hasRef = hasRef;
+			this.hasMessage = hasMessage;
+			this.createsRef = createsRef;
+		}
+
+		/**
+		 * Getter method for the name of the platform method called
+		 *
+		 * @return method name
+		 */
+		public String getMethod() {
+			return method;
+		}
+
+		/**
+		 * Method to check whether operations of this kind create a post that later
+		 * operations may refer to
+		 *
+		 * @return true for original posts and comments
+		 */
+		public boolean createsRef() {
+			return createsRef;
+		}
+
+		static Kind of(char code) {
+			for (Kind kind : values()) {
+				if (kind.code == code) {
+					return kind;
+				}
+			}
+			throw new IllegalArgumentException("Unknown operation code " + code);
+		}
+	}
+
+	private final Kind kind;
+	private final String handle;
+	private final int ref;
+	private final String message;
+
+	/**
+	 * Constructor to create an operation
+	 *
+	 * @param kind    kind of operation
+	 * @param handle  handle used, or null if the kind uses none
+	 * @param ref     reference of the post used, or -1 if the kind uses none
+	 * @param message message of the post created, or null if the kind uses none
+	 */
+	public TraceOperation(Kind kind, String handle, int ref, String message) {
+		this.kind = kind;
+		this.handle = handle;
+		this.ref = ref;
+		this.message = message;
+	}
+
+	/**
+	 * Method to read an operation from a line of a trace file
+	 *
+	 * @param line line of the trace file
+	 * @return the operation
+	 * @throws IllegalArgumentException if the line is not a valid operation
+	 */
+	public static TraceOperation parse(String line) {
+		String[] fields = line.split("\t", -1);
+		if (fields[0].length() != 1) {
+			throw new IllegalArgumentException("Invalid trace line: " + line);
+		}
+		Kind kind = Kind.of(fields[0].charAt(0));
+		int field = 1;
+		try {
+			String handle = kind.hasHandle ? fields[field++] : null;
+			int ref = kind.hasRef ? Integer.parseInt(fields[field++]) : -1;
+			String message = kind.hasMessage ? fields[field++] : null;
+			if (field != fields.length) {
+				throw new IllegalArgumentException("Invalid trace line: " + line);
+			}
+			return new TraceOperation(kind, handle, ref, message);
+		} catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid trace line: " + line, e);
+		}
+	}
+
+	/**
+	 * Method to format the operation as a line of a trace file
+	 *
+	 * @return the line, without a line terminator
+	 */
+	public String format() {
+		StringBuilder line = new StringBuilder().append(kind.code);
+		if (kind.hasHandle) {
+			line.append('\t').append(handle);
+		}
+		if (kind.hasRef) {
+			line.append('\t').append(ref);
+		}
+		if (kind.hasMessage) {
+			line.append('\t').append(message);
+		}
+		return line.toString();
+	}
+
+	/**
+	 * Getter method for the kind of operation
+	 *
+	 * @return kind
+	 */
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * Getter method for the handle used
+	 *
+	 * @return handle, or null if the kind uses none
+	 */
+	public String getHandle() {
+		return handle;
+	}
+
+	/**
+	 * Getter method for the reference of the post used, i.e. its position among
+	 * the posts and comments created by the trace
+	 *
+	 * @return reference, or -1 if the kind uses none
+	 */
+	public int getRef() {
+		return ref;
+	}
+
+	/**
+	 * Getter method for the message of the post created
+	 *
+	 * @return message, or null if the kind uses none
+	 */
+	public String getMessage() {
+		return message;
+	}
+}
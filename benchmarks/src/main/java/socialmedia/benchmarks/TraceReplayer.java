@@ -0,0 +1,196 @@
+package socialmedia.benchmarks;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import socialmedia.MiniSocialMediaPlatform;
+
+/**
+ * TraceReplayer replays a trace against a platform and measures it. The setup
+ * phase runs on the calling thread; the load phase runs on a number of
+ * threads that take operations in trace order from a shared cursor, timing
+ * each call.
+ * <p>
+ * An operation referring to a post created by an earlier operation that is
+ * still running on another thread waits for it, outside of its timing. Since
+ * operations are taken in order, the operation waited for has always started,
+ * so replay never deadlocks. Calls that throw are counted as errors; they are
+ * expected now and then under concurrency, e.g. when a post is endorsed just
+ * after another thread deleted it.
+ * <p>
+ * Implementations that are not thread-safe must either be replayed on one
+ * thread, or with every call made while holding the platform's monitor.
+ *
+ * @version 1.0
+ */
+public class TraceReplayer {
+
+	// post ID of a reference not yet created, and of one whose creation failed
+	private static final int PENDING = Integer.MIN_VALUE;
+	private static final int FAILED = Integer.MIN_VALUE + 1;
+
+	private final MiniSocialMediaPlatform platform;
+	private final int threads;
+	private final boolean serialized;
+
+	/**
+	 * Constructor to create a replayer
+	 *
+	 * @param platform   platform to replay against, normally holding nothing yet
+	 * @param threads    number of threads replaying the load phase
+	 * @param serialized true to make every call while holding the monitor of the
+	 *                   platform, for implementations that are not thread-safe
+	 */
+	public TraceReplayer(MiniSocialMediaPlatform platform, int threads, boolean serialized) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("There must be at least 1 thread");
+		}
+		this.platform = platform;
+		this.threads = threads;
+		this.serialized = serialized;
+	}
+
+	/**
+	 * Per-thread latencies and errors of each kind of operation.
+	 */
+	private static final class Recorder {
+		final long[][] latencies = new long[TraceOperation.Kind.values().length][64];
+		final int[] counts = new int[latencies.length];
+		final long[] errors = new long[latencies.length];
+
+		void record(TraceOperation.Kind kind, long nanos, boolean failed) {
+			int k = kind.ordinal();
+			if (counts[k] == latencies[k].length) {
+				latencies[k] = Arrays.copyOf(latencies[k], counts[k] * 2);
+			}
+			latencies[k][counts[k]++] = nanos;
+			if (failed) {
+				errors[k]++;
+			}
+		}
+	}
+
+	/**
+	 * Method to replay a trace
+	 *
+	 * @param trace trace to replay
+	 * @return the measurements of the load phase
+	 * @throws InterruptedException if interrupted while waiting for the threads
+	 */
+	public ReplayReport replay(Trace trace) throws InterruptedException {
+		List<TraceOperation> operations = trace.getOperations();
+		AtomicIntegerArray ids = new AtomicIntegerArray(trace.getRefCount());
+		for (int i = 0; i < ids.length(); i++) {
+			ids.set(i, PENDING);
+		}
+		Recorder setup = new Recorder();
+		for (int i = 0; i < trace.getSetupCount(); i++) {
+			execute(operations.get(i), trace.createdRef(i), ids, setup);
+		}
+
+		AtomicInteger cursor = new AtomicInteger(trace.getSetupCount());
+		Recorder[] recorders = new Recorder[threads];
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			Recorder recorder = new Recorder();
+			recorders[t] = recorder;
+			workers[t] = new Thread(() -> {
+				int i;
+				while ((i = cursor.getAndIncrement()) < operations.size()) {
+					execute(operations.get(i), trace.createdRef(i), ids, recorder);
+				}
+			}, "trace-replay-" + t);
+		}
+		long start = System.nanoTime();
+		for (Thread worker : workers) {
+			worker.start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		long elapsed = System.nanoTime() - start;
+
+		EnumMap<TraceOperation.Kind, ReplayReport.OperationStats> stats = new EnumMap<>(TraceOperation.Kind.class);
+		for (TraceOperation.Kind kind : TraceOperation.Kind.values()) {
+			int k = kind.ordinal();
+			int count = 0;
+			long errors = 0;
+			for (Recorder r : recorders) {
+				count += r.counts[k];
+				errors += r.errors[k];
+			}
+			if (count == 0) {
+				continue;
+			}
+			long[] latencies = new long[count];
+			int n = 0;
+			for (Recorder r : recorders) {
+				System.arraycopy(r.latencies[k], 0, latencies, n, r.counts[k]);
+				n += r.counts[k];
+			}
+			stats.put(kind, new ReplayReport.OperationStats(latencies, errors));
+		}
+		return new ReplayReport(platform.getClass().getSimpleName(), threads, elapsed, stats);
+	}
+
+	private void execute(TraceOperation operation, int createdRef, AtomicIntegerArray ids, Recorder recorder) {
+		int target = operation.getRef() < 0 ? 0 : await(ids, operation.getRef());
+		int result = FAILED;
+		boolean failed = false;
+		long start = System.nanoTime();
+		try {
+			if (target == FAILED) {
+				throw new IllegalStateException("Post " + operation.getRef() + " was never created");
+			}
+			if (serialized) {
+				synchronized (platform) {
+					result = call(operation, target);
+				}
+			} else {
+				result = call(operation, target);
+			}
+		} catch (Exception e) {
+			failed = true;
+		}
+		long nanos = System.nanoTime() - start;
+		if (createdRef >= 0) {
+			ids.set(createdRef, failed ? FAILED : result);
+		}
+		recorder.record(operation.getKind(), nanos, failed);
+	}
+
+	private static int await(AtomicIntegerArray ids, int ref) {
+		int id;
+		while ((id = ids.get(ref)) == PENDING) {
+			Thread.onSpinWait();
+		}
+		return id;
+	}
+
+	private int call(TraceOperation operation, int target) throws Exception {
+		switch (operation.getKind()) {
+		case CREATE_ACCOUNT:
+			return platform.createAccount(operation.getHandle());
+		case CREATE_POST:
+			return platform.createPost(operation.getHandle(), operation.getMessage());
+		case COMMENT_POST:
+			return platform.commentPost(operation.getHandle(), target, operation.getMessage());
+		case ENDORSE_POST:
+			return platform.endorsePost(operation.getHandle(), target);
+		case DELETE_POST:
+			platform.deletePost(target);
+			return 0;
+		case SHOW_INDIVIDUAL_POST:
+			return platform.showIndividualPost(target) == null ? 0 : 1;
+		case SHOW_POST_CHILDREN_DETAILS:
+			return platform.showPostChildrenDetails(target) == null ? 0 : 1;
+		case SHOW_ACCOUNT:
+			return platform.showAccount(operation.getHandle()) == null ? 0 : 1;
+		default:
+			return platform.getMostEndorsedPost();
+		}
+	}
+}
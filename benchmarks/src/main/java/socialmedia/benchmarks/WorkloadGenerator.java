@@ -0,0 +1,270 @@
+package socialmedia.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+/**
+ * WorkloadGenerator produces reproducible workload traces that look like the
+ * traffic of a real platform rather than uniform random calls:
+ * <ul>
+ * <li>account activity follows a power law, a few accounts writing and being
+ * looked up most;</li>
+ * <li>posts gain comments, endorsements and reads by preferential attachment,
+ * each new interaction picking a post in proportion to the interactions it
+ * already had, so their popularity follows a power law too;</li>
+ * <li>some comments continue long reply chains, giving deep threads;</li>
+ * <li>the share of reads and writes is configurable.</li>
+ * </ul>
+ * The platform has no followers, so the skew of account activity and of
+ * endorsements received stands for the follower distribution.
+ *
+ * @version 1.0
+ */
+public class WorkloadGenerator {
+
+	// number of reply chains grown at once, and chance of each comment ending one
+	private static final int CHAINS = 8;
+	private static final double CHAIN_END_PROBABILITY = 0.01;
+	// exponent skewing account choices towards the most active accounts
+	private static final double ACCOUNT_SKEW = 3.0;
+
+	private final long seed;
+	private int accounts = 1000;
+	private int initialPosts = 10000;
+	private int operations = 100000;
+	private double readFraction = 0.9;
+	private double chainProbability = 0.2;
+	private double popularity = 0.8;
+
+	// state of a generation
+	private SplittableRandom random;
+	private ArrayList<TraceOperation> trace;
+	private int refCount;
+	private BitSet deleted;
+	// one entry per interaction with a post, for preferential attachment
+	private int[] interactions;
+	private int interactionCount;
+	private int[] chainTips;
+
+	/**
+	 * Constructor to create a generator
+	 *
+	 * @param seed seed of the random choices; the same settings and seed always
+	 *             give the same trace
+	 */
+	public WorkloadGenerator(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Setter method for the number of accounts created during setup
+	 *
+	 * @param accounts number of accounts, at least 1
+	 */
+	public void setAccounts(int accounts) {
+		if (accounts < 1) {
+			throw new IllegalArgumentException("There must be at least 1 account");
+		}
+		this.accounts = accounts;
+	}
+
+	/**
+	 * Setter method for the number of posts, comments and endorsements created
+	 * during setup
+	 *
+	 * @param initialPosts number of posts
+	 */
+	public void setInitialPosts(int initialPosts) {
+		this.initialPosts = Math.max(0, initialPosts);
+	}
+
+	/**
+	 * Setter method for the number of operations of the measured load phase
+	 *
+	 * @param operations number of operations
+	 */
+	public void setOperations(int operations) {
+		this.operations = Math.max(0, operations);
+	}
+
+	/**
+	 * Setter method for the share of reads in the load phase
+	 *
+	 * @param readFraction between 0 and 1
+	 */
+	public void setReadFraction(double readFraction) {
+		this.readFraction = checkFraction(readFraction);
+	}
+
+	/**
+	 * Setter method for the chance of a comment continuing a reply chain rather
+	 * than replying to a popular post
+	 *
+	 * @param chainProbability between 0 and 1
+	 */
+	public void setChainProbability(double chainProbability) {
+		this.chainProbability = checkFraction(chainProbability);
+	}
+
+	/**
+	 * Setter method for the chance of an interaction picking a post by
+	 * popularity rather than uniformly
+	 *
+	 * @param popularity between 0 and 1; higher values give a steeper power law
+	 */
+	public void setPopularity(double popularity) {
+		this.popularity = checkFraction(popularity);
+	}
+
+	private static double checkFraction(double fraction) {
+		if (!(fraction >= 0 && fraction <= 1)) {
+			throw new IllegalArgumentException("Fraction must be between 0 and 1");
+		}
+		return fraction;
+	}
+
+	/**
+	 * Method to generate a trace
+	 *
+	 * @return the trace
+	 */
+	public Trace generate() {
+		random = new SplittableRandom(seed);
+		trace = new ArrayList<>(accounts + initialPosts + operations);
+		refCount = 0;
+		deleted = new BitSet();
+		interactions = new int[1024];
+		interactionCount = 0;
+		chainTips = new int[CHAINS];
+		Arrays.fill(chainTips, -1);
+
+		for (int i = 0; i < accounts; i++) {
+			trace.add(new TraceOperation(TraceOperation.Kind.CREATE_ACCOUNT, "user" + i, -1, null));
+		}
+		for (int i = 0; i < initialPosts; i++) {
+			writeOperation(false);
+		}
+		int setupCount = trace.size();
+		for (int i = 0; i < operations; i++) {
+			if (random.nextDouble() < readFraction) {
+				readOperation();
+			} else {
+				writeOperation(true);
+			}
+		}
+		Trace result = new Trace(trace, setupCount);
+		trace = null;
+		return result;
+	}
+
+	/**
+	 * Method to generate a trace and write it to a file
+	 *
+	 * @param file trace file
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(Path file) throws IOException {
+		generate().write(file);
+	}
+
+	private void writeOperation(boolean mayDelete) {
+		double kind = random.nextDouble();
+		if (refCount == 0 || kind < 0.30) {
+			trace.add(new TraceOperation(TraceOperation.Kind.CREATE_POST, handle(), -1, message()));
+			created();
+		} else if (kind < 0.70) {
+			comment();
+		} else if (kind < 0.95 || !mayDelete) {
+			int ref = popularPost();
+			trace.add(new TraceOperation(TraceOperation.Kind.ENDORSE_POST, handle(), ref, null));
+			interacted(ref);
+		} else {
+			// takedowns hit posts regardless of popularity
+			int ref = anyPost();
+			trace.add(new TraceOperation(TraceOperation.Kind.DELETE_POST, null, ref, null));
+			deleted.set(ref);
+		}
+	}
+
+	private void comment() {
+		int chain = random.nextInt(CHAINS);
+		int parent;
+		if (chainTips[chain] >= 0 && !deleted.get(chainTips[chain]) && random.nextDouble() < chainProbability) {
+			parent = chainTips[chain];
+		} else {
+			parent = popularPost();
+		}
+		trace.add(new TraceOperation(TraceOperation.Kind.COMMENT_POST, handle(), parent, message()));
+		interacted(parent);
+		int comment = created();
+		// the comment becomes the tip of its chain, until the chain ends
+		chainTips[chain] = random.nextDouble() < CHAIN_END_PROBABILITY ? -1 : comment;
+	}
+
+	private void readOperation() {
+		double kind = random.nextDouble();
+		if (refCount == 0 || kind < 0.05) {
+			trace.add(new TraceOperation(TraceOperation.Kind.GET_MOST_ENDORSED_POST, null, -1, null));
+		} else if (kind < 0.20) {
+			trace.add(new TraceOperation(TraceOperation.Kind.SHOW_ACCOUNT, handle(), -1, null));
+		} else if (kind < 0.40) {
+			trace.add(new TraceOperation(TraceOperation.Kind.SHOW_POST_CHILDREN_DETAILS, null, popularPost(), null));
+		} else {
+			trace.add(new TraceOperation(TraceOperation.Kind.SHOW_INDIVIDUAL_POST, null, popularPost(), null));
+		}
+	}
+
+	/**
+	 * Records a new post or comment, returning its reference.
+	 */
+	private int created() {
+		int ref = refCount++;
+		interacted(ref);
+		return ref;
+	}
+
+	private void interacted(int ref) {
+		if (interactionCount == interactions.length) {
+			interactions = Arrays.copyOf(interactions, interactionCount * 2);
+		}
+		interactions[interactionCount++] = ref;
+	}
+
+	/**
+	 * Picks a post that was not deleted, in proportion to its interactions.
+	 */
+	private int popularPost() {
+		for (int attempt = 0; attempt < 16; attempt++) {
+			int ref = random.nextDouble() < popularity ? interactions[random.nextInt(interactionCount)]
+					: random.nextInt(refCount);
+			if (!deleted.get(ref)) {
+				return ref;
+			}
+		}
+		return anyPost();
+	}
+
+	/**
+	 * Picks a post that was not deleted uniformly, or any post if all were.
+	 */
+	private int anyPost() {
+		int start = random.nextInt(refCount);
+		int ref = deleted.nextClearBit(start);
+		if (ref >= refCount) {
+			ref = deleted.nextClearBit(0);
+		}
+		return ref < refCount ? ref : start;
+	}
+
+	private String handle() {
+		return "user" + (int) (accounts * Math.pow(random.nextDouble(), ACCOUNT_SKEW));
+	}
+
+	private String message() {
+		return SyntheticGraph.MESSAGES[random.nextInt(SyntheticGraph.MESSAGES.length)];
+	}
+}
@@ -0,0 +1,82 @@
+package socialmedia.benchmarks;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * WorkloadMain generates workload traces and replays them from the command
+ * line, e.g. after {@code mvn package}:
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar socialmedia.benchmarks.WorkloadMain \
+ *     generate trace.tsv --seed 7 --accounts 10000 --posts 100000 --operations 1000000 --reads 0.9
+ * java -cp benchmarks/target/benchmarks.jar socialmedia.benchmarks.WorkloadMain \
+ *     replay trace.tsv ConcurrentSocialMedia --threads 8
+ * java -cp benchmarks/target/benchmarks.jar socialmedia.benchmarks.WorkloadMain \
+ *     replay trace.tsv SocialMedia --threads 8 --lock
+ * </pre>
+ *
+ * Implementations are named as for the JMH benchmarks, see {@link Platforms}.
+ * Use {@code --lock} to replay an implementation that is not thread-safe on
+ * several threads.
+ *
+ * @version 1.0
+ */
+public final class WorkloadMain {
+
+	private WorkloadMain() {
+	}
+
+	/**
+	 * Method to run the command given by the arguments
+	 *
+	 * @param args command and options
+	 * @throws Exception if the trace cannot be written or replayed
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length >= 2 && args[0].equals("generate")) {
+			generate(Paths.get(args[1]), args);
+		} else if (args.length >= 3 && args[0].equals("replay")) {
+			replay(Paths.get(args[1]), args[2], args);
+		} else {
+			System.err.println("Usage: WorkloadMain generate <trace> [--seed N] [--accounts N] [--posts N]"
+					+ " [--operations N] [--reads F] [--chains F] [--popularity F]");
+			System.err.println("       WorkloadMain replay <trace> <implementation> [--threads N] [--lock]");
+			System.exit(2);
+		}
+	}
+
+	private static void generate(Path file, String[] args) throws Exception {
+		WorkloadGenerator generator = new WorkloadGenerator(Long.parseLong(option(args, "--seed", "42")));
+		generator.setAccounts(Integer.parseInt(option(args, "--accounts", "1000")));
+		generator.setInitialPosts(Integer.parseInt(option(args, "--posts", "10000")));
+		generator.setOperations(Integer.parseInt(option(args, "--operations", "100000")));
+		generator.setReadFraction(Double.parseDouble(option(args, "--reads", "0.9")));
+		generator.setChainProbability(Double.parseDouble(option(args, "--chains", "0.2")));
+		generator.setPopularity(Double.parseDouble(option(args, "--popularity", "0.8")));
+		Trace trace = generator.generate();
+		trace.write(file);
+		System.out.printf("Wrote %d setup and %d load operations to %s%n", trace.getSetupCount(),
+				trace.getOperations().size() - trace.getSetupCount(), file);
+	}
+
+	private static void replay(Path file, String implementation, String[] args) throws Exception {
+		Trace trace = Trace.read(file);
+		int threads = Integer.parseInt(option(args, "--threads", "1"));
+		boolean lock = false;
+		for (String arg : args) {
+			lock |= arg.equals("--lock");
+		}
+		TraceReplayer replayer = new TraceReplayer(Platforms.create(implementation), threads, lock);
+		System.out.print(replayer.replay(trace));
+	}
+
+	private static String option(String[] args, String name, String defaultValue) {
+		for (int i = 0; i < args.length - 1; i++) {
+			if (args[i].equals(name)) {
+				return args[i + 1];
+			}
+		}
+		return defaultValue;
+	}
+}
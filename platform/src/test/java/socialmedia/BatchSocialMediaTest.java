@@ -0,0 +1,99 @@
+package socialmedia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests that a batch call of a BatchSocialMediaPlatform with one bad element
+ * changes nothing, on every platform offering batch calls.
+ *
+ * @version 1.0
+ */
+class BatchSocialMediaTest {
+
+	private static BatchSocialMediaPlatform create(String platform) {
+		return platform.equals("SocialMedia") ? new SocialMedia() : new ConcurrentSocialMedia();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "SocialMedia", "ConcurrentSocialMedia" })
+	void accountsAreCreatedTogether(String kind) throws Exception {
+		BatchSocialMediaPlatform platform = create(kind);
+		BatchSocialMediaPlatform untouched = create(kind);
+		PlatformWorkload workload = new PlatformWorkload(31);
+		workload.run(platform, 1000);
+		new PlatformWorkload(31).run(untouched, 1000);
+		platform.createAccount("taken");
+		untouched.createAccount("taken");
+
+		assertThrows(IllegalHandleException.class,
+				() -> platform.createAccounts(new String[] { "a1", "taken", "a3" }, null));
+		assertThrows(IllegalHandleException.class,
+				() -> platform.createAccounts(new String[] { "a1", "a2", "a1" }, new String[] { "x", "y", "z" }));
+		assertThrows(InvalidHandleException.class,
+				() -> platform.createAccounts(new String[] { "a1", "has space", "a3" }, null));
+		assertThrows(InvalidHandleException.class,
+				() -> platform.createAccounts(new String[] { "a1", "", "a3" }, null));
+
+		assertEquals(workload.describe(untouched), workload.describe(platform));
+		assertEquals(untouched.createAccounts(new String[] { "a1", "a2" }, null)[0],
+				platform.createAccounts(new String[] { "a1", "a2" }, null)[0]);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "SocialMedia", "ConcurrentSocialMedia" })
+	void postsAreCreatedTogether(String kind) throws Exception {
+		BatchSocialMediaPlatform platform = create(kind);
+		BatchSocialMediaPlatform untouched = create(kind);
+		PlatformWorkload workload = new PlatformWorkload(32);
+		workload.run(platform, 1000);
+		new PlatformWorkload(32).run(untouched, 1000);
+		platform.createAccount("writer");
+		untouched.createAccount("writer");
+
+		assertThrows(HandleNotRecognisedException.class, () -> platform
+				.createPosts(new String[] { "writer", "nobody", "writer" }, new String[] { "one", "two", "three" }));
+		assertThrows(InvalidPostException.class, () -> platform
+				.createPosts(new String[] { "writer", "writer", "writer" }, new String[] { "one", "", "three" }));
+		assertThrows(InvalidPostException.class, () -> platform.createPosts(new String[] { "writer", "writer" },
+				new String[] { "one", "x".repeat(101) }));
+
+		assertEquals(workload.describe(untouched), workload.describe(platform));
+		String[] handles = { "writer", "writer" };
+		String[] messages = { "one", "two" };
+		assertEquals(untouched.createPosts(handles, messages)[0], platform.createPosts(handles, messages)[0]);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "SocialMedia", "ConcurrentSocialMedia" })
+	void endorsementsAreMadeTogether(String kind) throws Exception {
+		BatchSocialMediaPlatform platform = create(kind);
+		BatchSocialMediaPlatform untouched = create(kind);
+		PlatformWorkload workload = new PlatformWorkload(33);
+		workload.run(platform, 1000);
+		new PlatformWorkload(33).run(untouched, 1000);
+		int[] ids = new int[3];
+		for (BatchSocialMediaPlatform p : new BatchSocialMediaPlatform[] { platform, untouched }) {
+			p.createAccounts(new String[] { "fan", "star" }, null);
+			ids[0] = p.createPost("star", "first");
+			ids[1] = p.createPost("star", "second");
+			ids[2] = p.endorsePost("star", ids[0]);
+		}
+
+		assertThrows(HandleNotRecognisedException.class,
+				() -> platform.endorsePosts(new String[] { "fan", "nobody" }, new int[] { ids[0], ids[1] }));
+		assertThrows(PostIDNotRecognisedException.class,
+				() -> platform.endorsePosts(new String[] { "fan", "fan" }, new int[] { ids[0], -1 }));
+		assertThrows(NotActionablePostException.class,
+				() -> platform.endorsePosts(new String[] { "fan", "fan" }, new int[] { ids[1], ids[2] }));
+
+		assertEquals(workload.describe(untouched), workload.describe(platform));
+		String[] handles = { "fan", "fan" };
+		int[] endorsed = { ids[0], ids[1] };
+		assertEquals(untouched.endorsePosts(handles, endorsed)[0], platform.endorsePosts(handles, endorsed)[0]);
+		assertEquals(untouched.getTotalEndorsmentPosts(), platform.getTotalEndorsmentPosts());
+	}
+}
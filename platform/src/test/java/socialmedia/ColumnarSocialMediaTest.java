@@ -0,0 +1,73 @@
+package socialmedia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Differential test of ColumnarSocialMedia against SocialMedia: both are
+ * driven through the same seeded workloads and must give the same result to
+ * every call, and read each other's snapshot files.
+ *
+ * @version 1.0
+ */
+class ColumnarSocialMediaTest {
+
+	private static final int OPERATIONS = 4000;
+
+	@TempDir
+	Path directory;
+
+	@ParameterizedTest
+	@ValueSource(longs = { 41, 42, 43, 44, 45, 46, 47, 48 })
+	void behavesAsSocialMedia(long seed) {
+		SocialMedia expected = new SocialMedia();
+		ColumnarSocialMedia columnar = new ColumnarSocialMedia();
+		PlatformWorkload expectedWorkload = new PlatformWorkload(seed);
+		PlatformWorkload columnarWorkload = new PlatformWorkload(seed);
+
+		List<String> expectedTranscript = expectedWorkload.run(expected, OPERATIONS);
+		List<String> columnarTranscript = columnarWorkload.run(columnar, OPERATIONS);
+		for (int i = 0; i < OPERATIONS; i++) {
+			assertEquals(expectedTranscript.get(i), columnarTranscript.get(i), "call " + i);
+		}
+		assertEquals(expectedWorkload.describe(expected), columnarWorkload.describe(columnar));
+	}
+
+	@ParameterizedTest
+	@ValueSource(longs = { 51, 52 })
+	void readsTheSnapshotsOfSocialMedia(long seed) throws Exception {
+		Path file = directory.resolve("platform.smps");
+		PlatformWorkload workload = new PlatformWorkload(seed);
+		SocialMedia saved = new SocialMedia();
+		workload.run(saved, OPERATIONS);
+		saved.savePlatform(file.toString());
+
+		ColumnarSocialMedia columnar = new ColumnarSocialMedia();
+		columnar.loadPlatform(file.toString());
+		assertEquals(workload.describe(saved), workload.describe(columnar));
+		String handle = workload.liveHandle(saved);
+		assertEquals(saved.createPost(handle, "next"), columnar.createPost(handle, "next"));
+	}
+
+	@ParameterizedTest
+	@ValueSource(longs = { 61, 62 })
+	void writesSnapshotsSocialMediaReads(long seed) throws Exception {
+		Path file = directory.resolve("platform.smps");
+		PlatformWorkload workload = new PlatformWorkload(seed);
+		ColumnarSocialMedia saved = new ColumnarSocialMedia();
+		workload.run(saved, OPERATIONS);
+		saved.savePlatform(file.toString());
+
+		SocialMedia loaded = new SocialMedia();
+		loaded.loadPlatform(file.toString());
+		assertEquals(workload.describe(saved), workload.describe(loaded));
+		String handle = workload.liveHandle(saved);
+		assertEquals(saved.createPost(handle, "next"), loaded.createPost(handle, "next"));
+	}
+}
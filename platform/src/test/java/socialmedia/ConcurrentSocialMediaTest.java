@@ -0,0 +1,171 @@
+package socialmedia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Stress test of a ConcurrentSocialMedia platform called from several threads
+ * at once: workers create accounts, posts, comments and endorsements while
+ * another thread deletes posts. No ID may be handed out twice, no call may
+ * fail other than on a post deleted under it, and the platform must add up
+ * and save and load intact once the threads are done.
+ *
+ * @version 1.0
+ */
+class ConcurrentSocialMediaTest {
+
+	private static final int WORKERS = 4;
+	private static final int OPERATIONS = 4000;
+
+	@TempDir
+	Path directory;
+
+	// every post and comment created, which workers and the deleter pick from
+	private final List<Integer> shared = Collections.synchronizedList(new ArrayList<>());
+	// every ID handed out, and the endorsement ID of each account and post
+	private final Set<Integer> postIds = ConcurrentHashMap.newKeySet();
+	private final Set<Integer> accountIds = ConcurrentHashMap.newKeySet();
+	private final Map<String, Integer> endorsements = new ConcurrentHashMap<>();
+	private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 16 })
+	void concurrentCallsKeepThePlatformConsistent(int idBlockSize) throws Exception {
+		ConcurrentSocialMedia platform = new ConcurrentSocialMedia(idBlockSize);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicBoolean working = new AtomicBoolean(true);
+		List<Thread> workers = new ArrayList<>();
+		for (int w = 0; w < WORKERS; w++) {
+			int worker = w;
+			workers.add(new Thread(() -> work(platform, worker, start)));
+		}
+		Thread deleter = new Thread(() -> delete(platform, start, working));
+		workers.forEach(Thread::start);
+		deleter.start();
+		start.countDown();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		working.set(false);
+		deleter.join();
+
+		assertEquals(Collections.emptyList(), failures);
+		assertEquals(accountIds.size(), platform.getNumberOfAccounts());
+		// every post still shown is counted once, and every counted post is shown
+		List<String> shown = show(platform);
+		int total = platform.getTotalOriginalPosts() + platform.getTotalCommentPosts()
+				+ platform.getTotalEndorsmentPosts();
+		assertEquals(total, shown.size());
+		assertTrue(shown.size() < postIds.size(), "nothing was deleted");
+
+		Path file = directory.resolve("platform.ser");
+		platform.savePlatform(file.toString());
+		ConcurrentSocialMedia loaded = new ConcurrentSocialMedia(idBlockSize);
+		loaded.loadPlatform(file.toString());
+		assertEquals(platform.getNumberOfAccounts(), loaded.getNumberOfAccounts());
+		assertEquals(platform.getTotalOriginalPosts(), loaded.getTotalOriginalPosts());
+		assertEquals(platform.getTotalCommentPosts(), loaded.getTotalCommentPosts());
+		assertEquals(platform.getTotalEndorsmentPosts(), loaded.getTotalEndorsmentPosts());
+		assertEquals(shown, show(loaded));
+	}
+
+	private void work(ConcurrentSocialMedia platform, int worker, CountDownLatch start) {
+		Random random = new Random(worker);
+		List<String> handles = new ArrayList<>();
+		try {
+			start.await();
+			for (int step = 0; step < OPERATIONS; step++) {
+				int kind = handles.isEmpty() ? 0 : random.nextInt(10);
+				String handle = handles.isEmpty() ? null : handles.get(random.nextInt(handles.size()));
+				int postId = 0;
+				synchronized (shared) {
+					if (!shared.isEmpty()) {
+						postId = shared.get(random.nextInt(shared.size()));
+					}
+				}
+				try {
+					if (kind == 0) {
+						String created = "w" + worker + "-" + step;
+						unique(accountIds, platform.createAccount(created));
+						handles.add(created);
+					} else if (kind < 4 || postId == 0) {
+						shared.add(unique(postIds, platform.createPost(handle, "post " + step)));
+					} else if (kind < 7) {
+						shared.add(unique(postIds, platform.commentPost(handle, postId, "comment " + step)));
+					} else {
+						int endorsementId = platform.endorsePost(handle, postId);
+						Integer previous = endorsements.putIfAbsent(handle + "/" + postId, endorsementId);
+						if (previous == null) {
+							unique(postIds, endorsementId);
+						} else if (previous != endorsementId) {
+							failures.add(handle + " endorsed " + postId + " as " + previous + " and " + endorsementId);
+						}
+					}
+				} catch (PostIDNotRecognisedException e) {
+					// deleted by the deleter since it was picked
+				}
+			}
+		} catch (Exception e) {
+			failures.add("worker " + worker + ": " + e);
+		}
+	}
+
+	private void delete(ConcurrentSocialMedia platform, CountDownLatch start, AtomicBoolean working) {
+		Random random = new Random(-1);
+		try {
+			start.await();
+			while (working.get()) {
+				int postId;
+				synchronized (shared) {
+					if (shared.isEmpty()) {
+						continue;
+					}
+					postId = shared.get(random.nextInt(shared.size()));
+				}
+				try {
+					platform.deletePost(postId);
+				} catch (PostIDNotRecognisedException e) {
+					// deleted before
+				}
+				Thread.sleep(0, 100_000);
+			}
+		} catch (Exception e) {
+			failures.add("deleter: " + e);
+		}
+	}
+
+	private int unique(Set<Integer> ids, int id) {
+		if (!ids.add(id)) {
+			failures.add("ID " + id + " handed out twice");
+		}
+		return id;
+	}
+
+	private List<String> show(SocialMediaPlatform platform) {
+		List<String> shown = new ArrayList<>();
+		for (int id : new ArrayList<>(postIds)) {
+			try {
+				shown.add(platform.showIndividualPost(id));
+			} catch (PostIDNotRecognisedException e) {
+				// deleted
+			}
+		}
+		Collections.sort(shown);
+		return shown;
+	}
+}
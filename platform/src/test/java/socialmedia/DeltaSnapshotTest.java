@@ -0,0 +1,127 @@
+package socialmedia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of saving the changes of a SocialMedia platform as delta snapshots,
+ * loading them, and merging them into their snapshot.
+ *
+ * @version 1.0
+ */
+class DeltaSnapshotTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void deltasAreAppliedWhenLoading() throws Exception {
+		Path file = directory.resolve("platform.smps");
+		PlatformWorkload workload = new PlatformWorkload(11);
+		SocialMedia platform = new SocialMedia();
+		platform.setCompactionThreshold(100);
+		workload.run(platform, 1000);
+		platform.savePlatform(file.toString());
+
+		for (int round = 1; round <= 4; round++) {
+			workload.run(platform, 500);
+			platform.saveChanges(file.toString());
+			assertEquals(round, DeltaSnapshot.list(file).size());
+
+			// a platform loaded from the file carries on saving its deltas
+			SocialMedia loaded = new SocialMedia();
+			loaded.setCompactionThreshold(100);
+			loaded.loadPlatform(file.toString());
+			assertEquals(workload.describe(platform), workload.describe(loaded));
+			platform = loaded;
+		}
+	}
+
+	@Test
+	void deltasAreMergedIntoTheSnapshot() throws Exception {
+		Path file = directory.resolve("platform.smps");
+		PlatformWorkload workload = new PlatformWorkload(12);
+		SocialMedia platform = new SocialMedia();
+		platform.setCompactionThreshold(3);
+		workload.run(platform, 1000);
+		platform.savePlatform(file.toString());
+
+		for (int round = 0; round < 10; round++) {
+			workload.run(platform, 300);
+			platform.saveChanges(file.toString());
+			platform.awaitCompaction();
+			assertTrue(DeltaSnapshot.list(file).size() < 3, DeltaSnapshot.list(file).toString());
+		}
+		assertFalse(temporaryFiles());
+
+		SocialMedia loaded = new SocialMedia();
+		loaded.loadPlatform(file.toString());
+		assertEquals(workload.describe(platform), workload.describe(loaded));
+		String handle = workload.liveHandle(platform);
+		assertEquals(platform.createPost(handle, "next"), loaded.createPost(handle, "next"));
+	}
+
+	@Test
+	void erasedPlatformIsSavedWhole() throws Exception {
+		Path file = directory.resolve("platform.smps");
+		PlatformWorkload workload = new PlatformWorkload(13);
+		SocialMedia platform = new SocialMedia();
+		platform.setCompactionThreshold(100);
+		workload.run(platform, 500);
+		platform.savePlatform(file.toString());
+		workload.run(platform, 500);
+		platform.saveChanges(file.toString());
+
+		platform.erasePlatform();
+		platform.saveChanges(file.toString());
+		assertEquals(Collections.emptyList(), DeltaSnapshot.list(file));
+
+		SocialMedia loaded = new SocialMedia();
+		loaded.loadPlatform(file.toString());
+		assertEquals(0, loaded.getNumberOfAccounts());
+		assertEquals(0, loaded.getTotalOriginalPosts());
+		assertEquals(loaded.createAccount("first"), platform.createAccount("first"));
+	}
+
+	@Test
+	void failedWriteLeavesNoFileBehind() throws Exception {
+		Path file = directory.resolve("platform.smps");
+		SocialMedia platform = new SocialMedia();
+		platform.createAccount("writer");
+		platform.savePlatform(file.toString());
+
+		// the disk fills up once the file is half written
+		IOException full = new IOException("No space left on device");
+		Account writer = new Account(1000, "writer");
+		Post post = new Post(1000, writer, "never saved");
+		IOException thrown = assertThrows(IOException.class,
+				() -> DeltaSnapshot.write(file, 1, List.of(writer), Collections.emptyList(), List.of(post),
+						Collections.emptyList(), 1001, 1001, channel -> new FailingSnapshotWriter(channel, full)));
+		assertSame(full, thrown);
+		assertEquals(Collections.emptyList(), DeltaSnapshot.list(file));
+		assertFalse(temporaryFiles());
+
+		SocialMedia loaded = new SocialMedia();
+		loaded.loadPlatform(file.toString());
+		assertEquals(1, loaded.getNumberOfAccounts());
+	}
+
+	private boolean temporaryFiles() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.anyMatch(f -> f.getFileName().toString().endsWith(".tmp"));
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package socialmedia;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of the endorser analytics of SocialMedia: an account endorses a post at
+ * most once, and the endorsers kept for each author follow every change to
+ * the endorsements of their posts.
+ *
+ * @version 1.0
+ */
+class EndorserAnalyticsTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void repeatEndorsementReturnsTheFirst() throws Exception {
+		SocialMedia platform = new SocialMedia();
+		platform.createAccount("star");
+		int fan = platform.createAccount("fan");
+		int post = platform.createPost("star", "endorse me");
+
+		int endorsement = platform.endorsePost("fan", post);
+		assertEquals(endorsement, platform.endorsePost("fan", post));
+		assertArrayEquals(new int[] { endorsement, endorsement },
+				platform.endorsePosts(new String[] { "fan", "fan" }, new int[] { post, post }));
+		assertEquals(1, platform.getTotalEndorsmentPosts());
+		assertTrue(platform.showIndividualPost(post).contains("No. endorsements: 1 "));
+		assertArrayEquals(new int[] { fan }, platform.getEndorsers(post));
+
+		// once the endorsement is deleted, endorsing again makes a new one
+		platform.deletePost(endorsement);
+		assertFalse(platform.hasEndorsed("fan", post));
+		int again = platform.endorsePost("fan", post);
+		assertNotEquals(endorsement, again);
+		assertEquals(1, platform.getTotalEndorsmentPosts());
+	}
+
+	@Test
+	void endorsersOfAuthorsFollowEveryChange() throws Exception {
+		Random random = new Random(81);
+		SocialMedia platform = new SocialMedia();
+		List<String> handles = new ArrayList<>();
+		// posts and comments by author, and the endorsements made
+		Map<String, List<Integer>> postsByAuthor = new HashMap<>();
+		List<Integer> postIds = new ArrayList<>();
+		List<Integer> endorsementIds = new ArrayList<>();
+		for (int step = 0; step < 20_000; step++) {
+			int operation = handles.size() < 5 ? 0 : random.nextInt(20);
+			String handle = handles.isEmpty() ? null : handles.get(random.nextInt(handles.size()));
+			int postId = postIds.isEmpty() ? 0 : postIds.get(random.nextInt(postIds.size()));
+			try {
+				if (operation == 0) {
+					String created = "u" + step;
+					platform.createAccount(created);
+					handles.add(created);
+				} else if (operation < 7) {
+					int created = operation < 4 || postId == 0 ? platform.createPost(handle, "post " + step)
+							: platform.commentPost(handle, postId, "comment " + step);
+					postIds.add(created);
+					postsByAuthor.computeIfAbsent(handle, h -> new ArrayList<>()).add(created);
+				} else if (operation < 16) {
+					endorsementIds.add(platform.endorsePost(handle, postId));
+				} else if (operation < 18 && !endorsementIds.isEmpty()) {
+					platform.deletePost(endorsementIds.remove(random.nextInt(endorsementIds.size())));
+				} else if (operation < 19) {
+					platform.deletePost(postId);
+				} else {
+					platform.removeAccount(handle);
+					handles.remove(handle);
+				}
+			} catch (PostIDNotRecognisedException e) {
+				// deleted before, directly or with its author
+			}
+			if (step % 500 == 0) {
+				assertEndorsersOfAuthors(platform, handles, postsByAuthor);
+			}
+		}
+		assertEndorsersOfAuthors(platform, handles, postsByAuthor);
+
+		Path file = directory.resolve("platform.smps");
+		platform.savePlatform(file.toString());
+		SocialMedia loaded = new SocialMedia();
+		loaded.loadPlatform(file.toString());
+		assertEndorsersOfAuthors(loaded, handles, postsByAuthor);
+	}
+
+	/**
+	 * Compares the endorsers kept for each author with the union of the
+	 * endorsers of the posts the author still has.
+	 */
+	private static void assertEndorsersOfAuthors(SocialMedia platform, List<String> handles,
+			Map<String, List<Integer>> postsByAuthor) throws Exception {
+		for (String handle : handles) {
+			TreeSet<Integer> expected = new TreeSet<>();
+			for (int postId : postsByAuthor.getOrDefault(handle, List.of())) {
+				try {
+					for (int endorser : platform.getEndorsers(postId)) {
+						expected.add(endorser);
+					}
+				} catch (PostIDNotRecognisedException e) {
+					// deleted
+				}
+			}
+			int[] kept = platform.getCommonAccountEndorsers(handle, handle);
+			assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), kept, handle);
+		}
+	}
+}
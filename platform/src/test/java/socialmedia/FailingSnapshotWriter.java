@@ -0,0 +1,34 @@
+package socialmedia;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * FailingSnapshotWriter writes a snapshot file as SnapshotWriter does up to its
+ * checksum, where it fails as a full disk would, so the file is left half
+ * written.
+ *
+ * @version 1.0
+ */
+final class FailingSnapshotWriter extends SnapshotWriter {
+
+	private final IOException failure;
+
+	/**
+	 * Constructor to create a writer failing before the checksum
+	 *
+	 * @param channel channel to write to
+	 * @param failure exception thrown instead of writing the checksum
+	 */
+	FailingSnapshotWriter(FileChannel channel, IOException failure) {
+		super(channel);
+		this.failure = failure;
+	}
+
+	@Override
+	public void writeChecksum() throws IOException {
+		// everything before the checksum reaches the file
+		flush();
+		throw failure;
+	}
+}
@@ -0,0 +1,73 @@
+package socialmedia;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of HeapLeaderboard against a ranking made by sorting every count.
+ *
+ * @version 1.0
+ */
+class HeapLeaderboardTest {
+
+	@Test
+	void ranksAsSortedCounts() {
+		Random random = new Random(71);
+		HeapLeaderboard leaderboard = new HeapLeaderboard();
+		Map<Integer, Integer> counts = new HashMap<>();
+		for (int step = 0; step < 50_000; step++) {
+			int id = 1000 + random.nextInt(300);
+			int operation = random.nextInt(10);
+			if (operation == 0) {
+				leaderboard.remove(id);
+				counts.remove(id);
+			} else if (operation < 3 || !counts.containsKey(id)) {
+				int count = random.nextInt(20);
+				leaderboard.track(id, count);
+				counts.put(id, count);
+			} else {
+				// counts never go below 0, as endorsements of a post never do
+				int delta = Math.max(random.nextInt(5) - 2, -counts.get(id));
+				leaderboard.add(id, delta);
+				counts.merge(id, delta, Integer::sum);
+			}
+
+			assertEquals(counts.getOrDefault(id, 0), leaderboard.getCount(id));
+			int[] expected = ranking(counts);
+			assertEquals(expected.length == 0 ? 0 : expected[0], leaderboard.top());
+			if (step % 100 == 0) {
+				int k = random.nextInt(counts.size() + 5);
+				int[] top = new int[Math.min(k, expected.length)];
+				System.arraycopy(expected, 0, top, 0, top.length);
+				assertArrayEquals(top, leaderboard.top(k));
+			}
+		}
+		leaderboard.clear();
+		assertEquals(0, leaderboard.top());
+		assertArrayEquals(new int[0], leaderboard.top(10));
+	}
+
+	@Test
+	void untrackedIdsAreIgnored() {
+		HeapLeaderboard leaderboard = new HeapLeaderboard();
+		leaderboard.track(1001, 2);
+		leaderboard.add(1002, 5);
+		leaderboard.remove(1003);
+		assertEquals(0, leaderboard.getCount(1002));
+		assertArrayEquals(new int[] { 1001 }, leaderboard.top(3));
+	}
+
+	private static int[] ranking(Map<Integer, Integer> counts) {
+		return counts.entrySet().stream()
+				.sorted(Comparator.comparing(Map.Entry<Integer, Integer>::getValue).reversed()
+						.thenComparing(Map.Entry::getKey))
+				.mapToInt(Map.Entry::getKey).toArray();
+	}
+}
@@ -0,0 +1,222 @@
+package socialmedia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of snapshot files answered straight from memory, through MappedSnapshot
+ * and SocialMedia's openPlatform.
+ *
+ * @version 1.0
+ */
+class MappedSnapshotTest {
+
+	// positions in the footer of the post and account index positions
+	private static final int POST_INDEX = 8;
+	private static final int ACCOUNT_INDEX = 16;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void mappedFileShowsWhatTheLoadedOneDoes() throws Exception {
+		Path file = directory.resolve("platform.smps");
+		PlatformWorkload workload = new PlatformWorkload(32);
+		SocialMedia saved = new SocialMedia();
+		workload.run(saved, 3000);
+		saved.savePlatform(file.toString());
+		SocialMedia loaded = new SocialMedia();
+		loaded.loadPlatform(file.toString());
+
+		MappedSnapshot snapshot = MappedSnapshot.open(file);
+		assertEquals(loaded.getNumberOfAccounts(), snapshot.getNumberOfAccounts());
+		assertEquals(loaded.getTotalOriginalPosts(), snapshot.getTotalOriginalPosts());
+		assertEquals(loaded.getTotalCommentPosts(), snapshot.getTotalCommentPosts());
+		assertEquals(loaded.getTotalEndorsmentPosts(), snapshot.getTotalEndorsmentPosts());
+		for (String handle : workload.getHandles()) {
+			assertEquals(show(() -> loaded.showAccount(handle)), show(() -> snapshot.showAccount(handle)), handle);
+		}
+		int endorsements = 0;
+		for (int id : workload.getPostIds()) {
+			String shown = show(() -> loaded.showIndividualPost(id));
+			assertEquals(shown, show(() -> snapshot.showIndividualPost(id)), String.valueOf(id));
+			endorsements += shown.contains("EP@") ? 1 : 0;
+		}
+		// endorsement messages are made from the endorsed post and its author
+		assertTrue(endorsements > 0);
+
+		// a platform opened from the file shows the same while it warms up
+		SocialMedia opened = new SocialMedia();
+		opened.openPlatform(file.toString());
+		assertEquals(workload.describe(loaded), workload.describe(opened));
+		opened.awaitWarmUp();
+		String handle = workload.liveHandle(saved);
+		assertEquals(saved.createPost(handle, "next"), opened.createPost(handle, "next"));
+	}
+
+	@Test
+	void fileWithDeltasIsLoadedAtOnce() throws Exception {
+		Path file = directory.resolve("platform.smps");
+		PlatformWorkload workload = new PlatformWorkload(33);
+		SocialMedia saved = new SocialMedia();
+		workload.run(saved, 1000);
+		saved.savePlatform(file.toString());
+		workload.run(saved, 500);
+		saved.saveChanges(file.toString());
+		assertEquals(1, DeltaSnapshot.list(file).size());
+
+		// the mapped file would miss the changes in the delta
+		SocialMedia opened = new SocialMedia();
+		opened.openPlatform(file.toString());
+		assertEquals(workload.describe(saved), workload.describe(opened));
+		opened.awaitWarmUp();
+	}
+
+	@Test
+	void fileThatCannotBeMappedIsRefused() throws Exception {
+		Path file = directory.resolve("platform.smps");
+		SocialMedia saved = new SocialMedia();
+		saved.createAccount("writer");
+		saved.savePlatform(file.toString());
+		// the post index starts past the footer
+		putLong(file, footerPosition(file, POST_INDEX), Long.MAX_VALUE);
+
+		SocialMedia platform = new SocialMedia();
+		platform.createAccount("kept");
+		assertThrows(IOException.class, () -> platform.openPlatform(file.toString()));
+		assertEquals(1, platform.getNumberOfAccounts());
+		platform.showAccount("kept");
+		platform.createAccount("accepted");
+	}
+
+	@Test
+	void recordOutsideTheFileIsReported() throws Exception {
+		Path file = directory.resolve("platform.smps");
+		SocialMedia platform = new SocialMedia();
+		platform.createAccount("writer");
+		int post = platform.createPost("writer", "pointed elsewhere");
+		platform.savePlatform(file.toString());
+		// the offset of the only post points past the end of the file
+		putLong(file, footerField(file, POST_INDEX) + 4, Long.MAX_VALUE);
+
+		MappedSnapshot snapshot = MappedSnapshot.open(file);
+		assertThrows(IOException.class, () -> snapshot.showIndividualPost(post));
+	}
+
+	@Test
+	void postOfMissingAuthorIsReported() throws Exception {
+		Path file = directory.resolve("platform.smps");
+		SocialMedia platform = new SocialMedia();
+		platform.createAccount("writer");
+		int post = platform.createPost("writer", "written by nobody");
+		int endorsement = platform.endorsePost("writer", post);
+		platform.savePlatform(file.toString());
+		// the only account no longer has the ID the posts refer to
+		putInt(file, footerField(file, ACCOUNT_INDEX), 1);
+
+		MappedSnapshot snapshot = MappedSnapshot.open(file);
+		assertThrows(IOException.class, () -> snapshot.showIndividualPost(post));
+		assertThrows(IOException.class, () -> snapshot.showIndividualPost(endorsement));
+		assertThrows(PostIDNotRecognisedException.class, () -> snapshot.showIndividualPost(post + 10));
+	}
+
+	@Test
+	void failedWarmUpRefusesChangesUntilReported() throws Exception {
+		Path file = directory.resolve("platform.smps");
+		PlatformWorkload workload = new PlatformWorkload(31);
+		SocialMedia saved = new SocialMedia();
+		workload.run(saved, 500);
+		saved.savePlatform(file.toString());
+		// a flipped byte in the last record fails the checksum, not the mapping
+		long lastRecord = footerField(file, 0) - 2;
+		putByte(file, lastRecord, (byte) ~getByte(file, lastRecord));
+
+		SocialMedia platform = new SocialMedia();
+		platform.createAccount("kept");
+		String before = platform.showAccount("kept");
+		platform.openPlatform(file.toString());
+		assertThrows(UncheckedIOException.class, () -> platform.createAccount("refused"));
+		assertThrows(UncheckedIOException.class, () -> platform.updateAccountDescription("kept", "refused"));
+		// the contents from before the file was opened are kept
+		assertEquals(before, platform.showAccount("kept"));
+		assertEquals(1, platform.getNumberOfAccounts());
+
+		assertThrows(IOException.class, platform::awaitWarmUp);
+		platform.createAccount("accepted");
+		assertEquals(2, platform.getNumberOfAccounts());
+	}
+
+	/**
+	 * A call showing an account or post.
+	 */
+	private interface Shown {
+		String show() throws Exception;
+	}
+
+	/**
+	 * Shows an account or post, or the simple name of the exception thrown.
+	 */
+	private static String show(Shown call) {
+		try {
+			return call.show();
+		} catch (Exception e) {
+			return e.getClass().getSimpleName();
+		}
+	}
+
+	/**
+	 * Finds where a position is stored in the footer of a snapshot file.
+	 */
+	private static long footerPosition(Path file, int field) throws IOException {
+		return Files.size(file) - 4 - PlatformSnapshot.FOOTER_SIZE + field;
+	}
+
+	/**
+	 * Reads a position stored in the footer of a snapshot file.
+	 */
+	private static long footerField(Path file, int field) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer b = ByteBuffer.allocate(8);
+			channel.read(b, footerPosition(file, field));
+			return b.getLong(0);
+		}
+	}
+
+	private static byte getByte(Path file, long position) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer b = ByteBuffer.allocate(1);
+			channel.read(b, position);
+			return b.get(0);
+		}
+	}
+
+	private static void putByte(Path file, long position, byte value) throws IOException {
+		write(file, position, ByteBuffer.allocate(1).put(0, value));
+	}
+
+	private static void putInt(Path file, long position, int value) throws IOException {
+		write(file, position, ByteBuffer.allocate(4).putInt(0, value));
+	}
+
+	private static void putLong(Path file, long position, long value) throws IOException {
+		write(file, position, ByteBuffer.allocate(8).putLong(0, value));
+	}
+
+	private static void write(Path file, long position, ByteBuffer bytes) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.write(bytes, position);
+		}
+	}
+}
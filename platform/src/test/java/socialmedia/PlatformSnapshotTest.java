@@ -0,0 +1,92 @@
+package socialmedia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of saving a SocialMedia platform to a snapshot file and loading it
+ * back.
+ *
+ * @version 1.0
+ */
+class PlatformSnapshotTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void loadedPlatformMatchesTheSavedOne() throws Exception {
+		Path file = directory.resolve("platform.smps");
+		PlatformWorkload workload = new PlatformWorkload(21);
+		SocialMedia platform = new SocialMedia();
+		workload.run(platform, 3000);
+		platform.savePlatform(file.toString());
+
+		SocialMedia loaded = new SocialMedia();
+		loaded.createAccount("replaced");
+		loaded.loadPlatform(file.toString());
+		assertEquals(workload.describe(platform), workload.describe(loaded));
+		// IDs continue where the saved platform stopped
+		String handle = workload.liveHandle(platform);
+		assertEquals(platform.createAccount("next"), loaded.createAccount("next"));
+		assertEquals(platform.createPost(handle, "next"), loaded.createPost(handle, "next"));
+	}
+
+	@Test
+	void fileStartsWithItsFormat() throws Exception {
+		Path file = directory.resolve("platform.smps");
+		SocialMedia platform = new SocialMedia();
+		platform.createAccount("writer");
+		platform.savePlatform(file.toString());
+
+		try (InputStream in = Files.newInputStream(file)) {
+			DataInputStream data = new DataInputStream(in);
+			assertEquals(PlatformSnapshot.MAGIC, data.readInt());
+			assertEquals(PlatformSnapshot.VERSION, data.readUnsignedByte());
+		}
+	}
+
+	@Test
+	void failedWriteKeepsTheExistingFile() throws Exception {
+		Path file = directory.resolve("platform.smps");
+		PlatformWorkload workload = new PlatformWorkload(22);
+		SocialMedia platform = new SocialMedia();
+		workload.run(platform, 500);
+		platform.savePlatform(file.toString());
+
+		// the disk fills up once the file is half written
+		IOException full = new IOException("No space left on device");
+		Account writer = new Account(1000, "writer");
+		Post post = new Post(1000, writer, "never saved");
+		IOException thrown = assertThrows(IOException.class,
+				() -> PlatformSnapshot.write(file, PlatformSnapshot.source(List.of(writer), List.of(post), 1001, 1001),
+						0, channel -> new FailingSnapshotWriter(channel, full)));
+		assertSame(full, thrown);
+		try (Stream<Path> files = Files.list(directory)) {
+			assertFalse(files.anyMatch(f -> f.getFileName().toString().endsWith(".tmp")));
+		}
+
+		SocialMedia loaded = new SocialMedia();
+		loaded.loadPlatform(file.toString());
+		assertEquals(workload.describe(platform), workload.describe(loaded));
+	}
+
+	@Test
+	void missingFileIsReported() {
+		SocialMedia platform = new SocialMedia();
+		assertThrows(IOException.class, () -> platform.loadPlatform(directory.resolve("missing.smps").toString()));
+	}
+}
@@ -0,0 +1,186 @@
+package socialmedia;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * PlatformWorkload drives a platform through a random but repeatable history
+ * of calls: accounts are created, renamed, described and removed, and posts
+ * are created, commented, endorsed, deleted and shown. Two workloads with the
+ * same seed make the same calls as long as the platforms give the same
+ * results, so tests compare platforms by their transcripts and by what
+ * {@link #describe} shows of them.
+ *
+ * @version 1.0
+ */
+final class PlatformWorkload {
+
+	private final Random random;
+	// every handle and post ID handed out, including removed ones
+	private final List<String> handles = new ArrayList<>();
+	private final List<Integer> postIds = new ArrayList<>();
+	private int step;
+
+	/**
+	 * Constructor to create a workload
+	 *
+	 * @param seed seed of the random choices
+	 */
+	PlatformWorkload(long seed) {
+		random = new Random(seed);
+	}
+
+	/**
+	 * Method to make a number of calls to a platform
+	 *
+	 * @param platform   platform to call
+	 * @param operations number of calls
+	 * @return the result of each call, or the simple name of the exception it
+	 *         threw
+	 */
+	List<String> run(SocialMediaPlatform platform, int operations) {
+		List<String> transcript = new ArrayList<>(operations);
+		for (int i = 0; i < operations; i++) {
+			transcript.add(next(platform));
+		}
+		return transcript;
+	}
+
+	private String next(SocialMediaPlatform platform) {
+		step++;
+		int kind = handles.isEmpty() ? 0 : random.nextInt(20);
+		String handle = handles.isEmpty() ? null : handles.get(random.nextInt(handles.size()));
+		int postId = postIds.isEmpty() ? 1000 : postIds.get(random.nextInt(postIds.size()));
+		try {
+			switch (kind) {
+			case 0:
+			case 1:
+				String created = "u" + step;
+				int accountId = platform.createAccount(created, "about " + step);
+				handles.add(created);
+				return String.valueOf(accountId);
+			case 2:
+			case 3:
+			case 4:
+			case 5:
+				return record(platform.createPost(handle, "post " + step));
+			case 6:
+			case 7:
+			case 8:
+				return record(platform.commentPost(handle, postId, "comment " + step));
+			case 9:
+			case 10:
+			case 11:
+				return record(platform.endorsePost(handle, postId));
+			case 12:
+				platform.deletePost(postId);
+				return "deleted";
+			case 13:
+				platform.updateAccountDescription(handle, "now " + step);
+				return "described";
+			case 14:
+				String renamed = "r" + step;
+				platform.changeAccountHandle(handle, renamed);
+				handles.set(handles.indexOf(handle), renamed);
+				return "renamed";
+			case 15:
+				if (random.nextInt(4) == 0) {
+					platform.removeAccount(handle);
+					return "removed";
+				}
+				return platform.showAccount(handle);
+			case 16:
+				return platform.showIndividualPost(postId);
+			case 17:
+				return platform.showPostChildrenDetails(postId).toString();
+			case 18:
+				return platform.getMostEndorsedPost() + "/" + platform.getMostEndorsedAccount();
+			default:
+				return totals(platform);
+			}
+		} catch (IllegalHandleException | InvalidHandleException | HandleNotRecognisedException
+				| PostIDNotRecognisedException | NotActionablePostException | InvalidPostException e) {
+			return e.getClass().getSimpleName();
+		}
+	}
+
+	private String record(int postId) {
+		postIds.add(postId);
+		return String.valueOf(postId);
+	}
+
+	/**
+	 * Method to get a handle of an account the workload created and has not
+	 * removed
+	 *
+	 * @param platform platform the workload ran on
+	 * @return a current handle, or null if there is none
+	 */
+	String liveHandle(SocialMediaPlatform platform) {
+		for (String handle : handles) {
+			try {
+				platform.showAccount(handle);
+				return handle;
+			} catch (HandleNotRecognisedException e) {
+				// removed, try the next one
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Getter method for every handle the workload handed out, including those of
+	 * removed accounts
+	 *
+	 * @return the handles, in the order they were created
+	 */
+	List<String> getHandles() {
+		return Collections.unmodifiableList(handles);
+	}
+
+	/**
+	 * Getter method for every post ID the workload was handed, including those
+	 * of deleted posts
+	 *
+	 * @return the post IDs, in the order they were created
+	 */
+	List<Integer> getPostIds() {
+		return Collections.unmodifiableList(postIds);
+	}
+
+	/**
+	 * Method to describe everything the workload created on a platform: its
+	 * totals and rankings, and how each account and post is shown
+	 *
+	 * @param platform platform the workload ran on
+	 * @return the description, one line per account or post
+	 */
+	String describe(SocialMediaPlatform platform) {
+		StringBuilder description = new StringBuilder(totals(platform)).append('\n');
+		description.append(platform.getMostEndorsedPost()).append('/').append(platform.getMostEndorsedAccount())
+				.append('\n');
+		for (String handle : handles) {
+			try {
+				description.append(platform.showAccount(handle)).append('\n');
+			} catch (HandleNotRecognisedException e) {
+				description.append(handle).append(" removed\n");
+			}
+		}
+		for (int postId : postIds) {
+			try {
+				description.append(platform.showIndividualPost(postId)).append('\n');
+			} catch (PostIDNotRecognisedException e) {
+				description.append(postId).append(" deleted\n");
+			}
+		}
+		return description.toString();
+	}
+
+	private static String totals(SocialMediaPlatform platform) {
+		return platform.getNumberOfAccounts() + " accounts, " + platform.getTotalOriginalPosts() + " posts, "
+				+ platform.getTotalCommentPosts() + " comments, " + platform.getTotalEndorsmentPosts()
+				+ " endorsements";
+	}
+}
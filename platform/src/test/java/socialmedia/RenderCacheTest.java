@@ -0,0 +1,68 @@
+package socialmedia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of RenderCache: posts are shown from the cache until they change, and
+ * the least recently shown are evicted first.
+ *
+ * @version 1.0
+ */
+class RenderCacheTest {
+
+	@Test
+	void changedPostIsFormattedAgain() {
+		RenderCache cache = new RenderCache(4, 1);
+		Account author = new Account(1000, "author");
+		Post post = new Post(1000, author, "first");
+
+		String shown = cache.render(post);
+		assertEquals(post.toString(), shown);
+		assertSame(shown, cache.render(post));
+		assertEquals(1, cache.getHits());
+
+		post.setMessage("second");
+		assertEquals(post.toString(), cache.render(post));
+		author.setHandle("renamed");
+		assertEquals(post.toString(), cache.render(post));
+		assertEquals(1, cache.getHits());
+		assertEquals(3, cache.getMisses());
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	void leastRecentlyShownIsEvicted() {
+		RenderCache cache = new RenderCache(3, 1);
+		Account author = new Account(1000, "author");
+		Post[] posts = new Post[4];
+		for (int i = 0; i < posts.length; i++) {
+			posts[i] = new Post(1000 + i, author, "post " + i);
+		}
+		cache.render(posts[0]);
+		cache.render(posts[1]);
+		cache.render(posts[2]);
+		// showing the first again makes the second the least recently shown
+		cache.render(posts[0]);
+		cache.render(posts[3]);
+		assertEquals(3, cache.size());
+		assertEquals(1, cache.getHits());
+
+		cache.render(posts[0]);
+		cache.render(posts[2]);
+		cache.render(posts[3]);
+		assertEquals(4, cache.getHits());
+		cache.render(posts[1]);
+		assertEquals(4, cache.getHits());
+		assertEquals(5, cache.getMisses());
+
+		cache.remove(posts[1].getId());
+		assertEquals(2, cache.size());
+		cache.clear();
+		assertEquals(0, cache.size());
+		cache.render(posts[0]);
+		assertEquals(6, cache.getMisses());
+	}
+}
@@ -0,0 +1,147 @@
+package socialmedia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests of comment threads shown a page at a time and down to a maximum depth
+ * by every ThreadedSocialMediaPlatform.
+ *
+ * @version 1.0
+ */
+class ThreadPageTest {
+
+	private static final String CHILD = "| > ID: ";
+	private static final String GRANDCHILD = "    | > ID: ";
+
+	private ThreadedSocialMediaPlatform platform;
+	private int root;
+	// direct comments of the root, and the replies to each, in ID order
+	private final List<Integer> children = new ArrayList<>();
+	private final List<Integer> replies = new ArrayList<>();
+
+	/**
+	 * Creates a post with 25 comments of three replies each. Replies are made
+	 * between comments, so their IDs fall between those of the comments.
+	 */
+	private void createThread(Class<? extends ThreadedSocialMediaPlatform> type) throws Exception {
+		platform = type.getDeclaredConstructor().newInstance();
+		platform.createAccount("writer");
+		root = platform.createPost("writer", "root");
+		for (int i = 0; i < 25; i++) {
+			int child = platform.commentPost("writer", root, "comment " + i);
+			children.add(child);
+			for (int r = 0; r < 3; r++) {
+				replies.add(platform.commentPost("writer", child, "reply " + i + "." + r));
+			}
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(classes = { SocialMedia.class, ConcurrentSocialMedia.class })
+	void pagesFollowTheCursorToTheLastPage(Class<? extends ThreadedSocialMediaPlatform> type) throws Exception {
+		createThread(type);
+		String whole = platform.showPostChildrenDetails(root).toString();
+		String header = platform.showIndividualPost(root) + "\n|\n";
+
+		// the pages show every comment once, in order, and add up to the whole thread
+		StringBuilder pages = new StringBuilder(header);
+		List<Integer> shown = new ArrayList<>();
+		int cursor = ThreadPage.NO_CURSOR;
+		int count = 0;
+		do {
+			ThreadPage page = platform.showPostChildrenDetails(root, Integer.MAX_VALUE, 10, cursor);
+			String details = page.getDetails().toString();
+			assertTrue(details.startsWith(header), details);
+			pages.append(details, header.length(), details.length());
+			List<Integer> ids = ids(details, CHILD);
+			shown.addAll(ids);
+			count++;
+			if (page.hasNextPage()) {
+				assertEquals(10, ids.size());
+				assertEquals(ids.get(ids.size() - 1), page.getNextCursor());
+			} else {
+				assertEquals(5, ids.size());
+				assertEquals(ThreadPage.NO_CURSOR, page.getNextCursor());
+			}
+			cursor = page.getNextCursor();
+		} while (cursor != ThreadPage.NO_CURSOR);
+		assertEquals(3, count);
+		assertEquals(children, shown);
+		assertEquals(whole, pages.toString());
+
+		// a page ending with the last comment is the last page
+		ThreadPage exact = platform.showPostChildrenDetails(root, 1, 5, children.get(19));
+		assertEquals(children.subList(20, 25), ids(exact.getDetails().toString(), CHILD));
+		assertFalse(exact.hasNextPage());
+	}
+
+	@ParameterizedTest
+	@ValueSource(classes = { SocialMedia.class, ConcurrentSocialMedia.class })
+	void cursorNeedNotBeAComment(Class<? extends ThreadedSocialMediaPlatform> type) throws Exception {
+		createThread(type);
+		// a reply to the fourth comment has an ID between the fourth and the fifth
+		ThreadPage page = platform.showPostChildrenDetails(root, 1, 4, replies.get(3 * 3 + 1));
+		assertEquals(children.subList(4, 8), ids(page.getDetails().toString(), CHILD));
+		assertEquals(children.get(7), page.getNextCursor());
+
+		// a cursor after every comment shows the post alone
+		ThreadPage past = platform.showPostChildrenDetails(root, 1, 4, Integer.MAX_VALUE - 1);
+		assertEquals(platform.showIndividualPost(root) + "\n", past.getDetails().toString());
+		assertFalse(past.hasNextPage());
+	}
+
+	@ParameterizedTest
+	@ValueSource(classes = { SocialMedia.class, ConcurrentSocialMedia.class })
+	void depthAndPageSizeLimitEveryLevel(Class<? extends ThreadedSocialMediaPlatform> type) throws Exception {
+		createThread(type);
+		ThreadPage alone = platform.showPostChildrenDetails(root, 0, 10, ThreadPage.NO_CURSOR);
+		assertEquals(platform.showIndividualPost(root) + "\n", alone.getDetails().toString());
+		// no comments were paged; the count of the post shows there are some
+		assertFalse(alone.hasNextPage());
+		assertEquals(1, count(alone.getDetails().toString(), "No. comments: 25"));
+
+		// comments are shown without their replies, but with their counts
+		String shallow = platform.showPostChildrenDetails(root, 1, 30, ThreadPage.NO_CURSOR).getDetails().toString();
+		assertEquals(children, ids(shallow, CHILD));
+		assertEquals(List.of(), ids(shallow, GRANDCHILD));
+		assertEquals(25, count(shallow, "No. comments: 3"));
+
+		// below the root, only the first page of replies of each comment is shown
+		String narrow = platform.showPostChildrenDetails(root, 2, 2, ThreadPage.NO_CURSOR).getDetails().toString();
+		assertEquals(children.subList(0, 2), ids(narrow, CHILD));
+		assertEquals(List.of(replies.get(0), replies.get(1), replies.get(3), replies.get(4)), ids(narrow, GRANDCHILD));
+
+		assertThrows(IllegalArgumentException.class, () -> platform.showPostChildrenDetails(root, -1, 10, 0));
+		assertThrows(IllegalArgumentException.class, () -> platform.showPostChildrenDetails(root, 1, 0, 0));
+	}
+
+	/**
+	 * Finds the IDs of the posts whose first line starts with the given prefix.
+	 */
+	private static List<Integer> ids(String details, String prefix) {
+		List<Integer> ids = new ArrayList<>();
+		for (String line : details.split("\n")) {
+			if (line.startsWith(prefix)) {
+				ids.add(Integer.parseInt(line.substring(prefix.length())));
+			}
+		}
+		return ids;
+	}
+
+	private static int count(String details, String text) {
+		int count = 0;
+		for (int i = details.indexOf(text); i >= 0; i = details.indexOf(text, i + 1)) {
+			count++;
+		}
+		return count;
+	}
+}
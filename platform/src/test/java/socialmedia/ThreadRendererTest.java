@@ -0,0 +1,203 @@
+package socialmedia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests of comment threads rendered by every ThreadedSocialMediaPlatform, in
+ * the format documented by MiniSocialMediaPlatform's showPostChildrenDetails,
+ * whole or streamed into an Appendable.
+ *
+ * @version 1.0
+ */
+class ThreadRendererTest {
+
+	@ParameterizedTest
+	@ValueSource(classes = { SocialMedia.class, ConcurrentSocialMedia.class })
+	void rendersTheDocumentedExample(Class<? extends ThreadedSocialMediaPlatform> type) throws Exception {
+		ThreadedSocialMediaPlatform platform = type.getDeclaredConstructor().newInstance();
+		for (int user = 1; user <= 5; user++) {
+			platform.createAccount("user" + user);
+		}
+		int a = platform.createPost("user1", "I like examples.");
+		int b = platform.commentPost("user2", a, "No more than me...");
+		int c = platform.commentPost("user3", a, "Can't you do better than this?");
+		int d = platform.commentPost("user1", b, "I can prove!");
+		int e = platform.commentPost("user2", d, "prove it");
+		int f = platform.commentPost("user5", a, "where is the example?");
+		int g = platform.commentPost("user1", f, "This is the example!");
+		for (String handle : new String[] { "user2", "user3" }) {
+			platform.endorsePost(handle, a);
+		}
+		for (String handle : new String[] { "user1", "user2", "user4", "user5" }) {
+			platform.endorsePost(handle, c);
+		}
+
+		String proof = lines(
+				"ID: " + d,
+				"Account: user1",
+				"No. endorsements: 0 | No. comments: 1",
+				"I can prove!",
+				"|",
+				"| > ID: " + e,
+				"    Account: user2",
+				"    No. endorsements: 0 | No. comments: 0",
+				"    prove it");
+		String example = lines(
+				"ID: " + a,
+				"Account: user1",
+				"No. endorsements: 2 | No. comments: 3",
+				"I like examples.",
+				"|",
+				"| > ID: " + b,
+				"    Account: user2",
+				"    No. endorsements: 0 | No. comments: 1",
+				"    No more than me...",
+				"    |",
+				"    | > ID: " + d,
+				"        Account: user1",
+				"        No. endorsements: 0 | No. comments: 1",
+				"        I can prove!",
+				"        |",
+				"        | > ID: " + e,
+				"            Account: user2",
+				"            No. endorsements: 0 | No. comments: 0",
+				"            prove it",
+				"| > ID: " + c,
+				"    Account: user3",
+				"    No. endorsements: 4 | No. comments: 0",
+				"    Can't you do better than this?",
+				"| > ID: " + f,
+				"    Account: user5",
+				"    No. endorsements: 0 | No. comments: 1",
+				"    where is the example?",
+				"    |",
+				"    | > ID: " + g,
+				"        Account: user1",
+				"        No. endorsements: 0 | No. comments: 0",
+				"        This is the example!");
+		assertEquals(example, platform.showPostChildrenDetails(a).toString());
+		assertEquals(proof, platform.showPostChildrenDetails(d).toString());
+		StringBuilder streamed = new StringBuilder();
+		platform.showPostChildrenDetails(a, streamed);
+		assertEquals(example, streamed.toString());
+	}
+
+	@ParameterizedTest
+	@ValueSource(classes = { SocialMedia.class, ConcurrentSocialMedia.class })
+	void rendersDeepThreadsWithoutRecursion(Class<? extends ThreadedSocialMediaPlatform> type) throws Exception {
+		int depth = 5000;
+		ThreadedSocialMediaPlatform platform = type.getDeclaredConstructor().newInstance();
+		platform.createAccount("writer");
+		int root = platform.createPost("writer", "root");
+		int parent = root;
+		for (int level = 1; level <= depth; level++) {
+			parent = platform.commentPost("writer", parent, "reply " + level);
+		}
+
+		// a stack far too small for one call per level of the thread
+		Recorder recorder = new Recorder(false);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread renderer = new Thread(null, () -> {
+			try {
+				platform.showPostChildrenDetails(root, recorder);
+			} catch (Throwable t) {
+				failure.set(t);
+			}
+		}, "small-stack", 128 * 1024);
+		renderer.start();
+		renderer.join();
+		if (failure.get() != null) {
+			throw new AssertionError(failure.get());
+		}
+		// four lines per post, and a separator below every post but the last
+		assertEquals(4L * (depth + 1) + depth, recorder.lines);
+		assertTrue(recorder.tail.toString().endsWith("    reply " + depth + "\n"), recorder.tail.toString());
+	}
+
+	@ParameterizedTest
+	@ValueSource(classes = { SocialMedia.class, ConcurrentSocialMedia.class })
+	void streamsThroughABoundedBuffer(Class<? extends ThreadedSocialMediaPlatform> type) throws Exception {
+		ThreadedSocialMediaPlatform platform = type.getDeclaredConstructor().newInstance();
+		platform.createAccount("writer");
+		int root = platform.createPost("writer", "root");
+		for (int i = 0; i < 3000; i++) {
+			int comment = platform.commentPost("writer", root, "comment " + i);
+			if (i % 3 == 0) {
+				platform.commentPost("writer", comment, "reply " + i);
+			}
+		}
+
+		Recorder recorder = new Recorder(true);
+		platform.showPostChildrenDetails(root, recorder);
+		assertEquals(platform.showPostChildrenDetails(root).toString(), recorder.text.toString());
+		// the thread is written out a buffer at a time, each at most one post over
+		assertTrue(recorder.appends > 1, String.valueOf(recorder.appends));
+		assertTrue(recorder.largestAppend <= ThreadRenderer.DEFAULT_BUFFER_SIZE + 200,
+				String.valueOf(recorder.largestAppend));
+	}
+
+	private static String lines(String... lines) {
+		return String.join("\n", lines) + "\n";
+	}
+
+	/**
+	 * Appendable recording how it was written to: the number of appends, the
+	 * largest of them, the lines and last characters written, and optionally all
+	 * of the text.
+	 */
+	private static final class Recorder implements Appendable {
+		private static final int TAIL = 64;
+
+		final StringBuilder text;
+		final StringBuilder tail = new StringBuilder();
+		long lines;
+		int appends;
+		int largestAppend;
+
+		Recorder(boolean keepText) {
+			text = keepText ? new StringBuilder() : null;
+		}
+
+		@Override
+		public Appendable append(CharSequence csq) {
+			return append(csq, 0, csq.length());
+		}
+
+		@Override
+		public Appendable append(CharSequence csq, int start, int end) {
+			appends++;
+			largestAppend = Math.max(largestAppend, end - start);
+			for (int i = start; i < end; i++) {
+				record(csq.charAt(i));
+			}
+			return this;
+		}
+
+		@Override
+		public Appendable append(char c) {
+			appends++;
+			largestAppend = Math.max(largestAppend, 1);
+			record(c);
+			return this;
+		}
+
+		private void record(char c) {
+			if (c == '\n') {
+				lines++;
+			}
+			if (text != null) {
+				text.append(c);
+			}
+			tail.append(c);
+			if (tail.length() > 2 * TAIL) {
+				tail.delete(0, TAIL);
+			}
+		}
+	}
+}
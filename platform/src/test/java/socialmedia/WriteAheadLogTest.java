@@ -0,0 +1,217 @@
+package socialmedia;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of crash recovery from the write-ahead log of a SocialMedia platform,
+ * and from its checkpoints.
+ *
+ * @version 1.0
+ */
+class WriteAheadLogTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void recoversEveryLoggedChange() throws Exception {
+		PlatformWorkload workload = new PlatformWorkload(1);
+		SocialMedia platform = new SocialMedia();
+		platform.openLog(directory.toString(), Duration.ZERO);
+		workload.run(platform, 2000);
+		platform.closeLog();
+
+		SocialMedia recovered = new SocialMedia();
+		recovered.openLog(directory.toString(), Duration.ZERO);
+		assertEquals(workload.describe(platform), workload.describe(recovered));
+		recovered.closeLog();
+	}
+
+	@Test
+	void recordCutShortEndsTheLog() throws Exception {
+		PlatformWorkload workload = new PlatformWorkload(2);
+		SocialMedia platform = new SocialMedia();
+		platform.openLog(directory.toString(), Duration.ZERO);
+		platform.createAccount("writer");
+		workload.run(platform, 1000);
+		String beforeLastChange = workload.describe(platform);
+		Path log = onlyFile("log-");
+		long intact = Files.size(log);
+		int lost = platform.createPost("writer", "cut short by a crash");
+		long written = Files.size(log);
+		platform.closeLog();
+		// a crash in the middle of writing the last record
+		try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+			channel.truncate(intact + (written - intact) / 2);
+		}
+
+		SocialMedia recovered = new SocialMedia();
+		recovered.openLog(directory.toString(), Duration.ZERO);
+		assertEquals(beforeLastChange, workload.describe(recovered));
+		// the lost change's ID is handed out again, and logged after the cut
+		assertEquals(lost, recovered.createPost("writer", "written after recovery"));
+		recovered.closeLog();
+
+		SocialMedia again = new SocialMedia();
+		again.openLog(directory.toString(), Duration.ZERO);
+		assertTrue(again.showIndividualPost(lost).contains("written after recovery"));
+		again.closeLog();
+	}
+
+	@Test
+	void corruptedRecordEndsTheLog() throws Exception {
+		PlatformWorkload workload = new PlatformWorkload(3);
+		SocialMedia platform = new SocialMedia();
+		platform.openLog(directory.toString(), Duration.ZERO);
+		platform.createAccount("writer");
+		workload.run(platform, 500);
+		String beforeLastChange = workload.describe(platform);
+		Path log = onlyFile("log-");
+		long intact = Files.size(log);
+		platform.createPost("writer", "corrupted on disk");
+		platform.closeLog();
+		// flip a byte of the last record, after its length and checksum
+		try (FileChannel channel = FileChannel.open(log, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer b = ByteBuffer.allocate(1);
+			channel.read(b, intact + 8);
+			b.put(0, (byte) ~b.get(0)).rewind();
+			channel.write(b, intact + 8);
+		}
+
+		SocialMedia recovered = new SocialMedia();
+		recovered.openLog(directory.toString(), Duration.ZERO);
+		assertEquals(beforeLastChange, workload.describe(recovered));
+		recovered.closeLog();
+	}
+
+	@Test
+	void checkpointIsFollowedByTheLogsAfterIt() throws Exception {
+		PlatformWorkload workload = new PlatformWorkload(4);
+		SocialMedia platform = new SocialMedia();
+		platform.openLog(directory.toString(), Duration.ZERO);
+		workload.run(platform, 1500);
+		platform.checkpoint();
+		workload.run(platform, 1500);
+		platform.closeLog();
+
+		// the first log was made obsolete by the snapshot and deleted
+		List<String> files = files();
+		assertEquals(1, files.stream().filter(f -> f.startsWith("snapshot-")).count(), files.toString());
+		assertFalse(files.contains(new CheckpointDirectory(directory).logPath(0).getFileName().toString()));
+
+		SocialMedia recovered = new SocialMedia();
+		recovered.openLog(directory.toString(), Duration.ZERO);
+		assertEquals(workload.describe(platform), workload.describe(recovered));
+		// IDs continue where the history stopped
+		String handle = workload.liveHandle(platform);
+		assertEquals(platform.createPost(handle, "next"), recovered.createPost(handle, "next"));
+		recovered.closeLog();
+	}
+
+	@Test
+	void recoveredEndorsementsKeepTheirAge() throws Exception {
+		Duration halfLife = Duration.ofMillis(200);
+		SocialMedia platform = new SocialMedia();
+		platform.setEndorsementHalfLife(halfLife);
+		platform.openLog(directory.toString(), Duration.ZERO);
+		platform.createAccounts(new String[] { "old", "new", "f1", "f2", "f3" }, null);
+		int older = platform.createPost("old", "endorsed long ago");
+		int newer = platform.createPost("new", "endorsed just now");
+		platform.endorsePosts(new String[] { "f1", "f2", "f3" }, new int[] { older, older, older });
+		// two half lives later, three old endorsements weigh less than two new ones
+		Thread.sleep(2 * halfLife.toMillis());
+		int removed = platform.endorsePost("f1", newer);
+		platform.endorsePost("f2", newer);
+		platform.closeLog();
+
+		SocialMedia recovered = new SocialMedia();
+		recovered.setEndorsementHalfLife(halfLife);
+		recovered.openLog(directory.toString(), Duration.ZERO);
+		assertArrayEquals(new int[] { newer, older }, platform.getTopEndorsedPosts(2));
+		assertArrayEquals(platform.getTopEndorsedPosts(2), recovered.getTopEndorsedPosts(2));
+		assertArrayEquals(platform.getTopEndorsedAccounts(5), recovered.getTopEndorsedAccounts(5));
+		assertEquals(platform.showIndividualPost(removed), recovered.showIndividualPost(removed));
+
+		// removing a recovered endorsement takes off the weight it was given
+		platform.deletePost(removed);
+		recovered.deletePost(removed);
+		assertArrayEquals(new int[] { newer, older }, platform.getTopEndorsedPosts(2));
+		assertArrayEquals(platform.getTopEndorsedPosts(2), recovered.getTopEndorsedPosts(2));
+		assertArrayEquals(platform.getTopEndorsedAccounts(5), recovered.getTopEndorsedAccounts(5));
+		recovered.closeLog();
+	}
+
+	@Test
+	void changeThatCannotBeLoggedIsNotMade() throws Exception {
+		PlatformWorkload workload = new PlatformWorkload(6);
+		SocialMedia platform = new SocialMedia();
+		platform.openLog(directory.toString(), Duration.ZERO);
+		platform.createAccount("writer");
+		workload.run(platform, 500);
+		String beforeFailure = workload.describe(platform);
+		// an interrupt closes the log's channel as the record is written
+		Thread.currentThread().interrupt();
+		try {
+			assertThrows(UncheckedIOException.class, () -> platform.createPost("writer", "never logged"));
+		} finally {
+			Thread.interrupted();
+		}
+		assertEquals(beforeFailure, workload.describe(platform));
+		// the log stays unusable, and no later change is made without it
+		assertThrows(UncheckedIOException.class, () -> platform.createAccounts(new String[] { "late" }, null));
+		assertThrows(UncheckedIOException.class, () -> platform.changeAccountHandle("writer", "renamed"));
+		assertThrows(UncheckedIOException.class, platform::erasePlatform);
+		assertEquals(beforeFailure, workload.describe(platform));
+		platform.closeLog();
+
+		SocialMedia recovered = new SocialMedia();
+		recovered.openLog(directory.toString(), Duration.ZERO);
+		assertEquals(beforeFailure, workload.describe(recovered));
+		recovered.closeLog();
+	}
+
+	@Test
+	void delayedCommitsAreDurableOnceClosed() throws Exception {
+		PlatformWorkload workload = new PlatformWorkload(5);
+		SocialMedia platform = new SocialMedia();
+		platform.openLog(directory.toString(), Duration.ofMillis(5));
+		workload.run(platform, 3000);
+		platform.closeLog();
+
+		SocialMedia recovered = new SocialMedia();
+		recovered.openLog(directory.toString(), Duration.ZERO);
+		assertEquals(workload.describe(platform), workload.describe(recovered));
+		recovered.closeLog();
+	}
+
+	private Path onlyFile(String prefix) throws IOException {
+		List<String> matching = files().stream().filter(f -> f.startsWith(prefix)).collect(Collectors.toList());
+		assertEquals(1, matching.size(), matching.toString());
+		return directory.resolve(matching.get(0));
+	}
+
+	private List<String> files() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.map(f -> f.getFileName().toString()).sorted().collect(Collectors.toList());
+		}
+	}
+}
@@ -1,7 +1,8 @@
+package socialmedia;
+
 public class Account {
 
     // instantiate private Account class variables
-    private static int lastId = 999;
     private int id;
     private String handle;
     private String descriptionField;
@@ -9,21 +10,23 @@ public class Account {
     // constructors
 
     /**
-     * Constructor to create account with a handle
+     * Constructor to create account with an ID and a handle
+     * @param id
      * @param handle
      */
-    public Account(String handle) {
-        this.id = ++Account.lastId; // create new account ID
+    public Account(int id, String handle) {
+        this.id = id; // account ID allocated by the platform
         setHandle(handle);
     }
 
     /**
      * Constructor to create account with all information, i.e. id, handle and description field
+     * @param id
      * @param handle
      * @param descriptionField
      */
-    public Account(String handle, String descriptionField){
-        ++Account.lastId; // create new account ID
+    public Account(int id, String handle, String descriptionField){
+        this.id = id; // account ID allocated by the platform
         this.handle = handle;
         setDescriptionField(descriptionField);
     }
@@ -99,7 +102,22 @@ public class Account {
      * @return account in string format
      */
     public String toString() {
-        return "ID: " + id +"/nHandle: " + handle + "/nDescription: " + descriptionField;
+        return "ID: " + id + "\nHandle: " + handle + "\nDescription: " + descriptionField;
+    }
+
+    /**
+     * The method formats the summary of an account shown by the platform, i.e. its
+     * details followed by its post and endorsement counts
+     * @param id
+     * @param handle
+     * @param descriptionField
+     * @param postCount number of posts of any kind made by the account
+     * @param endorseCount number of endorsements received by the account's posts
+     * @return account summary in string format
+     */
+    static String summary(int id, String handle, String descriptionField, int postCount, int endorseCount) {
+        return "ID: " + id + "\nHandle: " + handle + "\nDescription: " + descriptionField +
+                "\nPost count: " + postCount + "\nEndorse count: " + endorseCount;
     }
 
 }
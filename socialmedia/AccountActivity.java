@@ -0,0 +1,156 @@
+package socialmedia;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * AccountActivity is the reverse index from an account to its content: the
+ * original posts, comments and endorsements it authored. Removing an account
+ * walks this index rather than every post of the platform, so it takes time in
+ * proportion to the activity of the account.
+ * <p>
+ * Content is kept in insertion ordered hash sets, so that a single post is
+ * added or removed in constant time. Methods are synchronized, so that content
+ * of one account can be indexed from several threads at once.
+ * <p>
+ * A platform keeping endorsements as edges also reports each endorsement of
+ * the account's content here, so that the accounts that endorsed any of it are
+ * kept as an {@link IdBitmap}, along with the number of such endorsements by
+ * each of them. An endorser leaves the set when its last endorsement of the
+ * account's content is removed. Both are created on the first endorsement.
+ *
+ * @version 1.0
+ */
+public class AccountActivity {
+
+	private final LinkedHashSet<Post> posts = new LinkedHashSet<>();
+	private final LinkedHashSet<Comment> comments = new LinkedHashSet<>();
+	private final LinkedHashSet<Endorsement> endorsements = new LinkedHashSet<>();
+	// endorsing account ID -> number of its endorsements of the content, and
+	// the set of those accounts
+	private IntIntMap endorsementsByEndorser;
+	private IdBitmap endorsers;
+
+	/**
+	 * Method to index a post, comment or endorsement authored by the account
+	 *
+	 * @param post content to index
+	 */
+	public synchronized void add(Post post) {
+		if (post instanceof Endorsement) {
+			endorsements.add((Endorsement) post);
+		} else if (post instanceof Comment) {
+			comments.add((Comment) post);
+		} else {
+			posts.add(post);
+		}
+	}
+
+	/**
+	 * Method to drop a removed post, comment or endorsement from the index
+	 *
+	 * @param post content to drop
+	 */
+	public synchronized void remove(Post post) {
+		if (post instanceof Endorsement) {
+			endorsements.remove(post);
+		} else if (post instanceof Comment) {
+			comments.remove(post);
+		} else {
+			posts.remove(post);
+		}
+	}
+
+	/**
+	 * Method to record an endorsement of a post or comment of the account
+	 *
+	 * @param endorserId ID of the endorsing account
+	 */
+	public synchronized void endorsementAdded(int endorserId) {
+		if (endorsers == null) {
+			endorsementsByEndorser = new IntIntMap(0);
+			endorsers = new IdBitmap();
+		}
+		if (endorsementsByEndorser.add(endorserId, 1) == 1) {
+			endorsers.add(endorserId);
+		}
+	}
+
+	/**
+	 * Method to record the removal of an endorsement of a post or comment of the
+	 * account
+	 *
+	 * @param endorserId ID of the endorsing account
+	 */
+	public synchronized void endorsementRemoved(int endorserId) {
+		if (endorsers != null && endorsementsByEndorser.add(endorserId, -1) == 0) {
+			endorsers.remove(endorserId);
+			if (endorsers.isEmpty()) {
+				endorsementsByEndorser = null;
+				endorsers = null;
+			}
+		}
+	}
+
+	/**
+	 * Getter method for the accounts that endorsed any post or comment of the
+	 * account
+	 *
+	 * @return the set of account IDs, which must not be changed
+	 */
+	public synchronized IdBitmap getEndorsers() {
+		return endorsers != null ? endorsers : new IdBitmap();
+	}
+
+	/**
+	 * Getter method for a copy of all content of the account: its endorsements
+	 * first, then its comments, then its original posts, each oldest first.
+	 * Endorsements come first since removing them never cascades.
+	 *
+	 * @return the content, which may be removed while it is iterated
+	 */
+	public synchronized List<Post> getContent() {
+		ArrayList<Post> content = new ArrayList<>(size());
+		content.addAll(endorsements);
+		content.addAll(comments);
+		content.addAll(posts);
+		return content;
+	}
+
+	/**
+	 * Getter method for the number of original posts of the account
+	 *
+	 * @return number of original posts
+	 */
+	public synchronized int getPostCount() {
+		return posts.size();
+	}
+
+	/**
+	 * Getter method for the number of comments of the account
+	 *
+	 * @return number of comments
+	 */
+	public synchronized int getCommentCount() {
+		return comments.size();
+	}
+
+	/**
+	 * Getter method for the number of endorsements made by the account
+	 *
+	 * @return number of endorsements
+	 */
+	public synchronized int getEndorsementCount() {
+		return endorsements.size();
+	}
+
+	/**
+	 * Getter method for the number of indexed posts, comments and endorsements
+	 *
+	 * @return number of indexed posts
+	 */
+	public synchronized int size() {
+		return posts.size() + comments.size() + endorsements.size();
+	}
+}
@@ -0,0 +1,335 @@
+package socialmedia;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * AccountColumns stores accounts as parallel arrays indexed by account ID, one
+ * array per field, rather than as Account objects. Alongside the handle and
+ * description, each account has the number of posts it authored, the number
+ * of endorsements its posts received, and the head of the chain of its posts
+ * kept by {@link PostColumns}.
+ * <p>
+ * The most endorsed account is cached and only looked for again, by a scan of
+ * the endorsement counts, after it lost an endorsement or was removed. The
+ * columns are not thread-safe.
+ *
+ * @version 1.0
+ */
+public class AccountColumns {
+
+	/** Stands for no account; account IDs start above it. */
+	public static final int NONE = 0;
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final int firstId;
+	// columns, indexed by account ID - firstId; a null handle marks a free slot
+	private String[] handles = new String[0];
+	private String[] descriptions = new String[0];
+	private int[] postCounts = new int[0];
+	private int[] endorsementCounts = new int[0];
+	private int[] firstPosts = new int[0];
+	private final HashMap<String, Integer> idsByHandle = new HashMap<>();
+	// one past the highest slot used
+	private int limit;
+	private int mostEndorsed = NONE;
+	private boolean mostEndorsedStale;
+
+	/**
+	 * Constructor to create empty columns
+	 *
+	 * @param firstId lowest account ID stored
+	 */
+	public AccountColumns(int firstId) {
+		if (firstId <= NONE) {
+			throw new IllegalArgumentException("Account IDs must start above " + NONE);
+		}
+		this.firstId = firstId;
+	}
+
+	private int slotOf(int id) {
+		return id - firstId;
+	}
+
+	private void ensureCapacity(int slot) {
+		if (slot < handles.length) {
+			return;
+		}
+		int capacity = Math.max(slot + 1, Math.max(INITIAL_CAPACITY, handles.length + (handles.length >> 1)));
+		handles = Arrays.copyOf(handles, capacity);
+		descriptions = Arrays.copyOf(descriptions, capacity);
+		postCounts = Arrays.copyOf(postCounts, capacity);
+		endorsementCounts = Arrays.copyOf(endorsementCounts, capacity);
+		firstPosts = Arrays.copyOf(firstPosts, capacity);
+	}
+
+	/**
+	 * Method to add an account. The handle is expected to be valid and unused.
+	 *
+	 * @param id          account ID, not used by any other account
+	 * @param handle      account handle
+	 * @param description account description, or null
+	 */
+	public void add(int id, String handle, String description) {
+		int slot = slotOf(id);
+		if (slot < 0) {
+			throw new IllegalArgumentException("Account ID " + id + " below " + firstId);
+		}
+		ensureCapacity(slot);
+		handles[slot] = handle;
+		descriptions[slot] = description;
+		postCounts[slot] = 0;
+		endorsementCounts[slot] = 0;
+		firstPosts[slot] = PostColumns.NONE;
+		idsByHandle.put(handle, id);
+		limit = Math.max(limit, slot + 1);
+		consider(id);
+	}
+
+	/**
+	 * Method to remove an account, once its posts were removed
+	 *
+	 * @param id account ID
+	 */
+	public void remove(int id) {
+		int slot = slotOf(id);
+		idsByHandle.remove(handles[slot]);
+		handles[slot] = null;
+		descriptions[slot] = null;
+		if (id == mostEndorsed) {
+			mostEndorsedStale = true;
+		}
+	}
+
+	/**
+	 * Method to check whether an account exists
+	 *
+	 * @param id account ID
+	 * @return true if the account exists
+	 */
+	public boolean contains(int id) {
+		int slot = slotOf(id);
+		return slot >= 0 && slot < limit && handles[slot] != null;
+	}
+
+	/**
+	 * Method to check whether a handle is used by an account
+	 *
+	 * @param handle account handle
+	 * @return true if an account has the handle
+	 */
+	public boolean containsHandle(String handle) {
+		return idsByHandle.containsKey(handle);
+	}
+
+	/**
+	 * Method to find the account with a handle
+	 *
+	 * @param handle account handle
+	 * @return the account ID
+	 * @throws HandleNotRecognisedException if no account has the handle
+	 */
+	public int getId(String handle) throws HandleNotRecognisedException {
+		Integer id = idsByHandle.get(handle);
+		if (id == null) {
+			throw new HandleNotRecognisedException("Handle not recognised");
+		}
+		return id;
+	}
+
+	/**
+	 * Method to check that an account exists
+	 *
+	 * @param id account ID
+	 * @throws AccountIDNotRecognisedException if there is no such account
+	 */
+	public void check(int id) throws AccountIDNotRecognisedException {
+		if (!contains(id)) {
+			throw new AccountIDNotRecognisedException("Account ID not recognised");
+		}
+	}
+
+	/**
+	 * Method to change the handle of an account
+	 *
+	 * @param oldHandle current handle
+	 * @param newHandle new handle
+	 * @return the account ID
+	 * @throws HandleNotRecognisedException if no account has the old handle
+	 * @throws IllegalHandleException       if the new handle is already used
+	 * @throws InvalidHandleException       if the new handle is not valid
+	 */
+	public int rename(String oldHandle, String newHandle)
+			throws HandleNotRecognisedException, IllegalHandleException, InvalidHandleException {
+		int id = getId(oldHandle);
+		if (!AccountRegistry.isValidHandle(newHandle)) {
+			throw new InvalidHandleException("Invalid Handle");
+		}
+		if (idsByHandle.containsKey(newHandle)) {
+			throw new IllegalHandleException("Handle Already Exists");
+		}
+		idsByHandle.remove(oldHandle);
+		handles[slotOf(id)] = newHandle;
+		idsByHandle.put(newHandle, id);
+		return id;
+	}
+
+	/**
+	 * Getter method for the handle of an account
+	 *
+	 * @param id account ID
+	 * @return the handle
+	 */
+	public String getHandle(int id) {
+		return handles[slotOf(id)];
+	}
+
+	/**
+	 * Getter method for the description of an account
+	 *
+	 * @param id account ID
+	 * @return the description, or null
+	 */
+	public String getDescription(int id) {
+		return descriptions[slotOf(id)];
+	}
+
+	/**
+	 * Setter method for the description of an account
+	 *
+	 * @param id          account ID
+	 * @param description new description
+	 */
+	public void setDescription(int id, String description) {
+		descriptions[slotOf(id)] = description;
+	}
+
+	/**
+	 * Getter method for the number of posts of every kind authored by an account
+	 *
+	 * @param id account ID
+	 * @return number of posts
+	 */
+	public int getPostCount(int id) {
+		return postCounts[slotOf(id)];
+	}
+
+	/**
+	 * Getter method for the number of endorsements received by the posts of an
+	 * account
+	 *
+	 * @param id account ID
+	 * @return number of endorsements
+	 */
+	public int getEndorsementCount(int id) {
+		return endorsementCounts[slotOf(id)];
+	}
+
+	/**
+	 * Getter method for the most recent post of an account, the head of the chain
+	 * of its posts
+	 *
+	 * @param id account ID
+	 * @return the post ID, or {@link PostColumns#NONE}
+	 */
+	int getFirstPost(int id) {
+		return firstPosts[slotOf(id)];
+	}
+
+	/**
+	 * Method to record a post added to the head of the chain of an account
+	 *
+	 * @param id     account ID
+	 * @param postId the post, now first of the chain
+	 */
+	void postAdded(int id, int postId) {
+		int slot = slotOf(id);
+		firstPosts[slot] = postId;
+		postCounts[slot]++;
+	}
+
+	/**
+	 * Method to record a post removed from the chain of an account
+	 *
+	 * @param id        account ID
+	 * @param firstPost the head of the chain once the post was unlinked
+	 */
+	void postRemoved(int id, int firstPost) {
+		int slot = slotOf(id);
+		firstPosts[slot] = firstPost;
+		postCounts[slot]--;
+	}
+
+	/**
+	 * Method to change the number of endorsements received by an account
+	 *
+	 * @param id    account ID
+	 * @param delta endorsements gained, or lost if negative
+	 */
+	void addEndorsements(int id, int delta) {
+		endorsementCounts[slotOf(id)] += delta;
+		if (delta > 0) {
+			consider(id);
+		} else if (id == mostEndorsed) {
+			mostEndorsedStale = true;
+		}
+	}
+
+	private void consider(int id) {
+		if (!mostEndorsedStale && (mostEndorsed == NONE || ranksBefore(id, mostEndorsed))) {
+			mostEndorsed = id;
+		}
+	}
+
+	private boolean ranksBefore(int id, int other) {
+		int count = endorsementCounts[slotOf(id)];
+		int otherCount = endorsementCounts[slotOf(other)];
+		return count > otherCount || count == otherCount && id < other;
+	}
+
+	/**
+	 * Getter method for the most endorsed account
+	 *
+	 * @return the ID of the account with most endorsements, the lowest ID first
+	 *         on ties, or {@link #NONE} if there are no accounts
+	 */
+	public int getMostEndorsed() {
+		if (mostEndorsedStale) {
+			mostEndorsed = NONE;
+			for (int slot = 0; slot < limit; slot++) {
+				if (handles[slot] != null && (mostEndorsed == NONE
+						|| endorsementCounts[slot] > endorsementCounts[slotOf(mostEndorsed)])) {
+					mostEndorsed = firstId + slot;
+				}
+			}
+			mostEndorsedStale = false;
+		}
+		return mostEndorsed;
+	}
+
+	/**
+	 * Method to list the IDs of every account
+	 *
+	 * @return account IDs in ascending order
+	 */
+	public int[] getIds() {
+		int[] ids = new int[idsByHandle.size()];
+		int n = 0;
+		for (int slot = 0; slot < limit; slot++) {
+			if (handles[slot] != null) {
+				ids[n++] = firstId + slot;
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Getter method for the number of accounts
+	 *
+	 * @return number of accounts
+	 */
+	public int size() {
+		return idsByHandle.size();
+	}
+}
@@ -0,0 +1,174 @@
+package socialmedia;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+
+/**
+ * AccountRegistry holds every account of a platform, indexed both by handle and
+ * by account ID, so that lookups, uniqueness checks and renames are constant
+ * time hash probes rather than scans over all accounts.
+ * <p>
+ * Both indexes always refer to the same set of Account objects; every mutating
+ * method either updates both of them or throws before touching either.
+ *
+ * @version 1.0
+ */
+public class AccountRegistry {
+
+	// handle -> account and account ID -> account indexes
+	private final HashMap<String, Account> accountsByHandle = new HashMap<>();
+	private final HashMap<Integer, Account> accountsById = new HashMap<>();
+
+	/**
+	 * Method to check if a handle is valid, i.e. it is not empty, has at most 30
+	 * characters and contains no white spaces.
+	 *
+	 * @param handle handle to check
+	 * @return true if the handle is valid, false if not
+	 */
+	public static boolean isValidHandle(String handle) {
+		if (handle == null || handle.isEmpty() || handle.length() > 30) {
+			return false;
+		}
+		for (int i = 0; i < handle.length(); i++) {
+			if (Character.isWhitespace(handle.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Method to check whether an account with the given handle exists.
+	 *
+	 * @param handle handle to look up
+	 * @return true if the handle is taken, false if not
+	 */
+	public boolean containsHandle(String handle) {
+		return accountsByHandle.containsKey(handle);
+	}
+
+	/**
+	 * Method to find the account with the given handle.
+	 *
+	 * @param handle handle to look up
+	 * @return the account with that handle
+	 * @throws HandleNotRecognisedException if no account has that handle
+	 */
+	public Account getByHandle(String handle) throws HandleNotRecognisedException {
+		Account account = accountsByHandle.get(handle);
+		if (account == null) {
+			throw new HandleNotRecognisedException("Handle not recognised");
+		}
+		return account;
+	}
+
+	/**
+	 * Method to find the account with the given ID.
+	 *
+	 * @param id account ID to look up
+	 * @return the account with that ID
+	 * @throws AccountIDNotRecognisedException if no account has that ID
+	 */
+	public Account getById(int id) throws AccountIDNotRecognisedException {
+		Account account = accountsById.get(id);
+		if (account == null) {
+			throw new AccountIDNotRecognisedException("Account ID not recognised");
+		}
+		return account;
+	}
+
+	/**
+	 * Method to add a new account to both indexes.
+	 *
+	 * @param account account to add
+	 * @throws IllegalHandleException if the account's handle is already taken
+	 */
+	public void add(Account account) throws IllegalHandleException {
+		if (accountsByHandle.containsKey(account.getHandle())) {
+			throw new IllegalHandleException("Handle Already Exists");
+		}
+		accountsByHandle.put(account.getHandle(), account);
+		accountsById.put(account.getId(), account);
+	}
+
+	/**
+	 * Method to change the handle of an account. Both indexes are checked before
+	 * either is modified, so the registry is unchanged if an exception is thrown.
+	 *
+	 * @param oldHandle account's old handle
+	 * @param newHandle account's new handle
+	 * @return the renamed account
+	 * @throws HandleNotRecognisedException if no account has the old handle
+	 * @throws IllegalHandleException       if the new handle is already taken
+	 * @throws InvalidHandleException       if the new handle is not valid
+	 */
+	public Account rename(String oldHandle, String newHandle)
+			throws HandleNotRecognisedException, IllegalHandleException, InvalidHandleException {
+		Account account = checkRename(oldHandle, newHandle);
+		accountsByHandle.remove(oldHandle);
+		account.setHandle(newHandle);
+		accountsByHandle.put(newHandle, account);
+		return account;
+	}
+
+	/**
+	 * Method to check the handle of an account can be changed, without changing
+	 * it, e.g. before the change is logged.
+	 *
+	 * @param oldHandle account's old handle
+	 * @param newHandle account's new handle
+	 * @return the account to rename
+	 * @throws HandleNotRecognisedException if no account has the old handle
+	 * @throws IllegalHandleException       if the new handle is already taken
+	 * @throws InvalidHandleException       if the new handle is not valid
+	 */
+	public Account checkRename(String oldHandle, String newHandle)
+			throws HandleNotRecognisedException, IllegalHandleException, InvalidHandleException {
+		Account account = getByHandle(oldHandle);
+		if (!isValidHandle(newHandle)) {
+			throw new InvalidHandleException("Invalid Handle");
+		}
+		if (accountsByHandle.containsKey(newHandle)) {
+			throw new IllegalHandleException("Handle Already Exists");
+		}
+		return account;
+	}
+
+	/**
+	 * Method to remove an account from both indexes.
+	 *
+	 * @param account account to remove
+	 */
+	public void remove(Account account) {
+		accountsByHandle.remove(account.getHandle());
+		accountsById.remove(account.getId());
+	}
+
+	/**
+	 * Getter method for the number of registered accounts
+	 *
+	 * @return number of accounts
+	 */
+	public int size() {
+		return accountsById.size();
+	}
+
+	/**
+	 * Getter method for a read-only view of all registered accounts
+	 *
+	 * @return all accounts, in no particular order
+	 */
+	public Collection<Account> getAccounts() {
+		return Collections.unmodifiableCollection(accountsById.values());
+	}
+
+	/**
+	 * Method to remove every account from the registry.
+	 */
+	public void clear() {
+		accountsByHandle.clear();
+		accountsById.clear();
+	}
+}
@@ -0,0 +1,70 @@
+package socialmedia;
+
+/**
+ * BatchSocialMediaPlatform extends the SocialMediaPlatform interface with
+ * methods creating many accounts, posts or endorsements in one call, for bulk
+ * loads such as backfills and migrations.
+ * <p>
+ * Each batch is validated as a whole before anything is created, and its IDs
+ * are reserved in one consecutive block, handed out in the order of the batch.
+ * As with the single methods, the state of the platform must be unchanged if
+ * any exception is thrown: either every element of the batch is created, or
+ * none is.
+ *
+ * @version 1.0
+ */
+public interface BatchSocialMediaPlatform extends SocialMediaPlatform {
+
+	/**
+	 * The method creates an account for each of the given handles, with the
+	 * matching description.
+	 *
+	 * @param handles      handles of the accounts.
+	 * @param descriptions descriptions of the accounts, matching the handles, or
+	 *                     null to create accounts without descriptions.
+	 * @return the IDs of the created accounts, in the order of the handles.
+	 * @throws IllegalHandleException   if any handle already exists in the
+	 *                                  platform, or appears twice in the batch.
+	 * @throws InvalidHandleException   if any handle is empty, has more than 30
+	 *                                  characters, or has white spaces.
+	 * @throws IllegalArgumentException if there are not as many descriptions as
+	 *                                  handles.
+	 */
+	int[] createAccounts(String[] handles, String[] descriptions)
+			throws IllegalHandleException, InvalidHandleException;
+
+	/**
+	 * The method creates a post for each of the given handles, with the matching
+	 * message.
+	 *
+	 * @param handles  handles of the authors of the posts.
+	 * @param messages messages of the posts, matching the handles.
+	 * @return the IDs of the created posts, in the order of the handles.
+	 * @throws HandleNotRecognisedException if any handle does not match to any
+	 *                                      account in the system.
+	 * @throws InvalidPostException         if any message is empty or has more
+	 *                                      than 100 characters.
+	 * @throws IllegalArgumentException     if there are not as many messages as
+	 *                                      handles.
+	 */
+	int[] createPosts(String[] handles, String[] messages) throws HandleNotRecognisedException, InvalidPostException;
+
+	/**
+	 * The method creates an endorsement by each of the given handles of the post
+	 * with the matching ID.
+	 *
+	 * @param handles handles of the endorsing accounts.
+	 * @param ids     IDs of the endorsed posts, matching the handles.
+	 * @return the IDs of the created endorsements, in the order of the handles.
+	 * @throws HandleNotRecognisedException if any handle does not match to any
+	 *                                      account in the system.
+	 * @throws PostIDNotRecognisedException if any ID does not match to any post in
+	 *                                      the system.
+	 * @throws NotActionablePostException   if any ID refers to an endorsement
+	 *                                      post.
+	 * @throws IllegalArgumentException     if there are not as many IDs as
+	 *                                      handles.
+	 */
+	int[] endorsePosts(String[] handles, int[] ids)
+			throws HandleNotRecognisedException, PostIDNotRecognisedException, NotActionablePostException;
+}
@@ -0,0 +1,145 @@
+package socialmedia;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jdk.jfr.EventType;
+
+/**
+ * CallTracer decides which calls made through a {@link TracingSocialMedia} are
+ * traced, and reports them. A call is traced when
+ * <ul>
+ * <li>it is sampled, one call in every sample rate calls on average;</li>
+ * <li>it takes at least the slow call threshold;</li>
+ * <li>or Java Flight Recorder records {@link PlatformCallEvent}s, in which
+ * case the recording decides which calls are committed.</li>
+ * </ul>
+ * Sampled and slow calls are logged, with their arguments, by the
+ * {@code socialmedia.CallTracer} logger: slow calls as warnings, sampled calls
+ * at level FINE. They are also passed to the listener, if one is set.
+ * <p>
+ * Everything is disabled initially. While disabled, a traced call costs a
+ * volatile read and a check that no recording enables the event, and
+ * allocates nothing. Settings may be changed at any time, from any thread.
+ *
+ * @version 1.0
+ */
+public class CallTracer {
+
+	private static final Logger LOGGER = Logger.getLogger(CallTracer.class.getName());
+	private static final EventType EVENT_TYPE = EventType.getEventType(PlatformCallEvent.class);
+
+	// 0 when sampling is off
+	private volatile int sampleRate;
+	// Long.MAX_VALUE when slow calls are not traced
+	private volatile long slowCallThresholdNanos = Long.MAX_VALUE;
+	private volatile Consumer<TracedCall> listener;
+	// true when sampling or the slow call threshold is set
+	private volatile boolean enabled;
+
+	/**
+	 * Method to start tracing a call
+	 *
+	 * @param operation name of the platform method
+	 * @return the call, to end once it returns
+	 */
+	TracedCall begin(String operation) {
+		boolean recorded = EVENT_TYPE.isEnabled();
+		if (!enabled && !recorded) {
+			return TracedCall.DISABLED;
+		}
+		int rate = sampleRate;
+		boolean sampled = rate == 1 || rate > 1 && ThreadLocalRandom.current().nextInt(rate) == 0;
+		return new TracedCall(this, operation, sampled, recorded);
+	}
+
+	/**
+	 * Method to log a sampled or slow call and pass it to the listener
+	 *
+	 * @param call the call, once ended
+	 */
+	void report(TracedCall call) {
+		if (call.isSlow()) {
+			LOGGER.log(Level.WARNING, "Slow call {0}", call);
+		} else if (LOGGER.isLoggable(Level.FINE)) {
+			LOGGER.log(Level.FINE, "Sampled call {0}", call);
+		}
+		Consumer<TracedCall> l = listener;
+		if (l != null) {
+			l.accept(call);
+		}
+	}
+
+	/**
+	 * Setter method for the sample rate
+	 *
+	 * @param rate trace one call in this many on average; 1 traces every call, 0
+	 *             turns sampling off
+	 */
+	public synchronized void setSampleRate(int rate) {
+		if (rate < 0) {
+			throw new IllegalArgumentException("Sample rate must not be negative");
+		}
+		sampleRate = rate;
+		updateEnabled();
+	}
+
+	/**
+	 * Getter method for the sample rate
+	 *
+	 * @return one call in this many is traced, or 0 if sampling is off
+	 */
+	public int getSampleRate() {
+		return sampleRate;
+	}
+
+	/**
+	 * Setter method for the slow call threshold
+	 *
+	 * @param threshold duration from which calls are traced, or null to not
+	 *                  trace slow calls
+	 */
+	public synchronized void setSlowCallThreshold(Duration threshold) {
+		if (threshold != null && threshold.isNegative()) {
+			throw new IllegalArgumentException("Slow call threshold must not be negative");
+		}
+		slowCallThresholdNanos = threshold == null ? Long.MAX_VALUE : threshold.toNanos();
+		updateEnabled();
+	}
+
+	/**
+	 * Getter method for the slow call threshold
+	 *
+	 * @return threshold in nanoseconds, or Long.MAX_VALUE if slow calls are not
+	 *         traced
+	 */
+	public long getSlowCallThresholdNanos() {
+		return slowCallThresholdNanos;
+	}
+
+	/**
+	 * Setter method for the listener of sampled and slow calls
+	 *
+	 * @param listener called on the thread that made the call, once it returned,
+	 *                 or null for none
+	 */
+	public void setListener(Consumer<TracedCall> listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Getter method for whether sampling or slow call tracing is on
+	 *
+	 * @return true if calls are traced other than for Java Flight Recorder
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	private void updateEnabled() {
+		enabled = sampleRate > 0 || slowCallThresholdNanos != Long.MAX_VALUE;
+	}
+}
@@ -0,0 +1,119 @@
+package socialmedia;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * ChangeTracker records the IDs of the accounts and posts created, changed or
+ * removed since the platform was last saved, so that the next save can write
+ * only those, see {@link DeltaSnapshot}.
+ * <p>
+ * Only the stored fields of an account or post count as changes: counts of
+ * endorsements and comments are derived from the posts when a snapshot is
+ * loaded, so endorsing or commenting a post does not change it.
+ * <p>
+ * IDs are recorded in primitive hash sets, so that recording a change
+ * allocates nothing; the sets of IDs are only built when they are saved.
+ *
+ * @version 1.0
+ */
+public class ChangeTracker {
+
+	// sets of IDs, mapping every recorded ID to 1
+	private final IntIntMap changedAccounts = new IntIntMap(0);
+	private final IntIntMap removedAccounts = new IntIntMap(0);
+	private final IntIntMap changedPosts = new IntIntMap(0);
+	private final IntIntMap removedPosts = new IntIntMap(0);
+
+	/**
+	 * Method to record a created or changed account
+	 *
+	 * @param id account ID
+	 */
+	public void accountChanged(int id) {
+		changedAccounts.put(id, 1);
+	}
+
+	/**
+	 * Method to record a removed account
+	 *
+	 * @param id account ID
+	 */
+	public void accountRemoved(int id) {
+		changedAccounts.remove(id);
+		removedAccounts.put(id, 1);
+	}
+
+	/**
+	 * Method to record a created or changed post
+	 *
+	 * @param id post ID
+	 */
+	public void postChanged(int id) {
+		changedPosts.put(id, 1);
+	}
+
+	/**
+	 * Method to record a removed post
+	 *
+	 * @param id post ID
+	 */
+	public void postRemoved(int id) {
+		changedPosts.remove(id);
+		removedPosts.put(id, 1);
+	}
+
+	/**
+	 * Getter method for the created or changed accounts
+	 *
+	 * @return a copy of the account IDs
+	 */
+	public Set<Integer> getChangedAccounts() {
+		return toSet(changedAccounts);
+	}
+
+	/**
+	 * Getter method for the removed accounts
+	 *
+	 * @return a copy of the account IDs
+	 */
+	public Set<Integer> getRemovedAccounts() {
+		return toSet(removedAccounts);
+	}
+
+	/**
+	 * Getter method for the created or changed posts
+	 *
+	 * @return a copy of the post IDs
+	 */
+	public Set<Integer> getChangedPosts() {
+		return toSet(changedPosts);
+	}
+
+	/**
+	 * Getter method for the removed posts
+	 *
+	 * @return a copy of the post IDs
+	 */
+	public Set<Integer> getRemovedPosts() {
+		return toSet(removedPosts);
+	}
+
+	private static Set<Integer> toSet(IntIntMap ids) {
+		HashSet<Integer> set = new HashSet<>();
+		for (int id : ids.keys()) {
+			set.add(id);
+		}
+		return set;
+	}
+
+	/**
+	 * Method to forget every change, once they were saved
+	 */
+	public void clear() {
+		changedAccounts.clear();
+		removedAccounts.clear();
+		changedPosts.clear();
+		removedPosts.clear();
+	}
+}
@@ -0,0 +1,132 @@
+package socialmedia;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * CheckpointDirectory is the directory holding the durable state of a logged
+ * platform: snapshots of its contents and the write-ahead logs of the changes
+ * made since. Both are named after an LSN, the position in the sequence of
+ * every change ever logged: {@code snapshot-N.smps} holds the contents after
+ * the first N changes, and {@code log-N.wal} holds changes from the Nth on.
+ * <p>
+ * A checkpoint at LSN N first starts log N, then writes snapshot N, and only
+ * then deletes the older files, so whenever a crash happens the latest
+ * snapshot and the logs starting from it hold every change.
+ *
+ * @version 1.0
+ */
+public class CheckpointDirectory {
+
+	private static final String SNAPSHOT_PREFIX = "snapshot-";
+	private static final String SNAPSHOT_SUFFIX = ".smps";
+	private static final String LOG_PREFIX = "log-";
+	private static final String LOG_SUFFIX = ".wal";
+
+	private final Path directory;
+
+	/**
+	 * Constructor to use a directory, creating it if needed
+	 *
+	 * @param directory the directory
+	 * @throws IOException if the directory cannot be created
+	 */
+	public CheckpointDirectory(Path directory) throws IOException {
+		this.directory = Files.createDirectories(directory);
+	}
+
+	/**
+	 * Getter method for the directory
+	 *
+	 * @return path of the directory
+	 */
+	public Path getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Method to name the snapshot taken at an LSN
+	 *
+	 * @param lsn number of changes included in the snapshot
+	 * @return path of the snapshot file
+	 */
+	public Path snapshotPath(long lsn) {
+		// zero padded, so that names sort in LSN order
+		return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, lsn, SNAPSHOT_SUFFIX));
+	}
+
+	/**
+	 * Method to name the log starting at an LSN
+	 *
+	 * @param lsn LSN of the first record of the log
+	 * @return path of the log file
+	 */
+	public Path logPath(long lsn) {
+		return directory.resolve(String.format("%s%020d%s", LOG_PREFIX, lsn, LOG_SUFFIX));
+	}
+
+	/**
+	 * Method to find the LSN of the latest snapshot
+	 *
+	 * @return the LSN, or -1 if there is no snapshot
+	 * @throws IOException if the directory cannot be listed
+	 */
+	public long latestSnapshot() throws IOException {
+		List<Long> snapshots = list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+		return snapshots.isEmpty() ? -1 : snapshots.get(snapshots.size() - 1);
+	}
+
+	/**
+	 * Method to find the logs starting at or after an LSN
+	 *
+	 * @param lsn first LSN of interest
+	 * @return the first LSNs of the logs, in order
+	 * @throws IOException if the directory cannot be listed
+	 */
+	public List<Long> logsFrom(long lsn) throws IOException {
+		List<Long> logs = list(LOG_PREFIX, LOG_SUFFIX);
+		logs.removeIf(first -> first < lsn);
+		return logs;
+	}
+
+	/**
+	 * Method to delete the snapshots and logs made obsolete by the snapshot at an
+	 * LSN
+	 *
+	 * @param lsn LSN of the latest snapshot
+	 * @throws IOException if a file cannot be deleted
+	 */
+	public void deleteBefore(long lsn) throws IOException {
+		for (long older : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+			if (older < lsn) {
+				Files.deleteIfExists(snapshotPath(older));
+			}
+		}
+		for (long older : list(LOG_PREFIX, LOG_SUFFIX)) {
+			if (older < lsn) {
+				Files.deleteIfExists(logPath(older));
+			}
+		}
+	}
+
+	private List<Long> list(String prefix, String suffix) throws IOException {
+		ArrayList<Long> lsns = new ArrayList<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				try {
+					lsns.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+				} catch (NumberFormatException e) {
+					// not one of ours
+				}
+			}
+		}
+		Collections.sort(lsns);
+		return lsns;
+	}
+}
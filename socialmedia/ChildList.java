@@ -0,0 +1,133 @@
+package socialmedia;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * ChildList holds the comments or endorsements of a post in as little memory
+ * as their number allows. Posts create one on their first child only, and
+ * show an empty list until then. The list then goes through three forms:
+ * <ul>
+ * <li>a single child, held inline without an array;</li>
+ * <li>up to {@value #SMALL_SIZE} children in an array of exactly that length,
+ * copied on every change;</li>
+ * <li>more children in an array that grows by half its length when full.</li>
+ * </ul>
+ * Most posts get no reply or a single one, for which the list costs nothing
+ * or a single small object rather than a list and its backing array.
+ * <p>
+ * Elements are compared by identity when removed, as children are distinct
+ * objects. The list is not thread-safe.
+ *
+ * @param <T> type of the children
+ * @version 1.0
+ */
+public final class ChildList<T> extends AbstractList<T> implements RandomAccess {
+
+	/** Largest number of children kept in an array with no spare capacity. */
+	static final int SMALL_SIZE = 4;
+
+	// null, the single child, or an array holding the children first
+	private Object children;
+	private int size;
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+		}
+		return (T) (size == 1 ? children : ((Object[]) children)[index]);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean add(T child) {
+		add(size, child);
+		return true;
+	}
+
+	@Override
+	public void add(int index, T child) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+		}
+		modCount++;
+		if (size == 0) {
+			children = child;
+			size = 1;
+			return;
+		}
+		if (size == 1) {
+			Object[] result = new Object[2];
+			result[index] = child;
+			result[1 - index] = children;
+			children = result;
+			size = 2;
+			return;
+		}
+		Object[] elements = (Object[]) children;
+		int newSize = size + 1;
+		Object[] result;
+		if (newSize <= SMALL_SIZE) {
+			result = new Object[newSize];
+			System.arraycopy(elements, 0, result, 0, index);
+		} else if (size == elements.length) {
+			result = Arrays.copyOf(elements, size + (size >> 1));
+		} else {
+			result = elements;
+		}
+		System.arraycopy(elements, index, result, index + 1, size - index);
+		result[index] = child;
+		children = result;
+		size = newSize;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T remove(int index) {
+		T removed = get(index);
+		modCount++;
+		int newSize = size - 1;
+		if (newSize == 0) {
+			children = null;
+		} else if (newSize == 1) {
+			children = ((Object[]) children)[1 - index];
+		} else if (newSize <= SMALL_SIZE) {
+			Object[] elements = (Object[]) children;
+			Object[] result = new Object[newSize];
+			System.arraycopy(elements, 0, result, 0, index);
+			System.arraycopy(elements, index + 1, result, index, newSize - index);
+			children = result;
+		} else {
+			Object[] elements = (Object[]) children;
+			System.arraycopy(elements, index + 1, elements, index, newSize - index);
+			elements[newSize] = null;
+		}
+		size = newSize;
+		return removed;
+	}
+
+	@Override
+	public boolean remove(Object child) {
+		for (int i = 0; i < size; i++) {
+			if (get(i) == child) {
+				remove(i);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void clear() {
+		modCount++;
+		children = null;
+		size = 0;
+	}
+}
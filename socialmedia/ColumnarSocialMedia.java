@@ -0,0 +1,557 @@
+package socialmedia;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+
+/**
+ * ColumnarSocialMedia is a SocialMediaPlatform storing its accounts and posts
+ * in columns of primitive arrays, see {@link AccountColumns} and
+ * {@link PostColumns}, rather than as objects. It behaves as
+ * {@link SocialMedia}, and saves and loads the same snapshot files, but a post
+ * takes a fraction of the memory of a Post object and its lists, so that far
+ * larger platforms fit in the same heap, and scans over posts read contiguous
+ * arrays.
+ * <p>
+ * The platform is not thread-safe, and implements none of the extensions of
+ * SocialMedia: {@link TrendingSocialMediaPlatform} (top k rankings and
+ * trending), {@link ThreadedSocialMediaPlatform} (streamed and paged threads),
+ * {@link BatchSocialMediaPlatform} and {@link EndorserAnalyticsPlatform}, nor
+ * the write-ahead log, delta snapshots or memory-mapped opening of snapshots.
+ *
+ * @version 1.0
+ */
+public class ColumnarSocialMedia implements SocialMediaPlatform {
+
+	private static final long serialVersionUID = 1L;
+
+	// first account and post IDs handed out, as in SocialMedia
+	private static final int FIRST_ID = 1000;
+
+	// columns of accounts and posts, replaced as a whole on erase and load
+	private AccountColumns accounts = new AccountColumns(FIRST_ID);
+	private PostColumns posts = new PostColumns(FIRST_ID, accounts);
+	private final IdAllocator accountIds = new IdAllocator(FIRST_ID);
+	private final IdAllocator postIds = new IdAllocator(FIRST_ID);
+	// writes snapshots, replacing the deltas of the file saved to
+	private final SnapshotCompactor compactor = new SnapshotCompactor();
+
+	/**
+	 * The method creates an account in the platform with the given handle.
+	 *
+	 * @param handle account's handle.
+	 * @return the ID of the created account.
+	 * @throws IllegalHandleException if the handle already exists in the
+	 *                                platform.
+	 * @throws InvalidHandleException if the new handle is empty, has more than
+	 *                                30 characters, or has white spaces.
+	 */
+	@Override
+	public int createAccount(String handle) throws IllegalHandleException, InvalidHandleException {
+		return createAccount(handle, null);
+	}
+
+	/**
+	 * The method creates an account in the platform with the given handle and
+	 * description.
+	 *
+	 * @param handle      account's handle.
+	 * @param description account's description.
+	 * @return the ID of the created account.
+	 * @throws IllegalHandleException if the handle already exists in the
+	 *                                platform.
+	 * @throws InvalidHandleException if the new handle is empty, has more than
+	 *                                30 characters, or has white spaces.
+	 */
+	@Override
+	public int createAccount(String handle, String description)
+			throws IllegalHandleException, InvalidHandleException {
+		if (!AccountRegistry.isValidHandle(handle)) {
+			throw new InvalidHandleException("Invalid Handle");
+		}
+		if (accounts.containsHandle(handle)) {
+			throw new IllegalHandleException("Handle Already Exists");
+		}
+		int id = accountIds.next();
+		accounts.add(id, handle, description);
+		return id;
+	}
+
+	/**
+	 * The method removes the account with the corresponding ID, with all of its
+	 * posts.
+	 *
+	 * @param id ID of the account.
+	 * @throws AccountIDNotRecognisedException if the ID does not match to any
+	 *                                         account in the system.
+	 */
+	@Override
+	public void removeAccount(int id) throws AccountIDNotRecognisedException {
+		accounts.check(id);
+		removeAccountContent(id);
+	}
+
+	/**
+	 * The method removes the account with the corresponding handle, with all of
+	 * its posts.
+	 *
+	 * @param handle account's handle.
+	 * @throws HandleNotRecognisedException if the handle does not match to any
+	 *                                      account in the system.
+	 */
+	@Override
+	public void removeAccount(String handle) throws HandleNotRecognisedException {
+		removeAccountContent(accounts.getId(handle));
+	}
+
+	/**
+	 * Removes an account that is known to exist, walking the chain of its posts.
+	 * @param id account ID.
+	 */
+	private void removeAccountContent(int id) {
+		// copied first, since removing a post may remove others of the chain
+		int[] content = new int[accounts.getPostCount(id)];
+		int n = 0;
+		for (int p = accounts.getFirstPost(id); p != PostColumns.NONE; p = posts.getNextByAuthor(p)) {
+			content[n++] = p;
+		}
+		for (int p : content) {
+			if (posts.contains(p)) {
+				posts.remove(p);
+			}
+		}
+		accounts.remove(id);
+	}
+
+	/**
+	 * The method replaces the oldHandle of an account by the newHandle.
+	 *
+	 * @param oldHandle account's old handle.
+	 * @param newHandle account's new handle.
+	 * @throws HandleNotRecognisedException if the old handle does not match to
+	 *                                      any account in the system.
+	 * @throws IllegalHandleException       if the new handle already exists in
+	 *                                      the platform.
+	 * @throws InvalidHandleException       if the new handle is empty, has more
+	 *                                      than 30 characters, or has white
+	 *                                      spaces.
+	 */
+	@Override
+	public void changeAccountHandle(String oldHandle, String newHandle)
+			throws HandleNotRecognisedException, IllegalHandleException, InvalidHandleException {
+		accounts.rename(oldHandle, newHandle);
+	}
+
+	/**
+	 * The method updates the description of the account with the respective
+	 * handle.
+	 *
+	 * @param handle      handle to identify the account.
+	 * @param description new text for description.
+	 * @throws HandleNotRecognisedException if the handle does not match to any
+	 *                                      account in the system.
+	 */
+	@Override
+	public void updateAccountDescription(String handle, String description) throws HandleNotRecognisedException {
+		accounts.setDescription(accounts.getId(handle), description);
+	}
+
+	/**
+	 * The method creates a formatted string summarising the stats of the account
+	 * identified by the given handle.
+	 *
+	 * @param handle handle to identify the account.
+	 * @return the account formatted summary.
+	 * @throws HandleNotRecognisedException if the handle does not match to any
+	 *                                      account in the system.
+	 */
+	@Override
+	public String showAccount(String handle) throws HandleNotRecognisedException {
+		int id = accounts.getId(handle);
+		return Account.summary(id, handle, accounts.getDescription(id), accounts.getPostCount(id),
+				accounts.getEndorsementCount(id));
+	}
+
+	/**
+	 * The method creates a post in the platform with the given handle and
+	 * message.
+	 *
+	 * @param handle  account's handle.
+	 * @param message post's message.
+	 * @return the ID of the created post.
+	 * @throws HandleNotRecognisedException if the handle does not match to any
+	 *                                      account in the system.
+	 * @throws InvalidPostException         if the new message is empty or has
+	 *                                      more than 100 characters.
+	 */
+	@Override
+	public int createPost(String handle, String message) throws HandleNotRecognisedException, InvalidPostException {
+		int author = accounts.getId(handle);
+		if (!PostStore.isValidMessage(message)) {
+			throw new InvalidPostException("Post message invalid.");
+		}
+		int id = postIds.next();
+		posts.add(id, PostColumns.ORIGINAL, author, System.currentTimeMillis(), message);
+		return id;
+	}
+
+	/**
+	 * The method creates an endorsement post of an existing post. An account
+	 * endorses a post at most once, as in SocialMedia.
+	 *
+	 * @param handle of the account endorsing a post.
+	 * @param id     of the post being endorsed.
+	 * @return the sequential ID of the created post, or the ID of the existing
+	 *         endorsement of the post by the account.
+	 * @throws HandleNotRecognisedException if the handle does not match to any
+	 *                                      account in the system.
+	 * @throws PostIDNotRecognisedException if the ID does not match to any post
+	 *                                      in the system.
+	 * @throws NotActionablePostException   if the ID refers to a endorsement
+	 *                                      post.
+	 */
+	@Override
+	public int endorsePost(String handle, int id)
+			throws HandleNotRecognisedException, PostIDNotRecognisedException, NotActionablePostException {
+		int author = accounts.getId(handle);
+		posts.checkActionable(id);
+		// an account endorses a post once, so endorsing it again changes nothing
+		int existing = posts.findEndorsement(author, id);
+		if (existing != PostColumns.NONE) {
+			return existing;
+		}
+		int endorsement = postIds.next();
+		posts.add(endorsement, PostColumns.ENDORSEMENT, author, System.currentTimeMillis(), null);
+		posts.linkEndorsement(endorsement, id);
+		return endorsement;
+	}
+
+	/**
+	 * The method creates a comment post referring to an existing post.
+	 *
+	 * @param handle  of the account commenting a post.
+	 * @param id      of the post being commented.
+	 * @param message the comment post message.
+	 * @return the sequential ID of the created post.
+	 * @throws HandleNotRecognisedException if the handle does not match to any
+	 *                                      account in the system.
+	 * @throws PostIDNotRecognisedException if the ID does not match to any post
+	 *                                      in the system.
+	 * @throws NotActionablePostException   if the ID refers to a endorsement
+	 *                                      post.
+	 * @throws InvalidPostException         if the comment message is empty or
+	 *                                      has more than 100 characters.
+	 */
+	@Override
+	public int commentPost(String handle, int id, String message) throws HandleNotRecognisedException,
+			PostIDNotRecognisedException, NotActionablePostException, InvalidPostException {
+		int author = accounts.getId(handle);
+		posts.checkActionable(id);
+		if (!PostStore.isValidMessage(message)) {
+			throw new InvalidPostException("Invalid Post");
+		}
+		int comment = postIds.next();
+		posts.add(comment, PostColumns.COMMENT, author, System.currentTimeMillis(), message);
+		posts.linkComment(comment, id);
+		return comment;
+	}
+
+	/**
+	 * The method removes the post with the corresponding ID from the system,
+	 * with its endorsements; its comments are left without a parent.
+	 *
+	 * @param id post's id
+	 * @throws PostIDNotRecognisedException if the ID does not match to any post
+	 *                                      in the system.
+	 */
+	@Override
+	public void deletePost(int id) throws PostIDNotRecognisedException {
+		posts.check(id);
+		posts.remove(id);
+	}
+
+	/**
+	 * The method generates a formated string containing the details of a single
+	 * post, as {@link SocialMedia#showIndividualPost(int)}.
+	 *
+	 * @param id of the post to be shown.
+	 * @return a formatted string containing post's details.
+	 * @throws PostIDNotRecognisedException if the ID does not match to any post
+	 *                                      in the system.
+	 */
+	@Override
+	public String showIndividualPost(int id) throws PostIDNotRecognisedException {
+		posts.check(id);
+		return format(id);
+	}
+
+	private String format(int id) {
+		return Post.format(id, accounts.getHandle(posts.getAuthor(id)), posts.getEndorsementCount(id),
+				posts.getCommentCount(id), posts.getMessage(id));
+	}
+
+	/**
+	 * The method builds a StringBuilder showing the details of the current post
+	 * and all its children posts, as
+	 * {@link SocialMedia#showPostChildrenDetails(int)}. The thread is walked
+	 * with a stack of post IDs rather than by recursion, so threads of any depth
+	 * can be shown.
+	 *
+	 * @param id of the post to be shown.
+	 * @return a formatted StringBuilder containing the details of the post and
+	 *         its children.
+	 * @throws PostIDNotRecognisedException if the ID does not match to any post
+	 *                                      in the system.
+	 * @throws NotActionablePostException   if the ID refers to an endorsement
+	 *                                      post.
+	 */
+	@Override
+	public StringBuilder showPostChildrenDetails(int id)
+			throws PostIDNotRecognisedException, NotActionablePostException {
+		posts.checkActionable(id);
+		StringBuilder buffer = new StringBuilder();
+		// next comment to show at each depth below the root
+		int[] stack = new int[16];
+		int depth = 0;
+		int post = id;
+		while (true) {
+			ThreadRenderer.appendPost(buffer, format(post), depth);
+			int first = posts.getFirstComment(post);
+			if (first != PostColumns.NONE) {
+				ThreadRenderer.appendSeparator(buffer, depth);
+				if (depth == stack.length) {
+					stack = Arrays.copyOf(stack, depth * 2);
+				}
+				stack[depth++] = first;
+			}
+			while (depth > 0 && stack[depth - 1] == PostColumns.NONE) {
+				depth--;
+			}
+			if (depth == 0) {
+				return buffer;
+			}
+			post = stack[depth - 1];
+			stack[depth - 1] = posts.getNextSibling(post);
+		}
+	}
+
+	@Override
+	public int getNumberOfAccounts() {
+		return accounts.size();
+	}
+
+	@Override
+	public int getTotalOriginalPosts() {
+		return posts.getOriginalCount();
+	}
+
+	@Override
+	public int getTotalEndorsmentPosts() {
+		return posts.getEndorsementCount();
+	}
+
+	@Override
+	public int getTotalCommentPosts() {
+		return posts.getCommentCount();
+	}
+
+	@Override
+	public int getMostEndorsedPost() {
+		return posts.getMostEndorsed();
+	}
+
+	@Override
+	public int getMostEndorsedAccount() {
+		return accounts.getMostEndorsed();
+	}
+
+	/**
+	 * This method empties the platform and restarts the account and post IDs.
+	 */
+	@Override
+	public void erasePlatform() {
+		accounts = new AccountColumns(FIRST_ID);
+		posts = new PostColumns(FIRST_ID, accounts);
+		accountIds.reset();
+		postIds.reset();
+	}
+
+	/**
+	 * Method saves the platform's contents into a snapshot file, in the format of
+	 * {@link PlatformSnapshot}, replacing any deltas of the file.
+	 *
+	 * @param filename location of the file to be saved
+	 * @throws IOException if the file cannot be written
+	 */
+	@Override
+	public void savePlatform(String filename) throws IOException {
+		compactor.writeSnapshot(Paths.get(filename).toAbsolutePath(), new ColumnSource());
+	}
+
+	/**
+	 * Method loads a snapshot file, with its deltas, into the platform, replacing
+	 * its contents. The contents are only replaced once the whole file was read
+	 * and checked.
+	 *
+	 * @param filename location of the file to be loaded
+	 * @throws IOException            if the file cannot be read or is not a valid
+	 *                                snapshot
+	 * @throws ClassNotFoundException never, declared by the interface
+	 */
+	@Override
+	public void loadPlatform(String filename) throws IOException, ClassNotFoundException {
+		Path file = Paths.get(filename);
+		PlatformSnapshot.Records records = PlatformSnapshot.readWithDeltas(file);
+		AccountColumns loadedAccounts = new AccountColumns(FIRST_ID);
+		PostColumns loadedPosts = new PostColumns(FIRST_ID, loadedAccounts);
+
+		ArrayList<PlatformSnapshot.AccountRecord> accountRecords = new ArrayList<>(records.accounts.values());
+		accountRecords.sort(Comparator.comparingInt(r -> r.id));
+		HashSet<String> handles = new HashSet<>();
+		for (PlatformSnapshot.AccountRecord r : accountRecords) {
+			if (r.handle == null || !handles.add(r.handle)) {
+				throw new IOException("Missing or duplicate handle in snapshot");
+			}
+			if (r.id < FIRST_ID) {
+				throw new IOException("Account ID " + r.id + " out of range in snapshot");
+			}
+			loadedAccounts.add(r.id, r.handle, r.description);
+		}
+
+		// every post is added before any is linked, since a parent may have a
+		// higher ID than its child
+		ArrayList<PlatformSnapshot.PostRecord> postRecords = new ArrayList<>(records.posts.values());
+		postRecords.sort(Comparator.comparingInt(r -> r.id));
+		for (PlatformSnapshot.PostRecord r : postRecords) {
+			if (!loadedAccounts.contains(r.authorId)) {
+				throw new IOException("Post " + r.id + " refers to an unknown account");
+			}
+			if (r.id < FIRST_ID) {
+				throw new IOException("Post ID " + r.id + " out of range in snapshot");
+			}
+			byte kind = r.kind == PlatformSnapshot.ORIGINAL ? PostColumns.ORIGINAL
+					: r.kind == PlatformSnapshot.COMMENT ? PostColumns.COMMENT : PostColumns.ENDORSEMENT;
+			loadedPosts.add(r.id, kind, r.authorId, r.timestamp, r.message);
+		}
+		for (PlatformSnapshot.PostRecord r : postRecords) {
+			// only original posts and comments can be parents
+			byte parentKind = loadedPosts.kindOf(r.parentId);
+			boolean parentExists = parentKind == PostColumns.ORIGINAL || parentKind == PostColumns.COMMENT;
+			if (r.kind == PlatformSnapshot.COMMENT) {
+				if (parentExists) {
+					loadedPosts.linkComment(r.id, r.parentId);
+				}
+			} else if (r.kind == PlatformSnapshot.ENDORSEMENT) {
+				if (!parentExists) {
+					throw new IOException("Endorsement " + r.id + " refers to an unknown post");
+				}
+				loadedPosts.linkEndorsement(r.id, r.parentId);
+			}
+		}
+
+		accounts = loadedAccounts;
+		posts = loadedPosts;
+		accountIds.resumeAfter(records.nextAccountId - 1);
+		postIds.resumeAfter(records.nextPostId - 1);
+	}
+
+	/**
+	 * Contents of the platform as read by {@link PlatformSnapshot}, from the
+	 * columns as they are when it is created.
+	 */
+	private final class ColumnSource implements PlatformSnapshot.Source {
+		private final int[] accountIds = accounts.getIds();
+		private final int[] postIds = posts.getIds();
+
+		@Override
+		public int getNextAccountId() {
+			return ColumnarSocialMedia.this.accountIds.peek();
+		}
+
+		@Override
+		public int getNextPostId() {
+			return ColumnarSocialMedia.this.postIds.peek();
+		}
+
+		@Override
+		public int getAccountCount() {
+			return accountIds.length;
+		}
+
+		@Override
+		public int getAccountId(int index) {
+			return accountIds[index];
+		}
+
+		@Override
+		public String getHandle(int index) {
+			return accounts.getHandle(accountIds[index]);
+		}
+
+		@Override
+		public String getDescription(int index) {
+			return accounts.getDescription(accountIds[index]);
+		}
+
+		@Override
+		public int getAccountPostCount(int index) {
+			return accounts.getPostCount(accountIds[index]);
+		}
+
+		@Override
+		public int getAccountEndorsementCount(int index) {
+			return accounts.getEndorsementCount(accountIds[index]);
+		}
+
+		@Override
+		public int getPostCount() {
+			return postIds.length;
+		}
+
+		@Override
+		public int getKind(int index) {
+			byte kind = posts.kindOf(postIds[index]);
+			return kind == PostColumns.ORIGINAL ? PlatformSnapshot.ORIGINAL
+					: kind == PostColumns.COMMENT ? PlatformSnapshot.COMMENT : PlatformSnapshot.ENDORSEMENT;
+		}
+
+		@Override
+		public int getPostId(int index) {
+			return postIds[index];
+		}
+
+		@Override
+		public int getAuthorId(int index) {
+			return posts.getAuthor(postIds[index]);
+		}
+
+		@Override
+		public int getParentId(int index) {
+			return posts.getParent(postIds[index]);
+		}
+
+		@Override
+		public long getTimestamp(int index) {
+			return posts.getTimestamp(postIds[index]);
+		}
+
+		@Override
+		public int getEndorsementCount(int index) {
+			return posts.getEndorsementCount(postIds[index]);
+		}
+
+		@Override
+		public int getCommentCount(int index) {
+			return posts.getCommentCount(postIds[index]);
+		}
+
+		@Override
+		public String getMessage(int index) {
+			return posts.getMessage(postIds[index]);
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package socialmedia;
+
+public class Comment extends Post {
+
+    // initialise private Comment class variables
+    private Post parent; // post this comment replies to
+    
+    // constructors
+    
+    /**
+     * Constructor to create a comment by an account replying to a post
+     *
+     * @param postId
+     * @param account
+     * @param parent
+     * @param message
+     */
+    public Comment(int postId, Account account, Post parent, String message) {
+        super(postId, account, message); // access superclass parameters
+        setParent(parent);
+    }
+
+    // setter methods
+    
+    /**
+     * Setter method for the post this comment replies to
+     * @param parent
+     */
+    public void setParent(Post parent) {
+        this.parent = parent;
+    }
+
+    // getter methods
+    
+    /**
+     * Getter method for the post this comment replies to
+     * @return parent
+     */
+    public Post getParent() {
+        return this.parent;
+    }
+
+    /**
+     * Getter method for comment
+     * @return comment message
+     */
+    public String getComment() {
+        return getMessage();
+    }
+}
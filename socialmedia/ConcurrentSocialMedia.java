@@ -0,0 +1,759 @@
+package socialmedia;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe implementation of the SocialMediaPlatform interface.
+ * <p>
+ * Accounts and posts are kept in concurrent maps. Operations that only add
+ * content or read it (creating accounts, posts, comments and endorsements,
+ * showing posts and accounts) run in parallel: they share the read side of a
+ * structure lock and serialise only on a striped lock for the handle or post
+ * they modify. Operations that restructure the platform (removing accounts or
+ * posts, renaming handles, erasing, saving and loading) take the write side, so
+ * they see and leave a consistent platform.
+ * <p>
+ * Every operation validates all of its arguments before modifying anything, so
+ * the state of the platform is unchanged if an exception is thrown, whichever
+ * other operations run at the same time.
+ *
+ * @version 1.0
+ */
+public class ConcurrentSocialMedia
+		implements TrendingSocialMediaPlatform, ThreadedSocialMediaPlatform, BatchSocialMediaPlatform {
+
+	private static final long serialVersionUID = 1L;
+
+	// number of striped locks for handles and for posts
+	private static final int STRIPES = 64;
+
+	// account indexes by handle and by account ID
+	private final ConcurrentHashMap<String, Account> accountsByHandle = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<Integer, Account> accountsById = new ConcurrentHashMap<>();
+	// post index by post ID, for posts, comments and endorsements
+	private final ConcurrentHashMap<Integer, Post> postsById = new ConcurrentHashMap<>();
+	// account ID -> content authored by the account
+	private final ConcurrentHashMap<Integer, AccountActivity> activityByAccount = new ConcurrentHashMap<>();
+	// formatted details of recently shown posts, segmented like the post locks
+	private final RenderCache renderCache = new RenderCache(RenderCache.DEFAULT_CAPACITY, STRIPES);
+	// running totals of each kind of post
+	private final AtomicInteger originalCount = new AtomicInteger();
+	private final AtomicInteger commentCount = new AtomicInteger();
+	private final AtomicInteger endorsementCount = new AtomicInteger();
+	// endorsement rankings of posts and accounts, kept up to date on every change
+	private final EndorsementRankings rankings = new EndorsementRankings();
+
+	// read side for additive operations, write side for structural ones
+	private final ReentrantReadWriteLock structureLock = new ReentrantReadWriteLock();
+	// striped locks guarding a handle's registration and a post's child lists
+	private final ReentrantLock[] handleLocks = newStripes();
+	private final ReentrantLock[] postLocks = newStripes();
+	// allocators of account and post IDs, shared by all threads
+	private final IdAllocator accountIds;
+	private final IdAllocator postIds;
+
+	/**
+	 * Constructor to create an empty platform handing out sequential IDs
+	 */
+	public ConcurrentSocialMedia() {
+		this(1);
+	}
+
+	/**
+	 * Constructor to create an empty platform where each thread reserves blocks of
+	 * IDs, so that threads creating content concurrently do not contend on a
+	 * single counter. IDs are then unique but not sequential across threads.
+	 *
+	 * @param idBlockSize number of IDs each thread reserves at a time
+	 */
+	public ConcurrentSocialMedia(int idBlockSize) {
+		accountIds = new IdAllocator(1000, idBlockSize);
+		postIds = new IdAllocator(1000, idBlockSize);
+	}
+
+	private static ReentrantLock[] newStripes() {
+		ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+		return stripes;
+	}
+
+	private Lock handleLock(String handle) {
+		return handleLocks[Math.floorMod(handle.hashCode(), STRIPES)];
+	}
+
+	private Lock postLock(int postId) {
+		return postLocks[Math.floorMod(postId, STRIPES)];
+	}
+
+	private Account getAccount(String handle) throws HandleNotRecognisedException {
+		Account account = accountsByHandle.get(handle);
+		if (account == null) {
+			throw new HandleNotRecognisedException("Handle not recognised");
+		}
+		return account;
+	}
+
+	private Post getPost(int id) throws PostIDNotRecognisedException {
+		Post post = postsById.get(id);
+		if (post == null) {
+			throw new PostIDNotRecognisedException("Post ID not recognised");
+		}
+		return post;
+	}
+
+	private AccountActivity activityOf(int accountId) {
+		AccountActivity activity = activityByAccount.get(accountId);
+		return activity != null ? activity : new AccountActivity();
+	}
+
+	/**
+	 * Adds a post to the index of its author's content. Posts of one account may
+	 * be indexed concurrently, since AccountActivity is synchronized.
+	 */
+	private void index(Post post) {
+		activityByAccount.computeIfAbsent(post.getAccount().getId(), id -> new AccountActivity()).add(post);
+	}
+
+	/**
+	 * Drops a post from the index of its author's content. Must be called while
+	 * holding the write side of the structure lock.
+	 */
+	private void unindex(Post post) {
+		AccountActivity activity = activityByAccount.get(post.getAccount().getId());
+		if (activity != null) {
+			activity.remove(post);
+			if (activity.size() == 0) {
+				activityByAccount.remove(post.getAccount().getId());
+			}
+		}
+	}
+
+	private Post getActionablePost(int id) throws PostIDNotRecognisedException, NotActionablePostException {
+		Post post = getPost(id);
+		if (post instanceof Endorsement) {
+			throw new NotActionablePostException("Endorsement posts cannot be endorsed or commented");
+		}
+		return post;
+	}
+
+	@Override
+	public int createAccount(String handle) throws IllegalHandleException, InvalidHandleException {
+		return createAccount(handle, null);
+	}
+
+	@Override
+	public int createAccount(String handle, String description) throws IllegalHandleException, InvalidHandleException {
+		if (!AccountRegistry.isValidHandle(handle)) {
+			throw new InvalidHandleException("Invalid Handle");
+		}
+		structureLock.readLock().lock();
+		Lock lock = handleLock(handle);
+		lock.lock();
+		try {
+			// check handle does not already exist, before an account ID is used up
+			if (accountsByHandle.containsKey(handle)) {
+				throw new IllegalHandleException("Handle Already Exists");
+			}
+			Account account = new Account(accountIds.next(), handle, description);
+			accountsById.put(account.getId(), account);
+			accountsByHandle.put(handle, account);
+			rankings.accountCreated(account);
+			return account.getId();
+		} finally {
+			lock.unlock();
+			structureLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void removeAccount(int id) throws AccountIDNotRecognisedException {
+		structureLock.writeLock().lock();
+		try {
+			Account account = accountsById.get(id);
+			if (account == null) {
+				throw new AccountIDNotRecognisedException("Account ID not recognised");
+			}
+			removeAccount(account);
+		} finally {
+			structureLock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void removeAccount(String handle) throws HandleNotRecognisedException {
+		structureLock.writeLock().lock();
+		try {
+			removeAccount(getAccount(handle));
+		} finally {
+			structureLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes an account that is known to exist, together with its posts. Must be
+	 * called while holding the write side of the structure lock.
+	 */
+	private void removeAccount(Account account) {
+		accountsByHandle.remove(account.getHandle());
+		accountsById.remove(account.getId());
+		for (Post p : activityOf(account.getId()).getContent()) {
+			removePost(p);
+		}
+		rankings.accountRemoved(account);
+	}
+
+	@Override
+	public void changeAccountHandle(String oldHandle, String newHandle)
+			throws HandleNotRecognisedException, IllegalHandleException, InvalidHandleException {
+		structureLock.writeLock().lock();
+		try {
+			Account account = getAccount(oldHandle);
+			if (!AccountRegistry.isValidHandle(newHandle)) {
+				throw new InvalidHandleException("Invalid Handle");
+			}
+			if (accountsByHandle.containsKey(newHandle)) {
+				throw new IllegalHandleException("Handle Already Exists");
+			}
+			accountsByHandle.remove(oldHandle);
+			account.setHandle(newHandle);
+			accountsByHandle.put(newHandle, account);
+		} finally {
+			structureLock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void updateAccountDescription(String handle, String description) throws HandleNotRecognisedException {
+		structureLock.readLock().lock();
+		Lock lock = handleLock(handle);
+		lock.lock();
+		try {
+			getAccount(handle).setDescriptionField(description);
+		} finally {
+			lock.unlock();
+			structureLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public String showAccount(String handle) throws HandleNotRecognisedException {
+		structureLock.readLock().lock();
+		try {
+			Account account = getAccount(handle);
+			List<Post> content = activityOf(account.getId()).getContent();
+			int postCount = content.size();
+			int endorseCount = 0;
+			for (Post p : content) {
+				// endorsements of a post are added under its lock
+				Lock postLock = postLock(p.getId());
+				postLock.lock();
+				try {
+					endorseCount += p.getEndorsementCount();
+				} finally {
+					postLock.unlock();
+				}
+			}
+			Lock lock = handleLock(handle);
+			lock.lock();
+			try {
+				return Account.summary(account.getId(), account.getHandle(), account.getDescriptionField(),
+						postCount, endorseCount);
+			} finally {
+				lock.unlock();
+			}
+		} finally {
+			structureLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Creates a batch of accounts under the write side of the structure lock, so
+	 * that no handle of the batch can be taken between checking and creating it.
+	 */
+	@Override
+	public int[] createAccounts(String[] handles, String[] descriptions)
+			throws IllegalHandleException, InvalidHandleException {
+		checkBatch(handles.length, descriptions == null ? handles.length : descriptions.length);
+		for (String handle : handles) {
+			if (!AccountRegistry.isValidHandle(handle)) {
+				throw new InvalidHandleException("Invalid Handle");
+			}
+		}
+		structureLock.writeLock().lock();
+		try {
+			HashSet<String> batchHandles = new HashSet<>();
+			for (String handle : handles) {
+				if (accountsByHandle.containsKey(handle) || !batchHandles.add(handle)) {
+					throw new IllegalHandleException("Handle Already Exists");
+				}
+			}
+			int firstId = accountIds.reserve(handles.length);
+			int[] ids = new int[handles.length];
+			for (int i = 0; i < handles.length; i++) {
+				Account account = new Account(firstId + i, handles[i], descriptions == null ? null : descriptions[i]);
+				accountsById.put(account.getId(), account);
+				accountsByHandle.put(account.getHandle(), account);
+				rankings.accountCreated(account);
+				ids[i] = account.getId();
+			}
+			return ids;
+		} finally {
+			structureLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Creates a batch of posts under the write side of the structure lock, so
+	 * that no author of the batch can be removed between checking and posting.
+	 */
+	@Override
+	public int[] createPosts(String[] handles, String[] messages)
+			throws HandleNotRecognisedException, InvalidPostException {
+		checkBatch(handles.length, messages.length);
+		structureLock.writeLock().lock();
+		try {
+			Account[] authors = new Account[handles.length];
+			for (int i = 0; i < handles.length; i++) {
+				authors[i] = getAccount(handles[i]);
+				if (!PostStore.isValidMessage(messages[i])) {
+					throw new InvalidPostException("Post message invalid.");
+				}
+			}
+			int firstId = postIds.reserve(handles.length);
+			int[] ids = new int[handles.length];
+			for (int i = 0; i < handles.length; i++) {
+				Post post = new Post(firstId + i, authors[i], messages[i]);
+				postsById.put(post.getId(), post);
+				index(post);
+				rankings.postCreated(post);
+				ids[i] = post.getId();
+			}
+			originalCount.addAndGet(handles.length);
+			return ids;
+		} finally {
+			structureLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Creates a batch of endorsements under the write side of the structure
+	 * lock, so that no account or post of the batch can be removed between
+	 * checking and endorsing.
+	 */
+	@Override
+	public int[] endorsePosts(String[] handles, int[] ids)
+			throws HandleNotRecognisedException, PostIDNotRecognisedException, NotActionablePostException {
+		checkBatch(handles.length, ids.length);
+		structureLock.writeLock().lock();
+		try {
+			Account[] endorsers = new Account[handles.length];
+			Post[] endorsed = new Post[handles.length];
+			for (int i = 0; i < handles.length; i++) {
+				endorsers[i] = getAccount(handles[i]);
+				endorsed[i] = getActionablePost(ids[i]);
+			}
+			// find the endorsements made before, and reserve IDs for the others,
+			// once for each account and post repeated within the batch
+			Endorsement[] existing = new Endorsement[handles.length];
+			HashMap<Long, Endorsement> created = new HashMap<>();
+			for (int i = 0; i < handles.length; i++) {
+				existing[i] = findEndorsement(endorsers[i], endorsed[i]);
+				if (existing[i] == null) {
+					created.put((long) endorsers[i].getId() << 32 | endorsed[i].getId(), null);
+				}
+			}
+			int nextId = postIds.reserve(created.size());
+			int[] endorsementIds = new int[handles.length];
+			for (int i = 0; i < handles.length; i++) {
+				Endorsement endorsement = existing[i];
+				if (endorsement == null) {
+					long pair = (long) endorsers[i].getId() << 32 | endorsed[i].getId();
+					endorsement = created.get(pair);
+					if (endorsement == null) {
+						endorsement = new Endorsement(nextId++, endorsers[i], endorsed[i]);
+						postsById.put(endorsement.getId(), endorsement);
+						index(endorsement);
+						endorsed[i].addEndorsement(endorsement);
+						rankings.endorsementAdded(endorsement);
+						created.put(pair, endorsement);
+					}
+				}
+				endorsementIds[i] = endorsement.getId();
+			}
+			endorsementCount.addAndGet(created.size());
+			return endorsementIds;
+		} finally {
+			structureLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds the endorsement of a post by an account. Whether there is one is
+	 * answered in constant time by the endorsers of the post, and only a repeat
+	 * walks its endorsements for the ID. The caller holds the lock of the post
+	 * or the write side of the structure lock.
+	 */
+	private static Endorsement findEndorsement(Account account, Post post) {
+		if (!post.isEndorsedBy(account.getId())) {
+			return null;
+		}
+		for (Endorsement e : post.getEndorsements()) {
+			if (e.getAccount() == account) {
+				return e;
+			}
+		}
+		return null;
+	}
+
+	private static void checkBatch(int count, int matching) {
+		if (count != matching) {
+			throw new IllegalArgumentException("Batch arrays must have the same length");
+		}
+	}
+
+	@Override
+	public int createPost(String handle, String message) throws HandleNotRecognisedException, InvalidPostException {
+		structureLock.readLock().lock();
+		try {
+			Account account = getAccount(handle);
+			if (!PostStore.isValidMessage(message)) {
+				throw new InvalidPostException("Post message invalid.");
+			}
+			Post post = new Post(postIds.next(), account, message);
+			postsById.put(post.getId(), post);
+			index(post);
+			rankings.postCreated(post);
+			originalCount.incrementAndGet();
+			return post.getId();
+		} finally {
+			structureLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public int endorsePost(String handle, int id)
+			throws HandleNotRecognisedException, PostIDNotRecognisedException, NotActionablePostException {
+		structureLock.readLock().lock();
+		try {
+			Account account = getAccount(handle);
+			Post post = getActionablePost(id);
+			Lock lock = postLock(id);
+			lock.lock();
+			try {
+				// an account endorses a post once, so endorsing it again changes nothing
+				Endorsement existing = findEndorsement(account, post);
+				if (existing != null) {
+					return existing.getId();
+				}
+				Endorsement endorsement = new Endorsement(postIds.next(), account, post);
+				postsById.put(endorsement.getId(), endorsement);
+				index(endorsement);
+				post.addEndorsement(endorsement);
+				endorsementCount.incrementAndGet();
+				rankings.endorsementAdded(endorsement);
+				return endorsement.getId();
+			} finally {
+				lock.unlock();
+			}
+		} finally {
+			structureLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public int commentPost(String handle, int id, String message) throws HandleNotRecognisedException,
+			PostIDNotRecognisedException, NotActionablePostException, InvalidPostException {
+		structureLock.readLock().lock();
+		try {
+			Account account = getAccount(handle);
+			Post post = getActionablePost(id);
+			if (!PostStore.isValidMessage(message)) {
+				throw new InvalidPostException("Invalid Post");
+			}
+			Lock lock = postLock(id);
+			lock.lock();
+			try {
+				Comment comment = new Comment(postIds.next(), account, post, message);
+				postsById.put(comment.getId(), comment);
+				index(comment);
+				post.addComment(comment);
+				commentCount.incrementAndGet();
+				rankings.postCreated(comment);
+				return comment.getId();
+			} finally {
+				lock.unlock();
+			}
+		} finally {
+			structureLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void deletePost(int id) throws PostIDNotRecognisedException {
+		structureLock.writeLock().lock();
+		try {
+			removePost(getPost(id));
+		} finally {
+			structureLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes a post together with its endorsements, unlinking it from its parent
+	 * and re-pointing its comments at the shared empty post. Must be called while
+	 * holding the write side of the structure lock.
+	 */
+	private void removePost(Post post) {
+		if (postsById.remove(post.getId()) == null) {
+			return;
+		}
+		renderCache.remove(post.getId());
+		unindex(post);
+		rankings.postRemoved(post);
+		if (post instanceof Endorsement) {
+			((Endorsement) post).getEndorsedPost().removeEndorsement((Endorsement) post);
+			endorsementCount.decrementAndGet();
+			return;
+		}
+		if (post instanceof Comment) {
+			((Comment) post).getParent().removeComment((Comment) post);
+			commentCount.decrementAndGet();
+		} else {
+			originalCount.decrementAndGet();
+		}
+		for (Endorsement e : post.getEndorsements()) {
+			postsById.remove(e.getId());
+			renderCache.remove(e.getId());
+			unindex(e);
+		}
+		endorsementCount.addAndGet(-post.getEndorsementCount());
+		post.clearEndorsements();
+		for (Comment c : post.getComments()) {
+			c.setParent(EmptyPost.INSTANCE);
+		}
+		post.clearComments();
+	}
+
+	@Override
+	public String showIndividualPost(int id) throws PostIDNotRecognisedException {
+		structureLock.readLock().lock();
+		try {
+			Post post = getPost(id);
+			Lock lock = postLock(id);
+			lock.lock();
+			try {
+				return renderCache.render(post);
+			} finally {
+				lock.unlock();
+			}
+		} finally {
+			structureLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public StringBuilder showPostChildrenDetails(int id)
+			throws PostIDNotRecognisedException, NotActionablePostException {
+		structureLock.readLock().lock();
+		try {
+			return new LockingThreadRenderer().render(getActionablePost(id));
+		} finally {
+			structureLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void showPostChildrenDetails(int id, Appendable out)
+			throws PostIDNotRecognisedException, NotActionablePostException, IOException {
+		structureLock.readLock().lock();
+		try {
+			new LockingThreadRenderer().render(getActionablePost(id), out, ThreadRenderer.DEFAULT_BUFFER_SIZE);
+		} finally {
+			structureLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public ThreadPage showPostChildrenDetails(int id, int maxDepth, int pageSize, int afterId)
+			throws PostIDNotRecognisedException, NotActionablePostException {
+		ThreadRenderer renderer = new LockingThreadRenderer(maxDepth, pageSize);
+		structureLock.readLock().lock();
+		try {
+			return renderer.renderPage(getActionablePost(id), afterId);
+		} finally {
+			structureLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Getter method for the cache of formatted posts, e.g. to read its hit and
+	 * miss counts
+	 *
+	 * @return the render cache
+	 */
+	public RenderCache getRenderCache() {
+		return renderCache;
+	}
+
+	/**
+	 * Renders threads while comments and endorsements are added concurrently,
+	 * reading each post under its striped lock. Threads are rendered under the
+	 * read side of the structure lock, so no post is removed meanwhile.
+	 */
+	private final class LockingThreadRenderer extends ThreadRenderer {
+
+		LockingThreadRenderer() {
+			super(renderCache);
+		}
+
+		LockingThreadRenderer(int maxDepth, int pageSize) {
+			super(maxDepth, pageSize, renderCache);
+		}
+
+		@Override
+		protected String format(Post post) {
+			Lock lock = postLock(post.getId());
+			lock.lock();
+			try {
+				return super.format(post);
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		protected List<Comment> childrenOf(Post post, int afterId, int limit) {
+			Lock lock = postLock(post.getId());
+			lock.lock();
+			try {
+				return new ArrayList<>(super.childrenOf(post, afterId, limit));
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	@Override
+	public int getNumberOfAccounts() {
+		return accountsById.size();
+	}
+
+	@Override
+	public int getTotalOriginalPosts() {
+		return originalCount.get();
+	}
+
+	@Override
+	public int getTotalEndorsmentPosts() {
+		return endorsementCount.get();
+	}
+
+	@Override
+	public int getTotalCommentPosts() {
+		return commentCount.get();
+	}
+
+	@Override
+	public int getMostEndorsedPost() {
+		return rankings.getMostEndorsedPost();
+	}
+
+	@Override
+	public int getMostEndorsedAccount() {
+		return rankings.getMostEndorsedAccount();
+	}
+
+	@Override
+	public int[] getTopEndorsedPosts(int k) {
+		return rankings.getTopPosts(k);
+	}
+
+	@Override
+	public int[] getTopEndorsedAccounts(int k) {
+		return rankings.getTopAccounts(k);
+	}
+
+	@Override
+	public void setEndorsementHalfLife(Duration halfLife) {
+		structureLock.writeLock().lock();
+		try {
+			rankings.setHalfLife(halfLife, accountsById.values(), postsById.values());
+		} finally {
+			structureLock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void erasePlatform() {
+		structureLock.writeLock().lock();
+		try {
+			accountsByHandle.clear();
+			accountsById.clear();
+			postsById.clear();
+			activityByAccount.clear();
+			renderCache.clear();
+			originalCount.set(0);
+			commentCount.set(0);
+			endorsementCount.set(0);
+			rankings.clear();
+			accountIds.reset();
+			postIds.reset();
+		} finally {
+			structureLock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void savePlatform(String filename) throws IOException {
+		structureLock.writeLock().lock();
+		try {
+			PlatformSnapshot.write(Paths.get(filename), accountsById.values(), postsById.values(),
+					accountIds.peek(), postIds.peek());
+		} finally {
+			structureLock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void loadPlatform(String filename) throws IOException, ClassNotFoundException {
+		PlatformSnapshot snapshot = PlatformSnapshot.read(Paths.get(filename));
+		structureLock.writeLock().lock();
+		try {
+			erasePlatform();
+			for (Account a : snapshot.getAccounts()) {
+				accountsById.put(a.getId(), a);
+				accountsByHandle.put(a.getHandle(), a);
+			}
+			for (Post p : snapshot.getPosts()) {
+				postsById.put(p.getId(), p);
+				index(p);
+				if (p instanceof Endorsement) {
+					endorsementCount.incrementAndGet();
+				} else if (p instanceof Comment) {
+					commentCount.incrementAndGet();
+				} else {
+					originalCount.incrementAndGet();
+				}
+			}
+			rankings.rebuild(accountsById.values(), postsById.values());
+			// continue handing out IDs after the loaded ones
+			accountIds.resumeAfter(snapshot.getNextAccountId() - 1);
+			postIds.resumeAfter(snapshot.getNextPostId() - 1);
+		} finally {
+			structureLock.writeLock().unlock();
+		}
+	}
+}
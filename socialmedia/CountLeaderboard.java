@@ -0,0 +1,65 @@
+package socialmedia;
+
+/**
+ * CountLeaderboard keeps the number of endorsements of a set of posts or
+ * accounts, updated incrementally as endorsements are added and removed, and
+ * ranks them from most to least endorsed. Ties are broken in favour of the
+ * lowest ID.
+ *
+ * @version 1.0
+ */
+public interface CountLeaderboard {
+
+	/**
+	 * Method to start tracking an ID with the given number of endorsements. If the
+	 * ID is already tracked its count is replaced.
+	 *
+	 * @param id    post or account ID
+	 * @param count number of endorsements it already has
+	 */
+	void track(int id, int count);
+
+	/**
+	 * Method to change the number of endorsements of a tracked ID. Untracked IDs
+	 * are ignored.
+	 *
+	 * @param id    post or account ID
+	 * @param delta number of endorsements added, or removed if negative
+	 */
+	void add(int id, int delta);
+
+	/**
+	 * Method to stop tracking an ID
+	 *
+	 * @param id post or account ID
+	 */
+	void remove(int id);
+
+	/**
+	 * Getter method for the number of endorsements of an ID
+	 *
+	 * @param id post or account ID
+	 * @return number of endorsements, or 0 if the ID is not tracked
+	 */
+	int getCount(int id);
+
+	/**
+	 * Getter method for the most endorsed ID
+	 *
+	 * @return the ID with most endorsements, or 0 if no ID is tracked
+	 */
+	int top();
+
+	/**
+	 * Getter method for the k most endorsed IDs
+	 *
+	 * @param k maximum number of IDs to return
+	 * @return up to k IDs, from most to least endorsed
+	 */
+	int[] top(int k);
+
+	/**
+	 * Method to stop tracking every ID
+	 */
+	void clear();
+}
@@ -0,0 +1,220 @@
+package socialmedia;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * DecayingLeaderboard ranks posts or accounts by endorsement score where each
+ * endorsement counts for less as it gets older, halving in value every half
+ * life.
+ * <p>
+ * Scores are stored relative to a fixed epoch: an endorsement made at time t
+ * adds {@code exp(rate * (t - epoch))} to the score, which is the endorsement's
+ * current value scaled by a factor common to every entry. Since the common
+ * factor does not change the ordering, scores never need to be decayed as time
+ * passes, and the ranking is a skip list updated in O(log n) per endorsement and
+ * read in O(k) for the top k entries. When weights grow large the epoch is moved
+ * forward and every score is rescaled once.
+ * <p>
+ * The leaderboard is safe to use from several threads at once.
+ *
+ * @version 1.0
+ */
+public class DecayingLeaderboard {
+
+	// weights are rescaled once their exponent passes this value
+	private static final double MAX_EXPONENT = 300;
+
+	/**
+	 * Entry of the ranking, ordered from highest to lowest score, then by ID.
+	 */
+	private static final class Entry implements Comparable<Entry> {
+		final int id;
+		final double score;
+
+		Entry(int id, double score) {
+			this.id = id;
+			this.score = score;
+		}
+
+		@Override
+		public int compareTo(Entry other) {
+			int byScore = Double.compare(other.score, score);
+			return byScore != 0 ? byScore : Integer.compare(id, other.id);
+		}
+	}
+
+	// decay rate per millisecond
+	private final double rate;
+	// reference time of the stored scores, in milliseconds
+	private volatile long epoch;
+	// ID -> score relative to the epoch
+	private final ConcurrentHashMap<Integer, Double> scores = new ConcurrentHashMap<>();
+	private final ConcurrentSkipListSet<Entry> ranking = new ConcurrentSkipListSet<>();
+	// updates share the read side, rescaling takes the write side
+	private final ReentrantReadWriteLock rescaleLock = new ReentrantReadWriteLock();
+
+	/**
+	 * Constructor to create an empty leaderboard
+	 *
+	 * @param halfLife time it takes for an endorsement to lose half of its value
+	 * @param epoch    reference time for the scores, in milliseconds since the
+	 *                 epoch, usually the current time
+	 */
+	public DecayingLeaderboard(Duration halfLife, long epoch) {
+		if (halfLife.isNegative() || halfLife.isZero()) {
+			throw new IllegalArgumentException("Half life must be positive");
+		}
+		this.rate = Math.log(2) / halfLife.toMillis();
+		this.epoch = epoch;
+	}
+
+	/**
+	 * Method to start tracking an ID with no endorsements
+	 *
+	 * @param id post or account ID
+	 */
+	public void track(int id) {
+		rescaleLock.readLock().lock();
+		try {
+			scores.computeIfAbsent(id, key -> {
+				ranking.add(new Entry(key, 0));
+				return 0.0;
+			});
+		} finally {
+			rescaleLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Method to add an endorsement made at the given time to a tracked ID.
+	 * Untracked IDs are ignored.
+	 *
+	 * @param id        post or account ID
+	 * @param timestamp time of the endorsement, in milliseconds since the epoch
+	 */
+	public void addEndorsement(int id, long timestamp) {
+		if (rate * (timestamp - epoch) > MAX_EXPONENT) {
+			rescale(timestamp);
+		}
+		update(id, 1, timestamp);
+	}
+
+	/**
+	 * Method to remove an endorsement made at the given time from a tracked ID.
+	 * Untracked IDs are ignored.
+	 *
+	 * @param id        post or account ID
+	 * @param timestamp time of the endorsement, in milliseconds since the epoch
+	 */
+	public void removeEndorsement(int id, long timestamp) {
+		update(id, -1, timestamp);
+	}
+
+	private void update(int id, int sign, long timestamp) {
+		rescaleLock.readLock().lock();
+		try {
+			double weight = Math.exp(rate * (timestamp - epoch));
+			scores.computeIfPresent(id, (key, old) -> {
+				// removing every endorsement may leave a rounding residue
+				double score = Math.max(0, old + sign * weight);
+				ranking.remove(new Entry(key, old));
+				ranking.add(new Entry(key, score));
+				return score;
+			});
+		} finally {
+			rescaleLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Moves the epoch to the given time, rescaling every score to it.
+	 */
+	private void rescale(long newEpoch) {
+		rescaleLock.writeLock().lock();
+		try {
+			if (rate * (newEpoch - epoch) <= MAX_EXPONENT) {
+				return; // another thread rescaled first
+			}
+			double factor = Math.exp(-rate * (newEpoch - epoch));
+			ranking.clear();
+			for (Map.Entry<Integer, Double> e : scores.entrySet()) {
+				double score = e.getValue() * factor;
+				e.setValue(score);
+				ranking.add(new Entry(e.getKey(), score));
+			}
+			epoch = newEpoch;
+		} finally {
+			rescaleLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Method to stop tracking an ID
+	 *
+	 * @param id post or account ID
+	 */
+	public void remove(int id) {
+		rescaleLock.readLock().lock();
+		try {
+			scores.computeIfPresent(id, (key, old) -> {
+				ranking.remove(new Entry(key, old));
+				return null;
+			});
+		} finally {
+			rescaleLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Getter method for the decayed score of an ID at the given time, i.e. the
+	 * number of endorsements it would have if each was weighted by its age
+	 *
+	 * @param id  post or account ID
+	 * @param now time at which to evaluate the score, in milliseconds since the epoch
+	 * @return the decayed score, or 0 if the ID is not tracked
+	 */
+	public double getScore(int id, long now) {
+		rescaleLock.readLock().lock();
+		try {
+			double score = scores.getOrDefault(id, 0.0);
+			return score == 0 ? 0 : score * Math.exp(-rate * (now - epoch));
+		} finally {
+			rescaleLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Getter method for the k IDs with the highest decayed score
+	 *
+	 * @param k maximum number of IDs to return
+	 * @return up to k IDs, from highest to lowest score
+	 */
+	public int[] top(int k) {
+		int[] ids = new int[Math.max(0, Math.min(k, scores.size()))];
+		int n = 0;
+		Iterator<Entry> it = ranking.iterator();
+		while (n < ids.length && it.hasNext()) {
+			ids[n++] = it.next().id;
+		}
+		return n == ids.length ? ids : Arrays.copyOf(ids, n);
+	}
+
+	/**
+	 * Method to stop tracking every ID
+	 */
+	public void clear() {
+		rescaleLock.writeLock().lock();
+		try {
+			scores.clear();
+			ranking.clear();
+		} finally {
+			rescaleLock.writeLock().unlock();
+		}
+	}
+}
@@ -0,0 +1,281 @@
+package socialmedia;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * DeltaSnapshot is the file format of the changes made to a platform since it
+ * was last saved to, or loaded from, a snapshot file. A delta is written next
+ * to the snapshot as {@code <snapshot>.delta-N}, N being its sequence number,
+ * and only holds the accounts and posts that were created, changed or removed,
+ * so writing one takes time in proportion to the changes rather than to the
+ * size of the platform.
+ * <p>
+ * The file layout is:
+ *
+ * <pre>
+ * magic "SMPD" | version | sequence number
+ * next account ID | next post ID
+ * accounts: count, then for each created or changed account in ID order:
+ *     ID delta | handle | has description | description
+ * removed accounts: count, then each ID delta
+ * posts: count, then for each created or changed post in ID order:
+ *     kind | ID delta | author ID | parent ID | creation time | message
+ * removed posts: count, then each ID delta
+ * CRC32 of all of the above
+ * </pre>
+ *
+ * Records hold the whole account or post, as in {@link PlatformSnapshot}, so
+ * applying a delta replaces them; applying the same deltas again in order
+ * gives the same result.
+ *
+ * @version 1.0
+ */
+public class DeltaSnapshot {
+
+	/** First bytes of every delta snapshot file. */
+	public static final int MAGIC = 0x534D5044; // "SMPD"
+	/** Version of the delta layout written by this class. */
+	public static final int VERSION = 1;
+
+	private static final String SUFFIX = ".delta-";
+
+	/**
+	 * Method to name a delta of a snapshot file
+	 *
+	 * @param snapshot snapshot file
+	 * @param sequence sequence number of the delta
+	 * @return path of the delta file
+	 */
+	public static Path pathOf(Path snapshot, long sequence) {
+		// zero padded, so that names sort in sequence order
+		return snapshot.resolveSibling(snapshot.getFileName() + SUFFIX + String.format("%020d", sequence));
+	}
+
+	/**
+	 * Method to read the sequence number of a delta from its name
+	 *
+	 * @param delta delta file
+	 * @return the sequence number
+	 */
+	public static long sequenceOf(Path delta) {
+		String name = delta.getFileName().toString();
+		return Long.parseLong(name.substring(name.lastIndexOf(SUFFIX) + SUFFIX.length()));
+	}
+
+	/**
+	 * Method to list the deltas of a snapshot file
+	 *
+	 * @param snapshot snapshot file
+	 * @return the delta files, in sequence order
+	 * @throws IOException if the directory cannot be listed
+	 */
+	public static List<Path> list(Path snapshot) throws IOException {
+		ArrayList<Path> deltas = new ArrayList<>();
+		Path directory = snapshot.toAbsolutePath().getParent();
+		String prefix = snapshot.getFileName() + SUFFIX;
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				if (name.startsWith(prefix) && name.length() > prefix.length()
+						&& name.substring(prefix.length()).chars().allMatch(Character::isDigit)) {
+					deltas.add(snapshot.resolveSibling(name));
+				}
+			}
+		}
+		deltas.sort(Comparator.comparingLong(DeltaSnapshot::sequenceOf));
+		return deltas;
+	}
+
+	/**
+	 * Method to write a delta of a snapshot file. The file is written next to the
+	 * target and moved into place once complete, so a delta is never seen half
+	 * written.
+	 *
+	 * @param snapshot        snapshot file the delta follows
+	 * @param sequence        sequence number of the delta
+	 * @param accounts        created or changed accounts
+	 * @param removedAccounts IDs of removed accounts
+	 * @param posts           created or changed posts
+	 * @param removedPosts    IDs of removed posts
+	 * @param nextAccountId   first account ID not yet handed out
+	 * @param nextPostId      first post ID not yet handed out
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void write(Path snapshot, long sequence, Collection<Account> accounts,
+			Collection<Integer> removedAccounts, Collection<Post> posts, Collection<Integer> removedPosts,
+			int nextAccountId, int nextPostId) throws IOException {
+		write(snapshot, sequence, accounts, removedAccounts, posts, removedPosts, nextAccountId, nextPostId,
+				SnapshotWriter::new);
+	}
+
+	/**
+	 * Method to write a delta of a snapshot file through writers made by the
+	 * given factory, e.g. one failing partway through, see
+	 * {@link #write(Path, long, Collection, Collection, Collection, Collection, int, int)}
+	 *
+	 * @param snapshot        snapshot file the delta follows
+	 * @param sequence        sequence number of the delta
+	 * @param accounts        created or changed accounts
+	 * @param removedAccounts IDs of removed accounts
+	 * @param posts           created or changed posts
+	 * @param removedPosts    IDs of removed posts
+	 * @param nextAccountId   first account ID not yet handed out
+	 * @param nextPostId      first post ID not yet handed out
+	 * @param writers         makes the writer of the file's channel
+	 * @throws IOException if the file cannot be written
+	 */
+	static void write(Path snapshot, long sequence, Collection<Account> accounts,
+			Collection<Integer> removedAccounts, Collection<Post> posts, Collection<Integer> removedPosts,
+			int nextAccountId, int nextPostId, Function<FileChannel, SnapshotWriter> writers) throws IOException {
+		ArrayList<Account> sortedAccounts = new ArrayList<>(accounts);
+		sortedAccounts.sort(Comparator.comparingInt(Account::getId));
+		ArrayList<Post> sortedPosts = new ArrayList<>(posts);
+		sortedPosts.sort(Comparator.comparingInt(Post::getId));
+
+		Path file = pathOf(snapshot, sequence);
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING)) {
+				SnapshotWriter out = writers.apply(channel);
+				out.writeInt(MAGIC);
+				out.writeByte(VERSION);
+				out.writeVarLong(sequence);
+				out.writeVarInt(nextAccountId);
+				out.writeVarInt(nextPostId);
+				out.writeVarInt(sortedAccounts.size());
+				int previousId = 0;
+				for (Account a : sortedAccounts) {
+					out.writeVarInt(a.getId() - previousId);
+					out.writeString(a.getHandle());
+					out.writeByte(a.getDescriptionField() == null ? 0 : 1);
+					if (a.getDescriptionField() != null) {
+						out.writeString(a.getDescriptionField());
+					}
+					previousId = a.getId();
+				}
+				writeIds(out, removedAccounts);
+				out.writeVarInt(sortedPosts.size());
+				previousId = 0;
+				for (Post p : sortedPosts) {
+					int kind = PlatformSnapshot.kindOf(p);
+					out.writeByte(kind);
+					out.writeVarInt(p.getId() - previousId);
+					out.writeVarInt(p.getAccount().getId());
+					out.writeVarInt(PlatformSnapshot.parentIdOf(p));
+					out.writeVarLong(p.getTimestamp());
+					if (kind != PlatformSnapshot.ENDORSEMENT) {
+						out.writeString(p.getMessage());
+					}
+					previousId = p.getId();
+				}
+				writeIds(out, removedPosts);
+				out.writeChecksum();
+				channel.force(false);
+			}
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException | RuntimeException e) {
+			// a delta that was not completely written must not be left behind
+			PlatformSnapshot.deleteTemporary(temp, e);
+			throw e;
+		}
+	}
+
+	private static void writeIds(SnapshotWriter out, Collection<Integer> ids) throws IOException {
+		int[] sorted = ids.stream().mapToInt(Integer::intValue).sorted().toArray();
+		out.writeVarInt(sorted.length);
+		int previousId = 0;
+		for (int id : sorted) {
+			out.writeVarInt(id - previousId);
+			previousId = id;
+		}
+	}
+
+	/**
+	 * Method to apply a delta to the records of its snapshot. The records are
+	 * only changed once the whole delta was read and its checksum matches.
+	 *
+	 * @param delta   delta file
+	 * @param records records of the snapshot and the deltas before this one
+	 * @throws IOException if the file cannot be read or is not a valid delta
+	 */
+	static void apply(Path delta, PlatformSnapshot.Records records) throws IOException {
+		try (FileChannel channel = FileChannel.open(delta, StandardOpenOption.READ)) {
+			SnapshotReader in = new SnapshotReader(channel);
+			if (in.readInt() != MAGIC) {
+				throw new IOException(delta + " is not a delta snapshot");
+			}
+			int version = in.readByte();
+			if (version != VERSION) {
+				throw new IOException("Unsupported delta snapshot version " + version);
+			}
+			long sequence = in.readVarLong();
+			int nextAccountId = in.readVarInt();
+			int nextPostId = in.readVarInt();
+			ArrayList<PlatformSnapshot.AccountRecord> accounts = new ArrayList<>();
+			int count = in.readVarInt();
+			int id = 0;
+			for (int i = 0; i < count; i++) {
+				id += in.readVarInt();
+				String handle = in.readString();
+				String description = in.readByte() == 0 ? null : in.readString();
+				accounts.add(new PlatformSnapshot.AccountRecord(id, handle, description));
+			}
+			int[] removedAccounts = readIds(in);
+			ArrayList<PlatformSnapshot.PostRecord> posts = new ArrayList<>();
+			count = in.readVarInt();
+			id = 0;
+			for (int i = 0; i < count; i++) {
+				int kind = in.readByte();
+				id += in.readVarInt();
+				int authorId = in.readVarInt();
+				int parentId = in.readVarInt();
+				long timestamp = in.readVarLong();
+				if (kind > PlatformSnapshot.ENDORSEMENT) {
+					throw new IOException("Unknown post kind " + kind + " in delta snapshot");
+				}
+				String message = kind == PlatformSnapshot.ENDORSEMENT ? null : in.readString();
+				posts.add(new PlatformSnapshot.PostRecord(kind, id, authorId, parentId, timestamp, message));
+			}
+			int[] removedPosts = readIds(in);
+			in.verifyChecksum();
+
+			for (PlatformSnapshot.AccountRecord r : accounts) {
+				records.accounts.put(r.id, r);
+			}
+			for (int removed : removedAccounts) {
+				records.accounts.remove(removed);
+			}
+			for (PlatformSnapshot.PostRecord r : posts) {
+				records.posts.put(r.id, r);
+			}
+			for (int removed : removedPosts) {
+				records.posts.remove(removed);
+			}
+			records.nextAccountId = nextAccountId;
+			records.nextPostId = nextPostId;
+			records.sequence = sequence;
+		}
+	}
+
+	private static int[] readIds(SnapshotReader in) throws IOException {
+		int[] ids = new int[in.readVarInt()];
+		int id = 0;
+		for (int i = 0; i < ids.length; i++) {
+			id += in.readVarInt();
+			ids[i] = id;
+		}
+		return ids;
+	}
+}
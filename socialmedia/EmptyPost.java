@@ -0,0 +1,54 @@
+package socialmedia;
+
+/**
+ * The generic empty post that replaces a deleted post as the parent of its
+ * comments. A single instance is shared by every platform: it is never stored,
+ * has no ID, author, endorsements or comments, and cannot be changed, so
+ * deleting a post only has to re-point its direct comments at it.
+ */
+public final class EmptyPost extends Post {
+
+    /** The shared empty post. */
+    public static final EmptyPost INSTANCE = new EmptyPost();
+
+    // constructors
+
+    /**
+     * Constructor to create the shared empty post
+     */
+    private EmptyPost() {
+        super(PostStore.EMPTY_POST_MESSAGE);
+    }
+
+    // setter methods, which cannot change the shared instance
+
+    @Override
+    public void setAccount(Account account) {
+        throw new UnsupportedOperationException("The empty post cannot be changed");
+    }
+
+    @Override
+    public String setMessage(String message) {
+        throw new UnsupportedOperationException("The empty post cannot be changed");
+    }
+
+    @Override
+    public int setPostId(int postId) {
+        throw new UnsupportedOperationException("The empty post cannot be changed");
+    }
+
+    @Override
+    public void setTimestamp(long timestamp) {
+        throw new UnsupportedOperationException("The empty post cannot be changed");
+    }
+
+    @Override
+    public void addComment(Comment comment) {
+        throw new UnsupportedOperationException("The empty post cannot be commented");
+    }
+
+    @Override
+    public void addEndorsement(Endorsement endorsement) {
+        throw new UnsupportedOperationException("The empty post cannot be endorsed");
+    }
+}
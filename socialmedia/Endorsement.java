@@ -0,0 +1,63 @@
+package socialmedia;
+
+public class Endorsement extends Post{
+
+    // initialise private Endorsement class variables
+    private Post endorsedPost; // post this endorsement refers to
+    // text last derived from the endorsed post, kept while it is current so
+    // that showing the endorsement again returns the same string
+    private String endorsement;
+
+    // constructors
+
+    /**
+     * Constructor to create endorsement of a post by an account. The message
+     * of an endorsement is "EP@" + [endorsed account handle] + ": " + [endorsed message],
+     * derived from the endorsed post when it is read, so that it names the
+     * endorsed account by its current handle
+     * @param postId
+     * @param account
+     * @param endorsedPost
+     */
+    public Endorsement(int postId, Account account, Post endorsedPost){
+        super(postId, account, null); // access superclass parameters
+        this.endorsedPost = endorsedPost;
+    }
+
+    // getter methods 
+    
+    /**
+     * Getter method for the endorsed post
+     * @return endorsedPost
+     */
+    public Post getEndorsedPost() {
+        return this.endorsedPost;
+    }
+
+    /**
+     * Getter method for endorsement
+     * @return endorsement message
+     */
+    public String getEndorsement() {
+        return getMessage();
+    }
+
+    /**
+     * Getter method for the endorsement message, derived from the endorsed post.
+     * The endorsed message never changes, so the last derived text is current
+     * as long as it holds the current handle of the endorsed account.
+     * @return "EP@" + [endorsed account handle] + ": " + [endorsed message]
+     */
+    @Override
+    public String getMessage() {
+        String handle = endorsedPost.getHandle();
+        String message = endorsedPost.getMessage();
+        String text = endorsement;
+        if (text == null || text.length() != handle.length() + message.length() + 5
+                || !text.startsWith(handle, 3)) {
+            text = "EP@" + handle + ": " + message;
+            endorsement = text;
+        }
+        return text;
+    }
+}
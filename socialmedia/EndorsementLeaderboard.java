@@ -0,0 +1,138 @@
+package socialmedia;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * EndorsementLeaderboard keeps the number of endorsements of a set of posts or
+ * accounts, updated incrementally as endorsements are added and removed, along
+ * with a skip list of them ordered from most to least endorsed.
+ * <p>
+ * Updating a count costs O(log n), finding the most endorsed entry O(1) and the
+ * top k entries O(k), instead of scanning every post. Ties are broken in favour
+ * of the lowest ID. The leaderboard is safe to use from several threads at once:
+ * every update of an ID's count and its position in the ordering happens
+ * atomically for that ID. {@link HeapLeaderboard} ranks the same way without
+ * allocating, for platforms used from a single thread.
+ *
+ * @version 1.0
+ */
+public class EndorsementLeaderboard implements CountLeaderboard {
+
+	// ID -> number of endorsements
+	private final ConcurrentHashMap<Integer, Integer> counts = new ConcurrentHashMap<>();
+	// ranking keys, ordered from most to least endorsed, then by ID
+	private final ConcurrentSkipListSet<Long> ranking = new ConcurrentSkipListSet<>();
+
+	/**
+	 * Builds the ranking key of an ID with a count, so that the natural ordering
+	 * of keys puts higher counts first and lower IDs first among equal counts.
+	 */
+	private static long rankingKey(int id, int count) {
+		return ((long) (Integer.MAX_VALUE - count) << 32) | (id & 0xFFFFFFFFL);
+	}
+
+	private static int idOf(long rankingKey) {
+		return (int) rankingKey;
+	}
+
+	/**
+	 * Method to start tracking an ID with the given number of endorsements. If the
+	 * ID is already tracked its count is replaced.
+	 *
+	 * @param id    post or account ID
+	 * @param count number of endorsements it already has
+	 */
+	@Override
+	public void track(int id, int count) {
+		counts.compute(id, (key, old) -> {
+			if (old != null) {
+				ranking.remove(rankingKey(key, old));
+			}
+			ranking.add(rankingKey(key, count));
+			return count;
+		});
+	}
+
+	/**
+	 * Method to change the number of endorsements of a tracked ID. Untracked IDs
+	 * are ignored.
+	 *
+	 * @param id    post or account ID
+	 * @param delta number of endorsements added, or removed if negative
+	 */
+	@Override
+	public void add(int id, int delta) {
+		if (delta == 0) {
+			return;
+		}
+		counts.computeIfPresent(id, (key, old) -> {
+			ranking.remove(rankingKey(key, old));
+			ranking.add(rankingKey(key, old + delta));
+			return old + delta;
+		});
+	}
+
+	/**
+	 * Method to stop tracking an ID
+	 *
+	 * @param id post or account ID
+	 */
+	@Override
+	public void remove(int id) {
+		counts.computeIfPresent(id, (key, old) -> {
+			ranking.remove(rankingKey(key, old));
+			return null;
+		});
+	}
+
+	/**
+	 * Getter method for the number of endorsements of an ID
+	 *
+	 * @param id post or account ID
+	 * @return number of endorsements, or 0 if the ID is not tracked
+	 */
+	@Override
+	public int getCount(int id) {
+		return counts.getOrDefault(id, 0);
+	}
+
+	/**
+	 * Getter method for the most endorsed ID
+	 *
+	 * @return the ID with most endorsements, or 0 if no ID is tracked
+	 */
+	@Override
+	public int top() {
+		Iterator<Long> it = ranking.iterator();
+		return it.hasNext() ? idOf(it.next()) : 0;
+	}
+
+	/**
+	 * Getter method for the k most endorsed IDs
+	 *
+	 * @param k maximum number of IDs to return
+	 * @return up to k IDs, from most to least endorsed
+	 */
+	@Override
+	public int[] top(int k) {
+		int[] ids = new int[Math.max(0, Math.min(k, counts.size()))];
+		int n = 0;
+		Iterator<Long> it = ranking.iterator();
+		while (n < ids.length && it.hasNext()) {
+			ids[n++] = idOf(it.next());
+		}
+		return n == ids.length ? ids : Arrays.copyOf(ids, n);
+	}
+
+	/**
+	 * Method to stop tracking every ID
+	 */
+	@Override
+	public void clear() {
+		counts.clear();
+		ranking.clear();
+	}
+}
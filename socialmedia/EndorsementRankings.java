@@ -0,0 +1,346 @@
+package socialmedia;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * EndorsementRankings keeps every endorsement ranking of a platform in step
+ * with its contents: the plain endorsement counts of posts and accounts and,
+ * when an endorsement half life is set, their time-decayed scores.
+ * <p>
+ * The platform reports each change to its contents through the methods of this
+ * class, which update every ranking incrementally. Reads never scan the
+ * platform. Unless the rankings were created for a single thread, it is safe
+ * to report changes from several threads at once, as long as
+ * {@link #setHalfLife}, {@link #rebuild} and {@link #clear} are not called
+ * concurrently with other methods. Rankings for a single thread keep their
+ * counts in a {@link HeapLeaderboard}, so that reporting an endorsement
+ * allocates nothing unless a half life is set.
+ *
+ * @version 1.0
+ */
+public class EndorsementRankings {
+
+	private final CountLeaderboard postCounts;
+	private final CountLeaderboard accountCounts;
+	// time-decayed rankings, or null when every endorsement counts equally
+	private volatile Duration halfLife;
+	private volatile DecayingLeaderboard decayedPosts;
+	private volatile DecayingLeaderboard decayedAccounts;
+
+	/**
+	 * Constructor to create empty rankings counting every endorsement equally
+	 */
+	public EndorsementRankings() {
+		this(null);
+	}
+
+	/**
+	 * Constructor to create empty rankings with the given endorsement half life
+	 *
+	 * @param halfLife half life, or null to disable time decay
+	 */
+	public EndorsementRankings(Duration halfLife) {
+		this(halfLife, true);
+	}
+
+	/**
+	 * Constructor to create empty rankings with the given endorsement half life,
+	 * for use from several threads or from a single one
+	 *
+	 * @param halfLife   half life, or null to disable time decay
+	 * @param concurrent true if changes may be reported from several threads at
+	 *                   once
+	 */
+	public EndorsementRankings(Duration halfLife, boolean concurrent) {
+		this.halfLife = halfLife;
+		postCounts = concurrent ? new EndorsementLeaderboard() : new HeapLeaderboard();
+		accountCounts = concurrent ? new EndorsementLeaderboard() : new HeapLeaderboard();
+	}
+
+	/**
+	 * Getter method for the endorsement half life
+	 *
+	 * @return half life, or null if every endorsement counts equally
+	 */
+	public Duration getHalfLife() {
+		return halfLife;
+	}
+
+	/**
+	 * Method to record a new account
+	 *
+	 * @param account the created account
+	 */
+	public void accountCreated(Account account) {
+		accountCounts.track(account.getId(), 0);
+		if (decayedAccounts != null) {
+			decayedAccounts.track(account.getId());
+		}
+	}
+
+	/**
+	 * Method to record the removal of an account, after its posts were removed
+	 *
+	 * @param account the removed account
+	 */
+	public void accountRemoved(Account account) {
+		accountCounts.remove(account.getId());
+		if (decayedAccounts != null) {
+			decayedAccounts.remove(account.getId());
+		}
+	}
+
+	/**
+	 * Method to record a new original post or comment
+	 *
+	 * @param post the created post
+	 */
+	public void postCreated(Post post) {
+		postCounts.track(post.getId(), 0);
+		if (decayedPosts != null) {
+			decayedPosts.track(post.getId());
+		}
+	}
+
+	/**
+	 * Method to record a new endorsement
+	 *
+	 * @param endorsement the created endorsement
+	 */
+	public void endorsementAdded(Endorsement endorsement) {
+		Post endorsed = endorsement.getEndorsedPost();
+		endorsementAdded(endorsed.getId(), endorsed.getAccount().getId(), endorsement.getTimestamp());
+	}
+
+	/**
+	 * Method to record a new endorsement kept as an edge
+	 *
+	 * @param postId    ID of the endorsed post
+	 * @param authorId  ID of the author of the endorsed post
+	 * @param timestamp creation time of the endorsement
+	 */
+	public void endorsementAdded(int postId, int authorId, long timestamp) {
+		postCounts.add(postId, 1);
+		accountCounts.add(authorId, 1);
+		if (decayedPosts != null) {
+			decayedPosts.addEndorsement(postId, timestamp);
+			decayedAccounts.addEndorsement(authorId, timestamp);
+		}
+	}
+
+	/**
+	 * Method to record the removal of an endorsement kept as an edge
+	 *
+	 * @param postId    ID of the endorsed post
+	 * @param authorId  ID of the author of the endorsed post
+	 * @param timestamp creation time of the endorsement
+	 */
+	public void endorsementRemoved(int postId, int authorId, long timestamp) {
+		postCounts.add(postId, -1);
+		accountCounts.add(authorId, -1);
+		if (decayedPosts != null) {
+			decayedPosts.removeEndorsement(postId, timestamp);
+			decayedAccounts.removeEndorsement(authorId, timestamp);
+		}
+	}
+
+	/**
+	 * Method to record the removal of a post of any kind. It must be called
+	 * before the post is unlinked from its endorsements.
+	 *
+	 * @param post the post being removed
+	 */
+	public void postRemoved(Post post) {
+		postRemoved(post, null);
+	}
+
+	/**
+	 * Method to record the removal of a post of any kind, some of whose
+	 * endorsements are kept as edges. It must be called before the post is
+	 * unlinked from its endorsements.
+	 *
+	 * @param post  the post being removed
+	 * @param edges endorsements kept as edges, or null if there are none
+	 */
+	public void postRemoved(Post post, EndorsementStore edges) {
+		if (post instanceof Endorsement) {
+			// the endorsed post and its author lose one endorsement
+			Post endorsed = ((Endorsement) post).getEndorsedPost();
+			endorsementRemoved(endorsed.getId(), endorsed.getAccount().getId(), post.getTimestamp());
+			return;
+		}
+		// the author loses every endorsement of the post
+		int authorId = post.getAccount().getId();
+		postCounts.remove(post.getId());
+		accountCounts.add(authorId, -post.getEndorsementCount());
+		if (decayedPosts != null) {
+			decayedPosts.remove(post.getId());
+			for (Endorsement e : post.getEndorsements()) {
+				decayedAccounts.removeEndorsement(authorId, e.getTimestamp());
+			}
+			if (edges != null) {
+				for (int slot = edges.firstOnPost(post.getId()); slot != EndorsementStore.NONE; slot = edges
+						.nextOnPost(slot)) {
+					decayedAccounts.removeEndorsement(authorId, edges.getTimestamp(slot));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Getter method for the most endorsed post
+	 *
+	 * @return the ID of the post with most endorsements, or 0 if there are no posts
+	 */
+	public int getMostEndorsedPost() {
+		return postCounts.top();
+	}
+
+	/**
+	 * Getter method for the most endorsed account
+	 *
+	 * @return the ID of the account with most endorsements, or 0 if there are no
+	 *         accounts
+	 */
+	public int getMostEndorsedAccount() {
+		return accountCounts.top();
+	}
+
+	/**
+	 * Getter method for the number of endorsements received by an account's posts
+	 *
+	 * @param accountId account ID
+	 * @return number of endorsements
+	 */
+	public int getAccountEndorsements(int accountId) {
+		return accountCounts.getCount(accountId);
+	}
+
+	/**
+	 * Getter method for the k top posts, by decayed score if a half life is set
+	 *
+	 * @param k maximum number of posts
+	 * @return up to k post IDs, top first
+	 */
+	public int[] getTopPosts(int k) {
+		DecayingLeaderboard decayed = decayedPosts;
+		return decayed != null ? decayed.top(k) : postCounts.top(k);
+	}
+
+	/**
+	 * Getter method for the k top accounts, by decayed score if a half life is set
+	 *
+	 * @param k maximum number of accounts
+	 * @return up to k account IDs, top first
+	 */
+	public int[] getTopAccounts(int k) {
+		DecayingLeaderboard decayed = decayedAccounts;
+		return decayed != null ? decayed.top(k) : accountCounts.top(k);
+	}
+
+	/**
+	 * Method to set or clear the endorsement half life. The decayed rankings are
+	 * built once from the current contents of the platform.
+	 *
+	 * @param halfLife half life, or null to disable time decay
+	 * @param accounts all accounts of the platform
+	 * @param posts    all posts of the platform
+	 */
+	public void setHalfLife(Duration halfLife, Collection<Account> accounts, Collection<Post> posts) {
+		setHalfLife(halfLife, accounts, posts, null);
+	}
+
+	/**
+	 * Method to set or clear the endorsement half life, for a platform keeping
+	 * some endorsements as edges
+	 *
+	 * @param halfLife half life, or null to disable time decay
+	 * @param accounts all accounts of the platform
+	 * @param posts    all posts of the platform
+	 * @param edges    endorsements kept as edges, or null if there are none
+	 */
+	public void setHalfLife(Duration halfLife, Collection<Account> accounts, Collection<Post> posts,
+			EndorsementStore edges) {
+		this.halfLife = halfLife;
+		buildDecayed(accounts, posts, edges);
+	}
+
+	/**
+	 * Method to rebuild every ranking from the contents of the platform, e.g.
+	 * after it was loaded from a file
+	 *
+	 * @param accounts all accounts of the platform
+	 * @param posts    all posts of the platform
+	 */
+	public void rebuild(Collection<Account> accounts, Collection<Post> posts) {
+		rebuild(accounts, posts, null);
+	}
+
+	/**
+	 * Method to rebuild every ranking from the contents of a platform keeping
+	 * some endorsements as edges
+	 *
+	 * @param accounts all accounts of the platform
+	 * @param posts    all posts of the platform
+	 * @param edges    endorsements kept as edges, or null if there are none
+	 */
+	public void rebuild(Collection<Account> accounts, Collection<Post> posts, EndorsementStore edges) {
+		postCounts.clear();
+		accountCounts.clear();
+		for (Account a : accounts) {
+			accountCounts.track(a.getId(), 0);
+		}
+		for (Post p : posts) {
+			if (!(p instanceof Endorsement)) {
+				postCounts.track(p.getId(), p.getEndorsementCount());
+				accountCounts.add(p.getAccount().getId(), p.getEndorsementCount());
+			}
+		}
+		buildDecayed(accounts, posts, edges);
+	}
+
+	private void buildDecayed(Collection<Account> accounts, Collection<Post> posts, EndorsementStore edges) {
+		if (halfLife == null) {
+			decayedPosts = null;
+			decayedAccounts = null;
+			return;
+		}
+		long now = System.currentTimeMillis();
+		DecayingLeaderboard newPosts = new DecayingLeaderboard(halfLife, now);
+		DecayingLeaderboard newAccounts = new DecayingLeaderboard(halfLife, now);
+		for (Account a : accounts) {
+			newAccounts.track(a.getId());
+		}
+		for (Post p : posts) {
+			if (!(p instanceof Endorsement)) {
+				newPosts.track(p.getId());
+				for (Endorsement e : p.getEndorsements()) {
+					newPosts.addEndorsement(p.getId(), e.getTimestamp());
+					newAccounts.addEndorsement(p.getAccount().getId(), e.getTimestamp());
+				}
+				if (edges != null) {
+					for (int slot = edges.firstOnPost(p.getId()); slot != EndorsementStore.NONE; slot = edges
+							.nextOnPost(slot)) {
+						newPosts.addEndorsement(p.getId(), edges.getTimestamp(slot));
+						newAccounts.addEndorsement(p.getAccount().getId(), edges.getTimestamp(slot));
+					}
+				}
+			}
+		}
+		decayedPosts = newPosts;
+		decayedAccounts = newAccounts;
+	}
+
+	/**
+	 * Method to empty every ranking. The half life setting is kept.
+	 */
+	public void clear() {
+		postCounts.clear();
+		accountCounts.clear();
+		if (decayedPosts != null) {
+			decayedPosts.clear();
+			decayedAccounts.clear();
+		}
+	}
+}
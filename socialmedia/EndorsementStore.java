@@ -0,0 +1,291 @@
+package socialmedia;
+
+import java.util.Arrays;
+
+/**
+ * EndorsementStore keeps endorsements as edges from an account to a post
+ * rather than as Endorsement posts. Each edge takes a slot in parallel
+ * primitive arrays holding its endorsement ID, the endorsing account, the
+ * endorsed post and its creation time, so that endorsing a post allocates
+ * nothing once the arrays have grown, and an edge takes about 60 bytes rather
+ * than a post object with its own lists and message. The text of an
+ * endorsement is derived from the endorsed post when it is shown.
+ * <p>
+ * Each post heads a chain of the edges endorsing it, and each account a chain
+ * of the edges it made, through further columns, so that the endorsements of a
+ * post or an account are found without a scan. Both chains are doubly linked,
+ * so that any edge is removed in constant time. Freed slots are reused.
+ * The store is not thread-safe.
+ *
+ * @version 1.0
+ */
+public class EndorsementStore {
+
+	/** Stands for no slot, at the end of every chain. */
+	public static final int NONE = -1;
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	// columns, indexed by slot; a free slot has ID 0
+	private int[] ids = new int[INITIAL_CAPACITY];
+	private int[] endorsers = new int[INITIAL_CAPACITY];
+	private int[] posts = new int[INITIAL_CAPACITY];
+	private long[] timestamps = new long[INITIAL_CAPACITY];
+	// links of an edge within the chains of its post and its endorser; free
+	// slots are chained through nextOnPost
+	private int[] nextOnPost = new int[INITIAL_CAPACITY];
+	private int[] previousOnPost = new int[INITIAL_CAPACITY];
+	private int[] nextByEndorser = new int[INITIAL_CAPACITY];
+	private int[] previousByEndorser = new int[INITIAL_CAPACITY];
+
+	// endorsement ID -> slot
+	private final IntIntMap slotsById = new IntIntMap(NONE);
+	// post ID -> first slot of its chain, account ID -> first slot of its chain
+	private final IntIntMap firstOnPost = new IntIntMap(NONE);
+	private final IntIntMap firstByEndorser = new IntIntMap(NONE);
+	// account ID -> number of edges it made
+	private final IntIntMap countsByEndorser = new IntIntMap(0);
+	// slots below this have been used, and the first free one among them
+	private int used;
+	private int freeSlot = NONE;
+	private int size;
+
+	/**
+	 * Method to add an edge
+	 *
+	 * @param id         endorsement ID, not already stored
+	 * @param endorserId ID of the endorsing account
+	 * @param postId     ID of the endorsed post
+	 * @param timestamp  creation time, in milliseconds since the epoch
+	 * @return the slot of the edge
+	 */
+	public int add(int id, int endorserId, int postId, long timestamp) {
+		int slot = freeSlot;
+		if (slot != NONE) {
+			freeSlot = nextOnPost[slot];
+		} else {
+			if (used == ids.length) {
+				grow();
+			}
+			slot = used++;
+		}
+		ids[slot] = id;
+		endorsers[slot] = endorserId;
+		posts[slot] = postId;
+		timestamps[slot] = timestamp;
+		slotsById.put(id, slot);
+		// new edges go first in both chains
+		int next = firstOnPost.put(postId, slot);
+		nextOnPost[slot] = next;
+		previousOnPost[slot] = NONE;
+		if (next != NONE) {
+			previousOnPost[next] = slot;
+		}
+		next = firstByEndorser.put(endorserId, slot);
+		nextByEndorser[slot] = next;
+		previousByEndorser[slot] = NONE;
+		if (next != NONE) {
+			previousByEndorser[next] = slot;
+		}
+		countsByEndorser.add(endorserId, 1);
+		size++;
+		return slot;
+	}
+
+	private void grow() {
+		int capacity = ids.length * 2;
+		ids = Arrays.copyOf(ids, capacity);
+		endorsers = Arrays.copyOf(endorsers, capacity);
+		posts = Arrays.copyOf(posts, capacity);
+		timestamps = Arrays.copyOf(timestamps, capacity);
+		nextOnPost = Arrays.copyOf(nextOnPost, capacity);
+		previousOnPost = Arrays.copyOf(previousOnPost, capacity);
+		nextByEndorser = Arrays.copyOf(nextByEndorser, capacity);
+		previousByEndorser = Arrays.copyOf(previousByEndorser, capacity);
+	}
+
+	/**
+	 * Method to remove an edge, unlinking it from both of its chains
+	 *
+	 * @param slot slot of the edge
+	 */
+	public void remove(int slot) {
+		slotsById.remove(ids[slot]);
+		int next = nextOnPost[slot];
+		int previous = previousOnPost[slot];
+		if (previous == NONE) {
+			if (next == NONE) {
+				firstOnPost.remove(posts[slot]);
+			} else {
+				firstOnPost.put(posts[slot], next);
+			}
+		} else {
+			nextOnPost[previous] = next;
+		}
+		if (next != NONE) {
+			previousOnPost[next] = previous;
+		}
+		next = nextByEndorser[slot];
+		previous = previousByEndorser[slot];
+		if (previous == NONE) {
+			if (next == NONE) {
+				firstByEndorser.remove(endorsers[slot]);
+			} else {
+				firstByEndorser.put(endorsers[slot], next);
+			}
+		} else {
+			nextByEndorser[previous] = next;
+		}
+		if (next != NONE) {
+			previousByEndorser[next] = previous;
+		}
+		countsByEndorser.add(endorsers[slot], -1);
+		ids[slot] = 0;
+		nextOnPost[slot] = freeSlot;
+		freeSlot = slot;
+		size--;
+	}
+
+	/**
+	 * Method to find the edge of an endorsement
+	 *
+	 * @param id endorsement ID
+	 * @return the slot of the edge, or NONE if there is no such endorsement
+	 */
+	public int slotOf(int id) {
+		return id == 0 ? NONE : slotsById.get(id);
+	}
+
+	/**
+	 * Method to check whether a slot holds an edge
+	 *
+	 * @param slot slot below {@link #getSlotLimit()}
+	 * @return true if the slot is in use
+	 */
+	public boolean isUsed(int slot) {
+		return ids[slot] != 0;
+	}
+
+	/**
+	 * Getter method for the number of slots ever used; every edge is in a slot
+	 * below it
+	 *
+	 * @return the slot limit
+	 */
+	public int getSlotLimit() {
+		return used;
+	}
+
+	/**
+	 * Getter method for the endorsement ID of an edge
+	 *
+	 * @param slot slot of the edge
+	 * @return endorsement ID
+	 */
+	public int getId(int slot) {
+		return ids[slot];
+	}
+
+	/**
+	 * Getter method for the endorsing account of an edge
+	 *
+	 * @param slot slot of the edge
+	 * @return account ID
+	 */
+	public int getEndorser(int slot) {
+		return endorsers[slot];
+	}
+
+	/**
+	 * Getter method for the endorsed post of an edge
+	 *
+	 * @param slot slot of the edge
+	 * @return post ID
+	 */
+	public int getPost(int slot) {
+		return posts[slot];
+	}
+
+	/**
+	 * Getter method for the creation time of an edge
+	 *
+	 * @param slot slot of the edge
+	 * @return timestamp in milliseconds since the epoch
+	 */
+	public long getTimestamp(int slot) {
+		return timestamps[slot];
+	}
+
+	/**
+	 * Method to get the most recent edge endorsing a post
+	 *
+	 * @param postId post ID
+	 * @return the slot of the edge, or NONE if the post has no endorsements
+	 */
+	public int firstOnPost(int postId) {
+		return firstOnPost.get(postId);
+	}
+
+	/**
+	 * Method to get the next older edge endorsing the same post
+	 *
+	 * @param slot slot of an edge
+	 * @return the slot of the next edge, or NONE at the end of the chain
+	 */
+	public int nextOnPost(int slot) {
+		return nextOnPost[slot];
+	}
+
+	/**
+	 * Method to get the most recent edge made by an account
+	 *
+	 * @param accountId account ID
+	 * @return the slot of the edge, or NONE if the account made none
+	 */
+	public int firstByEndorser(int accountId) {
+		return firstByEndorser.get(accountId);
+	}
+
+	/**
+	 * Method to get the next older edge made by the same account
+	 *
+	 * @param slot slot of an edge
+	 * @return the slot of the next edge, or NONE at the end of the chain
+	 */
+	public int nextByEndorser(int slot) {
+		return nextByEndorser[slot];
+	}
+
+	/**
+	 * Getter method for the number of edges made by an account
+	 *
+	 * @param accountId account ID
+	 * @return number of endorsements
+	 */
+	public int countByEndorser(int accountId) {
+		return countsByEndorser.get(accountId);
+	}
+
+	/**
+	 * Getter method for the number of edges
+	 *
+	 * @return number of endorsements
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Method to remove every edge, keeping the capacity the store has grown to
+	 */
+	public void clear() {
+		Arrays.fill(ids, 0, used, 0);
+		slotsById.clear();
+		firstOnPost.clear();
+		firstByEndorser.clear();
+		countsByEndorser.clear();
+		used = 0;
+		freeSlot = NONE;
+		size = 0;
+	}
+}
@@ -0,0 +1,88 @@
+package socialmedia;
+
+/**
+ * EndorserAnalyticsPlatform interface. This interface extends the
+ * SocialMediaPlatform with questions about who endorsed what: whether an
+ * account endorsed a post, and which accounts endorsed two posts, or posts of
+ * two accounts. The endorsing accounts of each post, and of the content of
+ * each account, are kept as they are endorsed, so these are answered without
+ * scanning endorsements or posts.
+ *
+ * @version 1.0
+ *
+ */
+public interface EndorserAnalyticsPlatform extends SocialMediaPlatform {
+
+	// Analytics-related methods ****************************************
+
+	/**
+	 * This method checks whether an account has endorsed a post.
+	 *
+	 * @param handle handle of the account.
+	 * @param id     ID of the post.
+	 * @return true if the account has at least one endorsement of the post.
+	 * @throws HandleNotRecognisedException if the handle does not match to any
+	 *                                      account in the system.
+	 * @throws PostIDNotRecognisedException if the ID does not match to any post in
+	 *                                      the system.
+	 * @throws NotActionablePostException   if the ID refers to an endorsement
+	 *                                      post, which cannot be endorsed.
+	 */
+	boolean hasEndorsed(String handle, int id)
+			throws HandleNotRecognisedException, PostIDNotRecognisedException, NotActionablePostException;
+
+	/**
+	 * This method returns the accounts that endorsed a post.
+	 *
+	 * @param id ID of the post.
+	 * @return the IDs of the endorsing accounts, in increasing order.
+	 * @throws PostIDNotRecognisedException if the ID does not match to any post in
+	 *                                      the system.
+	 * @throws NotActionablePostException   if the ID refers to an endorsement
+	 *                                      post.
+	 */
+	int[] getEndorsers(int id) throws PostIDNotRecognisedException, NotActionablePostException;
+
+	/**
+	 * This method returns the accounts that endorsed both of two posts.
+	 *
+	 * @param firstId  ID of a post.
+	 * @param secondId ID of another post.
+	 * @return the IDs of the common endorsing accounts, in increasing order.
+	 * @throws PostIDNotRecognisedException if either ID does not match to any post
+	 *                                      in the system.
+	 * @throws NotActionablePostException   if either ID refers to an endorsement
+	 *                                      post.
+	 */
+	int[] getCommonEndorsers(int firstId, int secondId)
+			throws PostIDNotRecognisedException, NotActionablePostException;
+
+	/**
+	 * This method returns the number of accounts that endorsed both of two
+	 * posts, without listing them.
+	 *
+	 * @param firstId  ID of a post.
+	 * @param secondId ID of another post.
+	 * @return the number of common endorsing accounts.
+	 * @throws PostIDNotRecognisedException if either ID does not match to any post
+	 *                                      in the system.
+	 * @throws NotActionablePostException   if either ID refers to an endorsement
+	 *                                      post.
+	 */
+	int getEndorserOverlap(int firstId, int secondId) throws PostIDNotRecognisedException, NotActionablePostException;
+
+	/**
+	 * This method returns the accounts that endorsed at least one post or
+	 * comment of each of two accounts.
+	 *
+	 * @param firstHandle  handle of an account.
+	 * @param secondHandle handle of another account.
+	 * @return the IDs of the common endorsing accounts, in increasing order.
+	 * @throws HandleNotRecognisedException if either handle does not match to any
+	 *                                      account in the system.
+	 */
+	int[] getCommonAccountEndorsers(String firstHandle, String secondHandle) throws HandleNotRecognisedException;
+
+	// End Analytics-related methods ****************************************
+
+}
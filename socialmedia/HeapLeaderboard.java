@@ -0,0 +1,198 @@
+package socialmedia;
+
+import java.util.Arrays;
+
+/**
+ * HeapLeaderboard ranks posts or accounts by number of endorsements in a binary
+ * heap held in two primitive arrays, the IDs and their counts, with the most
+ * endorsed ID at the root. The heap position of each ID is kept in an
+ * {@link IntIntMap}, so that its count is found and changed in place.
+ * <p>
+ * Updating a count costs O(log n) and finding the most endorsed entry O(1), as
+ * with {@link EndorsementLeaderboard}, but neither allocates once the arrays
+ * have grown to the number of IDs, where the skip list of that class boxes its
+ * keys and counts on every change. The top k entries are found in O(k log k)
+ * by walking the heap from its root. Ties are broken in favour of the lowest
+ * ID. The leaderboard is not thread-safe.
+ *
+ * @version 1.0
+ */
+public class HeapLeaderboard implements CountLeaderboard {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	// heap of IDs and their counts, a parent ranking before its children
+	private int[] ids = new int[INITIAL_CAPACITY];
+	private int[] counts = new int[INITIAL_CAPACITY];
+	private int size;
+	// ID -> index in the heap
+	private final IntIntMap positions = new IntIntMap(-1);
+
+	@Override
+	public void track(int id, int count) {
+		int index = positions.get(id);
+		if (index < 0) {
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+				counts = Arrays.copyOf(counts, size * 2);
+			}
+			index = size++;
+			ids[index] = id;
+			positions.put(id, index);
+		}
+		counts[index] = count;
+		siftDown(siftUp(index));
+	}
+
+	@Override
+	public void add(int id, int delta) {
+		int index = delta == 0 ? -1 : positions.get(id);
+		if (index < 0) {
+			return;
+		}
+		counts[index] += delta;
+		if (delta > 0) {
+			siftUp(index);
+		} else {
+			siftDown(index);
+		}
+	}
+
+	@Override
+	public void remove(int id) {
+		int index = positions.remove(id);
+		if (index < 0) {
+			return;
+		}
+		int last = --size;
+		if (index != last) {
+			// the last entry takes the place of the removed one
+			ids[index] = ids[last];
+			counts[index] = counts[last];
+			positions.put(ids[index], index);
+			siftDown(siftUp(index));
+		}
+	}
+
+	@Override
+	public int getCount(int id) {
+		int index = positions.get(id);
+		return index < 0 ? 0 : counts[index];
+	}
+
+	@Override
+	public int top() {
+		return size == 0 ? 0 : ids[0];
+	}
+
+	@Override
+	public int[] top(int k) {
+		int[] result = new int[Math.max(0, Math.min(k, size))];
+		if (result.length == 0) {
+			return result;
+		}
+		// heap indices of the entries that may come next, itself a heap; every
+		// entry taken adds its two children
+		int[] candidates = new int[result.length + 1];
+		int candidateCount = 1;
+		for (int n = 0; n < result.length; n++) {
+			int best = candidates[0];
+			result[n] = ids[best];
+			candidates[0] = candidates[--candidateCount];
+			pushDown(candidates, candidateCount, 0);
+			for (int child = 2 * best + 1; child <= 2 * best + 2 && child < size; child++) {
+				candidates[candidateCount] = child;
+				pullUp(candidates, candidateCount++);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void clear() {
+		positions.clear();
+		size = 0;
+	}
+
+	/**
+	 * Orders heap entries from most to least endorsed, then by ID.
+	 */
+	private boolean before(int i, int j) {
+		return counts[i] != counts[j] ? counts[i] > counts[j] : ids[i] < ids[j];
+	}
+
+	private int siftUp(int index) {
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (!before(index, parent)) {
+				break;
+			}
+			swap(index, parent);
+			index = parent;
+		}
+		return index;
+	}
+
+	private void siftDown(int index) {
+		while (true) {
+			int child = 2 * index + 1;
+			if (child >= size) {
+				return;
+			}
+			if (child + 1 < size && before(child + 1, child)) {
+				child++;
+			}
+			if (!before(child, index)) {
+				return;
+			}
+			swap(index, child);
+			index = child;
+		}
+	}
+
+	private void swap(int i, int j) {
+		int id = ids[i];
+		int count = counts[i];
+		ids[i] = ids[j];
+		counts[i] = counts[j];
+		ids[j] = id;
+		counts[j] = count;
+		positions.put(ids[i], i);
+		positions.put(id, j);
+	}
+
+	// sift operations of the candidate heap used by top(k), whose entries are
+	// heap indices ordered as the entries they point to
+
+	private void pullUp(int[] heap, int index) {
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (!before(heap[index], heap[parent])) {
+				return;
+			}
+			int entry = heap[index];
+			heap[index] = heap[parent];
+			heap[parent] = entry;
+			index = parent;
+		}
+	}
+
+	private void pushDown(int[] heap, int length, int index) {
+		while (true) {
+			int child = 2 * index + 1;
+			if (child >= length) {
+				return;
+			}
+			if (child + 1 < length && before(heap[child + 1], heap[child])) {
+				child++;
+			}
+			if (!before(heap[child], heap[index])) {
+				return;
+			}
+			int entry = heap[index];
+			heap[index] = heap[child];
+			heap[child] = entry;
+			index = child;
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package socialmedia;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * IdAllocator hands out unique, increasing IDs for one kind of entity of one
+ * platform instance. It is safe to use from several threads at once.
+ * <p>
+ * With a block size of 1 every ID is taken directly from a shared atomic
+ * counter, so IDs are sequential across all threads. With a larger block size
+ * each thread reserves a block of consecutive IDs at a time and hands them out
+ * locally, so threads only touch the shared counter once per block; IDs are then
+ * still unique, and increasing within each thread, but not sequential across
+ * threads.
+ *
+ * @version 1.0
+ */
+public class IdAllocator {
+
+	private final int firstId;
+	private final int blockSize;
+	// next ID that has not been handed out or reserved by any thread
+	private final AtomicInteger nextId;
+	// bumped on reset and resume, so blocks reserved before then are discarded
+	private volatile int generation;
+	// per-thread block of reserved IDs: {next, end (exclusive), generation}
+	private final ThreadLocal<int[]> threadBlock = ThreadLocal.withInitial(() -> new int[] { 0, 0, -1 });
+
+	/**
+	 * Constructor to create an allocator handing out sequential IDs
+	 *
+	 * @param firstId first ID to hand out
+	 */
+	public IdAllocator(int firstId) {
+		this(firstId, 1);
+	}
+
+	/**
+	 * Constructor to create an allocator reserving blocks of IDs per thread
+	 *
+	 * @param firstId   first ID to hand out
+	 * @param blockSize number of IDs each thread reserves at a time
+	 */
+	public IdAllocator(int firstId, int blockSize) {
+		if (blockSize < 1) {
+			throw new IllegalArgumentException("Block size must be at least 1");
+		}
+		this.firstId = firstId;
+		this.blockSize = blockSize;
+		this.nextId = new AtomicInteger(firstId);
+	}
+
+	/**
+	 * Method to hand out the next ID
+	 *
+	 * @return a new ID
+	 */
+	public int next() {
+		if (blockSize == 1) {
+			return nextId.getAndIncrement();
+		}
+		int[] block = threadBlock.get();
+		if (block[2] != generation || block[0] == block[1]) {
+			block[2] = generation;
+			block[0] = nextId.getAndAdd(blockSize);
+			block[1] = block[0] + blockSize;
+		}
+		return block[0]++;
+	}
+
+	/**
+	 * Method to reserve a range of consecutive IDs in one step
+	 *
+	 * @param count number of IDs to reserve
+	 * @return the first ID of the range; the range ends at {@code first + count - 1}
+	 */
+	public int reserve(int count) {
+		return nextId.getAndAdd(count);
+	}
+
+	/**
+	 * Getter method for the next ID the shared counter will hand out. Blocks
+	 * already reserved by threads are not included.
+	 *
+	 * @return the next unreserved ID
+	 */
+	public int peek() {
+		return nextId.get();
+	}
+
+	/**
+	 * Method to restart handing out IDs from the first ID, discarding any blocks
+	 * reserved by threads
+	 */
+	public void reset() {
+		generation++;
+		nextId.set(firstId);
+	}
+
+	/**
+	 * Method to continue handing out IDs after the given one, e.g. once existing
+	 * entities have been loaded, discarding any blocks reserved by threads
+	 *
+	 * @param lastUsedId highest ID already in use
+	 */
+	public void resumeAfter(int lastUsedId) {
+		generation++;
+		nextId.set(Math.max(firstId, lastUsedId + 1));
+	}
+}
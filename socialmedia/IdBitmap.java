@@ -0,0 +1,408 @@
+package socialmedia;
+
+import java.util.Arrays;
+
+/**
+ * IdBitmap is a compressed set of non-negative IDs, split the way Roaring
+ * bitmaps are: IDs are grouped by their high 16 bits, and the low 16 bits of
+ * each group are kept in a container chosen by its size. A group of up to
+ * {@value #ARRAY_LIMIT} IDs is a sorted array of chars, two bytes per ID; a
+ * larger group is a bitmap of 65536 bits, 8 kilobytes however full it is.
+ * <p>
+ * Membership is found with a binary search over the groups, then over the
+ * array or by testing a single bit, so it takes constant time for IDs handed
+ * out from a counter. Intersections and unions work a container at a time:
+ * bitmaps are combined a 64-bit word at a time and arrays by merging, without
+ * visiting single IDs of a bitmap. The set is not thread-safe.
+ *
+ * @version 1.0
+ */
+public class IdBitmap {
+
+	/** Largest number of IDs a group keeps in an array container. */
+	static final int ARRAY_LIMIT = 4096;
+
+	private static final int BITMAP_WORDS = 1 << 10;
+
+	// high 16 bits of each group, sorted, with its container and size; a
+	// container is a char[] of sorted low bits or a long[] bitmap
+	private char[] keys = new char[0];
+	private Object[] containers = new Object[0];
+	private int[] sizes = new int[0];
+	private int groups;
+
+	/**
+	 * Method to add an ID
+	 *
+	 * @param id non-negative ID
+	 * @return true if the ID was added, false if it was already in the set
+	 */
+	public boolean add(int id) {
+		char key = (char) (id >>> 16);
+		char low = (char) id;
+		int group = Arrays.binarySearch(keys, 0, groups, key);
+		if (group < 0) {
+			group = -group - 1;
+			insertGroup(group, key, new char[2], 0);
+		}
+		Object container = containers[group];
+		int size = sizes[group];
+		if (container instanceof long[]) {
+			long[] words = (long[]) container;
+			long bit = 1L << low;
+			if ((words[low >>> 6] & bit) != 0) {
+				return false;
+			}
+			words[low >>> 6] |= bit;
+			sizes[group] = size + 1;
+			return true;
+		}
+		char[] values = (char[]) container;
+		int index = Arrays.binarySearch(values, 0, size, low);
+		if (index >= 0) {
+			return false;
+		}
+		index = -index - 1;
+		if (size == ARRAY_LIMIT) {
+			long[] words = toWords(values, size);
+			words[low >>> 6] |= 1L << low;
+			containers[group] = words;
+		} else {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, size + (size >> 1) + 1));
+				containers[group] = values;
+			}
+			System.arraycopy(values, index, values, index + 1, size - index);
+			values[index] = low;
+		}
+		sizes[group] = size + 1;
+		return true;
+	}
+
+	/**
+	 * Method to remove an ID
+	 *
+	 * @param id non-negative ID
+	 * @return true if the ID was removed, false if it was not in the set
+	 */
+	public boolean remove(int id) {
+		int group = Arrays.binarySearch(keys, 0, groups, (char) (id >>> 16));
+		if (group < 0) {
+			return false;
+		}
+		char low = (char) id;
+		Object container = containers[group];
+		int size = sizes[group];
+		if (container instanceof long[]) {
+			long[] words = (long[]) container;
+			long bit = 1L << low;
+			if ((words[low >>> 6] & bit) == 0) {
+				return false;
+			}
+			words[low >>> 6] &= ~bit;
+			if (size - 1 == ARRAY_LIMIT) {
+				containers[group] = toValues(words, size - 1);
+			}
+		} else {
+			char[] values = (char[]) container;
+			int index = Arrays.binarySearch(values, 0, size, low);
+			if (index < 0) {
+				return false;
+			}
+			System.arraycopy(values, index + 1, values, index, size - index - 1);
+		}
+		if (size == 1) {
+			removeGroup(group);
+		} else {
+			sizes[group] = size - 1;
+		}
+		return true;
+	}
+
+	/**
+	 * Method to check whether an ID is in the set
+	 *
+	 * @param id non-negative ID
+	 * @return true if the set has the ID
+	 */
+	public boolean contains(int id) {
+		int group = Arrays.binarySearch(keys, 0, groups, (char) (id >>> 16));
+		if (group < 0) {
+			return false;
+		}
+		char low = (char) id;
+		Object container = containers[group];
+		if (container instanceof long[]) {
+			return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+		}
+		return Arrays.binarySearch((char[]) container, 0, sizes[group], low) >= 0;
+	}
+
+	/**
+	 * Getter method for the number of IDs in the set
+	 *
+	 * @return number of IDs
+	 */
+	public int getCardinality() {
+		int cardinality = 0;
+		for (int i = 0; i < groups; i++) {
+			cardinality += sizes[i];
+		}
+		return cardinality;
+	}
+
+	/**
+	 * Method to check whether the set is empty
+	 *
+	 * @return true if the set has no IDs
+	 */
+	public boolean isEmpty() {
+		return groups == 0;
+	}
+
+	/**
+	 * Method to get the IDs in both this set and another
+	 *
+	 * @param other the other set
+	 * @return a new set of the common IDs
+	 */
+	public IdBitmap and(IdBitmap other) {
+		IdBitmap result = new IdBitmap();
+		int i = 0;
+		int j = 0;
+		while (i < groups && j < other.groups) {
+			if (keys[i] < other.keys[j]) {
+				i++;
+			} else if (keys[i] > other.keys[j]) {
+				j++;
+			} else {
+				Object container;
+				int size;
+				if (containers[i] instanceof char[] && other.containers[j] instanceof char[]) {
+					// both groups are small, so their intersection is too
+					char[] values = new char[Math.min(sizes[i], other.sizes[j])];
+					size = andValues((char[]) containers[i], sizes[i], (char[]) other.containers[j], other.sizes[j],
+							values);
+					container = values;
+				} else {
+					long[] words = new long[BITMAP_WORDS];
+					size = andWords(containers[i], sizes[i], other.containers[j], other.sizes[j], words);
+					container = size > ARRAY_LIMIT ? words : toValues(words, size);
+				}
+				if (size > 0) {
+					result.insertGroup(result.groups, keys[i], container, size);
+				}
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Method to count the IDs in both this set and another, without building
+	 * the intersection
+	 *
+	 * @param other the other set
+	 * @return number of common IDs
+	 */
+	public int andCardinality(IdBitmap other) {
+		int cardinality = 0;
+		int i = 0;
+		int j = 0;
+		while (i < groups && j < other.groups) {
+			if (keys[i] < other.keys[j]) {
+				i++;
+			} else if (keys[i] > other.keys[j]) {
+				j++;
+			} else {
+				cardinality += andWords(containers[i], sizes[i], other.containers[j], other.sizes[j], null);
+				i++;
+				j++;
+			}
+		}
+		return cardinality;
+	}
+
+	/**
+	 * Method to add every ID of another set to this one
+	 *
+	 * @param other the other set, which is not changed
+	 */
+	public void or(IdBitmap other) {
+		for (int j = 0; j < other.groups; j++) {
+			int group = Arrays.binarySearch(keys, 0, groups, other.keys[j]);
+			if (group < 0) {
+				insertGroup(-group - 1, other.keys[j], copy(other.containers[j], other.sizes[j]), other.sizes[j]);
+				continue;
+			}
+			long[] words = containers[group] instanceof long[] ? (long[]) containers[group]
+					: toWords((char[]) containers[group], sizes[group]);
+			Object added = other.containers[j];
+			if (added instanceof long[]) {
+				long[] addedWords = (long[]) added;
+				for (int w = 0; w < BITMAP_WORDS; w++) {
+					words[w] |= addedWords[w];
+				}
+			} else {
+				char[] values = (char[]) added;
+				for (int v = 0; v < other.sizes[j]; v++) {
+					words[values[v] >>> 6] |= 1L << values[v];
+				}
+			}
+			int size = 0;
+			for (long word : words) {
+				size += Long.bitCount(word);
+			}
+			containers[group] = size > ARRAY_LIMIT ? words : toValues(words, size);
+			sizes[group] = size;
+		}
+	}
+
+	/**
+	 * Getter method for every ID of the set
+	 *
+	 * @return a new array of the IDs, in increasing order
+	 */
+	public int[] toArray() {
+		int[] ids = new int[getCardinality()];
+		int n = 0;
+		for (int i = 0; i < groups; i++) {
+			int high = keys[i] << 16;
+			Object container = containers[i];
+			if (container instanceof long[]) {
+				long[] words = (long[]) container;
+				for (int w = 0; w < BITMAP_WORDS; w++) {
+					for (long word = words[w]; word != 0; word &= word - 1) {
+						ids[n++] = high | (w << 6) + Long.numberOfTrailingZeros(word);
+					}
+				}
+			} else {
+				char[] values = (char[]) container;
+				for (int v = 0; v < sizes[i]; v++) {
+					ids[n++] = high | values[v];
+				}
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Intersects two containers of the same group.
+	 * @param words bitmap receiving the intersection, or null to only count it;
+	 * two array containers are only counted, see {@link #andValues}
+	 * @return number of common IDs
+	 */
+	private static int andWords(Object a, int sizeA, Object b, int sizeB, long[] words) {
+		if (a instanceof long[] && b instanceof long[]) {
+			long[] wordsA = (long[]) a;
+			long[] wordsB = (long[]) b;
+			int size = 0;
+			for (int w = 0; w < BITMAP_WORDS; w++) {
+				long word = wordsA[w] & wordsB[w];
+				if (words != null) {
+					words[w] = word;
+				}
+				size += Long.bitCount(word);
+			}
+			return size;
+		}
+		if (a instanceof long[]) {
+			return andWords(b, sizeB, a, sizeA, words);
+		}
+		char[] valuesA = (char[]) a;
+		int size = 0;
+		if (b instanceof long[]) {
+			long[] wordsB = (long[]) b;
+			for (int v = 0; v < sizeA; v++) {
+				char low = valuesA[v];
+				if ((wordsB[low >>> 6] & (1L << low)) != 0) {
+					size += mark(words, low);
+				}
+			}
+			return size;
+		}
+		return andValues(valuesA, sizeA, (char[]) b, sizeB, null);
+	}
+
+	/**
+	 * Intersects two array containers by merging them.
+	 * @param values array receiving the intersection, or null to only count it
+	 * @return number of common IDs
+	 */
+	private static int andValues(char[] a, int sizeA, char[] b, int sizeB, char[] values) {
+		int size = 0;
+		int i = 0;
+		int j = 0;
+		while (i < sizeA && j < sizeB) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				if (values != null) {
+					values[size] = a[i];
+				}
+				size++;
+				i++;
+				j++;
+			}
+		}
+		return size;
+	}
+
+	private static int mark(long[] words, char low) {
+		if (words != null) {
+			words[low >>> 6] |= 1L << low;
+		}
+		return 1;
+	}
+
+	private static long[] toWords(char[] values, int size) {
+		long[] words = new long[BITMAP_WORDS];
+		for (int v = 0; v < size; v++) {
+			words[values[v] >>> 6] |= 1L << values[v];
+		}
+		return words;
+	}
+
+	private static char[] toValues(long[] words, int size) {
+		char[] values = new char[size];
+		int n = 0;
+		for (int w = 0; w < BITMAP_WORDS; w++) {
+			for (long word = words[w]; word != 0; word &= word - 1) {
+				values[n++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+			}
+		}
+		return values;
+	}
+
+	private static Object copy(Object container, int size) {
+		return container instanceof long[] ? ((long[]) container).clone()
+				: Arrays.copyOf((char[]) container, size);
+	}
+
+	private void insertGroup(int group, char key, Object container, int size) {
+		if (groups == keys.length) {
+			int capacity = Math.max(1, groups * 2);
+			keys = Arrays.copyOf(keys, capacity);
+			containers = Arrays.copyOf(containers, capacity);
+			sizes = Arrays.copyOf(sizes, capacity);
+		}
+		System.arraycopy(keys, group, keys, group + 1, groups - group);
+		System.arraycopy(containers, group, containers, group + 1, groups - group);
+		System.arraycopy(sizes, group, sizes, group + 1, groups - group);
+		keys[group] = key;
+		containers[group] = container;
+		sizes[group] = size;
+		groups++;
+	}
+
+	private void removeGroup(int group) {
+		groups--;
+		System.arraycopy(keys, group + 1, keys, group, groups - group);
+		System.arraycopy(containers, group + 1, containers, group, groups - group);
+		System.arraycopy(sizes, group + 1, sizes, group, groups - group);
+		containers[groups] = null;
+	}
+}
@@ -0,0 +1,366 @@
+package socialmedia;
+
+import java.io.IOException;
+
+/**
+ * InstrumentedSocialMedia wraps a platform, measuring every call made through
+ * it: the latency of each method is recorded in a {@link LatencyHistogram},
+ * and every exception thrown is counted by type. The number of accounts,
+ * original posts, comments and endorsements are added as gauges.
+ * <p>
+ * The metrics are read with {@link #getMetrics()}, either as a
+ * {@link MetricsSnapshot} or, once registered, through JMX:
+ *
+ * <pre>
+ * InstrumentedSocialMedia platform = new InstrumentedSocialMedia(new ConcurrentSocialMedia());
+ * platform.getMetrics().register("main");
+ * </pre>
+ *
+ * Recording takes two reads of the clock and a few lock-free increments per
+ * call, and allocates nothing. Overloads of a method share its metrics. The
+ * counting methods are used as gauges and are not measured. The wrapper is as
+ * thread-safe as the platform it wraps.
+ *
+ * @version 1.0
+ */
+public class InstrumentedSocialMedia implements SocialMediaPlatform {
+
+	private static final long serialVersionUID = 1L;
+
+	private final SocialMediaPlatform delegate;
+	private final PlatformMetrics metrics;
+
+	private final OperationMetrics createAccount;
+	private final OperationMetrics removeAccount;
+	private final OperationMetrics changeAccountHandle;
+	private final OperationMetrics updateAccountDescription;
+	private final OperationMetrics showAccount;
+	private final OperationMetrics createPost;
+	private final OperationMetrics endorsePost;
+	private final OperationMetrics commentPost;
+	private final OperationMetrics deletePost;
+	private final OperationMetrics showIndividualPost;
+	private final OperationMetrics showPostChildrenDetails;
+	private final OperationMetrics getMostEndorsedPost;
+	private final OperationMetrics getMostEndorsedAccount;
+	private final OperationMetrics erasePlatform;
+	private final OperationMetrics savePlatform;
+	private final OperationMetrics loadPlatform;
+
+	/**
+	 * Constructor to measure a platform with new metrics
+	 *
+	 * @param delegate platform to measure
+	 */
+	public InstrumentedSocialMedia(SocialMediaPlatform delegate) {
+		this(delegate, new PlatformMetrics());
+	}
+
+	/**
+	 * Constructor to measure a platform
+	 *
+	 * @param delegate platform to measure
+	 * @param metrics  metrics to record into
+	 */
+	public InstrumentedSocialMedia(SocialMediaPlatform delegate, PlatformMetrics metrics) {
+		this.delegate = delegate;
+		this.metrics = metrics;
+		this.createAccount = metrics.operation("createAccount");
+		this.removeAccount = metrics.operation("removeAccount");
+		this.changeAccountHandle = metrics.operation("changeAccountHandle");
+		this.updateAccountDescription = metrics.operation("updateAccountDescription");
+		this.showAccount = metrics.operation("showAccount");
+		this.createPost = metrics.operation("createPost");
+		this.endorsePost = metrics.operation("endorsePost");
+		this.commentPost = metrics.operation("commentPost");
+		this.deletePost = metrics.operation("deletePost");
+		this.showIndividualPost = metrics.operation("showIndividualPost");
+		this.showPostChildrenDetails = metrics.operation("showPostChildrenDetails");
+		this.getMostEndorsedPost = metrics.operation("getMostEndorsedPost");
+		this.getMostEndorsedAccount = metrics.operation("getMostEndorsedAccount");
+		this.erasePlatform = metrics.operation("erasePlatform");
+		this.savePlatform = metrics.operation("savePlatform");
+		this.loadPlatform = metrics.operation("loadPlatform");
+		metrics.gauge("accounts", delegate::getNumberOfAccounts);
+		metrics.gauge("originalPosts", delegate::getTotalOriginalPosts);
+		metrics.gauge("commentPosts", delegate::getTotalCommentPosts);
+		metrics.gauge("endorsementPosts", delegate::getTotalEndorsmentPosts);
+	}
+
+	/**
+	 * Getter method for the platform measured
+	 *
+	 * @return the wrapped platform
+	 */
+	public SocialMediaPlatform getDelegate() {
+		return delegate;
+	}
+
+	/**
+	 * Getter method for the metrics recorded
+	 *
+	 * @return the metrics
+	 */
+	public PlatformMetrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public int createAccount(String handle) throws IllegalHandleException, InvalidHandleException {
+		long start = createAccount.start();
+		try {
+			return delegate.createAccount(handle);
+		} catch (Exception e) {
+			createAccount.failed(e);
+			throw e;
+		} finally {
+			createAccount.stop(start);
+		}
+	}
+
+	@Override
+	public int createAccount(String handle, String description)
+			throws IllegalHandleException, InvalidHandleException {
+		long start = createAccount.start();
+		try {
+			return delegate.createAccount(handle, description);
+		} catch (Exception e) {
+			createAccount.failed(e);
+			throw e;
+		} finally {
+			createAccount.stop(start);
+		}
+	}
+
+	@Override
+	public void removeAccount(int id) throws AccountIDNotRecognisedException {
+		long start = removeAccount.start();
+		try {
+			delegate.removeAccount(id);
+		} catch (Exception e) {
+			removeAccount.failed(e);
+			throw e;
+		} finally {
+			removeAccount.stop(start);
+		}
+	}
+
+	@Override
+	public void removeAccount(String handle) throws HandleNotRecognisedException {
+		long start = removeAccount.start();
+		try {
+			delegate.removeAccount(handle);
+		} catch (Exception e) {
+			removeAccount.failed(e);
+			throw e;
+		} finally {
+			removeAccount.stop(start);
+		}
+	}
+
+	@Override
+	public void changeAccountHandle(String oldHandle, String newHandle)
+			throws HandleNotRecognisedException, IllegalHandleException, InvalidHandleException {
+		long start = changeAccountHandle.start();
+		try {
+			delegate.changeAccountHandle(oldHandle, newHandle);
+		} catch (Exception e) {
+			changeAccountHandle.failed(e);
+			throw e;
+		} finally {
+			changeAccountHandle.stop(start);
+		}
+	}
+
+	@Override
+	public void updateAccountDescription(String handle, String description) throws HandleNotRecognisedException {
+		long start = updateAccountDescription.start();
+		try {
+			delegate.updateAccountDescription(handle, description);
+		} catch (Exception e) {
+			updateAccountDescription.failed(e);
+			throw e;
+		} finally {
+			updateAccountDescription.stop(start);
+		}
+	}
+
+	@Override
+	public String showAccount(String handle) throws HandleNotRecognisedException {
+		long start = showAccount.start();
+		try {
+			return delegate.showAccount(handle);
+		} catch (Exception e) {
+			showAccount.failed(e);
+			throw e;
+		} finally {
+			showAccount.stop(start);
+		}
+	}
+
+	@Override
+	public int createPost(String handle, String message) throws HandleNotRecognisedException, InvalidPostException {
+		long start = createPost.start();
+		try {
+			return delegate.createPost(handle, message);
+		} catch (Exception e) {
+			createPost.failed(e);
+			throw e;
+		} finally {
+			createPost.stop(start);
+		}
+	}
+
+	@Override
+	public int endorsePost(String handle, int id)
+			throws HandleNotRecognisedException, PostIDNotRecognisedException, NotActionablePostException {
+		long start = endorsePost.start();
+		try {
+			return delegate.endorsePost(handle, id);
+		} catch (Exception e) {
+			endorsePost.failed(e);
+			throw e;
+		} finally {
+			endorsePost.stop(start);
+		}
+	}
+
+	@Override
+	public int commentPost(String handle, int id, String message) throws HandleNotRecognisedException,
+			PostIDNotRecognisedException, NotActionablePostException, InvalidPostException {
+		long start = commentPost.start();
+		try {
+			return delegate.commentPost(handle, id, message);
+		} catch (Exception e) {
+			commentPost.failed(e);
+			throw e;
+		} finally {
+			commentPost.stop(start);
+		}
+	}
+
+	@Override
+	public void deletePost(int id) throws PostIDNotRecognisedException {
+		long start = deletePost.start();
+		try {
+			delegate.deletePost(id);
+		} catch (Exception e) {
+			deletePost.failed(e);
+			throw e;
+		} finally {
+			deletePost.stop(start);
+		}
+	}
+
+	@Override
+	public String showIndividualPost(int id) throws PostIDNotRecognisedException {
+		long start = showIndividualPost.start();
+		try {
+			return delegate.showIndividualPost(id);
+		} catch (Exception e) {
+			showIndividualPost.failed(e);
+			throw e;
+		} finally {
+			showIndividualPost.stop(start);
+		}
+	}
+
+	@Override
+	public StringBuilder showPostChildrenDetails(int id)
+			throws PostIDNotRecognisedException, NotActionablePostException {
+		long start = showPostChildrenDetails.start();
+		try {
+			return delegate.showPostChildrenDetails(id);
+		} catch (Exception e) {
+			showPostChildrenDetails.failed(e);
+			throw e;
+		} finally {
+			showPostChildrenDetails.stop(start);
+		}
+	}
+
+	@Override
+	public int getNumberOfAccounts() {
+		return delegate.getNumberOfAccounts();
+	}
+
+	@Override
+	public int getTotalOriginalPosts() {
+		return delegate.getTotalOriginalPosts();
+	}
+
+	@Override
+	public int getTotalEndorsmentPosts() {
+		return delegate.getTotalEndorsmentPosts();
+	}
+
+	@Override
+	public int getTotalCommentPosts() {
+		return delegate.getTotalCommentPosts();
+	}
+
+	@Override
+	public int getMostEndorsedPost() {
+		long start = getMostEndorsedPost.start();
+		try {
+			return delegate.getMostEndorsedPost();
+		} catch (RuntimeException e) {
+			getMostEndorsedPost.failed(e);
+			throw e;
+		} finally {
+			getMostEndorsedPost.stop(start);
+		}
+	}
+
+	@Override
+	public int getMostEndorsedAccount() {
+		long start = getMostEndorsedAccount.start();
+		try {
+			return delegate.getMostEndorsedAccount();
+		} catch (RuntimeException e) {
+			getMostEndorsedAccount.failed(e);
+			throw e;
+		} finally {
+			getMostEndorsedAccount.stop(start);
+		}
+	}
+
+	@Override
+	public void erasePlatform() {
+		long start = erasePlatform.start();
+		try {
+			delegate.erasePlatform();
+		} catch (RuntimeException e) {
+			erasePlatform.failed(e);
+			throw e;
+		} finally {
+			erasePlatform.stop(start);
+		}
+	}
+
+	@Override
+	public void savePlatform(String filename) throws IOException {
+		long start = savePlatform.start();
+		try {
+			delegate.savePlatform(filename);
+		} catch (Exception e) {
+			savePlatform.failed(e);
+			throw e;
+		} finally {
+			savePlatform.stop(start);
+		}
+	}
+
+	@Override
+	public void loadPlatform(String filename) throws IOException, ClassNotFoundException {
+		long start = loadPlatform.start();
+		try {
+			delegate.loadPlatform(filename);
+		} catch (Exception e) {
+			loadPlatform.failed(e);
+			throw e;
+		} finally {
+			loadPlatform.stop(start);
+		}
+	}
+}
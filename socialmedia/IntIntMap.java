@@ -0,0 +1,193 @@
+package socialmedia;
+
+import java.util.Arrays;
+
+/**
+ * IntIntMap maps int keys to int values in two primitive arrays, with open
+ * addressing and linear probing, so that neither looking up nor storing an
+ * entry allocates once the map has grown to its size. Keys must not be 0,
+ * which marks a free slot; account and post IDs never are.
+ * <p>
+ * Removed entries are not marked as deleted: the entries after them in their
+ * probe run are moved back instead, so lookups never slow down as entries come
+ * and go. The map is not thread-safe.
+ *
+ * @version 1.0
+ */
+public class IntIntMap {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final int missingValue;
+	private int[] keys = new int[INITIAL_CAPACITY];
+	private int[] values = new int[INITIAL_CAPACITY];
+	private int size;
+
+	/**
+	 * Constructor to create an empty map
+	 *
+	 * @param missingValue value returned for keys that are not in the map
+	 */
+	public IntIntMap(int missingValue) {
+		this.missingValue = missingValue;
+	}
+
+	private static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private int indexOf(int key) {
+		int mask = keys.length - 1;
+		int i = hash(key) & mask;
+		while (keys[i] != 0 && keys[i] != key) {
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+	/**
+	 * Method to get the value of a key
+	 *
+	 * @param key key, not 0
+	 * @return the value, or the missing value if the key is not in the map
+	 */
+	public int get(int key) {
+		int i = indexOf(key);
+		return keys[i] == 0 ? missingValue : values[i];
+	}
+
+	/**
+	 * Method to check whether a key is in the map
+	 *
+	 * @param key key, not 0
+	 * @return true if the map has a value for the key
+	 */
+	public boolean containsKey(int key) {
+		return key != 0 && keys[indexOf(key)] != 0;
+	}
+
+	/**
+	 * Method to set the value of a key
+	 *
+	 * @param key   key, not 0
+	 * @param value value
+	 * @return the previous value, or the missing value if the key was not in
+	 *         the map
+	 */
+	public int put(int key, int value) {
+		if (key == 0) {
+			throw new IllegalArgumentException("Key must not be 0");
+		}
+		int i = indexOf(key);
+		if (keys[i] != 0) {
+			int previous = values[i];
+			values[i] = value;
+			return previous;
+		}
+		keys[i] = key;
+		values[i] = value;
+		if (++size > keys.length * 3 / 4) {
+			resize(keys.length * 2);
+		}
+		return missingValue;
+	}
+
+	/**
+	 * Method to add to the value of a key, which counts as 0 if it is not in
+	 * the map; the key is removed once its value is back to 0
+	 *
+	 * @param key   key, not 0
+	 * @param delta amount to add
+	 * @return the new value
+	 */
+	public int add(int key, int delta) {
+		int i = key == 0 ? -1 : indexOf(key);
+		int value = (i >= 0 && keys[i] != 0 ? values[i] : 0) + delta;
+		if (value == 0) {
+			remove(key);
+		} else {
+			put(key, value);
+		}
+		return value;
+	}
+
+	/**
+	 * Method to remove a key from the map
+	 *
+	 * @param key key, not 0
+	 * @return the removed value, or the missing value if the key was not in the
+	 *         map
+	 */
+	public int remove(int key) {
+		if (key == 0) {
+			return missingValue;
+		}
+		int mask = keys.length - 1;
+		int i = indexOf(key);
+		if (keys[i] == 0) {
+			return missingValue;
+		}
+		int removed = values[i];
+		// move back every later entry of the probe run that may take the free slot
+		int free = i;
+		for (int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+			int home = hash(keys[j]) & mask;
+			if (((j - home) & mask) >= ((j - free) & mask)) {
+				keys[free] = keys[j];
+				values[free] = values[j];
+				free = j;
+			}
+		}
+		keys[free] = 0;
+		size--;
+		return removed;
+	}
+
+	private void resize(int capacity) {
+		int[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new int[capacity];
+		values = new int[capacity];
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != 0) {
+				int j = indexOf(oldKeys[i]);
+				keys[j] = oldKeys[i];
+				values[j] = oldValues[i];
+			}
+		}
+	}
+
+	/**
+	 * Getter method for every key of the map, in no particular order
+	 *
+	 * @return a new array of the keys
+	 */
+	public int[] keys() {
+		int[] result = new int[size];
+		int n = 0;
+		for (int key : keys) {
+			if (key != 0) {
+				result[n++] = key;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Getter method for the number of keys in the map
+	 *
+	 * @return number of keys
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Method to remove every key, keeping the capacity the map has grown to
+	 */
+	public void clear() {
+		Arrays.fill(keys, 0);
+		size = 0;
+	}
+}
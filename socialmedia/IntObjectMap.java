@@ -0,0 +1,187 @@
+package socialmedia;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * IntObjectMap maps int keys to objects, laid out as {@link IntIntMap}: a
+ * primitive array of keys and an array of values, with open addressing and
+ * linear probing, so that neither looking up nor storing an entry boxes its
+ * key. Keys must not be 0, which marks a free slot, and values must not be
+ * null. The map is not thread-safe.
+ *
+ * @param <V> type of the values
+ * @version 1.0
+ */
+public class IntObjectMap<V> {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private int[] keys = new int[INITIAL_CAPACITY];
+	private Object[] values = new Object[INITIAL_CAPACITY];
+	private int size;
+
+	private static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private int indexOf(int key) {
+		int mask = keys.length - 1;
+		int i = hash(key) & mask;
+		while (keys[i] != 0 && keys[i] != key) {
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+	/**
+	 * Method to get the value of a key
+	 *
+	 * @param key key, not 0
+	 * @return the value, or null if the key is not in the map
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(int key) {
+		return (V) values[indexOf(key)];
+	}
+
+	/**
+	 * Method to set the value of a key
+	 *
+	 * @param key   key, not 0
+	 * @param value value, not null
+	 * @return the previous value, or null if the key was not in the map
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(int key, V value) {
+		if (key == 0) {
+			throw new IllegalArgumentException("Key must not be 0");
+		}
+		int i = indexOf(key);
+		if (keys[i] != 0) {
+			V previous = (V) values[i];
+			values[i] = value;
+			return previous;
+		}
+		keys[i] = key;
+		values[i] = value;
+		if (++size > keys.length * 3 / 4) {
+			resize(keys.length * 2);
+		}
+		return null;
+	}
+
+	/**
+	 * Method to remove a key from the map
+	 *
+	 * @param key key, not 0
+	 * @return the removed value, or null if the key was not in the map
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(int key) {
+		if (key == 0) {
+			return null;
+		}
+		int mask = keys.length - 1;
+		int i = indexOf(key);
+		if (keys[i] == 0) {
+			return null;
+		}
+		V removed = (V) values[i];
+		// move back every later entry of the probe run that may take the free slot
+		int free = i;
+		for (int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+			int home = hash(keys[j]) & mask;
+			if (((j - home) & mask) >= ((j - free) & mask)) {
+				keys[free] = keys[j];
+				values[free] = values[j];
+				free = j;
+			}
+		}
+		keys[free] = 0;
+		values[free] = null;
+		size--;
+		return removed;
+	}
+
+	private void resize(int capacity) {
+		int[] oldKeys = keys;
+		Object[] oldValues = values;
+		keys = new int[capacity];
+		values = new Object[capacity];
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != 0) {
+				int j = indexOf(oldKeys[i]);
+				keys[j] = oldKeys[i];
+				values[j] = oldValues[i];
+			}
+		}
+	}
+
+	/**
+	 * Getter method for a view of the values of the map, in no particular order.
+	 * The view must not be used while the map changes.
+	 *
+	 * @return the values
+	 */
+	public Collection<V> values() {
+		return new AbstractCollection<V>() {
+			@Override
+			public Iterator<V> iterator() {
+				return new Iterator<V>() {
+					private int next = skipFree(0);
+
+					private int skipFree(int i) {
+						while (i < keys.length && keys[i] == 0) {
+							i++;
+						}
+						return i;
+					}
+
+					@Override
+					public boolean hasNext() {
+						return next < keys.length;
+					}
+
+					@Override
+					@SuppressWarnings("unchecked")
+					public V next() {
+						if (next >= keys.length) {
+							throw new NoSuchElementException();
+						}
+						V value = (V) values[next];
+						next = skipFree(next + 1);
+						return value;
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	/**
+	 * Getter method for the number of keys in the map
+	 *
+	 * @return number of keys
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Method to remove every key, keeping the capacity the map has grown to
+	 */
+	public void clear() {
+		Arrays.fill(keys, 0);
+		Arrays.fill(values, null);
+		size = 0;
+	}
+}
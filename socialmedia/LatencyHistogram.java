@@ -0,0 +1,174 @@
+package socialmedia;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram records latencies in nanoseconds into log-linear buckets,
+ * in the manner of HdrHistogram: every power of two is split into 64 equal
+ * buckets, so that any percentile is reported within 1.6% of the recorded
+ * value, from a nanosecond up to an hour, in a fixed 20KB of counters.
+ * <p>
+ * Recording is lock-free and allocates nothing, so it can be called on every
+ * platform operation from any number of threads. Latencies above an hour are
+ * counted as an hour.
+ *
+ * @version 1.0
+ */
+public class LatencyHistogram {
+
+	// values below 2^SUB_BUCKET_BITS are counted exactly; above it, each power of
+	// two has 2^(SUB_BUCKET_BITS - 1) buckets
+	private static final int SUB_BUCKET_BITS = 7;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+
+	/** Highest latency recorded as itself, a little over an hour. */
+	public static final long HIGHEST_TRACKABLE_VALUE = (1L << 42) - 1;
+
+	private static final int BUCKET_COUNT = indexOf(HIGHEST_TRACKABLE_VALUE) + 1;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	private static int indexOf(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		// shift leaves the SUB_BUCKET_BITS highest bits of value
+		int shift = Long.SIZE - SUB_BUCKET_BITS - Long.numberOfLeadingZeros(value);
+		return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (int) (value >>> shift) - SUB_BUCKET_HALF;
+	}
+
+	private static long highestValueAt(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+		long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+	/**
+	 * Method to record a latency
+	 *
+	 * @param nanos latency in nanoseconds; negative latencies count as 0
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, Math.min(nanos, HIGHEST_TRACKABLE_VALUE));
+		counts.incrementAndGet(indexOf(value));
+		count.increment();
+		sum.add(value);
+		long highest = max.get();
+		while (value > highest && !max.compareAndSet(highest, value)) {
+			highest = max.get();
+		}
+	}
+
+	/**
+	 * Getter method for the number of latencies recorded
+	 *
+	 * @return number of latencies
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Method to clear every recorded latency. Latencies recorded while the
+	 * histogram is reset may be partly kept.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts.set(i, 0);
+		}
+		count.reset();
+		sum.reset();
+		max.set(0);
+	}
+
+	/**
+	 * Method to take a copy of the recorded latencies, which does not change as
+	 * more are recorded
+	 *
+	 * @return the snapshot
+	 */
+	public Snapshot snapshot() {
+		long[] copy = new long[BUCKET_COUNT];
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			copy[i] = counts.get(i);
+			total += copy[i];
+		}
+		return new Snapshot(copy, total, sum.sum(), max.get());
+	}
+
+	/**
+	 * An immutable copy of the latencies recorded by a histogram.
+	 */
+	public static final class Snapshot {
+		private final long[] counts;
+		private final long count;
+		private final long sum;
+		private final long max;
+
+		private Snapshot(long[] counts, long count, long sum, long max) {
+			this.counts = counts;
+			this.count = count;
+			this.sum = sum;
+			this.max = max;
+		}
+
+		/**
+		 * Getter method for the number of latencies recorded
+		 *
+		 * @return number of latencies
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * Getter method for the highest latency recorded
+		 *
+		 * @return latency in nanoseconds, or 0 if none was recorded
+		 */
+		public long getMax() {
+			return max;
+		}
+
+		/**
+		 * Getter method for the mean latency
+		 *
+		 * @return latency in nanoseconds, or 0 if none was recorded
+		 */
+		public double getMean() {
+			return count == 0 ? 0 : (double) sum / count;
+		}
+
+		/**
+		 * Method to find the latency below which the given percentage of the
+		 * recorded latencies fall
+		 *
+		 * @param percentile percentage between 0 and 100
+		 * @return latency in nanoseconds, or 0 if none was recorded
+		 */
+		public long getValueAtPercentile(double percentile) {
+			if (percentile < 0 || percentile > 100) {
+				throw new IllegalArgumentException("Percentile must be between 0 and 100");
+			}
+			long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+			long seen = 0;
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if (seen >= rank) {
+					return Math.min(highestValueAt(i), max);
+				}
+			}
+			return max;
+		}
+	}
+}
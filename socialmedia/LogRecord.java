@@ -0,0 +1,273 @@
+package socialmedia;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * LogRecord is a single change to the contents of a platform, as written to a
+ * {@link WriteAheadLog}. Each record holds the arguments of the operation that
+ * made the change and, for operations that create an account or post, the ID it
+ * was given and its creation time, so that replaying the record can be checked
+ * to produce the same result.
+ *
+ * @version 1.0
+ */
+public class LogRecord {
+
+	/** An account was created. */
+	public static final int CREATE_ACCOUNT = 1;
+	/** An account was removed, together with its posts. */
+	public static final int REMOVE_ACCOUNT = 2;
+	/** The handle of an account was changed. */
+	public static final int CHANGE_ACCOUNT_HANDLE = 3;
+	/** The description of an account was changed. */
+	public static final int UPDATE_ACCOUNT_DESCRIPTION = 4;
+	/** An original post was created. */
+	public static final int CREATE_POST = 5;
+	/** A comment was created. */
+	public static final int COMMENT_POST = 6;
+	/** An endorsement was created. */
+	public static final int ENDORSE_POST = 7;
+	/** A post was deleted. */
+	public static final int DELETE_POST = 8;
+	/** Every account and post was erased. */
+	public static final int ERASE_PLATFORM = 9;
+
+	private final int operation;
+	private final String handle;
+	private final String text;
+	private final int targetId;
+	private final int resultId;
+	private final long timestamp;
+
+	private LogRecord(int operation, String handle, String text, int targetId, int resultId, long timestamp) {
+		this.operation = operation;
+		this.handle = handle;
+		this.text = text;
+		this.targetId = targetId;
+		this.resultId = resultId;
+		this.timestamp = timestamp;
+	}
+
+	/**
+	 * Method to create the record of a new account
+	 *
+	 * @param handle      handle of the account
+	 * @param description description of the account, or null
+	 * @param id          ID given to the account
+	 * @return the record
+	 */
+	public static LogRecord createAccount(String handle, String description, int id) {
+		return new LogRecord(CREATE_ACCOUNT, handle, description, 0, id, 0);
+	}
+
+	/**
+	 * Method to create the record of a removed account
+	 *
+	 * @param id ID of the account
+	 * @return the record
+	 */
+	public static LogRecord removeAccount(int id) {
+		return new LogRecord(REMOVE_ACCOUNT, null, null, id, 0, 0);
+	}
+
+	/**
+	 * Method to create the record of a changed handle
+	 *
+	 * @param oldHandle handle before the change
+	 * @param newHandle handle after the change
+	 * @return the record
+	 */
+	public static LogRecord changeAccountHandle(String oldHandle, String newHandle) {
+		return new LogRecord(CHANGE_ACCOUNT_HANDLE, oldHandle, newHandle, 0, 0, 0);
+	}
+
+	/**
+	 * Method to create the record of a changed description
+	 *
+	 * @param handle      handle of the account
+	 * @param description new description
+	 * @return the record
+	 */
+	public static LogRecord updateAccountDescription(String handle, String description) {
+		return new LogRecord(UPDATE_ACCOUNT_DESCRIPTION, handle, description, 0, 0, 0);
+	}
+
+	/**
+	 * Method to create the record of a new original post
+	 *
+	 * @param handle    handle of the author
+	 * @param message   message of the post
+	 * @param id        ID given to the post
+	 * @param timestamp creation time of the post
+	 * @return the record
+	 */
+	public static LogRecord createPost(String handle, String message, int id, long timestamp) {
+		return new LogRecord(CREATE_POST, handle, message, 0, id, timestamp);
+	}
+
+	/**
+	 * Method to create the record of a new comment
+	 *
+	 * @param handle    handle of the author
+	 * @param parentId  ID of the commented post
+	 * @param message   message of the comment
+	 * @param id        ID given to the comment
+	 * @param timestamp creation time of the comment
+	 * @return the record
+	 */
+	public static LogRecord commentPost(String handle, int parentId, String message, int id, long timestamp) {
+		return new LogRecord(COMMENT_POST, handle, message, parentId, id, timestamp);
+	}
+
+	/**
+	 * Method to create the record of a new endorsement
+	 *
+	 * @param handle    handle of the endorsing account
+	 * @param postId    ID of the endorsed post
+	 * @param id        ID given to the endorsement
+	 * @param timestamp creation time of the endorsement
+	 * @return the record
+	 */
+	public static LogRecord endorsePost(String handle, int postId, int id, long timestamp) {
+		return new LogRecord(ENDORSE_POST, handle, null, postId, id, timestamp);
+	}
+
+	/**
+	 * Method to create the record of a deleted post
+	 *
+	 * @param id ID of the post
+	 * @return the record
+	 */
+	public static LogRecord deletePost(int id) {
+		return new LogRecord(DELETE_POST, null, null, id, 0, 0);
+	}
+
+	/**
+	 * Method to create the record of an erased platform
+	 *
+	 * @return the record
+	 */
+	public static LogRecord erasePlatform() {
+		return new LogRecord(ERASE_PLATFORM, null, null, 0, 0, 0);
+	}
+
+	/**
+	 * Getter method for the kind of change, one of the constants of this class
+	 *
+	 * @return the operation
+	 */
+	public int getOperation() {
+		return operation;
+	}
+
+	/**
+	 * Getter method for the handle of the account the operation applies to, or the
+	 * old handle of a changed handle
+	 *
+	 * @return the handle, or null
+	 */
+	public String getHandle() {
+		return handle;
+	}
+
+	/**
+	 * Getter method for the message, description or new handle, depending on the
+	 * operation
+	 *
+	 * @return the text, or null
+	 */
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * Getter method for the ID of the account or post the operation applies to
+	 *
+	 * @return the ID, or 0
+	 */
+	public int getTargetId() {
+		return targetId;
+	}
+
+	/**
+	 * Getter method for the ID given to the created account or post
+	 *
+	 * @return the ID, or 0
+	 */
+	public int getResultId() {
+		return resultId;
+	}
+
+	/**
+	 * Getter method for the creation time of the created post
+	 *
+	 * @return the time in milliseconds since the epoch, or 0
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Method to encode the record as bytes
+	 *
+	 * @return the encoded record
+	 */
+	public byte[] encode() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeByte(operation);
+			writeString(out, handle);
+			writeString(out, text);
+			out.writeInt(targetId);
+			out.writeInt(resultId);
+			out.writeLong(timestamp);
+		} catch (IOException e) {
+			// not thrown by a ByteArrayOutputStream
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Method to decode a record from the bytes returned by {@link #encode()}
+	 *
+	 * @param bytes encoded record
+	 * @return the record
+	 * @throws IOException if the bytes are not a valid record
+	 */
+	public static LogRecord decode(byte[] bytes) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+		int operation = in.readUnsignedByte();
+		if (operation < CREATE_ACCOUNT || operation > ERASE_PLATFORM) {
+			throw new IOException("Unknown log operation " + operation);
+		}
+		return new LogRecord(operation, readString(in), readString(in), in.readInt(), in.readInt(), in.readLong());
+	}
+
+	// strings are written as their UTF-8 length, or -1 for null, and bytes
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
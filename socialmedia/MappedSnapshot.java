@@ -0,0 +1,320 @@
+package socialmedia;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * MappedSnapshot answers queries straight from a memory-mapped snapshot file,
+ * without loading it. Opening one only maps the file and reads its footer;
+ * each query then binary searches the fixed-width index tables written by
+ * {@link PlatformSnapshot} and decodes the few records it needs, so the pages
+ * touched are the only ones read from disk.
+ * <p>
+ * Only files up to 2GB can be mapped. The checksum is
+ * not verified, since that means reading the whole file; it is verified when
+ * the file is loaded with {@link PlatformSnapshot#read}. A query that finds a
+ * record pointing outside the file, or to a missing post or account, throws an
+ * IOException instead. A mapped snapshot is immutable and safe to query from
+ * several threads at once.
+ *
+ * @version 1.0
+ */
+public class MappedSnapshot {
+
+	private final Path file;
+	private final ByteBuffer map;
+	// positions of the index tables
+	private final int stringIndex;
+	private final int postIndex;
+	private final int accountIndex;
+	private final int handleIndex;
+	private final int postCount;
+	private final int accountCount;
+	private final int originalCount;
+	private final int commentCount;
+	private final int endorsementCount;
+
+	private MappedSnapshot(Path file, ByteBuffer map) throws IOException {
+		this.file = file;
+		this.map = map;
+		if (map.capacity() < 5 + PlatformSnapshot.FOOTER_SIZE + 4 || map.getInt(0) != PlatformSnapshot.MAGIC) {
+			throw new IOException(file + " is not a platform snapshot");
+		}
+		int version = map.get(4) & 0xFF;
+		if (version != PlatformSnapshot.VERSION) {
+			throw new IOException("Snapshot version " + version + " cannot be mapped");
+		}
+		int footer = map.capacity() - 4 - PlatformSnapshot.FOOTER_SIZE;
+		stringIndex = position(map.getLong(footer), footer);
+		postIndex = position(map.getLong(footer + 8), footer);
+		accountIndex = position(map.getLong(footer + 16), footer);
+		handleIndex = position(map.getLong(footer + 24), footer);
+		accountCount = map.getInt(footer + 32);
+		originalCount = map.getInt(footer + 36);
+		commentCount = map.getInt(footer + 40);
+		endorsementCount = map.getInt(footer + 44);
+		postCount = (accountIndex - postIndex) / PlatformSnapshot.ID_ENTRY_SIZE;
+		if (postCount != originalCount + commentCount + endorsementCount
+				|| postIndex < stringIndex || (postIndex - stringIndex) % 8 != 0
+				|| handleIndex - accountIndex != accountCount * PlatformSnapshot.ID_ENTRY_SIZE
+				|| footer - handleIndex != accountCount * 4) {
+			throw new IOException("Snapshot index of " + file + " is corrupted");
+		}
+	}
+
+	private int position(long value, int limit) throws IOException {
+		if (value < 0 || value > limit) {
+			throw new IOException("Snapshot index of " + file + " is corrupted");
+		}
+		return (int) value;
+	}
+
+	/**
+	 * Method to map a snapshot file. The file can be changed or replaced once
+	 * mapped, but queries then see the bytes of the new file.
+	 *
+	 * @param file snapshot file to map
+	 * @return the mapped snapshot
+	 * @throws IOException if the file cannot be mapped, or is not a snapshot
+	 */
+	public static MappedSnapshot open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException(file + " is too large to be mapped");
+			}
+			// the mapping stays valid once the channel is closed
+			return new MappedSnapshot(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * Getter method for the mapped file
+	 *
+	 * @return path of the snapshot file
+	 */
+	public Path getFile() {
+		return file;
+	}
+
+	/**
+	 * Getter method for the number of accounts in the snapshot
+	 *
+	 * @return number of accounts
+	 */
+	public int getNumberOfAccounts() {
+		return accountCount;
+	}
+
+	/**
+	 * Getter method for the number of original posts in the snapshot
+	 *
+	 * @return number of original posts
+	 */
+	public int getTotalOriginalPosts() {
+		return originalCount;
+	}
+
+	/**
+	 * Getter method for the number of comments in the snapshot
+	 *
+	 * @return number of comments
+	 */
+	public int getTotalCommentPosts() {
+		return commentCount;
+	}
+
+	/**
+	 * Getter method for the number of endorsements in the snapshot
+	 *
+	 * @return number of endorsements
+	 */
+	public int getTotalEndorsmentPosts() {
+		return endorsementCount;
+	}
+
+	/**
+	 * Method to format a post of the snapshot, as
+	 * {@link SocialMediaPlatform#showIndividualPost(int)} does
+	 *
+	 * @param id post ID
+	 * @return the formatted post
+	 * @throws PostIDNotRecognisedException if the snapshot has no post with this ID
+	 * @throws IOException                  if the record of the post is corrupted
+	 */
+	public String showIndividualPost(int id) throws PostIDNotRecognisedException, IOException {
+		ByteBuffer in = postRecord(id);
+		if (in == null) {
+			throw new PostIDNotRecognisedException("Post ID not recognised");
+		}
+		try {
+			int kind = in.get() & 0xFF;
+			readVarInt(in); // ID delta
+			int authorId = readVarInt(in);
+			int parentId = readVarInt(in);
+			skipVarLong(in); // creation time
+			int endorsements = readVarInt(in);
+			int comments = readVarInt(in);
+			String message;
+			if (kind == PlatformSnapshot.ENDORSEMENT) {
+				// the message of an endorsement is derived from the endorsed post
+				ByteBuffer endorsed = postRecord(parentId);
+				if (endorsed == null) {
+					throw corrupted(null);
+				}
+				endorsed.get();
+				readVarInt(endorsed);
+				int endorsedAuthorId = readVarInt(endorsed);
+				readVarInt(endorsed);
+				skipVarLong(endorsed);
+				readVarInt(endorsed);
+				readVarInt(endorsed);
+				message = "EP@" + handleOf(endorsedAuthorId) + ": " + readString(endorsed);
+			} else {
+				message = readString(in);
+			}
+			return Post.format(id, handleOf(authorId), endorsements, comments, message);
+		} catch (BufferUnderflowException e) {
+			throw corrupted(e);
+		}
+	}
+
+	/**
+	 * Method to format the summary of an account of the snapshot, as
+	 * {@link SocialMediaPlatform#showAccount(String)} does
+	 *
+	 * @param handle account handle
+	 * @return the account summary
+	 * @throws HandleNotRecognisedException if the snapshot has no account with this
+	 *                                      handle
+	 * @throws IOException                  if an account record is corrupted
+	 */
+	public String showAccount(String handle) throws HandleNotRecognisedException, IOException {
+		if (handle == null) {
+			throw new HandleNotRecognisedException("Handle not recognised");
+		}
+		try {
+			int low = 0;
+			int high = accountCount - 1;
+			while (low <= high) {
+				int middle = (low + high) >>> 1;
+				// the handle index holds positions in the account index
+				int position = map.getInt(handleIndex + middle * 4);
+				if (position < 0 || position >= accountCount) {
+					throw corrupted(null);
+				}
+				int entry = accountIndex + position * PlatformSnapshot.ID_ENTRY_SIZE;
+				ByteBuffer in = at(map.getLong(entry + 4));
+				readVarInt(in); // ID delta
+				String candidate = string(readVarInt(in));
+				if (candidate == null) {
+					throw corrupted(null);
+				}
+				int order = candidate.compareTo(handle);
+				if (order < 0) {
+					low = middle + 1;
+				} else if (order > 0) {
+					high = middle - 1;
+				} else {
+					String description = string(readVarInt(in));
+					int postCount = readVarInt(in);
+					int endorseCount = readVarInt(in);
+					return Account.summary(map.getInt(entry), candidate, description, postCount, endorseCount);
+				}
+			}
+		} catch (BufferUnderflowException e) {
+			throw corrupted(e);
+		}
+		throw new HandleNotRecognisedException("Handle not recognised");
+	}
+
+	private ByteBuffer postRecord(int id) throws IOException {
+		int entry = find(postIndex, postCount, id);
+		return entry < 0 ? null : at(map.getLong(entry + 4));
+	}
+
+	private String handleOf(int accountId) throws IOException {
+		int entry = find(accountIndex, accountCount, accountId);
+		if (entry < 0) {
+			// every post's author is in the snapshot
+			throw corrupted(null);
+		}
+		ByteBuffer in = at(map.getLong(entry + 4));
+		readVarInt(in); // ID delta
+		return string(readVarInt(in));
+	}
+
+	private String string(int index) throws IOException {
+		if (index < 0 || index > (postIndex - stringIndex) / 8) {
+			throw corrupted(null);
+		}
+		return index == 0 ? null : readString(at(map.getLong(stringIndex + (index - 1) * 8)));
+	}
+
+	private IOException corrupted(Throwable cause) {
+		return new IOException("Snapshot record of " + file + " is corrupted", cause);
+	}
+
+	/**
+	 * Binary searches an index table of ID and offset entries, returning the
+	 * position of the entry with the given ID or -1.
+	 */
+	private int find(int table, int entries, int id) {
+		int low = 0;
+		int high = entries - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int entry = table + middle * PlatformSnapshot.ID_ENTRY_SIZE;
+			int candidate = map.getInt(entry);
+			if (candidate < id) {
+				low = middle + 1;
+			} else if (candidate > id) {
+				high = middle - 1;
+			} else {
+				return entry;
+			}
+		}
+		return -1;
+	}
+
+	private ByteBuffer at(long offset) throws IOException {
+		if (offset < 0 || offset >= stringIndex) {
+			throw corrupted(null);
+		}
+		ByteBuffer in = map.duplicate();
+		in.position((int) offset);
+		return in;
+	}
+
+	private static int readVarInt(ByteBuffer in) {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = in.get() & 0xFF;
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				break;
+			}
+		}
+		return value;
+	}
+
+	private static void skipVarLong(ByteBuffer in) {
+		while ((in.get() & 0x80) != 0) {
+			// skip the value
+		}
+	}
+
+	private static String readString(ByteBuffer in) {
+		int length = readVarInt(in);
+		if (length < 0 || length > in.remaining()) {
+			throw new BufferUnderflowException();
+		}
+		byte[] bytes = new byte[length];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
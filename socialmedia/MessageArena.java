@@ -0,0 +1,89 @@
+package socialmedia;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * MessageArena packs post messages as UTF-8 into large shared byte chunks, so
+ * that a message costs its encoded length rather than a String object, its
+ * array and a reference to it. A message is stored once and referred to by a
+ * long holding its position and length.
+ * <p>
+ * Messages are never moved, and the space of removed messages is not reused:
+ * it is reclaimed when the platform is saved and loaded again. The arena is not
+ * thread-safe.
+ *
+ * @version 1.0
+ */
+public class MessageArena {
+
+	// chunks of 1MB; a message never spans two chunks
+	private static final int CHUNK_BITS = 20;
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	// bits of a reference holding the encoded length
+	private static final int LENGTH_BITS = 12;
+
+	/** Longest message stored, in UTF-8 bytes. */
+	public static final int MAX_LENGTH = (1 << LENGTH_BITS) - 1;
+
+	private byte[][] chunks = new byte[0][];
+	// position of the next message, across all chunks
+	private long position;
+
+	/**
+	 * Method to store a message
+	 *
+	 * @param message message to store
+	 * @return the reference of the message
+	 */
+	public long add(String message) {
+		byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > MAX_LENGTH) {
+			throw new IllegalArgumentException("Message longer than " + MAX_LENGTH + " bytes");
+		}
+		int offset = (int) (position & (CHUNK_SIZE - 1));
+		if (offset + bytes.length > CHUNK_SIZE) {
+			position += CHUNK_SIZE - offset;
+			offset = 0;
+		}
+		int chunk = (int) (position >>> CHUNK_BITS);
+		if (chunk == chunks.length) {
+			chunks = Arrays.copyOf(chunks, chunk + 1);
+			chunks[chunk] = new byte[CHUNK_SIZE];
+		}
+		System.arraycopy(bytes, 0, chunks[chunk], offset, bytes.length);
+		long reference = position << LENGTH_BITS | bytes.length;
+		position += bytes.length;
+		return reference;
+	}
+
+	/**
+	 * Method to read a stored message
+	 *
+	 * @param reference the reference returned when the message was stored
+	 * @return the message
+	 */
+	public String get(long reference) {
+		long start = reference >>> LENGTH_BITS;
+		int length = (int) (reference & MAX_LENGTH);
+		return new String(chunks[(int) (start >>> CHUNK_BITS)], (int) (start & (CHUNK_SIZE - 1)), length,
+				StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Getter method for the space taken by the arena
+	 *
+	 * @return bytes allocated for messages
+	 */
+	public long getCapacity() {
+		return (long) chunks.length * CHUNK_SIZE;
+	}
+
+	/**
+	 * Method to drop every message
+	 */
+	public void clear() {
+		chunks = new byte[0][];
+		position = 0;
+	}
+}
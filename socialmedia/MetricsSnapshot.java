@@ -0,0 +1,120 @@
+package socialmedia;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * MetricsSnapshot is an immutable copy of the metrics of a platform at one
+ * moment: the latencies and errors of each operation, the number of each type
+ * of exception thrown, and the gauges.
+ *
+ * @version 1.0
+ */
+public class MetricsSnapshot {
+
+	private final long timestamp;
+	private final Map<String, LatencyHistogram.Snapshot> latencies;
+	private final Map<String, Long> errors;
+	private final Map<String, Long> exceptionCounts;
+	private final Map<String, Long> gauges;
+
+	/**
+	 * Constructor to create a snapshot
+	 *
+	 * @param timestamp       time the snapshot was taken, in milliseconds since
+	 *                        the epoch
+	 * @param latencies       latencies by operation name
+	 * @param errors          number of errors by operation name
+	 * @param exceptionCounts number of exceptions by simple class name
+	 * @param gauges          gauge values by name
+	 */
+	MetricsSnapshot(long timestamp, Map<String, LatencyHistogram.Snapshot> latencies, Map<String, Long> errors,
+			Map<String, Long> exceptionCounts, Map<String, Long> gauges) {
+		this.timestamp = timestamp;
+		this.latencies = Collections.unmodifiableMap(new LinkedHashMap<>(latencies));
+		this.errors = Collections.unmodifiableMap(new LinkedHashMap<>(errors));
+		this.exceptionCounts = Collections.unmodifiableMap(new LinkedHashMap<>(exceptionCounts));
+		this.gauges = Collections.unmodifiableMap(new LinkedHashMap<>(gauges));
+	}
+
+	/**
+	 * Getter method for the time the snapshot was taken
+	 *
+	 * @return milliseconds since the epoch
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Getter method for the latencies of every operation
+	 *
+	 * @return latencies by operation name
+	 */
+	public Map<String, LatencyHistogram.Snapshot> getLatencies() {
+		return latencies;
+	}
+
+	/**
+	 * Getter method for the latencies of one operation
+	 *
+	 * @param operation name of the platform method
+	 * @return the latencies, or null if the operation is not measured
+	 */
+	public LatencyHistogram.Snapshot getLatencies(String operation) {
+		return latencies.get(operation);
+	}
+
+	/**
+	 * Getter method for the number of calls of one operation that threw
+	 *
+	 * @param operation name of the platform method
+	 * @return number of errors
+	 */
+	public long getErrors(String operation) {
+		return errors.getOrDefault(operation, 0L);
+	}
+
+	/**
+	 * Getter method for the number of exceptions thrown by the platform
+	 *
+	 * @return number of exceptions by simple class name
+	 */
+	public Map<String, Long> getExceptionCounts() {
+		return exceptionCounts;
+	}
+
+	/**
+	 * Getter method for the values of the gauges
+	 *
+	 * @return values by gauge name
+	 */
+	public Map<String, Long> getGauges() {
+		return gauges;
+	}
+
+	/**
+	 * Method to format the snapshot as a table, latencies in microseconds
+	 *
+	 * @return the formatted snapshot
+	 */
+	@Override
+	public String toString() {
+		StringBuilder out = new StringBuilder();
+		out.append(String.format("%-24s %10s %8s %10s %10s %10s %10s%n", "operation", "count", "errors", "p50 us",
+				"p99 us", "p999 us", "max us"));
+		for (Map.Entry<String, LatencyHistogram.Snapshot> e : latencies.entrySet()) {
+			LatencyHistogram.Snapshot s = e.getValue();
+			if (s.getCount() == 0) {
+				continue;
+			}
+			out.append(String.format("%-24s %10d %8d %10.1f %10.1f %10.1f %10.1f%n", e.getKey(), s.getCount(),
+					getErrors(e.getKey()), s.getValueAtPercentile(50) / 1e3, s.getValueAtPercentile(99) / 1e3,
+					s.getValueAtPercentile(99.9) / 1e3, s.getMax() / 1e3));
+		}
+		out.append("exceptions ").append(exceptionCounts).append(System.lineSeparator());
+		out.append("gauges ").append(gauges).append(System.lineSeparator());
+		return out.toString();
+	}
+}
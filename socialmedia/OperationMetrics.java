@@ -0,0 +1,125 @@
+package socialmedia;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * OperationMetrics records the latency and the errors of the calls of one
+ * platform operation. A call is measured as
+ *
+ * <pre>
+ * long start = operation.start();
+ * try {
+ * 	return platform.createPost(handle, message);
+ * } catch (Exception e) {
+ * 	operation.failed(e);
+ * 	throw e;
+ * } finally {
+ * 	operation.stop(start);
+ * }
+ * </pre>
+ *
+ * @version 1.0
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+
+	private static final double NANOS_PER_MICRO = 1000.0;
+
+	private final String name;
+	private final PlatformMetrics platform;
+	private final LatencyHistogram latencies = new LatencyHistogram();
+	private final LongAdder errors = new LongAdder();
+
+	/**
+	 * Constructor to create the metrics of an operation
+	 *
+	 * @param name     name of the operation
+	 * @param platform metrics of the platform, counting the exceptions thrown
+	 */
+	OperationMetrics(String name, PlatformMetrics platform) {
+		this.name = name;
+		this.platform = platform;
+	}
+
+	/**
+	 * Method to start measuring a call
+	 *
+	 * @return the start time, to pass to {@link #stop(long)}
+	 */
+	public long start() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Method to record the latency of a call
+	 *
+	 * @param start the time returned by {@link #start()}
+	 */
+	public void stop(long start) {
+		latencies.record(System.nanoTime() - start);
+	}
+
+	/**
+	 * Method to count a call that threw an exception
+	 *
+	 * @param e the exception thrown
+	 */
+	public void failed(Throwable e) {
+		errors.increment();
+		platform.countException(e);
+	}
+
+	/**
+	 * Method to take a copy of the latencies recorded
+	 *
+	 * @return the snapshot
+	 */
+	public LatencyHistogram.Snapshot getLatencies() {
+		return latencies.snapshot();
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public long getCount() {
+		return latencies.getCount();
+	}
+
+	@Override
+	public long getErrors() {
+		return errors.sum();
+	}
+
+	@Override
+	public double getMeanMicros() {
+		return latencies.snapshot().getMean() / NANOS_PER_MICRO;
+	}
+
+	@Override
+	public double getP50Micros() {
+		return latencies.snapshot().getValueAtPercentile(50) / NANOS_PER_MICRO;
+	}
+
+	@Override
+	public double getP99Micros() {
+		return latencies.snapshot().getValueAtPercentile(99) / NANOS_PER_MICRO;
+	}
+
+	@Override
+	public double getP999Micros() {
+		return latencies.snapshot().getValueAtPercentile(99.9) / NANOS_PER_MICRO;
+	}
+
+	@Override
+	public double getMaxMicros() {
+		return latencies.snapshot().getMax() / NANOS_PER_MICRO;
+	}
+
+	@Override
+	public void reset() {
+		latencies.reset();
+		errors.reset();
+	}
+}
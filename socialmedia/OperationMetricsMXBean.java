@@ -0,0 +1,72 @@
+package socialmedia;
+
+/**
+ * Management interface of the metrics of one platform operation, registered
+ * with JMX by {@link PlatformMetrics#register(String)}. Latencies are in
+ * microseconds.
+ *
+ * @version 1.0
+ */
+public interface OperationMetricsMXBean {
+
+	/**
+	 * Getter method for the name of the operation
+	 *
+	 * @return name of the platform method
+	 */
+	String getName();
+
+	/**
+	 * Getter method for the number of calls
+	 *
+	 * @return number of calls, including those that threw
+	 */
+	long getCount();
+
+	/**
+	 * Getter method for the number of calls that threw an exception
+	 *
+	 * @return number of errors
+	 */
+	long getErrors();
+
+	/**
+	 * Getter method for the mean latency
+	 *
+	 * @return mean latency in microseconds
+	 */
+	double getMeanMicros();
+
+	/**
+	 * Getter method for the median latency
+	 *
+	 * @return median latency in microseconds
+	 */
+	double getP50Micros();
+
+	/**
+	 * Getter method for the 99th percentile latency
+	 *
+	 * @return 99th percentile latency in microseconds
+	 */
+	double getP99Micros();
+
+	/**
+	 * Getter method for the 99.9th percentile latency
+	 *
+	 * @return 99.9th percentile latency in microseconds
+	 */
+	double getP999Micros();
+
+	/**
+	 * Getter method for the highest latency
+	 *
+	 * @return highest latency in microseconds
+	 */
+	double getMaxMicros();
+
+	/**
+	 * Method to clear the latencies and counters of the operation
+	 */
+	void reset();
+}
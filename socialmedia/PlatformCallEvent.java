@@ -0,0 +1,45 @@
+package socialmedia;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * PlatformCallEvent is the Java Flight Recorder event of a call made through a
+ * {@link TracingSocialMedia}. It is recorded for calls taking longer than its
+ * threshold, 20 ms unless changed in the recording settings, e.g.
+ *
+ * <pre>
+ * java -XX:StartFlightRecording:socialmedia.PlatformCall#threshold=5ms ...
+ * </pre>
+ *
+ * While no recording enables the event, calls pay nothing for it.
+ *
+ * @version 1.0
+ */
+@Name(PlatformCallEvent.NAME)
+@Label("Platform Call")
+@Category("Social Media")
+@Description("A call of a social media platform method")
+@StackTrace(false)
+@Threshold("20 ms")
+public final class PlatformCallEvent extends Event {
+
+	/** Name of the event in recordings. */
+	public static final String NAME = "socialmedia.PlatformCall";
+
+	@Label("Operation")
+	@Description("Name of the platform method")
+	String operation;
+
+	@Label("Arguments")
+	String arguments;
+
+	@Label("Exception")
+	@Description("Class of the exception thrown, if any")
+	String exception;
+}
@@ -0,0 +1,157 @@
+package socialmedia;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * PlatformMetrics holds the metrics of a platform: an {@link OperationMetrics}
+ * per method measured, a counter per type of exception thrown, and gauges
+ * sampled when read, such as the number of accounts.
+ * <p>
+ * Metrics can be read as a whole with {@link #snapshot()}, or through JMX once
+ * {@link #register(String)} is called, as an MBean named
+ * {@code socialmedia:type=Platform,name=<name>} and one MBean per operation
+ * named {@code socialmedia:type=Operation,platform=<name>,name=<operation>}.
+ *
+ * @version 1.0
+ */
+public class PlatformMetrics implements PlatformMetricsMXBean {
+
+	/** JMX domain of the MBeans registered. */
+	public static final String DOMAIN = "socialmedia";
+
+	// operations and gauges in the order they were added
+	private final Map<String, OperationMetrics> operations = new LinkedHashMap<>();
+	private final Map<String, LongSupplier> gauges = new LinkedHashMap<>();
+	private final ConcurrentMap<String, LongAdder> exceptionCounts = new ConcurrentHashMap<>();
+	private final List<ObjectName> registered = new ArrayList<>();
+
+	/**
+	 * Method to get the metrics of an operation, adding them if they are not
+	 * there yet. Callers are expected to keep the metrics returned rather than
+	 * look them up on every call.
+	 *
+	 * @param name name of the platform method
+	 * @return the metrics of the operation
+	 */
+	public synchronized OperationMetrics operation(String name) {
+		return operations.computeIfAbsent(name, n -> new OperationMetrics(n, this));
+	}
+
+	/**
+	 * Method to add a gauge, replacing any gauge of the same name
+	 *
+	 * @param name  name of the gauge
+	 * @param value supplier of the current value, called whenever the gauge is
+	 *              read, from any thread
+	 */
+	public synchronized void gauge(String name, LongSupplier value) {
+		gauges.put(name, value);
+	}
+
+	/**
+	 * Method to count an exception thrown by the platform
+	 *
+	 * @param e the exception
+	 */
+	void countException(Throwable e) {
+		exceptionCounts.computeIfAbsent(e.getClass().getSimpleName(), n -> new LongAdder()).increment();
+	}
+
+	@Override
+	public Map<String, Long> getExceptionCounts() {
+		TreeMap<String, Long> counts = new TreeMap<>();
+		for (Map.Entry<String, LongAdder> e : exceptionCounts.entrySet()) {
+			counts.put(e.getKey(), e.getValue().sum());
+		}
+		return counts;
+	}
+
+	@Override
+	public synchronized Map<String, Long> getGauges() {
+		LinkedHashMap<String, Long> values = new LinkedHashMap<>();
+		for (Map.Entry<String, LongSupplier> e : gauges.entrySet()) {
+			values.put(e.getKey(), e.getValue().getAsLong());
+		}
+		return values;
+	}
+
+	@Override
+	public synchronized void reset() {
+		for (OperationMetrics operation : operations.values()) {
+			operation.reset();
+		}
+		for (LongAdder count : exceptionCounts.values()) {
+			count.reset();
+		}
+	}
+
+	/**
+	 * Method to take a copy of every metric
+	 *
+	 * @return the snapshot
+	 */
+	public synchronized MetricsSnapshot snapshot() {
+		LinkedHashMap<String, LatencyHistogram.Snapshot> latencies = new LinkedHashMap<>();
+		LinkedHashMap<String, Long> errors = new LinkedHashMap<>();
+		for (OperationMetrics operation : operations.values()) {
+			latencies.put(operation.getName(), operation.getLatencies());
+			errors.put(operation.getName(), operation.getErrors());
+		}
+		return new MetricsSnapshot(System.currentTimeMillis(), latencies, errors, getExceptionCounts(), getGauges());
+	}
+
+	/**
+	 * Method to register the metrics, and those of every operation added so far,
+	 * with the platform MBean server
+	 *
+	 * @param name name distinguishing this platform from others in the same JVM
+	 * @throws JMException if the name is invalid or already registered
+	 */
+	public synchronized void register(String name) throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		String platform = ObjectName.quote(name);
+		try {
+			registerMBean(server, this, new ObjectName(DOMAIN + ":type=Platform,name=" + platform));
+			for (OperationMetrics operation : operations.values()) {
+				registerMBean(server, operation, new ObjectName(DOMAIN + ":type=Operation,platform=" + platform
+						+ ",name=" + ObjectName.quote(operation.getName())));
+			}
+		} catch (JMException e) {
+			unregister();
+			throw e;
+		}
+	}
+
+	private void registerMBean(MBeanServer server, Object mbean, ObjectName objectName) throws JMException {
+		server.registerMBean(mbean, objectName);
+		registered.add(objectName);
+	}
+
+	/**
+	 * Method to unregister every MBean registered by {@link #register(String)}
+	 */
+	public synchronized void unregister() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for (ObjectName objectName : registered) {
+			try {
+				server.unregisterMBean(objectName);
+			} catch (JMException e) {
+				// already unregistered
+			}
+		}
+		registered.clear();
+	}
+}
@@ -0,0 +1,34 @@
+package socialmedia;
+
+import java.util.Map;
+
+/**
+ * Management interface of the metrics of a platform, registered with JMX by
+ * {@link PlatformMetrics#register(String)}. The latencies of each operation
+ * are registered as separate {@link OperationMetricsMXBean}s.
+ *
+ * @version 1.0
+ */
+public interface PlatformMetricsMXBean {
+
+	/**
+	 * Getter method for the number of exceptions thrown by the platform
+	 *
+	 * @return number of exceptions by simple class name
+	 */
+	Map<String, Long> getExceptionCounts();
+
+	/**
+	 * Getter method for the current values of the gauges, such as the number of
+	 * accounts
+	 *
+	 * @return values by gauge name
+	 */
+	Map<String, Long> getGauges();
+
+	/**
+	 * Method to clear the latencies and counters of every operation, and the
+	 * exception counters
+	 */
+	void reset();
+}
@@ -0,0 +1,754 @@
+package socialmedia;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * PlatformSnapshot is the contents of a platform as saved to, or loaded from, a
+ * compact binary snapshot file.
+ * <p>
+ * The file layout is:
+ *
+ * <pre>
+ * magic "SMPS" | version
+ * next account ID | next post ID | sequence number
+ * string table: count, then each string            (handles and descriptions)
+ * accounts: count, then for each account in ID order:
+ *     ID delta | handle string index | description string index
+ *     | post count | endorsement count
+ * posts: count, then for each post in ID order:
+ *     kind | ID delta | author ID | parent ID | creation time
+ *     | endorsement count | comment count | message
+ * index:
+ *     file offset of each string                   (8 bytes each)
+ *     ID and file offset of each post, in ID order (4 + 8 bytes each)
+ *     ID and file offset of each account, in ID order
+ *     position of each account in the account index, in handle order (4 bytes each)
+ * footer: position of each of the four index tables (8 bytes each)
+ *     | number of accounts | original posts | comments | endorsements (4 bytes each)
+ * CRC32 of all of the above
+ * </pre>
+ *
+ * All counts, IDs and indexes of the records are variable-length integers and
+ * IDs are stored as the difference from the previous one, so most take one or
+ * two bytes. String index 0 stands for no string. The parent ID of a comment is
+ * the post it replies to, or 0 if that post was deleted, and the parent ID of an
+ * endorsement is the endorsed post; endorsement messages are not stored since
+ * they are derived from the endorsed post.
+ * <p>
+ * The index tables and footer have a fixed width, so a file can be memory-mapped
+ * and single records looked up by binary search without reading the rest of it,
+ * see {@link MappedSnapshot}. The per-record counts exist for the same reason.
+ * <p>
+ * A snapshot file can be followed by delta snapshots holding the changes made
+ * since it was written, see {@link DeltaSnapshot}. The sequence number counts
+ * the saves of the file, full or delta, that the snapshot includes; reading a
+ * snapshot applies every delta with a higher sequence number on top.
+ *
+ * @version 1.0
+ */
+public class PlatformSnapshot {
+
+	/** First bytes of every snapshot file. */
+	public static final int MAGIC = 0x534D5053; // "SMPS"
+	/** Version of the snapshot layout written by this class. */
+	public static final int VERSION = 1;
+	// bytes of the footer that precedes the checksum
+	static final int FOOTER_SIZE = 4 * 8 + 4 * 4;
+	// bytes of an entry of the post and account indexes
+	static final int ID_ENTRY_SIZE = 4 + 8;
+
+	// kinds of post records
+	static final int ORIGINAL = 0;
+	static final int COMMENT = 1;
+	static final int ENDORSEMENT = 2;
+
+	private final List<Account> accounts;
+	private final List<Post> posts;
+	private final int nextAccountId;
+	private final int nextPostId;
+	private final long sequence;
+
+	private PlatformSnapshot(List<Account> accounts, List<Post> posts, int nextAccountId, int nextPostId,
+			long sequence) {
+		this.accounts = accounts;
+		this.posts = posts;
+		this.nextAccountId = nextAccountId;
+		this.nextPostId = nextPostId;
+		this.sequence = sequence;
+	}
+
+	/**
+	 * Account of a snapshot file, before it is turned into an Account.
+	 */
+	static final class AccountRecord {
+		final int id;
+		final String handle;
+		final String description;
+
+		AccountRecord(int id, String handle, String description) {
+			this.id = id;
+			this.handle = handle;
+			this.description = description;
+		}
+	}
+
+	/**
+	 * Post of a snapshot file, before it is turned into a Post and linked.
+	 */
+	static final class PostRecord {
+		final int kind;
+		final int id;
+		final int authorId;
+		final int parentId;
+		final long timestamp;
+		final String message;
+
+		PostRecord(int kind, int id, int authorId, int parentId, long timestamp, String message) {
+			this.kind = kind;
+			this.id = id;
+			this.authorId = authorId;
+			this.parentId = parentId;
+			this.timestamp = timestamp;
+			this.message = message;
+		}
+	}
+
+	/**
+	 * Every record of a snapshot file and its deltas, by ID.
+	 */
+	static final class Records {
+		final HashMap<Integer, AccountRecord> accounts = new HashMap<>();
+		final HashMap<Integer, PostRecord> posts = new HashMap<>();
+		int nextAccountId;
+		int nextPostId;
+		long sequence;
+	}
+
+	/**
+	 * Getter method for the loaded accounts
+	 *
+	 * @return accounts in ID order
+	 */
+	public List<Account> getAccounts() {
+		return accounts;
+	}
+
+	/**
+	 * Getter method for the loaded posts, linked to their authors, parents and
+	 * children
+	 *
+	 * @return posts of every kind in ID order
+	 */
+	public List<Post> getPosts() {
+		return posts;
+	}
+
+	/**
+	 * Getter method for the first account ID not yet handed out
+	 *
+	 * @return next account ID
+	 */
+	public int getNextAccountId() {
+		return nextAccountId;
+	}
+
+	/**
+	 * Getter method for the first post ID not yet handed out
+	 *
+	 * @return next post ID
+	 */
+	public int getNextPostId() {
+		return nextPostId;
+	}
+
+	/**
+	 * Getter method for the number of saves, full or delta, included in the
+	 * snapshot
+	 *
+	 * @return sequence number of the last save read
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	static int kindOf(Post post) {
+		if (post instanceof Endorsement) {
+			return ENDORSEMENT;
+		}
+		return post instanceof Comment ? COMMENT : ORIGINAL;
+	}
+
+	static int parentIdOf(Post post) {
+		if (post instanceof Endorsement) {
+			return ((Endorsement) post).getEndorsedPost().getId();
+		}
+		return post instanceof Comment ? ((Comment) post).getParent().getId() : 0;
+	}
+
+	/**
+	 * Method to save the contents of a platform to a snapshot file. The file is
+	 * written next to the target and moved into place once complete, so an
+	 * existing snapshot is never left half overwritten.
+	 *
+	 * @param file          snapshot file to write
+	 * @param accounts      all accounts of the platform
+	 * @param posts         all posts of the platform
+	 * @param nextAccountId first account ID not yet handed out
+	 * @param nextPostId    first post ID not yet handed out
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void write(Path file, Collection<Account> accounts, Collection<Post> posts, int nextAccountId,
+			int nextPostId) throws IOException {
+		write(file, accounts, posts, nextAccountId, nextPostId, 0);
+	}
+
+	/**
+	 * Method to save the contents of a platform to a snapshot file with the given
+	 * sequence number, see {@link #write(Path, Collection, Collection, int, int)}
+	 *
+	 * @param file          snapshot file to write
+	 * @param accounts      all accounts of the platform
+	 * @param posts         all posts of the platform
+	 * @param nextAccountId first account ID not yet handed out
+	 * @param nextPostId    first post ID not yet handed out
+	 * @param sequence      number of saves of the file included in the snapshot
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void write(Path file, Collection<Account> accounts, Collection<Post> posts, int nextAccountId,
+			int nextPostId, long sequence) throws IOException {
+		write(file, source(accounts, posts, nextAccountId, nextPostId), sequence);
+	}
+
+	/**
+	 * Method to make a source of the contents of a platform made of Account and
+	 * Post objects
+	 *
+	 * @param accounts      all accounts of the platform
+	 * @param posts         all posts of the platform
+	 * @param nextAccountId first account ID not yet handed out
+	 * @param nextPostId    first post ID not yet handed out
+	 * @return the source, reading accounts and posts in ID order
+	 */
+	static Source source(Collection<Account> accounts, Collection<Post> posts, int nextAccountId, int nextPostId) {
+		return new ObjectSource(accounts, posts, nextAccountId, nextPostId);
+	}
+
+	/**
+	 * Contents of a platform to save, read one account or post at a time, so that
+	 * platforms that do not keep Account and Post objects can be saved too.
+	 * Accounts and posts are numbered from 0 in ID order.
+	 */
+	interface Source {
+
+		int getNextAccountId();
+
+		int getNextPostId();
+
+		int getAccountCount();
+
+		int getAccountId(int index);
+
+		String getHandle(int index);
+
+		String getDescription(int index);
+
+		/** Number of posts of every kind authored by the account. */
+		int getAccountPostCount(int index);
+
+		/** Number of endorsements received by the posts of the account. */
+		int getAccountEndorsementCount(int index);
+
+		int getPostCount();
+
+		/** One of ORIGINAL, COMMENT or ENDORSEMENT. */
+		int getKind(int index);
+
+		int getPostId(int index);
+
+		int getAuthorId(int index);
+
+		/** See {@link PlatformSnapshot#parentIdOf(Post)}. */
+		int getParentId(int index);
+
+		long getTimestamp(int index);
+
+		int getEndorsementCount(int index);
+
+		int getCommentCount(int index);
+
+		/** Message of an original post or comment; not read for endorsements. */
+		String getMessage(int index);
+	}
+
+	/**
+	 * Source of the contents of a platform made of Account and Post objects.
+	 */
+	private static final class ObjectSource implements Source {
+		private final ArrayList<Account> accounts;
+		private final ArrayList<Post> posts;
+		private final int nextAccountId;
+		private final int nextPostId;
+		// post and endorsement counts of each account, so that an account can be
+		// shown straight from the file
+		private final HashMap<Integer, int[]> activity = new HashMap<>();
+
+		ObjectSource(Collection<Account> accounts, Collection<Post> posts, int nextAccountId, int nextPostId) {
+			this.accounts = new ArrayList<>(accounts);
+			this.accounts.sort(Comparator.comparingInt(Account::getId));
+			this.posts = new ArrayList<>(posts);
+			this.posts.sort(Comparator.comparingInt(Post::getId));
+			this.nextAccountId = nextAccountId;
+			this.nextPostId = nextPostId;
+			for (Post p : this.posts) {
+				int[] counts = activity.computeIfAbsent(p.getAccount().getId(), id -> new int[2]);
+				counts[0]++;
+				counts[1] += p.getEndorsementCount();
+			}
+		}
+
+		private int[] activityOf(int index) {
+			return activity.getOrDefault(accounts.get(index).getId(), new int[2]);
+		}
+
+		@Override
+		public int getNextAccountId() {
+			return nextAccountId;
+		}
+
+		@Override
+		public int getNextPostId() {
+			return nextPostId;
+		}
+
+		@Override
+		public int getAccountCount() {
+			return accounts.size();
+		}
+
+		@Override
+		public int getAccountId(int index) {
+			return accounts.get(index).getId();
+		}
+
+		@Override
+		public String getHandle(int index) {
+			return accounts.get(index).getHandle();
+		}
+
+		@Override
+		public String getDescription(int index) {
+			return accounts.get(index).getDescriptionField();
+		}
+
+		@Override
+		public int getAccountPostCount(int index) {
+			return activityOf(index)[0];
+		}
+
+		@Override
+		public int getAccountEndorsementCount(int index) {
+			return activityOf(index)[1];
+		}
+
+		@Override
+		public int getPostCount() {
+			return posts.size();
+		}
+
+		@Override
+		public int getKind(int index) {
+			return kindOf(posts.get(index));
+		}
+
+		@Override
+		public int getPostId(int index) {
+			return posts.get(index).getId();
+		}
+
+		@Override
+		public int getAuthorId(int index) {
+			return posts.get(index).getAccount().getId();
+		}
+
+		@Override
+		public int getParentId(int index) {
+			return parentIdOf(posts.get(index));
+		}
+
+		@Override
+		public long getTimestamp(int index) {
+			return posts.get(index).getTimestamp();
+		}
+
+		@Override
+		public int getEndorsementCount(int index) {
+			return posts.get(index).getEndorsementCount();
+		}
+
+		@Override
+		public int getCommentCount(int index) {
+			return posts.get(index).getCommentCount();
+		}
+
+		@Override
+		public String getMessage(int index) {
+			return posts.get(index).getMessage();
+		}
+	}
+
+	/**
+	 * Method to save the contents of a platform to a snapshot file with the given
+	 * sequence number, see {@link #write(Path, Collection, Collection, int, int)}
+	 *
+	 * @param file     snapshot file to write
+	 * @param source   contents of the platform
+	 * @param sequence number of saves of the file included in the snapshot
+	 * @throws IOException if the file cannot be written
+	 */
+	static void write(Path file, Source source, long sequence) throws IOException {
+		write(file, source, sequence, SnapshotWriter::new);
+	}
+
+	/**
+	 * Method to save the contents of a platform to a snapshot file through
+	 * writers made by the given factory, e.g. one failing partway through
+	 *
+	 * @param file     snapshot file to write
+	 * @param source   contents of the platform
+	 * @param sequence number of saves of the file included in the snapshot
+	 * @param writers  makes the writer of the file's channel
+	 * @throws IOException if the file cannot be written
+	 */
+	static void write(Path file, Source source, long sequence, Function<FileChannel, SnapshotWriter> writers)
+			throws IOException {
+		int accountCount = source.getAccountCount();
+		int postCount = source.getPostCount();
+		// string table of handles and descriptions, index 0 standing for null
+		HashMap<String, Integer> stringIndex = new HashMap<>();
+		ArrayList<String> strings = new ArrayList<>();
+		for (int i = 0; i < accountCount; i++) {
+			for (String s : new String[] { source.getHandle(i), source.getDescription(i) }) {
+				if (s != null && !stringIndex.containsKey(s)) {
+					strings.add(s);
+					stringIndex.put(s, strings.size());
+				}
+			}
+		}
+
+		long[] stringOffsets = new long[strings.size()];
+		long[] accountOffsets = new long[accountCount];
+		long[] postOffsets = new long[postCount];
+		int[] kindCounts = new int[3];
+
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING)) {
+				SnapshotWriter out = writers.apply(channel);
+				out.writeInt(MAGIC);
+				out.writeByte(VERSION);
+				out.writeVarInt(source.getNextAccountId());
+				out.writeVarInt(source.getNextPostId());
+				out.writeVarLong(sequence);
+				out.writeVarInt(strings.size());
+				for (int i = 0; i < strings.size(); i++) {
+					stringOffsets[i] = out.position();
+					out.writeString(strings.get(i));
+				}
+				out.writeVarInt(accountCount);
+				int previousId = 0;
+				for (int i = 0; i < accountCount; i++) {
+					String description = source.getDescription(i);
+					accountOffsets[i] = out.position();
+					out.writeVarInt(source.getAccountId(i) - previousId);
+					out.writeVarInt(stringIndex.get(source.getHandle(i)));
+					out.writeVarInt(description == null ? 0 : stringIndex.get(description));
+					out.writeVarInt(source.getAccountPostCount(i));
+					out.writeVarInt(source.getAccountEndorsementCount(i));
+					previousId = source.getAccountId(i);
+				}
+				out.writeVarInt(postCount);
+				previousId = 0;
+				for (int i = 0; i < postCount; i++) {
+					int kind = source.getKind(i);
+					postOffsets[i] = out.position();
+					kindCounts[kind]++;
+					out.writeByte(kind);
+					out.writeVarInt(source.getPostId(i) - previousId);
+					out.writeVarInt(source.getAuthorId(i));
+					out.writeVarInt(source.getParentId(i));
+					out.writeVarLong(source.getTimestamp(i));
+					out.writeVarInt(source.getEndorsementCount(i));
+					out.writeVarInt(source.getCommentCount(i));
+					if (kind != ENDORSEMENT) {
+						out.writeString(source.getMessage(i));
+					}
+					previousId = source.getPostId(i);
+				}
+
+				long stringIndexPosition = out.position();
+				for (long offset : stringOffsets) {
+					out.writeLong(offset);
+				}
+				long postIndexPosition = out.position();
+				for (int i = 0; i < postCount; i++) {
+					out.writeInt(source.getPostId(i));
+					out.writeLong(postOffsets[i]);
+				}
+				long accountIndexPosition = out.position();
+				for (int i = 0; i < accountCount; i++) {
+					out.writeInt(source.getAccountId(i));
+					out.writeLong(accountOffsets[i]);
+				}
+				long handleIndexPosition = out.position();
+				Integer[] byHandle = new Integer[accountCount];
+				for (int i = 0; i < byHandle.length; i++) {
+					byHandle[i] = i;
+				}
+				Arrays.sort(byHandle, Comparator.comparing(source::getHandle));
+				for (int i : byHandle) {
+					out.writeInt(i);
+				}
+				out.writeLong(stringIndexPosition);
+				out.writeLong(postIndexPosition);
+				out.writeLong(accountIndexPosition);
+				out.writeLong(handleIndexPosition);
+				out.writeInt(accountCount);
+				out.writeInt(kindCounts[ORIGINAL]);
+				out.writeInt(kindCounts[COMMENT]);
+				out.writeInt(kindCounts[ENDORSEMENT]);
+				out.writeChecksum();
+				channel.force(false);
+			}
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException | RuntimeException e) {
+			// a snapshot that was not completely written is of no use, and must not
+			// be left next to the file
+			deleteTemporary(temp, e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Method to delete the temporary file of a write that failed, keeping the
+	 * failure of the write as the one reported
+	 *
+	 * @param temp    temporary file, which may not exist
+	 * @param failure failure of the write, to which a failure to delete is added
+	 */
+	static void deleteTemporary(Path temp, Exception failure) {
+		try {
+			Files.deleteIfExists(temp);
+		} catch (IOException e) {
+			failure.addSuppressed(e);
+		}
+	}
+
+	/**
+	 * Method to load the contents of a platform from a snapshot file and the
+	 * delta snapshots that follow it. Nothing is returned unless every file was
+	 * read and its checksum matches.
+	 *
+	 * @param file snapshot file to read
+	 * @return the loaded contents
+	 * @throws IOException if a file cannot be read, is not a valid snapshot, or a
+	 *                     delta is missing
+	 */
+	public static PlatformSnapshot read(Path file) throws IOException {
+		return link(readWithDeltas(file));
+	}
+
+	/**
+	 * Method to read the records of a snapshot file and of the delta snapshots
+	 * that follow it, without turning them into accounts and posts
+	 *
+	 * @param file snapshot file to read
+	 * @return the records, by ID
+	 * @throws IOException if a file cannot be read, is not a valid snapshot, or a
+	 *                     delta is missing
+	 */
+	static Records readWithDeltas(Path file) throws IOException {
+		Records records = readRecords(file);
+		for (Path delta : DeltaSnapshot.list(file)) {
+			long deltaSequence = DeltaSnapshot.sequenceOf(delta);
+			if (deltaSequence <= records.sequence) {
+				continue; // already merged into the snapshot
+			}
+			if (deltaSequence != records.sequence + 1) {
+				throw new IOException("Delta snapshot " + (records.sequence + 1) + " of " + file + " is missing");
+			}
+			DeltaSnapshot.apply(delta, records);
+		}
+		return records;
+	}
+
+	/**
+	 * Method to read the sequence number of a snapshot file, without reading the
+	 * rest of it
+	 *
+	 * @param file snapshot file
+	 * @return the sequence number, or -1 if there is no such file
+	 * @throws IOException if the file cannot be read or is not a snapshot
+	 */
+	public static long readSequence(Path file) throws IOException {
+		if (!Files.exists(file)) {
+			return -1;
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			SnapshotReader in = new SnapshotReader(channel);
+			readHeader(file, in);
+			in.readVarInt();
+			in.readVarInt();
+			return in.readVarLong();
+		}
+	}
+
+	private static void readHeader(Path file, SnapshotReader in) throws IOException {
+		if (in.readInt() != MAGIC) {
+			throw new IOException(file + " is not a platform snapshot");
+		}
+		int version = in.readByte();
+		if (version != VERSION) {
+			throw new IOException("Unsupported snapshot version " + version);
+		}
+	}
+
+	/**
+	 * Reads the records of a snapshot file, checking its checksum.
+	 */
+	private static Records readRecords(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			SnapshotReader in = new SnapshotReader(channel);
+			readHeader(file, in);
+			Records records = new Records();
+			records.nextAccountId = in.readVarInt();
+			records.nextPostId = in.readVarInt();
+			records.sequence = in.readVarLong();
+			String[] strings = new String[in.readVarInt() + 1];
+			for (int i = 1; i < strings.length; i++) {
+				strings[i] = in.readString();
+			}
+
+			int accountCount = in.readVarInt();
+			int id = 0;
+			for (int i = 0; i < accountCount; i++) {
+				id += in.readVarInt();
+				String handle = string(strings, in.readVarInt());
+				String description = string(strings, in.readVarInt());
+				in.readVarInt(); // post count
+				in.readVarInt(); // endorsement count
+				records.accounts.put(id, new AccountRecord(id, handle, description));
+			}
+
+			int postCount = in.readVarInt();
+			id = 0;
+			for (int i = 0; i < postCount; i++) {
+				int kind = in.readByte();
+				id += in.readVarInt();
+				int authorId = in.readVarInt();
+				int parentId = in.readVarInt();
+				long timestamp = in.readVarLong();
+				in.readVarInt(); // endorsement count
+				in.readVarInt(); // comment count
+				if (kind > ENDORSEMENT) {
+					throw new IOException("Unknown post kind " + kind + " in snapshot");
+				}
+				String message = kind == ENDORSEMENT ? null : in.readString();
+				records.posts.put(id, new PostRecord(kind, id, authorId, parentId, timestamp, message));
+			}
+			// the index is only used by mapped snapshots, but is part of the checksum
+			in.skip(8L * (strings.length - 1) + (long) ID_ENTRY_SIZE * postCount
+					+ (ID_ENTRY_SIZE + 4L) * accountCount + FOOTER_SIZE);
+			in.verifyChecksum();
+			return records;
+		}
+	}
+
+	/**
+	 * Turns records into accounts and posts, linking every post to its author,
+	 * parent and children.
+	 */
+	private static PlatformSnapshot link(Records records) throws IOException {
+		ArrayList<AccountRecord> accountRecords = new ArrayList<>(records.accounts.values());
+		accountRecords.sort(Comparator.comparingInt(r -> r.id));
+		ArrayList<Account> accounts = new ArrayList<>(accountRecords.size());
+		HashMap<Integer, Account> accountsById = new HashMap<>();
+		HashSet<String> handles = new HashSet<>();
+		for (AccountRecord r : accountRecords) {
+			if (r.handle == null || !handles.add(r.handle)) {
+				throw new IOException("Missing or duplicate handle in snapshot");
+			}
+			Account account = new Account(r.id, r.handle, r.description);
+			accounts.add(account);
+			accountsById.put(r.id, account);
+		}
+
+		// create every post and comment first, then link them, since a parent may
+		// have a higher ID than its child when IDs are reserved in blocks;
+		// endorsements are created once the posts they endorse exist
+		ArrayList<PostRecord> postRecords = new ArrayList<>(records.posts.values());
+		postRecords.sort(Comparator.comparingInt(r -> r.id));
+		ArrayList<Post> posts = new ArrayList<>(postRecords.size());
+		HashMap<Integer, Post> postsById = new HashMap<>();
+		for (PostRecord r : postRecords) {
+			Account author = accountsById.get(r.authorId);
+			if (author == null) {
+				throw new IOException("Post " + r.id + " refers to an unknown account");
+			}
+			Post post = null;
+			if (r.kind == ORIGINAL) {
+				post = new Post(r.id, author, r.message);
+			} else if (r.kind == COMMENT) {
+				post = new Comment(r.id, author, null, r.message);
+			}
+			if (post != null) {
+				post.setTimestamp(r.timestamp);
+				postsById.put(r.id, post);
+			}
+			posts.add(post);
+		}
+
+		for (int i = 0; i < postRecords.size(); i++) {
+			PostRecord r = postRecords.get(i);
+			Post post = posts.get(i);
+			Post parent = r.parentId == 0 ? null : postsById.get(r.parentId);
+			if (post instanceof Comment) {
+				if (parent == null) {
+					((Comment) post).setParent(EmptyPost.INSTANCE);
+				} else {
+					((Comment) post).setParent(parent);
+					parent.addComment((Comment) post);
+				}
+			} else if (post == null) {
+				if (parent == null) {
+					throw new IOException("Endorsement " + r.id + " refers to an unknown post");
+				}
+				Endorsement endorsement = new Endorsement(r.id, accountsById.get(r.authorId), parent);
+				endorsement.setTimestamp(r.timestamp);
+				parent.addEndorsement(endorsement);
+				posts.set(i, endorsement);
+			}
+		}
+		return new PlatformSnapshot(accounts, posts, records.nextAccountId, records.nextPostId, records.sequence);
+	}
+
+	private static String string(String[] strings, int index) throws IOException {
+		if (index < 0 || index >= strings.length) {
+			throw new IOException("String index out of range in snapshot");
+		}
+		return strings[index];
+	}
+}
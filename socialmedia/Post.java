@@ -0,0 +1,372 @@
+package socialmedia;
+
+import java.util.Collections;
+import java.util.List;
+
+public class Post {
+
+    // initialise private Post class variables
+    private int postId;
+    // the author is referenced rather than copied, so that its handle is
+    // resolved when the post is shown and renaming it touches no post
+    private Account account;
+    private String message;
+    private long timestamp; // creation time, in milliseconds since the epoch
+    // endorsements and comments of the post, each created on its first child,
+    // see ChildList; comments are kept sorted by ID, see addComment()
+    private ChildList<Endorsement> postEndorsements;
+    private ChildList<Comment> postComments;
+    // accounts that made the endorsements in postEndorsements, created on the
+    // first one, so that a repeat is found without walking the list
+    private IdBitmap linkedEndorsers;
+    // number of endorsements kept by the platform as edges in an
+    // EndorsementStore rather than as Endorsement posts in postEndorsements,
+    // and the accounts that made them, created on the first one
+    private int endorsementEdges;
+    private IdBitmap edgeEndorsers;
+
+    // constructors
+
+    /**
+     * Constructor to create post authored by an account with a message.
+     * The message is expected to have been validated by the platform.
+     * @param postId
+     * @param account
+     * @param message
+     */
+    public Post(int postId, Account account, String message) {
+        this.postId = postId; // post ID allocated by the platform
+        this.account = account;
+        this.message = message;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Constructor to create an empty placeholder post, which is not linked to any
+     * account and has no post ID.
+     * @param message
+     */
+    protected Post(String message) {
+        this.message = message;
+    }
+    
+    // methods to check validity
+    
+    /**
+     * Method to check if the message in the endorsed post is valid.
+     * Message is valid if it is not blank and is less than or equal to 100
+     * characters.
+     * @param str
+     * @return true if message is valid, false if not
+     */
+    private boolean isValidMessage(String str) {
+        if (str != null && !str.isBlank() && str.length() <= 100) {
+            return true;
+        } else {
+            System.err.printf("%s - is an invalid message.%n", str);
+            return false;
+        }
+    }
+
+    // setter methods
+
+    /** 
+     * Setter method for account associated with post
+     * @param account to set
+     */
+    public void setAccount(Account account) {
+        this.account = account;
+    }
+    
+    /** 
+     * Setter method for post message
+     * @param message
+     */
+    public String setMessage(String message) {
+        if (isValidMessage(message)){
+            this.message = message;
+        } else {
+            System.exit(1);
+        }
+        return message;
+    }
+
+    /**
+     * Setter method for post ID
+     * @param postId
+     */
+    public int setPostId(int postId) {
+        this.postId = postId;
+        return postId;
+    }
+
+    /**
+     * Setter method for post creation time
+     * @param timestamp in milliseconds since the epoch
+     */
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    // getter methods
+
+    /**
+     * Getter method for post ID
+     * @return postId
+     */
+    public int getId() {
+        return postId;
+    }
+    
+    /**
+     * Getter method for account associated with post
+     * @return account
+     */
+    public Account getAccount() {
+        return account;
+    }
+
+    /**
+     * Getter method for account handle associated with post
+     * @return current handle of the author account, or null if there is none
+     */
+    public String getHandle(){
+        return account != null ? account.getHandle() : null;
+    }
+    
+    /**
+     * Getter method for post creation time
+     * @return timestamp in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Getter method for post message
+     * @return message
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Getter method for the number of endorsements of the post, whether linked
+     * as Endorsement posts or kept as edges
+     * @return number of endorsements
+     */
+    public int getEndorsementCount() {
+        return (postEndorsements == null ? 0 : postEndorsements.size()) + endorsementEdges;
+    }
+
+    /**
+     * Getter method for the endorsements of the post linked as Endorsement posts
+     * @return read-only view of the endorsements, in the order they were added
+     */
+    public List<Endorsement> getEndorsements() {
+        return postEndorsements == null ? Collections.emptyList() : Collections.unmodifiableList(postEndorsements);
+    }
+
+    /**
+     * Method to link an endorsement of the post
+     * @param endorsement
+     */
+    public void addEndorsement(Endorsement endorsement) {
+        if (postEndorsements == null) {
+            postEndorsements = new ChildList<>();
+            linkedEndorsers = new IdBitmap();
+        }
+        postEndorsements.add(endorsement);
+        linkedEndorsers.add(endorsement.getAccount().getId());
+    }
+
+    /**
+     * Method to unlink an endorsement of the post
+     * @param endorsement
+     * @return true if the endorsement was removed, false if it was not an
+     * endorsement of the post
+     */
+    public boolean removeEndorsement(Endorsement endorsement) {
+        if (postEndorsements == null || !postEndorsements.remove(endorsement)) {
+            return false;
+        }
+        linkedEndorsers.remove(endorsement.getAccount().getId());
+        if (postEndorsements.isEmpty()) {
+            postEndorsements = null;
+            linkedEndorsers = null;
+        }
+        return true;
+    }
+
+    /**
+     * Method to unlink every endorsement of the post
+     */
+    public void clearEndorsements() {
+        postEndorsements = null;
+        linkedEndorsers = null;
+    }
+
+    /**
+     * Method to check whether an account endorsed the post, in constant time
+     * through the endorsers of the post, whether its endorsement is linked as
+     * an Endorsement post or kept as an edge
+     * @param accountId ID of the account
+     * @return true if the account has an endorsement of the post
+     */
+    public boolean isEndorsedBy(int accountId) {
+        return (linkedEndorsers != null && linkedEndorsers.contains(accountId))
+                || (edgeEndorsers != null && edgeEndorsers.contains(accountId));
+    }
+
+    /**
+     * Method to count an endorsement kept as an edge, see EndorsementStore
+     * @param endorserId ID of the endorsing account
+     */
+    void addEndorsementEdge(int endorserId) {
+        endorsementEdges++;
+        if (edgeEndorsers == null) {
+            edgeEndorsers = new IdBitmap();
+        }
+        edgeEndorsers.add(endorserId);
+    }
+
+    /**
+     * Method to stop counting an endorsement kept as an edge
+     * @param endorserId ID of the endorsing account
+     */
+    void removeEndorsementEdge(int endorserId) {
+        endorsementEdges--;
+        if (edgeEndorsers.remove(endorserId) && edgeEndorsers.isEmpty()) {
+            edgeEndorsers = null;
+        }
+    }
+
+    /**
+     * Method to stop counting every endorsement kept as an edge, once they are
+     * removed with the post
+     */
+    void clearEndorsementEdges() {
+        endorsementEdges = 0;
+        edgeEndorsers = null;
+    }
+
+    /**
+     * Getter method for the accounts that endorsed the post with an
+     * endorsement kept as an edge
+     * @return the set of account IDs, which must not be changed, or null if
+     * there are none
+     */
+    IdBitmap getEdgeEndorsers() {
+        return edgeEndorsers;
+    }
+
+    // methods to keep comments sorted by ID
+
+    /**
+     * Getter method for the comments of the post
+     * @return read-only view of the comments, sorted by ID
+     */
+    public List<Comment> getComments() {
+        return postComments == null ? Collections.emptyList() : Collections.unmodifiableList(postComments);
+    }
+
+    /**
+     * Getter method for the number of comments of the post
+     * @return number of comments
+     */
+    public int getCommentCount() {
+        return postComments == null ? 0 : postComments.size();
+    }
+
+    /**
+     * Method to add a comment to the post, keeping the comments sorted by ID.
+     * New comments nearly always have the highest ID, so they are appended.
+     * @param comment
+     */
+    public void addComment(Comment comment) {
+        if (postComments == null) {
+            postComments = new ChildList<>();
+        }
+        int size = postComments.size();
+        if (size == 0 || postComments.get(size - 1).getId() < comment.getId()) {
+            postComments.add(comment);
+        } else {
+            postComments.add(firstCommentAfter(comment.getId()), comment);
+        }
+    }
+
+    /**
+     * Method to remove a comment from the post, found by binary search.
+     * @param comment
+     * @return true if the comment was removed, false if it was not a comment of
+     * the post
+     */
+    public boolean removeComment(Comment comment) {
+        int index = firstCommentAfter(comment.getId() - 1);
+        if (index < getCommentCount() && postComments.get(index) == comment) {
+            postComments.remove(index);
+            if (postComments.isEmpty()) {
+                postComments = null;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Method to unlink every comment of the post
+     */
+    public void clearComments() {
+        postComments = null;
+    }
+
+    /**
+     * Method to find the first comment with an ID greater than the given one,
+     * so that comments can be read a page at a time.
+     * @param id
+     * @return index of the comment in {@link #getComments()}, or the number of
+     * comments if there is none
+     */
+    public int firstCommentAfter(int id) {
+        int low = 0;
+        int high = getCommentCount();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (postComments.get(middle).getId() <= id) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // toString() method
+    
+    /**
+     * The method generates a formatted string containing the details
+     * of a single post.
+     * @return post in string format
+     */
+    public String toString() {
+        return format(postId, getHandle(), getEndorsementCount(), getCommentCount(), getMessage());
+    }
+
+    /**
+     * The method formats the details of a single post from its parts, so that
+     * posts read straight from a snapshot file look the same as stored ones.
+     * @param postId
+     * @param handle handle of the author
+     * @param endorsements number of endorsements of the post
+     * @param comments number of comments of the post
+     * @param message
+     * @return post in string format
+     */
+    static String format(int postId, String handle, int endorsements, int comments, String message) {
+        return "ID: " + postId + "\nAccount: " + handle +
+                "\nNo. endorsements: " + endorsements +
+                " | No. comments: " + comments +
+                "\n" + message;
+    }
+
+}
@@ -0,0 +1,560 @@
+package socialmedia;
+
+import java.util.Arrays;
+
+/**
+ * PostColumns stores posts of every kind as parallel primitive arrays indexed
+ * by post ID, one array per field, rather than as Post, Comment and
+ * Endorsement objects: kind, author ID, parent ID, creation time, endorsement
+ * and comment counts, and a reference to the message in a
+ * {@link MessageArena}. A post takes about 64 bytes plus its message and, once
+ * endorsed, a bitmap of its endorsers; scans over a field read one contiguous
+ * array.
+ * <p>
+ * Posts are linked to each other by IDs held in further columns rather than by
+ * lists: each post heads a chain of its comments, in ID order, and a chain of
+ * its endorsements, and each comment or endorsement is linked to its siblings
+ * in the chain of its parent. Each post is also linked into the chain of the
+ * posts of its author, headed in {@link AccountColumns}, so that the posts of
+ * an account are found without a scan. Every chain is doubly linked, so that
+ * any post is unlinked in constant time.
+ * <p>
+ * Endorsements have no message of their own: their text is derived from the
+ * endorsed post when shown. The most endorsed post is cached, as in
+ * {@link AccountColumns}. The columns are not thread-safe.
+ *
+ * @version 1.0
+ */
+public class PostColumns {
+
+	/** Stands for no post; post IDs start above it. */
+	public static final int NONE = 0;
+
+	// kinds of post; FREE marks a slot with no post
+	static final byte FREE = 0;
+	static final byte ORIGINAL = 1;
+	static final byte COMMENT = 2;
+	static final byte ENDORSEMENT = 3;
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final int firstId;
+	private final AccountColumns accounts;
+	private final MessageArena messages = new MessageArena();
+
+	// columns, indexed by post ID - firstId
+	private byte[] kinds = new byte[0];
+	private int[] authors = new int[0];
+	// post a comment replies to, NONE once that post is deleted, or the post an
+	// endorsement endorses
+	private int[] parents = new int[0];
+	private long[] timestamps = new long[0];
+	private long[] messageReferences = new long[0];
+	private int[] endorsementCounts = new int[0];
+	private int[] commentCounts = new int[0];
+	// heads of the chains of comments and endorsements of each post
+	private int[] firstComments = new int[0];
+	private int[] lastComments = new int[0];
+	private int[] firstEndorsements = new int[0];
+	// accounts that endorsed each post, created on its first endorsement, so that
+	// a repeat is found without walking the chain
+	private IdBitmap[] endorsers = new IdBitmap[0];
+	// links of a comment or endorsement within the chain of its parent
+	private int[] nextSiblings = new int[0];
+	private int[] previousSiblings = new int[0];
+	// links of a post within the chain of the posts of its author
+	private int[] nextByAuthor = new int[0];
+	private int[] previousByAuthor = new int[0];
+
+	// one past the highest slot used
+	private int limit;
+	private int originalCount;
+	private int commentCount;
+	private int endorsementCount;
+	private int mostEndorsed = NONE;
+	private boolean mostEndorsedStale;
+
+	/**
+	 * Constructor to create empty columns
+	 *
+	 * @param firstId  lowest post ID stored
+	 * @param accounts accounts authoring the posts
+	 */
+	public PostColumns(int firstId, AccountColumns accounts) {
+		if (firstId <= NONE) {
+			throw new IllegalArgumentException("Post IDs must start above " + NONE);
+		}
+		this.firstId = firstId;
+		this.accounts = accounts;
+	}
+
+	private int slotOf(int id) {
+		return id - firstId;
+	}
+
+	private void ensureCapacity(int slot) {
+		if (slot < kinds.length) {
+			return;
+		}
+		int capacity = Math.max(slot + 1, Math.max(INITIAL_CAPACITY, kinds.length + (kinds.length >> 1)));
+		kinds = Arrays.copyOf(kinds, capacity);
+		authors = Arrays.copyOf(authors, capacity);
+		parents = Arrays.copyOf(parents, capacity);
+		timestamps = Arrays.copyOf(timestamps, capacity);
+		messageReferences = Arrays.copyOf(messageReferences, capacity);
+		endorsementCounts = Arrays.copyOf(endorsementCounts, capacity);
+		commentCounts = Arrays.copyOf(commentCounts, capacity);
+		firstComments = Arrays.copyOf(firstComments, capacity);
+		lastComments = Arrays.copyOf(lastComments, capacity);
+		firstEndorsements = Arrays.copyOf(firstEndorsements, capacity);
+		endorsers = Arrays.copyOf(endorsers, capacity);
+		nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+		previousSiblings = Arrays.copyOf(previousSiblings, capacity);
+		nextByAuthor = Arrays.copyOf(nextByAuthor, capacity);
+		previousByAuthor = Arrays.copyOf(previousByAuthor, capacity);
+	}
+
+	/**
+	 * Method to add a post, not yet linked to any parent. The author is expected
+	 * to exist and the message to be valid.
+	 *
+	 * @param id        post ID, not used by any other post
+	 * @param kind      ORIGINAL, COMMENT or ENDORSEMENT
+	 * @param authorId  ID of the author account
+	 * @param timestamp creation time, in milliseconds since the epoch
+	 * @param message   message of the post, or null for an endorsement
+	 */
+	void add(int id, byte kind, int authorId, long timestamp, String message) {
+		int slot = slotOf(id);
+		if (slot < 0) {
+			throw new IllegalArgumentException("Post ID " + id + " below " + firstId);
+		}
+		ensureCapacity(slot);
+		kinds[slot] = kind;
+		authors[slot] = authorId;
+		parents[slot] = NONE;
+		timestamps[slot] = timestamp;
+		messageReferences[slot] = message == null ? 0 : messages.add(message);
+		endorsementCounts[slot] = 0;
+		commentCounts[slot] = 0;
+		firstComments[slot] = NONE;
+		lastComments[slot] = NONE;
+		firstEndorsements[slot] = NONE;
+		endorsers[slot] = null;
+		nextSiblings[slot] = NONE;
+		previousSiblings[slot] = NONE;
+		// new posts head the chain of their author
+		int next = accounts.getFirstPost(authorId);
+		nextByAuthor[slot] = next;
+		previousByAuthor[slot] = NONE;
+		if (next != NONE) {
+			previousByAuthor[slotOf(next)] = id;
+		}
+		accounts.postAdded(authorId, id);
+		limit = Math.max(limit, slot + 1);
+		if (kind == ORIGINAL) {
+			originalCount++;
+			consider(id);
+		} else if (kind == COMMENT) {
+			commentCount++;
+			consider(id);
+		} else {
+			endorsementCount++;
+		}
+	}
+
+	/**
+	 * Method to link a comment to the post it replies to, keeping the comments of
+	 * the post in ID order
+	 *
+	 * @param id       comment ID
+	 * @param parentId ID of an original post or comment
+	 */
+	void linkComment(int id, int parentId) {
+		int slot = slotOf(id);
+		int parentSlot = slotOf(parentId);
+		parents[slot] = parentId;
+		// comments nearly always have the highest ID, so are appended
+		int next = NONE;
+		int previous = lastComments[parentSlot];
+		while (previous != NONE && previous > id) {
+			next = previous;
+			previous = previousSiblings[slotOf(previous)];
+		}
+		nextSiblings[slot] = next;
+		previousSiblings[slot] = previous;
+		if (previous == NONE) {
+			firstComments[parentSlot] = id;
+		} else {
+			nextSiblings[slotOf(previous)] = id;
+		}
+		if (next == NONE) {
+			lastComments[parentSlot] = id;
+		} else {
+			previousSiblings[slotOf(next)] = id;
+		}
+		commentCounts[parentSlot]++;
+	}
+
+	/**
+	 * Method to link an endorsement to the post it endorses, crediting the post
+	 * and its author
+	 *
+	 * @param id         endorsement ID
+	 * @param endorsedId ID of an original post or comment
+	 */
+	void linkEndorsement(int id, int endorsedId) {
+		int slot = slotOf(id);
+		int endorsedSlot = slotOf(endorsedId);
+		parents[slot] = endorsedId;
+		int next = firstEndorsements[endorsedSlot];
+		nextSiblings[slot] = next;
+		previousSiblings[slot] = NONE;
+		if (next != NONE) {
+			previousSiblings[slotOf(next)] = id;
+		}
+		firstEndorsements[endorsedSlot] = id;
+		if (endorsers[endorsedSlot] == null) {
+			endorsers[endorsedSlot] = new IdBitmap();
+		}
+		endorsers[endorsedSlot].add(authors[slot]);
+		endorsementCounts[endorsedSlot]++;
+		accounts.addEndorsements(authors[endorsedSlot], 1);
+		consider(endorsedId);
+	}
+
+	/**
+	 * Method to remove a post. Removing an endorsement takes it off the endorsed
+	 * post; removing an original post or comment takes it off its parent, removes
+	 * its endorsements, and leaves its comments without a parent.
+	 *
+	 * @param id ID of an existing post
+	 */
+	void remove(int id) {
+		int slot = slotOf(id);
+		int parent = parents[slot];
+		if (kinds[slot] == ENDORSEMENT) {
+			int parentSlot = slotOf(parent);
+			unlinkSibling(slot, firstEndorsements, null, parentSlot);
+			if (endorsers[parentSlot].remove(authors[slot]) && endorsers[parentSlot].isEmpty()) {
+				endorsers[parentSlot] = null;
+			}
+			endorsementCounts[parentSlot]--;
+			accounts.addEndorsements(authors[parentSlot], -1);
+			if (parent == mostEndorsed) {
+				mostEndorsedStale = true;
+			}
+			free(id);
+			return;
+		}
+		if (kinds[slot] == COMMENT && parent != NONE) {
+			int parentSlot = slotOf(parent);
+			unlinkSibling(slot, firstComments, lastComments, parentSlot);
+			commentCounts[parentSlot]--;
+		}
+		// the endorsements go with the post
+		for (int e = firstEndorsements[slot]; e != NONE; e = nextSiblings[slotOf(e)]) {
+			free(e);
+		}
+		endorsers[slot] = null;
+		accounts.addEndorsements(authors[slot], -endorsementCounts[slot]);
+		// and its comments lose their parent
+		int c = firstComments[slot];
+		while (c != NONE) {
+			int cSlot = slotOf(c);
+			c = nextSiblings[cSlot];
+			parents[cSlot] = NONE;
+			nextSiblings[cSlot] = NONE;
+			previousSiblings[cSlot] = NONE;
+		}
+		if (id == mostEndorsed) {
+			mostEndorsedStale = true;
+		}
+		free(id);
+	}
+
+	private void unlinkSibling(int slot, int[] firsts, int[] lasts, int parentSlot) {
+		int next = nextSiblings[slot];
+		int previous = previousSiblings[slot];
+		if (previous == NONE) {
+			firsts[parentSlot] = next;
+		} else {
+			nextSiblings[slotOf(previous)] = next;
+		}
+		if (next != NONE) {
+			previousSiblings[slotOf(next)] = previous;
+		} else if (lasts != null) {
+			lasts[parentSlot] = previous;
+		}
+	}
+
+	private void free(int id) {
+		int slot = slotOf(id);
+		int next = nextByAuthor[slot];
+		int previous = previousByAuthor[slot];
+		if (next != NONE) {
+			previousByAuthor[slotOf(next)] = previous;
+		}
+		if (previous == NONE) {
+			accounts.postRemoved(authors[slot], next);
+		} else {
+			nextByAuthor[slotOf(previous)] = next;
+			accounts.postRemoved(authors[slot], accounts.getFirstPost(authors[slot]));
+		}
+		switch (kinds[slot]) {
+		case ORIGINAL:
+			originalCount--;
+			break;
+		case COMMENT:
+			commentCount--;
+			break;
+		default:
+			endorsementCount--;
+		}
+		kinds[slot] = FREE;
+	}
+
+	private void consider(int id) {
+		if (!mostEndorsedStale && (mostEndorsed == NONE || ranksBefore(id, mostEndorsed))) {
+			mostEndorsed = id;
+		}
+	}
+
+	private boolean ranksBefore(int id, int other) {
+		int count = endorsementCounts[slotOf(id)];
+		int otherCount = endorsementCounts[slotOf(other)];
+		return count > otherCount || count == otherCount && id < other;
+	}
+
+	/**
+	 * Getter method for the most endorsed original post or comment
+	 *
+	 * @return the ID of the post with most endorsements, the lowest ID first on
+	 *         ties, or {@link #NONE} if there are no posts
+	 */
+	public int getMostEndorsed() {
+		if (mostEndorsedStale) {
+			mostEndorsed = NONE;
+			int most = -1;
+			for (int slot = 0; slot < limit; slot++) {
+				byte kind = kinds[slot];
+				if ((kind == ORIGINAL || kind == COMMENT) && endorsementCounts[slot] > most) {
+					most = endorsementCounts[slot];
+					mostEndorsed = firstId + slot;
+				}
+			}
+			mostEndorsedStale = false;
+		}
+		return mostEndorsed;
+	}
+
+	/**
+	 * Method to check whether a post exists
+	 *
+	 * @param id post ID
+	 * @return true if the post exists
+	 */
+	public boolean contains(int id) {
+		int slot = slotOf(id);
+		return slot >= 0 && slot < limit && kinds[slot] != FREE;
+	}
+
+	/**
+	 * Method to find the kind of a post
+	 *
+	 * @param id post ID
+	 * @return ORIGINAL, COMMENT or ENDORSEMENT, or FREE if there is no such post
+	 */
+	byte kindOf(int id) {
+		return contains(id) ? kinds[slotOf(id)] : FREE;
+	}
+
+	/**
+	 * Method to check that a post exists
+	 *
+	 * @param id post ID
+	 * @throws PostIDNotRecognisedException if there is no such post
+	 */
+	public void check(int id) throws PostIDNotRecognisedException {
+		if (!contains(id)) {
+			throw new PostIDNotRecognisedException("Post ID not recognised");
+		}
+	}
+
+	/**
+	 * Method to check that a post exists and can be endorsed or commented
+	 *
+	 * @param id post ID
+	 * @throws PostIDNotRecognisedException if there is no such post
+	 * @throws NotActionablePostException   if the post is an endorsement
+	 */
+	public void checkActionable(int id) throws PostIDNotRecognisedException, NotActionablePostException {
+		check(id);
+		if (kinds[slotOf(id)] == ENDORSEMENT) {
+			throw new NotActionablePostException("Endorsement posts cannot be endorsed or commented");
+		}
+	}
+
+	/**
+	 * Getter method for the author of a post
+	 *
+	 * @param id post ID
+	 * @return the author account ID
+	 */
+	public int getAuthor(int id) {
+		return authors[slotOf(id)];
+	}
+
+	/**
+	 * Method to find the endorsement of a post by an account. Whether there is
+	 * one is answered in constant time by the endorsers of the post, and only a
+	 * repeat walks its endorsements for the ID.
+	 *
+	 * @param authorId   ID of the endorsing account
+	 * @param endorsedId ID of an existing original post or comment
+	 * @return the endorsement ID, or {@link #NONE} if the account did not
+	 *         endorse the post
+	 */
+	public int findEndorsement(int authorId, int endorsedId) {
+		IdBitmap endorsedBy = endorsers[slotOf(endorsedId)];
+		if (endorsedBy == null || !endorsedBy.contains(authorId)) {
+			return NONE;
+		}
+		for (int e = firstEndorsements[slotOf(endorsedId)]; e != NONE; e = nextSiblings[slotOf(e)]) {
+			if (authors[slotOf(e)] == authorId) {
+				return e;
+			}
+		}
+		return NONE;
+	}
+
+	/**
+	 * Getter method for the parent of a post
+	 *
+	 * @param id post ID
+	 * @return the post a comment replies to or an endorsement endorses, or
+	 *         {@link #NONE}
+	 */
+	public int getParent(int id) {
+		return parents[slotOf(id)];
+	}
+
+	/**
+	 * Getter method for the creation time of a post
+	 *
+	 * @param id post ID
+	 * @return milliseconds since the epoch
+	 */
+	public long getTimestamp(int id) {
+		return timestamps[slotOf(id)];
+	}
+
+	/**
+	 * Getter method for the message of a post. The message of an endorsement is
+	 * made from the endorsed post, as {@code EP@handle: message}.
+	 *
+	 * @param id post ID
+	 * @return the message
+	 */
+	public String getMessage(int id) {
+		int slot = slotOf(id);
+		if (kinds[slot] == ENDORSEMENT) {
+			int endorsed = parents[slot];
+			return "EP@" + accounts.getHandle(authors[slotOf(endorsed)]) + ": " + getMessage(endorsed);
+		}
+		return messages.get(messageReferences[slot]);
+	}
+
+	/**
+	 * Getter method for the number of endorsements of a post
+	 *
+	 * @param id post ID
+	 * @return number of endorsements
+	 */
+	public int getEndorsementCount(int id) {
+		return endorsementCounts[slotOf(id)];
+	}
+
+	/**
+	 * Getter method for the number of comments of a post
+	 *
+	 * @param id post ID
+	 * @return number of comments
+	 */
+	public int getCommentCount(int id) {
+		return commentCounts[slotOf(id)];
+	}
+
+	/**
+	 * Getter method for the first comment of a post
+	 *
+	 * @param id post ID
+	 * @return the comment with the lowest ID, or {@link #NONE}
+	 */
+	public int getFirstComment(int id) {
+		return firstComments[slotOf(id)];
+	}
+
+	/**
+	 * Getter method for the comment following a comment of the same post
+	 *
+	 * @param id comment ID
+	 * @return the next comment in ID order, or {@link #NONE}
+	 */
+	public int getNextSibling(int id) {
+		return nextSiblings[slotOf(id)];
+	}
+
+	/**
+	 * Getter method for the post after a post in the chain of its author
+	 *
+	 * @param id post ID
+	 * @return the next, older, post of the author, or {@link #NONE}
+	 */
+	public int getNextByAuthor(int id) {
+		return nextByAuthor[slotOf(id)];
+	}
+
+	/**
+	 * Method to list the IDs of every post
+	 *
+	 * @return post IDs in ascending order
+	 */
+	public int[] getIds() {
+		int[] ids = new int[originalCount + commentCount + endorsementCount];
+		int n = 0;
+		for (int slot = 0; slot < limit; slot++) {
+			if (kinds[slot] != FREE) {
+				ids[n++] = firstId + slot;
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Getter method for the number of original posts
+	 *
+	 * @return number of original posts
+	 */
+	public int getOriginalCount() {
+		return originalCount;
+	}
+
+	/**
+	 * Getter method for the number of comments
+	 *
+	 * @return number of comments
+	 */
+	public int getCommentCount() {
+		return commentCount;
+	}
+
+	/**
+	 * Getter method for the number of endorsements
+	 *
+	 * @return number of endorsements
+	 */
+	public int getEndorsementCount() {
+		return endorsementCount;
+	}
+}
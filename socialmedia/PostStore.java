@@ -0,0 +1,383 @@
+package socialmedia;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * PostStore holds every post of a platform: original posts and comments indexed
+ * by post ID in an {@link IntObjectMap}, so that a post is found with a single
+ * hash lookup that boxes nothing, and endorsements as edges in an
+ * {@link EndorsementStore}, so that endorsing a post creates no objects.
+ * <p>
+ * The parent to children adjacency is kept explicitly: each comment refers to
+ * the post it replies to, while every post keeps the list of its own comments
+ * and the count of its endorsements, whose edges are chained per post. Adding
+ * or removing a post therefore only touches that post, its parent and its
+ * direct children.
+ * <p>
+ * Posts are also indexed by author, see {@link AccountActivity}, so that the
+ * content of an account is found without scanning every post.
+ *
+ * @version 1.0
+ */
+public class PostStore {
+
+	/** Message of the generic empty post that replaces a deleted parent. */
+	public static final String EMPTY_POST_MESSAGE = "The original content was removed from the system and is no longer available.";
+
+	// post ID -> post index
+	private final IntObjectMap<Post> postsById = new IntObjectMap<>();
+	// account ID -> original posts and comments authored by the account
+	private final IntObjectMap<AccountActivity> activityByAccount = new IntObjectMap<>();
+	// endorsements, which have post IDs but are not posts
+	private final EndorsementStore endorsements = new EndorsementStore();
+	// running totals of each kind of post
+	private int originalCount;
+	private int commentCount;
+	private int endorsementCount;
+
+	/**
+	 * Method to check if a post message is valid, i.e. it is not empty and has at
+	 * most 100 characters.
+	 *
+	 * @param message message to check
+	 * @return true if the message is valid, false if not
+	 */
+	public static boolean isValidMessage(String message) {
+		return message != null && !message.isEmpty() && message.length() <= 100;
+	}
+
+	/**
+	 * Method to find the original post or comment with the given ID; an
+	 * endorsement is found with {@link EndorsementStore#slotOf(int)}.
+	 *
+	 * @param id post ID to look up
+	 * @return the post with that ID
+	 * @throws PostIDNotRecognisedException if no post or comment has that ID
+	 */
+	public Post get(int id) throws PostIDNotRecognisedException {
+		Post post = postsById.get(id);
+		if (post == null) {
+			throw new PostIDNotRecognisedException("Post ID not recognised");
+		}
+		return post;
+	}
+
+	/**
+	 * Method to check whether a post is currently stored.
+	 *
+	 * @param post post to look for
+	 * @return true if the post is stored, false if not
+	 */
+	public boolean contains(Post post) {
+		return postsById.get(post.getId()) == post;
+	}
+
+	/**
+	 * Method to find a post that can be endorsed or commented, i.e. one that is
+	 * not an endorsement.
+	 *
+	 * @param id post ID to look up
+	 * @return the post with that ID
+	 * @throws PostIDNotRecognisedException if no post has that ID
+	 * @throws NotActionablePostException   if the post is an endorsement
+	 */
+	public Post getActionable(int id) throws PostIDNotRecognisedException, NotActionablePostException {
+		Post post = postsById.get(id);
+		if (post == null && endorsements.slotOf(id) != EndorsementStore.NONE) {
+			throw new NotActionablePostException("Endorsement posts cannot be endorsed or commented");
+		}
+		if (post == null) {
+			throw new PostIDNotRecognisedException("Post ID not recognised");
+		}
+		return post;
+	}
+
+	/**
+	 * Method to add an original post.
+	 *
+	 * @param post post to add
+	 */
+	public void addPost(Post post) {
+		postsById.put(post.getId(), post);
+		index(post);
+		originalCount++;
+	}
+
+	/**
+	 * Method to add a comment and link it to the post it replies to.
+	 *
+	 * @param comment comment to add
+	 */
+	public void addComment(Comment comment) {
+		postsById.put(comment.getId(), comment);
+		comment.getParent().addComment(comment);
+		index(comment);
+		commentCount++;
+	}
+
+	/**
+	 * Method to add an endorsement as an edge from the endorsing account to the
+	 * post it endorses.
+	 *
+	 * @param id        endorsement ID
+	 * @param endorser  endorsing account
+	 * @param endorsed  endorsed post, which must be stored
+	 * @param timestamp creation time, in milliseconds since the epoch
+	 * @return the slot of the edge in {@link #getEndorsements()}
+	 */
+	public int addEndorsement(int id, Account endorser, Post endorsed, long timestamp) {
+		int slot = endorsements.add(id, endorser.getId(), endorsed.getId(), timestamp);
+		endorsed.addEndorsementEdge(endorser.getId());
+		activityOf(endorsed.getAccount().getId()).endorsementAdded(endorser.getId());
+		endorsementCount++;
+		return slot;
+	}
+
+	/**
+	 * Method to remove an endorsement. The endorsing account leaves the
+	 * endorsers of the post, as an account endorses a post at most once.
+	 *
+	 * @param slot slot of the edge in {@link #getEndorsements()}
+	 */
+	public void removeEndorsement(int slot) {
+		int endorserId = endorsements.getEndorser(slot);
+		Post endorsed = postsById.get(endorsements.getPost(slot));
+		endorsements.remove(slot);
+		endorsementCount--;
+		endorsed.removeEndorsementEdge(endorserId);
+		activityByAccount.get(endorsed.getAccount().getId()).endorsementRemoved(endorserId);
+	}
+
+	/**
+	 * Method to remove every endorsement made by an account, e.g. before the
+	 * account is removed, dropping the account from the endorsers of each post.
+	 *
+	 * @param endorserId ID of the endorsing account
+	 */
+	public void removeEndorsementsBy(int endorserId) {
+		int slot = endorsements.firstByEndorser(endorserId);
+		while (slot != EndorsementStore.NONE) {
+			int next = endorsements.nextByEndorser(slot);
+			Post endorsed = postsById.get(endorsements.getPost(slot));
+			endorsements.remove(slot);
+			endorsementCount--;
+			endorsed.removeEndorsementEdge(endorserId);
+			activityByAccount.get(endorsed.getAccount().getId()).endorsementRemoved(endorserId);
+			slot = next;
+		}
+	}
+
+	/**
+	 * Method to check whether an account endorsed a post, in constant time
+	 * through the endorsers of the post.
+	 *
+	 * @param endorserId ID of the account
+	 * @param post       the post
+	 * @return true if the account has an endorsement of the post
+	 */
+	public boolean isEndorsedBy(int endorserId, Post post) {
+		return post.isEndorsedBy(endorserId);
+	}
+
+	/**
+	 * Method to get the accounts that endorsed a post.
+	 *
+	 * @param post the post
+	 * @return the set of account IDs, which must not be changed
+	 */
+	public IdBitmap getEndorsers(Post post) {
+		IdBitmap endorsers = post.getEdgeEndorsers();
+		return endorsers != null ? endorsers : new IdBitmap();
+	}
+
+	/**
+	 * Method to get the accounts that endorsed any post or comment of an
+	 * account, kept up to date by its {@link AccountActivity}.
+	 *
+	 * @param accountId ID of the author
+	 * @return the set of account IDs, which must not be changed
+	 */
+	public IdBitmap getEndorsersOfAuthor(int accountId) {
+		return getActivity(accountId).getEndorsers();
+	}
+
+	/**
+	 * Method to find the endorsement of a post by an account, walking the
+	 * shorter of the chains of endorsements of the post and of the account.
+	 * Whether there is one is known in constant time from
+	 * {@link #isEndorsedBy(int, Post)}.
+	 *
+	 * @param endorserId ID of the account
+	 * @param post       the post
+	 * @return the slot of the edge in {@link #getEndorsements()}, or
+	 *         {@link EndorsementStore#NONE} if the account did not endorse the
+	 *         post
+	 */
+	public int findEndorsement(int endorserId, Post post) {
+		int postId = post.getId();
+		boolean byEndorser = endorsements.countByEndorser(endorserId) < post.getEndorsementCount();
+		int slot = byEndorser ? endorsements.firstByEndorser(endorserId) : endorsements.firstOnPost(postId);
+		while (slot != EndorsementStore.NONE) {
+			if (endorsements.getEndorser(slot) == endorserId && endorsements.getPost(slot) == postId) {
+				return slot;
+			}
+			slot = byEndorser ? endorsements.nextByEndorser(slot) : endorsements.nextOnPost(slot);
+		}
+		return EndorsementStore.NONE;
+	}
+
+	/**
+	 * Getter method for the endorsements, kept as edges.
+	 *
+	 * @return the edges, which must only be changed through this store
+	 */
+	public EndorsementStore getEndorsements() {
+		return endorsements;
+	}
+
+	/**
+	 * Method to index a post whose links to its parent and children are already
+	 * in place, e.g. one that has been loaded from a file. An endorsement is
+	 * turned into an edge, and its endorsed post counts it as one, whether that
+	 * post is restored before or after it.
+	 *
+	 * @param post post to index
+	 */
+	public void restore(Post post) {
+		if (post instanceof Endorsement) {
+			addEndorsement(post.getId(), post.getAccount(), ((Endorsement) post).getEndorsedPost(), post.getTimestamp());
+			return;
+		}
+		// endorsements are counted as edges instead
+		post.clearEndorsements();
+		postsById.put(post.getId(), post);
+		index(post);
+		if (post instanceof Comment) {
+			commentCount++;
+		} else {
+			originalCount++;
+		}
+	}
+
+	/**
+	 * Method to remove an original post or comment. Its endorsements are removed
+	 * with it, it is unlinked from its parent, and its comments are re-pointed at
+	 * the shared {@link EmptyPost}, so only the post's own endorsements and
+	 * direct comments are touched. Removing a post that is no longer stored has
+	 * no effect.
+	 *
+	 * @param post post to remove
+	 */
+	public void remove(Post post) {
+		if (postsById.remove(post.getId()) == null) {
+			return;
+		}
+		// drop the endorsements of the removed post, while its author is indexed
+		AccountActivity author = activityByAccount.get(post.getAccount().getId());
+		int slot = endorsements.firstOnPost(post.getId());
+		while (slot != EndorsementStore.NONE) {
+			int next = endorsements.nextOnPost(slot);
+			author.endorsementRemoved(endorsements.getEndorser(slot));
+			endorsements.remove(slot);
+			endorsementCount--;
+			slot = next;
+		}
+		post.clearEndorsementEdges();
+		unindex(post);
+		if (post instanceof Comment) {
+			((Comment) post).getParent().removeComment((Comment) post);
+			commentCount--;
+		} else {
+			originalCount--;
+		}
+		// replace the reference held by each direct reply with the shared empty post
+		for (Comment c : post.getComments()) {
+			c.setParent(EmptyPost.INSTANCE);
+		}
+		post.clearComments();
+	}
+
+	private void index(Post post) {
+		activityOf(post.getAccount().getId()).add(post);
+	}
+
+	private AccountActivity activityOf(int accountId) {
+		AccountActivity activity = activityByAccount.get(accountId);
+		if (activity == null) {
+			activity = new AccountActivity();
+			activityByAccount.put(accountId, activity);
+		}
+		return activity;
+	}
+
+	private void unindex(Post post) {
+		AccountActivity activity = activityByAccount.get(post.getAccount().getId());
+		if (activity != null) {
+			activity.remove(post);
+			if (activity.size() == 0) {
+				activityByAccount.remove(post.getAccount().getId());
+			}
+		}
+	}
+
+	/**
+	 * Getter method for the content authored by an account
+	 *
+	 * @param accountId account ID
+	 * @return the posts and comments of the account; its endorsements are
+	 *         chained in {@link #getEndorsements()}
+	 */
+	public AccountActivity getActivity(int accountId) {
+		AccountActivity activity = activityByAccount.get(accountId);
+		return activity != null ? activity : new AccountActivity();
+	}
+
+	/**
+	 * Getter method for the number of original posts
+	 *
+	 * @return number of original posts
+	 */
+	public int getOriginalCount() {
+		return originalCount;
+	}
+
+	/**
+	 * Getter method for the number of comments
+	 *
+	 * @return number of comments
+	 */
+	public int getCommentCount() {
+		return commentCount;
+	}
+
+	/**
+	 * Getter method for the number of endorsements
+	 *
+	 * @return number of endorsements
+	 */
+	public int getEndorsementCount() {
+		return endorsementCount;
+	}
+
+	/**
+	 * Getter method for a read-only view of all original posts and comments
+	 *
+	 * @return all posts and comments, in no particular order
+	 */
+	public Collection<Post> getPosts() {
+		return Collections.unmodifiableCollection(postsById.values());
+	}
+
+	/**
+	 * Method to remove every post from the store.
+	 */
+	public void clear() {
+		postsById.clear();
+		activityByAccount.clear();
+		endorsements.clear();
+		originalCount = 0;
+		commentCount = 0;
+		endorsementCount = 0;
+	}
+}
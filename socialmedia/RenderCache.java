@@ -0,0 +1,275 @@
+package socialmedia;
+
+/**
+ * RenderCache keeps the formatted details of recently shown posts, so that
+ * showing a post that has not changed returns the same string rather than
+ * building it again.
+ * <p>
+ * Each cached string remembers the post, endorsement and comment counts,
+ * handle and message it was built from, and is rebuilt when any of them
+ * changed, so that endorsing, commenting or renaming the author invalidates it
+ * without the platform having to track which posts are affected. The cache holds at most a
+ * fixed number of posts, evicting the least recently shown first. It is split
+ * into segments, each with its own lock, so that posts can be shown from many
+ * threads at once. Segments look posts up by their int ID in an
+ * {@link IntObjectMap}, and keep the order posts were shown in as a list
+ * linked through the cached posts, so that a hit neither boxes the ID nor
+ * allocates.
+ *
+ * @version 1.0
+ */
+public class RenderCache {
+
+	/** Default number of posts cached. */
+	public static final int DEFAULT_CAPACITY = 10000;
+
+	/**
+	 * Formatted details of a post, with the parts they were built from.
+	 */
+	private static final class CachedPost {
+		final int postId;
+		final Post post;
+		final String details;
+		final int endorsements;
+		final int comments;
+		final String handle;
+		final String message;
+		// neighbours in the segment's order of use
+		CachedPost older;
+		CachedPost newer;
+
+		CachedPost(int postId, Post post, String details, int endorsements, int comments, String handle, String message) {
+			this.postId = postId;
+			this.post = post;
+			this.details = details;
+			this.endorsements = endorsements;
+			this.comments = comments;
+			this.handle = handle;
+			this.message = message;
+		}
+
+		boolean isCurrent(Post post) {
+			// handles and messages are replaced rather than changed, so identity is
+			// enough to tell whether they changed
+			return this.post == post && endorsements == post.getEndorsementCount()
+					&& comments == post.getCommentCount() && handle == post.getHandle()
+					&& message == post.getMessage();
+		}
+	}
+
+	/**
+	 * Posts cached in one segment, by ID, linked from the least to the most
+	 * recently shown.
+	 */
+	private static final class Segment {
+		final IntObjectMap<CachedPost> entries = new IntObjectMap<>();
+		final int capacity;
+		CachedPost eldest;
+		CachedPost newest;
+		long hits;
+		long misses;
+
+		Segment(int capacity) {
+			this.capacity = capacity;
+		}
+
+		CachedPost get(int postId) {
+			CachedPost entry = entries.get(postId);
+			if (entry != null && entry != newest) {
+				unlink(entry);
+				link(entry);
+			}
+			return entry;
+		}
+
+		void put(CachedPost entry) {
+			CachedPost previous = entries.put(entry.postId, entry);
+			if (previous != null) {
+				unlink(previous);
+			}
+			link(entry);
+			if (entries.size() > capacity) {
+				remove(eldest.postId);
+			}
+		}
+
+		void remove(int postId) {
+			CachedPost removed = entries.remove(postId);
+			if (removed != null) {
+				unlink(removed);
+			}
+		}
+
+		void clear() {
+			entries.clear();
+			eldest = null;
+			newest = null;
+		}
+
+		int size() {
+			return entries.size();
+		}
+
+		private void link(CachedPost entry) {
+			entry.older = newest;
+			entry.newer = null;
+			if (newest == null) {
+				eldest = entry;
+			} else {
+				newest.newer = entry;
+			}
+			newest = entry;
+		}
+
+		private void unlink(CachedPost entry) {
+			if (entry.older == null) {
+				eldest = entry.newer;
+			} else {
+				entry.older.newer = entry.newer;
+			}
+			if (entry.newer == null) {
+				newest = entry.older;
+			} else {
+				entry.newer.older = entry.older;
+			}
+			entry.older = null;
+			entry.newer = null;
+		}
+	}
+
+	private final Segment[] segments;
+
+	/**
+	 * Constructor to create a cache of the default capacity with one segment
+	 */
+	public RenderCache() {
+		this(DEFAULT_CAPACITY, 1);
+	}
+
+	/**
+	 * Constructor to create a cache
+	 *
+	 * @param capacity maximum number of posts cached
+	 * @param segments number of independently locked segments, each holding an
+	 *                 equal share of the capacity
+	 */
+	public RenderCache(int capacity, int segments) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be at least 1");
+		}
+		if (segments < 1 || segments > capacity) {
+			throw new IllegalArgumentException("Segments must be between 1 and the capacity");
+		}
+		this.segments = new Segment[segments];
+		for (int i = 0; i < segments; i++) {
+			this.segments[i] = new Segment(capacity / segments + (i < capacity % segments ? 1 : 0));
+		}
+	}
+
+	private Segment segmentOf(int postId) {
+		return segments[Math.floorMod(postId, segments.length)];
+	}
+
+	/**
+	 * Method to get the formatted details of a post, as returned by
+	 * {@link Post#toString()}, from the cache or by formatting them. The post
+	 * must not change while it is rendered.
+	 *
+	 * @param post post to render
+	 * @return the formatted details
+	 */
+	public String render(Post post) {
+		if (post.getId() == 0) {
+			// the empty post has no ID to be cached under
+			return post.toString();
+		}
+		Segment segment = segmentOf(post.getId());
+		synchronized (segment) {
+			CachedPost entry = segment.get(post.getId());
+			if (entry != null && entry.isCurrent(post)) {
+				segment.hits++;
+				return entry.details;
+			}
+			segment.misses++;
+			String handle = post.getHandle();
+			String message = post.getMessage();
+			int endorsements = post.getEndorsementCount();
+			int comments = post.getCommentCount();
+			String details = Post.format(post.getId(), handle, endorsements, comments, message);
+			segment.put(new CachedPost(post.getId(), post, details, endorsements, comments, handle, message));
+			return details;
+		}
+	}
+
+	/**
+	 * Method to drop the cached details of a post, once it is removed
+	 *
+	 * @param postId post ID
+	 */
+	public void remove(int postId) {
+		if (postId == 0) {
+			return;
+		}
+		Segment segment = segmentOf(postId);
+		synchronized (segment) {
+			segment.remove(postId);
+		}
+	}
+
+	/**
+	 * Method to drop the cached details of every post
+	 */
+	public void clear() {
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	/**
+	 * Getter method for the number of posts cached
+	 *
+	 * @return number of posts
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Getter method for the number of posts shown from the cache
+	 *
+	 * @return number of hits
+	 */
+	public long getHits() {
+		long hits = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				hits += segment.hits;
+			}
+		}
+		return hits;
+	}
+
+	/**
+	 * Getter method for the number of posts formatted because they were not
+	 * cached or had changed
+	 *
+	 * @return number of misses
+	 */
+	public long getMisses() {
+		long misses = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				misses += segment.misses;
+			}
+		}
+		return misses;
+	}
+}
@@ -0,0 +1,177 @@
+package socialmedia;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * SnapshotCompactor writes full snapshot files and merges the deltas that
+ * follow them into new full snapshots, so that loading does not have to apply
+ * a long chain of deltas.
+ * <p>
+ * Compaction reads a snapshot with its deltas, writes the result as a new
+ * snapshot with the sequence number of the last delta, and then deletes the
+ * merged deltas. Deltas written meanwhile have higher sequence numbers and are
+ * kept, and a crash before the merged deltas are deleted is harmless since
+ * reading skips deltas already included in the snapshot. Compactions run one
+ * at a time on a background thread, and a snapshot is never replaced by a
+ * compaction and a full save at once.
+ *
+ * @version 1.0
+ */
+public class SnapshotCompactor {
+
+	// held while a snapshot file is replaced
+	private final ReentrantLock replaceLock = new ReentrantLock();
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+		Thread thread = new Thread(task, "snapshot-compactor");
+		thread.setDaemon(true);
+		return thread;
+	});
+	// snapshots with a compaction queued, and the last compaction queued
+	private final HashSet<Path> queued = new HashSet<>();
+	private Future<?> lastCompaction;
+
+	/**
+	 * Method to write a full snapshot file, replacing it and every delta that
+	 * followed it
+	 *
+	 * @param file          snapshot file to write
+	 * @param accounts      all accounts of the platform
+	 * @param posts         all posts of the platform
+	 * @param nextAccountId first account ID not yet handed out
+	 * @param nextPostId    first post ID not yet handed out
+	 * @return the sequence number of the snapshot
+	 * @throws IOException if the file cannot be written
+	 */
+	public long writeSnapshot(Path file, Collection<Account> accounts, Collection<Post> posts, int nextAccountId,
+			int nextPostId) throws IOException {
+		return writeSnapshot(file, PlatformSnapshot.source(accounts, posts, nextAccountId, nextPostId));
+	}
+
+	/**
+	 * Method to write a full snapshot file from any source of contents, replacing
+	 * it and every delta that followed it
+	 *
+	 * @param file   snapshot file to write
+	 * @param source contents of the platform
+	 * @return the sequence number of the snapshot
+	 * @throws IOException if the file cannot be written
+	 */
+	long writeSnapshot(Path file, PlatformSnapshot.Source source) throws IOException {
+		replaceLock.lock();
+		try {
+			// numbered after every existing save of the file, so that stale deltas are
+			// skipped even if they cannot be deleted
+			long sequence = 0;
+			try {
+				sequence = Math.max(0, PlatformSnapshot.readSequence(file));
+			} catch (IOException e) {
+				// not a snapshot, it is overwritten anyway
+			}
+			List<Path> deltas = DeltaSnapshot.list(file);
+			if (!deltas.isEmpty()) {
+				sequence = Math.max(sequence, DeltaSnapshot.sequenceOf(deltas.get(deltas.size() - 1)));
+			}
+			sequence++;
+			PlatformSnapshot.write(file, source, sequence);
+			for (Path delta : deltas) {
+				Files.deleteIfExists(delta);
+			}
+			return sequence;
+		} finally {
+			replaceLock.unlock();
+		}
+	}
+
+	/**
+	 * Method to merge the deltas of a snapshot file into it
+	 *
+	 * @param file snapshot file
+	 * @throws IOException if the snapshot or its deltas cannot be read, or the
+	 *                     new snapshot cannot be written
+	 */
+	public void compact(Path file) throws IOException {
+		long sequence = PlatformSnapshot.readSequence(file);
+		PlatformSnapshot merged = PlatformSnapshot.read(file);
+		if (merged.getSequence() == sequence) {
+			return; // no deltas
+		}
+		replaceLock.lock();
+		try {
+			if (PlatformSnapshot.readSequence(file) != sequence) {
+				return; // replaced by a full save or another compaction meanwhile
+			}
+			PlatformSnapshot.write(file, merged.getAccounts(), merged.getPosts(), merged.getNextAccountId(),
+					merged.getNextPostId(), merged.getSequence());
+			for (Path delta : DeltaSnapshot.list(file)) {
+				if (DeltaSnapshot.sequenceOf(delta) <= merged.getSequence()) {
+					Files.deleteIfExists(delta);
+				}
+			}
+		} finally {
+			replaceLock.unlock();
+		}
+	}
+
+	/**
+	 * Method to merge the deltas of a snapshot file into it on the background
+	 * thread, unless a compaction of the file is already queued
+	 *
+	 * @param file snapshot file
+	 */
+	public synchronized void compactInBackground(Path file) {
+		if (!queued.add(file)) {
+			return;
+		}
+		lastCompaction = executor.submit(() -> {
+			synchronized (this) {
+				queued.remove(file);
+			}
+			compact(file);
+			return null;
+		});
+	}
+
+	/**
+	 * Method to wait for every compaction queued so far to complete
+	 *
+	 * @throws IOException if the last compaction failed
+	 */
+	public void awaitIdle() throws IOException {
+		Future<?> last;
+		synchronized (this) {
+			last = lastCompaction;
+		}
+		if (last == null) {
+			return;
+		}
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					last.get();
+					return;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					throw cause instanceof IOException ? (IOException) cause
+							: new IOException("Snapshot compaction failed", cause);
+				}
+			}
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
@@ -0,0 +1,179 @@
+package socialmedia;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * SnapshotReader reads the primitive values written by a SnapshotWriter from a
+ * FileChannel through a direct buffer, keeping a CRC32 checksum of everything
+ * read so that it can be compared with the file's trailer.
+ *
+ * @version 1.0
+ */
+public class SnapshotReader {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	private final CRC32 checksum = new CRC32();
+
+	/**
+	 * Constructor to create a reader of a channel
+	 *
+	 * @param channel channel to read from, positioned where reading starts
+	 */
+	public SnapshotReader(FileChannel channel) {
+		this.channel = channel;
+		buffer.limit(0);
+	}
+
+	/**
+	 * Makes sure at least the given number of bytes are buffered, adding the
+	 * consumed bytes to the checksum before they are discarded.
+	 */
+	private void require(int bytes) throws IOException {
+		if (buffer.remaining() >= bytes) {
+			return;
+		}
+		int consumed = buffer.position();
+		ByteBuffer done = buffer.duplicate();
+		done.position(0).limit(consumed);
+		checksum.update(done);
+		buffer.compact();
+		while (buffer.position() < bytes) {
+			if (channel.read(buffer) < 0) {
+				throw new EOFException("Snapshot file is truncated");
+			}
+		}
+		buffer.flip();
+	}
+
+	/**
+	 * Method to read a single byte
+	 *
+	 * @return the byte, from 0 to 255
+	 * @throws IOException if the channel cannot be read
+	 */
+	public int readByte() throws IOException {
+		require(1);
+		return buffer.get() & 0xFF;
+	}
+
+	/**
+	 * Method to read a fixed-width, big-endian 32-bit integer
+	 *
+	 * @return the integer
+	 * @throws IOException if the channel cannot be read
+	 */
+	public int readInt() throws IOException {
+		require(4);
+		return buffer.getInt();
+	}
+
+	/**
+	 * Method to read a fixed-width, big-endian 64-bit integer
+	 *
+	 * @return the integer
+	 * @throws IOException if the channel cannot be read
+	 */
+	public long readLong() throws IOException {
+		require(8);
+		return buffer.getLong();
+	}
+
+	/**
+	 * Method to read an integer written by {@link SnapshotWriter#writeVarInt(int)}
+	 *
+	 * @return the integer
+	 * @throws IOException if the channel cannot be read or the value is malformed
+	 */
+	public int readVarInt() throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = readByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed variable-length integer in snapshot");
+	}
+
+	/**
+	 * Method to read a long written by {@link SnapshotWriter#writeVarLong(long)}
+	 *
+	 * @return the long
+	 * @throws IOException if the channel cannot be read or the value is malformed
+	 */
+	public long readVarLong() throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 70; shift += 7) {
+			int b = readByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed variable-length integer in snapshot");
+	}
+
+	/**
+	 * Method to read a string written by {@link SnapshotWriter#writeString(String)}
+	 *
+	 * @return the string
+	 * @throws IOException if the channel cannot be read
+	 */
+	public String readString() throws IOException {
+		int length = readVarInt();
+		if (length < 0) {
+			throw new IOException("Malformed string length in snapshot");
+		}
+		byte[] bytes = new byte[length];
+		int offset = 0;
+		while (offset < length) {
+			require(1);
+			int n = Math.min(buffer.remaining(), length - offset);
+			buffer.get(bytes, offset, n);
+			offset += n;
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Method to skip over bytes that are not needed, still adding them to the
+	 * checksum
+	 *
+	 * @param bytes number of bytes to skip
+	 * @throws IOException if the channel cannot be read
+	 */
+	public void skip(long bytes) throws IOException {
+		while (bytes > 0) {
+			require(1);
+			int n = (int) Math.min(buffer.remaining(), bytes);
+			buffer.position(buffer.position() + n);
+			bytes -= n;
+		}
+	}
+
+	/**
+	 * Method to read the CRC32 trailer and compare it with the checksum of every
+	 * byte read so far
+	 *
+	 * @throws IOException if the trailer is missing or does not match
+	 */
+	public void verifyChecksum() throws IOException {
+		require(4);
+		ByteBuffer done = buffer.duplicate();
+		done.position(0).limit(buffer.position());
+		checksum.update(done);
+		int expected = (int) checksum.getValue();
+		if (buffer.getInt() != expected) {
+			throw new IOException("Snapshot checksum does not match, the file is corrupted");
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package socialmedia;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * SnapshotWriter writes the primitive values of a snapshot file (bytes,
+ * variable-length integers and UTF-8 strings) to a FileChannel through a direct
+ * buffer, keeping a CRC32 checksum of everything written.
+ *
+ * @version 1.0
+ */
+public class SnapshotWriter implements Closeable {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	private final CRC32 checksum = new CRC32();
+	// bytes written to the channel so far
+	private long position;
+
+	/**
+	 * Constructor to create a writer appending to a channel
+	 *
+	 * @param channel channel to write to, positioned where writing starts
+	 */
+	public SnapshotWriter(FileChannel channel) {
+		this.channel = channel;
+	}
+
+	private void ensureRoom(int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			flush();
+		}
+	}
+
+	/**
+	 * Method to write a single byte
+	 *
+	 * @param value byte to write
+	 * @throws IOException if the channel cannot be written
+	 */
+	public void writeByte(int value) throws IOException {
+		ensureRoom(1);
+		buffer.put((byte) value);
+	}
+
+	/**
+	 * Method to write a fixed-width, big-endian 32-bit integer
+	 *
+	 * @param value integer to write
+	 * @throws IOException if the channel cannot be written
+	 */
+	public void writeInt(int value) throws IOException {
+		ensureRoom(4);
+		buffer.putInt(value);
+	}
+
+	/**
+	 * Method to write a fixed-width, big-endian 64-bit integer
+	 *
+	 * @param value integer to write
+	 * @throws IOException if the channel cannot be written
+	 */
+	public void writeLong(long value) throws IOException {
+		ensureRoom(8);
+		buffer.putLong(value);
+	}
+
+	/**
+	 * Method to write an integer in 1 to 5 bytes, 7 bits at a time. Small
+	 * non-negative values take the fewest bytes.
+	 *
+	 * @param value integer to write, treated as unsigned
+	 * @throws IOException if the channel cannot be written
+	 */
+	public void writeVarInt(int value) throws IOException {
+		ensureRoom(5);
+		while ((value & ~0x7F) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	/**
+	 * Method to write a long in 1 to 10 bytes, 7 bits at a time
+	 *
+	 * @param value long to write, treated as unsigned
+	 * @throws IOException if the channel cannot be written
+	 */
+	public void writeVarLong(long value) throws IOException {
+		ensureRoom(10);
+		while ((value & ~0x7FL) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	/**
+	 * Method to write a string as its UTF-8 length followed by its bytes
+	 *
+	 * @param value string to write
+	 * @throws IOException if the channel cannot be written
+	 */
+	public void writeString(String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(bytes.length);
+		int offset = 0;
+		while (offset < bytes.length) {
+			ensureRoom(1);
+			int n = Math.min(buffer.remaining(), bytes.length - offset);
+			buffer.put(bytes, offset, n);
+			offset += n;
+		}
+	}
+
+	/**
+	 * Getter method for the number of bytes written so far, including buffered ones
+	 *
+	 * @return the position relative to where writing started
+	 */
+	public long position() {
+		return position + buffer.position();
+	}
+
+	/**
+	 * Method to write out the buffered bytes, adding them to the checksum
+	 *
+	 * @throws IOException if the channel cannot be written
+	 */
+	public void flush() throws IOException {
+		buffer.flip();
+		checksum.update(buffer.duplicate());
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Method to write the CRC32 of every byte written so far, as a trailer that is
+	 * not itself part of the checksum
+	 *
+	 * @throws IOException if the channel cannot be written
+	 */
+	public void writeChecksum() throws IOException {
+		flush();
+		writeInt((int) checksum.getValue());
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Method to flush the buffered bytes. The channel itself is left open.
+	 */
+	@Override
+	public void close() throws IOException {
+		flush();
+	}
+}
@@ -1,12 +1,18 @@
+package socialmedia;
+
 // import necessary Java packages for implementation
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 /**
  * Represents the social media platform and implements the interface SocialMediaPlatform
@@ -15,14 +21,71 @@ import java.io.ObjectOutputStream;
  * @Version 1.0
  * @Since 1.0
  */
-public class SocialMedia implements SocialMediaPlatform {
+public class SocialMedia implements TrendingSocialMediaPlatform, ThreadedSocialMediaPlatform,
+		BatchSocialMediaPlatform, EndorserAnalyticsPlatform {
 
 	// instantiating SocialMedia class variables
-	// ArrayLists to store objects that make up the platform (accounts, posts, comments and endorsements)
-	private ArrayList<Account> accounts;
-	private ArrayList<Post> posts;
-	private ArrayList<Comment> comments;
-	private ArrayList<Endorsement> endorsements;
+	// registry of accounts, indexed by handle and by account ID
+	private AccountRegistry accounts = new AccountRegistry();
+	// store of posts, comments and endorsements, indexed by post ID
+	private PostStore posts = new PostStore();
+	// per-platform allocators of account and post IDs
+	private final IdAllocator accountIds = new IdAllocator(1000);
+	private final IdAllocator postIds = new IdAllocator(1000);
+	// endorsement rankings of posts and accounts, kept up to date on every change
+	private EndorsementRankings rankings = new EndorsementRankings(null, false);
+	// while a file opened with openPlatform warms up, the mapped file answering
+	// reads and the background load of its contents; both null otherwise
+	private MappedSnapshot mapped;
+	private FutureTask<Contents> warmUp;
+	// failure of the last warm-up, until reported by awaitWarmUp
+	private IOException warmUpFailure;
+	// write-ahead log of every change, the directory of its checkpoints and the
+	// delay of its commits; null unless the platform was opened with openLog
+	private CheckpointDirectory checkpoints;
+	private WriteAheadLog log;
+	private Duration commitDelay;
+	// snapshot file the platform was last saved to or loaded from, its sequence
+	// number, and the changes made since, which saveChanges writes as a delta
+	private Path savedFile;
+	private long savedSequence;
+	private final ChangeTracker changes = new ChangeTracker();
+	// merges deltas into their snapshot file once there are this many of them
+	private final SnapshotCompactor compactor = new SnapshotCompactor();
+	private int compactionThreshold = 8;
+	// formatted details of recently shown posts
+	private final RenderCache renderCache = new RenderCache();
+
+	/**
+	 * Contents of the platform built from a snapshot, ready to replace the
+	 * current ones.
+	 */
+	private static final class Contents {
+		final AccountRegistry accounts = new AccountRegistry();
+		final PostStore posts = new PostStore();
+		final EndorsementRankings rankings;
+		final PlatformSnapshot snapshot;
+		// file the snapshot was read from, if later changes may be saved to it
+		final Path source;
+
+		Contents(PlatformSnapshot snapshot, Duration halfLife, Path source) {
+			this.snapshot = snapshot;
+			this.source = source;
+			try {
+				for (Account a : snapshot.getAccounts()) {
+					accounts.add(a);
+				}
+			} catch (IllegalHandleException e) {
+				// handles were checked to be unique when reading the snapshot
+				throw new IllegalStateException(e);
+			}
+			for (Post p : snapshot.getPosts()) {
+				posts.restore(p);
+			}
+			rankings = new EndorsementRankings(halfLife, false);
+			rankings.rebuild(accounts.getAccounts(), posts.getPosts(), posts.getEndorsements());
+		}
+	}
 
 	/**
 	 * The method creates an account in the platform with the given handle.
@@ -36,24 +99,8 @@ public class SocialMedia implements SocialMediaPlatform {
 	 */
 	@Override
 	public int createAccount(String handle) throws IllegalHandleException, InvalidHandleException {
-		// new instance of Account class
-		Account a = new Account(handle);
-		// check handle is valid
-		if (handle.isBlank() || handle.length() > 30 || handle.contains(" ")) {
-			throw new InvalidHandleException("Invalid Handle");
-		}for (Account i : accounts) {
-			// check handle does not already exist
-			if (i.getHandle().equals(handle)) {
-				throw new IllegalHandleException("Handle Already Exists");
-			} else {
-				// set handle for a
-				a.setHandle(handle);
-				// add a to ArrayList of all accounts in system
-				accounts.add(a);
-			}
-		}
-		return a.getId();
-	} 
+		return createAccount(handle, null);
+	}
 
 	/**
 	 * The method creates an account in the platform with the given handle and
@@ -69,27 +116,199 @@ public class SocialMedia implements SocialMediaPlatform {
 	 */
 	@Override
 	public int createAccount(String handle, String description) throws IllegalHandleException, InvalidHandleException {
-		// new instance of Account object
-		Account b = new Account(handle, description);
+		settleBeforeChange();
 		// check handle is valid
-		if (handle.isBlank() || handle.length() > 30 || handle.contains(" ")) {
+		if (!AccountRegistry.isValidHandle(handle)) {
 			throw new InvalidHandleException("Invalid Handle");
 		}
-		for (Account i : accounts) {
-			// check handle does not already exist
-			if (i.getHandle().equals(handle)) {
+		// check handle does not already exist, before an account ID is used up
+		if (accounts.containsHandle(handle)) {
+			throw new IllegalHandleException("Handle Already Exists");
+		}
+		// logged before it is made, so a failed write leaves the platform unchanged
+		log(LogRecord.createAccount(handle, description, accountIds.peek()));
+		// new instance of Account object, added to the registry of all accounts
+		Account a = new Account(accountIds.next(), handle, description);
+		accounts.add(a);
+		rankings.accountCreated(a);
+		changes.accountChanged(a.getId());
+		return a.getId();
+	}
+	
+
+	/**
+	 * The method creates an account for each of the given handles. Every handle
+	 * is checked before any account is created, and the account IDs are reserved
+	 * in one block.
+	 * @param handles handles of the accounts.
+	 * @param descriptions descriptions of the accounts, or null for none.
+	 * @return the IDs of the created accounts, in the order of the handles.
+	 * @throws IllegalHandleException if any handle already exists in the platform
+	 * or appears twice in the batch.
+	 * @throws InvalidHandleException if any handle is empty, has more than 30
+	 * characters, or has white spaces.
+	 */
+	@Override
+	public int[] createAccounts(String[] handles, String[] descriptions)
+			throws IllegalHandleException, InvalidHandleException {
+		checkBatch(handles.length, descriptions == null ? handles.length : descriptions.length);
+		settleBeforeChange();
+		// check every handle is valid and new, including within the batch
+		HashSet<String> batchHandles = new HashSet<>();
+		for (String handle : handles) {
+			if (!AccountRegistry.isValidHandle(handle)) {
+				throw new InvalidHandleException("Invalid Handle");
+			}
+			if (accounts.containsHandle(handle) || !batchHandles.add(handle)) {
 				throw new IllegalHandleException("Handle Already Exists");
-			} else {
-				// set handle and description field for b
-				b.setHandle(handle);
-				b.setDescriptionField(description);
-				// add b to ArrayList of all accounts in system
-				accounts.add(b);
 			}
-		} 
-		return b.getId();
+		}
+		// the batch is logged before any account is created
+		if (log != null) {
+			ArrayList<LogRecord> records = new ArrayList<>(handles.length);
+			for (int i = 0; i < handles.length; i++) {
+				String description = descriptions == null ? null : descriptions[i];
+				records.add(LogRecord.createAccount(handles[i], description, accountIds.peek() + i));
+			}
+			log(records);
+		}
+		int firstId = accountIds.reserve(handles.length);
+		int[] ids = new int[handles.length];
+		try {
+			for (int i = 0; i < handles.length; i++) {
+				String description = descriptions == null ? null : descriptions[i];
+				Account a = new Account(firstId + i, handles[i], description);
+				accounts.add(a);
+				rankings.accountCreated(a);
+				changes.accountChanged(a.getId());
+				ids[i] = a.getId();
+			}
+		} catch (IllegalHandleException e) {
+			// handles were all checked above
+			throw new IllegalStateException(e);
+		}
+		return ids;
+	}
+
+	/**
+	 * The method creates a post for each of the given handles. Every handle and
+	 * message is checked before any post is created, and the post IDs are
+	 * reserved in one block.
+	 * @param handles handles of the authors of the posts.
+	 * @param messages messages of the posts.
+	 * @return the IDs of the created posts, in the order of the handles.
+	 * @throws HandleNotRecognisedException if any handle does not match to any
+	 * account in the system.
+	 * @throws InvalidPostException if any message is empty or has more than 100
+	 * characters.
+	 */
+	@Override
+	public int[] createPosts(String[] handles, String[] messages)
+			throws HandleNotRecognisedException, InvalidPostException {
+		checkBatch(handles.length, messages.length);
+		settleBeforeChange();
+		// check every account exists and every message is valid
+		Account[] authors = new Account[handles.length];
+		for (int i = 0; i < handles.length; i++) {
+			authors[i] = accounts.getByHandle(handles[i]);
+			if (!PostStore.isValidMessage(messages[i])) {
+				throw new InvalidPostException("Post message invalid.");
+			}
+		}
+		// the batch is logged before any post is created
+		long timestamp = System.currentTimeMillis();
+		if (log != null) {
+			ArrayList<LogRecord> records = new ArrayList<>(handles.length);
+			for (int i = 0; i < handles.length; i++) {
+				records.add(LogRecord.createPost(handles[i], messages[i], postIds.peek() + i, timestamp));
+			}
+			log(records);
+		}
+		int firstId = postIds.reserve(handles.length);
+		int[] ids = new int[handles.length];
+		for (int i = 0; i < handles.length; i++) {
+			Post p = new Post(firstId + i, authors[i], messages[i]);
+			p.setTimestamp(timestamp);
+			posts.addPost(p);
+			rankings.postCreated(p);
+			changes.postChanged(p.getId());
+			ids[i] = p.getId();
+		}
+		return ids;
+	}
+
+	/**
+	 * The method creates an endorsement by each of the given handles of the post
+	 * with the matching ID. Every handle and post is checked before any
+	 * endorsement is created, and the post IDs are reserved in one block. As
+	 * with endorsePost, an account that already endorsed a post, before or
+	 * earlier in the batch, gets the ID of that endorsement.
+	 * @param handles handles of the endorsing accounts.
+	 * @param ids IDs of the endorsed posts.
+	 * @return the IDs of the endorsements, in the order of the handles.
+	 * @throws HandleNotRecognisedException if any handle does not match to any
+	 * account in the system.
+	 * @throws PostIDNotRecognisedException if any ID does not match to any post in
+	 * the system.
+	 * @throws NotActionablePostException if any ID refers to an endorsement post.
+	 */
+	@Override
+	public int[] endorsePosts(String[] handles, int[] ids)
+			throws HandleNotRecognisedException, PostIDNotRecognisedException, NotActionablePostException {
+		checkBatch(handles.length, ids.length);
+		settleBeforeChange();
+		// check every account and post exists, and no post is an endorsement
+		Account[] endorsers = new Account[handles.length];
+		Post[] endorsed = new Post[handles.length];
+		for (int i = 0; i < handles.length; i++) {
+			endorsers[i] = accounts.getByHandle(handles[i]);
+			endorsed[i] = posts.getActionable(ids[i]);
+		}
+		// give an ID to each endorsement that is not a repeat, and log the batch
+		// before any endorsement is created
+		HashMap<Long, Integer> created = new HashMap<>();
+		int[] endorsementIds = new int[handles.length];
+		ArrayList<LogRecord> records = log == null ? null : new ArrayList<>();
+		long timestamp = System.currentTimeMillis();
+		int nextId = postIds.peek();
+		for (int i = 0; i < handles.length; i++) {
+			if (posts.isEndorsedBy(endorsers[i].getId(), endorsed[i])) {
+				int slot = posts.findEndorsement(endorsers[i].getId(), endorsed[i]);
+				endorsementIds[i] = posts.getEndorsements().getId(slot);
+				continue;
+			}
+			long pair = (long) endorsers[i].getId() << 32 | endorsed[i].getId();
+			Integer assigned = created.get(pair);
+			if (assigned == null) {
+				assigned = nextId++;
+				created.put(pair, assigned);
+				if (records != null) {
+					records.add(LogRecord.endorsePost(handles[i], ids[i], assigned, timestamp));
+				}
+			}
+			endorsementIds[i] = assigned;
+		}
+		log(records);
+		postIds.reserve(created.size());
+		for (int i = 0; i < handles.length; i++) {
+			long pair = (long) endorsers[i].getId() << 32 | endorsed[i].getId();
+			if (created.remove(pair) != null) {
+				addEndorsement(endorsementIds[i], endorsers[i], endorsed[i], timestamp);
+			}
+		}
+		return endorsementIds;
+	}
+
+	/**
+	 * Checks the arrays describing a batch have the same length.
+	 * @param count number of elements of the batch.
+	 * @param matching length of the array that must match it.
+	 */
+	private static void checkBatch(int count, int matching) {
+		if (count != matching) {
+			throw new IllegalArgumentException("Batch arrays must have the same length");
+		}
 	}
-	
 
 	/**
 	 * The method removes the account with the corresponding ID from the platform.
@@ -99,21 +318,9 @@ public class SocialMedia implements SocialMediaPlatform {
 	 */
 	@Override
 	public void removeAccount(int id) throws AccountIDNotRecognisedException {
-		for(Account a : accounts) {
-			// check account ID exists
-			if(a.getId() == id) {
-				// remove account from ArrayList of all accounts
-				accounts.remove(a);
-				for(Post p: posts){
-					if(p.getId() == id) {
-						// remove account posts from ArrayList of all posts
-						posts.remove(p);
-					}
-				}
-			} else {
-				throw new AccountIDNotRecognisedException("Account ID not recognised");
-			}
-		}
+		settleBeforeChange();
+		// check account ID exists
+		removeAccount(accounts.getById(id));
 	}
 
 	
@@ -128,15 +335,140 @@ public class SocialMedia implements SocialMediaPlatform {
 	 */
 	@Override
 	public void removeAccount(String handle) throws HandleNotRecognisedException {
-		for (Account a : accounts) {
-			// check handle exists in the system
-			if (a.getHandle().equals(handle)) {
-				// remove account from ArrayList of all accounts in system
-				accounts.remove(a);
-			} else {
-				throw new HandleNotRecognisedException("Handle not recognised");
+		settleBeforeChange();
+		// check handle exists in the system
+		removeAccount(accounts.getByHandle(handle));
+	}
+
+	/**
+	 * Removes an account that is known to exist, together with its posts.
+	 * @param a account to remove.
+	 */
+	private void removeAccount(Account a) {
+		log(LogRecord.removeAccount(a.getId()));
+		// remove account from registry of all accounts
+		accounts.remove(a);
+		// remove account posts from the store of all posts, found through the
+		// account's own index rather than by scanning every post, endorsements
+		// first since removing them never cascades
+		EndorsementStore edges = posts.getEndorsements();
+		for (int slot = edges.firstByEndorser(a.getId()); slot != EndorsementStore.NONE; slot = edges
+				.nextByEndorser(slot)) {
+			Post endorsed = endorsedPost(slot);
+			rankings.endorsementRemoved(endorsed.getId(), endorsed.getAccount().getId(), edges.getTimestamp(slot));
+			changes.postRemoved(edges.getId(slot));
+		}
+		posts.removeEndorsementsBy(a.getId());
+		for (Post p : posts.getActivity(a.getId()).getContent()) {
+			removePost(p);
+		}
+		rankings.accountRemoved(a);
+		changes.accountRemoved(a.getId());
+	}
+
+	/**
+	 * Removes a post from the store, keeping the endorsement rankings in step.
+	 * Posts that were already removed are ignored.
+	 * @param p post to remove.
+	 */
+	private void removePost(Post p) {
+		if (!posts.contains(p)) {
+			return;
+		}
+		EndorsementStore edges = posts.getEndorsements();
+		rankings.postRemoved(p, edges);
+		// endorsements go with the post, and comments lose their parent
+		changes.postRemoved(p.getId());
+		renderCache.remove(p.getId());
+		for (int slot = edges.firstOnPost(p.getId()); slot != EndorsementStore.NONE; slot = edges.nextOnPost(slot)) {
+			changes.postRemoved(edges.getId(slot));
+		}
+		for (Comment c : p.getComments()) {
+			changes.postChanged(c.getId());
+		}
+		posts.remove(p);
+	}
+
+	/**
+	 * Removes an endorsement from the store, keeping the endorsement rankings in
+	 * step.
+	 * @param slot slot of the endorsement's edge.
+	 */
+	private void removeEndorsement(int slot) {
+		EndorsementStore edges = posts.getEndorsements();
+		Post endorsed = endorsedPost(slot);
+		rankings.endorsementRemoved(endorsed.getId(), endorsed.getAccount().getId(), edges.getTimestamp(slot));
+		changes.postRemoved(edges.getId(slot));
+		posts.removeEndorsement(slot);
+	}
+
+	/**
+	 * Finds the post an endorsement endorses.
+	 * @param slot slot of the endorsement's edge.
+	 * @return the endorsed post.
+	 */
+	private Post endorsedPost(int slot) {
+		try {
+			return posts.get(posts.getEndorsements().getPost(slot));
+		} catch (PostIDNotRecognisedException e) {
+			// endorsements are removed with the posts they endorse
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Formats the details of an endorsement from its edge, as they would be for
+	 * an Endorsement post: an endorsement has no endorsements or comments of its
+	 * own, and its message names the endorsed account by its current handle.
+	 * @param slot slot of the endorsement's edge.
+	 * @return the endorsement in string format.
+	 */
+	private String showEndorsement(int slot) {
+		EndorsementStore edges = posts.getEndorsements();
+		try {
+			String handle = accounts.getById(edges.getEndorser(slot)).getHandle();
+			Post endorsed = endorsedPost(slot);
+			String message = "EP@" + endorsed.getHandle() + ": " + endorsed.getMessage();
+			return Post.format(edges.getId(slot), handle, 0, 0, message);
+		} catch (AccountIDNotRecognisedException e) {
+			// endorsements are removed with the accounts that made them
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Builds an Endorsement post from an endorsement's edge, for the snapshot and
+	 * delta files, which store endorsements as posts.
+	 * @param slot slot of the endorsement's edge.
+	 * @return the endorsement post, not linked to the post it endorses.
+	 */
+	private Endorsement toEndorsement(int slot) {
+		EndorsementStore edges = posts.getEndorsements();
+		try {
+			Endorsement e = new Endorsement(edges.getId(slot), accounts.getById(edges.getEndorser(slot)),
+					endorsedPost(slot));
+			e.setTimestamp(edges.getTimestamp(slot));
+			return e;
+		} catch (AccountIDNotRecognisedException e) {
+			// endorsements are removed with the accounts that made them
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Collects every post, comment and endorsement, for writing a snapshot file.
+	 * @return all posts, with endorsements built from their edges.
+	 */
+	private List<Post> allPosts() {
+		EndorsementStore edges = posts.getEndorsements();
+		ArrayList<Post> all = new ArrayList<>(posts.getPosts().size() + edges.size());
+		all.addAll(posts.getPosts());
+		for (int slot = 0; slot < edges.getSlotLimit(); slot++) {
+			if (edges.isUsed(slot)) {
+				all.add(toEndorsement(slot));
 			}
 		}
+		return all;
 	}
 
 	
@@ -154,22 +486,11 @@ public class SocialMedia implements SocialMediaPlatform {
 	@Override
 	public void changeAccountHandle(String oldHandle, String newHandle)
 			throws HandleNotRecognisedException, IllegalHandleException, InvalidHandleException {
-		// check there is an account with the old handle
-		if (!accounts.contains(oldHandle)) {
-			throw new HandleNotRecognisedException("Handle Not Recognised");
-		} 
-		// check handle is valid
-		else if (newHandle.isBlank() || newHandle.length() > 30 || newHandle.contains(" ")) {
-			throw new InvalidHandleException("Invalid Handle");
-		}  
-		// check new handle does not already exist
-		else if (accounts.contains(newHandle)) {
-			throw new IllegalHandleException("Handle Already Exists");
-		} 
-		else {
-			// set new account handle
-		        accounts.set(accounts.indexOf(oldHandle), new Account(newHandle));
-		}
+		settleBeforeChange();
+		// check both handles, and log the change, before re-indexing the account
+		accounts.checkRename(oldHandle, newHandle);
+		log(LogRecord.changeAccountHandle(oldHandle, newHandle));
+		changes.accountChanged(accounts.rename(oldHandle, newHandle).getId());
 	}
 
 	/**
@@ -181,14 +502,12 @@ public class SocialMedia implements SocialMediaPlatform {
 	 */
 	@Override
 	public void updateAccountDescription(String handle, String description) throws HandleNotRecognisedException {
-		for (Account a : accounts) {
-			// check account with handle exists
-			if (a.getHandle().equals(handle)) {
-				a.setDescriptionField(description);
-			} else {
-				throw new HandleNotRecognisedException("Handle not recognised");
-			}
-		}
+		settleBeforeChange();
+		// check account with handle exists
+		Account a = accounts.getByHandle(handle);
+		log(LogRecord.updateAccountDescription(handle, description));
+		a.setDescriptionField(description);
+		changes.accountChanged(a.getId());
 	}
 	
 	/**
@@ -201,23 +520,24 @@ public class SocialMedia implements SocialMediaPlatform {
 	 */
 	@Override
 	public String showAccount(String handle) throws HandleNotRecognisedException {
-		// new string to display result
-		String result = """
-				\t\t\tAccount Summary
-				    
-					 %s
-				    
-				""";
-		for (Account a : accounts) {
-			// check account with handle exists
-			if (!a.getHandle().equals(handle)) {
-				throw new HandleNotRecognisedException("Handle not recognised");
-			} else {
-				// format result as string
-				result = String.format(result, toString());
+		if (isWarmingUp()) {
+			try {
+				return mapped.showAccount(handle);
+			} catch (IOException e) {
+				// the load checks the whole file, so wait for it to fail or succeed
+				settleWarmUp();
 			}
 		}
-		return result;
+		// check account with handle exists
+		Account a = accounts.getByHandle(handle);
+		List<Post> content = posts.getActivity(a.getId()).getContent();
+		int postCount = content.size() + posts.getEndorsements().countByEndorser(a.getId());
+		int endorseCount = 0;
+		for (Post p : content) {
+			endorseCount += p.getEndorsementCount();
+		}
+		// format result as string
+		return Account.summary(a.getId(), a.getHandle(), a.getDescriptionField(), postCount, endorseCount);
 	}
 
 	/**
@@ -231,80 +551,109 @@ public class SocialMedia implements SocialMediaPlatform {
 	 *
 	 */
 	@Override
-        public int createPost(String handle, String message) throws HandleNotRecognisedException, InvalidPostException {
-	    // new instance of Post object
-            Post p = new Post(handle, message);
-            for (Post i : posts) {
+	public int createPost(String handle, String message) throws HandleNotRecognisedException, InvalidPostException {
+		return createPost(handle, message, System.currentTimeMillis());
+	}
+
+	/**
+	 * Creates a post made at the given time, now or as logged.
+	 * @param handle account's handle.
+	 * @param message post's message.
+	 * @param timestamp creation time of the post.
+	 * @return the ID of the created post.
+	 * @throws HandleNotRecognisedException if the handle does not match to any account in the system.
+	 * @throws InvalidPostException if the new message is empty, has more than 100 characters.
+	 */
+	private int createPost(String handle, String message, long timestamp)
+			throws HandleNotRecognisedException, InvalidPostException {
+		settleBeforeChange();
 		// check account with handle exists
-                if (!i.getHandle().equals(handle)) {
-                    throw new HandleNotRecognisedException("Handle not recognised");
-                } 
+		Account a = accounts.getByHandle(handle);
 		// check post message is valid
-		else if (message == null || message.length() > 100) {
-		    throw new InvalidPostException("Post message invalid.");
-		} 
-		else {
-		    // set handle and message for p
-                    p.setHandle(handle);
-		    p.setMessage(message);
-		    // add p to ArrayList of all posts in system
-		    posts.add(p);
-                }
-	    }
-            return p.getId();
-        }
+		if (!PostStore.isValidMessage(message)) {
+			throw new InvalidPostException("Post message invalid.");
+		}
+		log(LogRecord.createPost(handle, message, postIds.peek(), timestamp));
+		// new instance of Post object, added to the store of all posts
+		Post p = new Post(postIds.next(), a, message);
+		p.setTimestamp(timestamp);
+		posts.addPost(p);
+		rankings.postCreated(p);
+		changes.postChanged(p.getId());
+		return p.getId();
+	}
 	
 	
 	/**
-         * The method creates an endorsement post of an existing post, similar to a
-         * retweet on Twitter. 
-         * @param handle of the account endorsing a post.
-         * @param id of the post being endorsed.
-         * @return the sequential ID of the created post.
-         * @throws HandleNotRecognisedException if the handle does not match to any
-         * account in the system.
-         * @throws PostIDNotRecognisedException if the ID does not match to any post in
-         * the system.
-         * @throws NotActionablePostException if the ID refers to a endorsement post.
-         * Endorsement posts are not endorsable.
-         * Endorsements are not transitive. For
-         * instance, if post A is endorsed by post
-         * B, and an account wants to endorse B, in
-         * fact, the endorsement must refers to A.
-         */
+	 * The method creates an endorsement post of an existing post, similar to a
+	 * retweet on Twitter. An account endorses a post at most once: whether it
+	 * already did is found in constant time from the endorsers of the post, and
+	 * endorsing the post again creates nothing.
+	 * @param handle of the account endorsing a post.
+	 * @param id of the post being endorsed.
+	 * @return the sequential ID of the created post, or the ID of the existing
+	 * endorsement of the post by the account.
+	 * @throws HandleNotRecognisedException if the handle does not match to any
+	 * account in the system.
+	 * @throws PostIDNotRecognisedException if the ID does not match to any post in
+	 * the system.
+	 * @throws NotActionablePostException if the ID refers to a endorsement post.
+	 * Endorsement posts are not endorsable.
+	 * Endorsements are not transitive. For
+	 * instance, if post A is endorsed by post
+	 * B, and an account wants to endorse B, in
+	 * fact, the endorsement must refers to A.
+	 */
 	@Override
-        public int endorsePost(String handle, int id)
-            throws HandleNotRecognisedException, PostIDNotRecognisedException, NotActionablePostException {
-	    // new instance of Endorsement object
-            Endorsement e = new Endorsement(new Account(handle), id);
-            for(Post p : posts) {
-		// check post ID exists in the system
-                if(p.getId() != id) {
-                    throw new PostIDNotRecognisedException("Post ID not recognised");
-                }
-                for (Account a : accounts) {
-	            // check account handle exists in system
-                    if(!a.getHandle().equals(handle)) {
-                        throw new HandleNotRecognisedException("Handle not recognised");
-                    }
-                    for (Endorsement x : endorsements) {
-			// check post is not an endorsement
-                        if (x.getId() == id) {
-                            throw new NotActionablePostException("Endorsements cannot be endorsed");
-                        } else {
-			    // set parameters
-                            e.setHandle(handle);
-                            e.setPostId(id);
-		            // add endorsement to running total of all endorsements in platform
-                            endorsements.add(e);
-			    // add new endorsement to post it is associated with
-			    p.postEndorsements.add(e);
-                        }
-                    }
-                }
-            }
-            return e.getId();
-        }
+	public int endorsePost(String handle, int id)
+			throws HandleNotRecognisedException, PostIDNotRecognisedException, NotActionablePostException {
+		return endorsePost(handle, id, System.currentTimeMillis());
+	}
+
+	/**
+	 * Creates an endorsement made at the given time, now or as logged.
+	 * @param handle of the account endorsing a post.
+	 * @param id of the post being endorsed.
+	 * @param timestamp creation time of the endorsement.
+	 * @return the ID of the created or existing endorsement.
+	 * @throws HandleNotRecognisedException if the handle does not match to any
+	 * account in the system.
+	 * @throws PostIDNotRecognisedException if the ID does not match to any post in
+	 * the system.
+	 * @throws NotActionablePostException if the ID refers to a endorsement post.
+	 */
+	private int endorsePost(String handle, int id, long timestamp)
+			throws HandleNotRecognisedException, PostIDNotRecognisedException, NotActionablePostException {
+		settleBeforeChange();
+		// check account handle exists in system
+		Account a = accounts.getByHandle(handle);
+		// check post ID exists in the system and is not an endorsement
+		Post p = posts.getActionable(id);
+		// an account endorses a post once, so endorsing it again changes nothing
+		if (posts.isEndorsedBy(a.getId(), p)) {
+			return posts.getEndorsements().getId(posts.findEndorsement(a.getId(), p));
+		}
+		if (log != null) {
+			log(LogRecord.endorsePost(handle, id, postIds.peek(), timestamp));
+		}
+		return addEndorsement(postIds.next(), a, p, timestamp);
+	}
+
+	/**
+	 * Adds a new edge from an account to the post it endorses, keeping the
+	 * rankings and the changes to save in step.
+	 * @param endorsementId ID of the endorsement.
+	 * @param a endorsing account.
+	 * @param p endorsed post.
+	 * @param timestamp creation time of the endorsement.
+	 * @return the ID of the endorsement.
+	 */
+	private int addEndorsement(int endorsementId, Account a, Post p, long timestamp) {
+		posts.addEndorsement(endorsementId, a, p, timestamp);
+		rankings.endorsementAdded(p.getId(), p.getAccount().getId(), timestamp);
+		changes.postChanged(endorsementId);
+		return endorsementId;
+	}
 	
 	
 	/**
@@ -329,41 +678,43 @@ public class SocialMedia implements SocialMediaPlatform {
 	@Override
 	public int commentPost(String handle, int id, String message) throws HandleNotRecognisedException,
 			PostIDNotRecognisedException, NotActionablePostException, InvalidPostException {
-	        // new instance of Post object
-		Comment c = new Comment(new Account(handle), message);
-			for(Post p : posts) {
-			    // check post ID exists in the system
-			    if(p.getId() != id) { 
-				throw new PostIDNotRecognisedException("Post ID not recognised");
-			    }
-			    for(Account a :accounts) {
-				// check account handle exist in the system
-		                if(!a.getHandle().equals(handle)) {
-					throw new HandleNotRecognisedException("Handle not recognised");
-				}
-				for(Endorsement e : endorsements) {
-					// check post is not an endorsement
-					if (e.getId() == id) {
-						throw new NotActionablePostException("Endorsements cannot be commented");
-					} 
-					// check comment message is valid
-					else if (message == null || message.length() > 100) {
-						throw new InvalidPostException("Invalid Post");
-						} 
-					        else {
-						// set parameters
-						c.setHandle(handle);
-						c.setPostId(id);
-						c.setMessage(message);
-						// add comment to running total of all comments in platform
-						comments.add(c); 
-						// add new comment to post it is associated with
-						p.postComments.add(c);
-					} 
-				 }
-		        }
-	       }
-	       return c.getId();
+		return commentPost(handle, id, message, System.currentTimeMillis());
+	}
+
+	/**
+	 * Creates a comment made at the given time, now or as logged.
+	 * @param handle  of the account commenting a post.
+	 * @param id      of the post being commented.
+	 * @param message the comment post message.
+	 * @param timestamp creation time of the comment.
+	 * @return the sequential ID of the created post.
+	 * @throws HandleNotRecognisedException if the handle does not match to any
+	 *                                      account in the system.
+	 * @throws PostIDNotRecognisedException if the ID does not match to any post in
+	 *                                      the system.
+	 * @throws NotActionablePostException   if the ID refers to a endorsement post.
+	 * @throws InvalidPostException         if the comment message is empty or has
+	 *                                      more than 100 characters.
+	 */
+	private int commentPost(String handle, int id, String message, long timestamp) throws HandleNotRecognisedException,
+			PostIDNotRecognisedException, NotActionablePostException, InvalidPostException {
+		settleBeforeChange();
+		// check account handle exist in the system
+		Account a = accounts.getByHandle(handle);
+		// check post ID exists in the system and is not an endorsement
+		Post p = posts.getActionable(id);
+		// check comment message is valid
+		if (!PostStore.isValidMessage(message)) {
+			throw new InvalidPostException("Invalid Post");
+		}
+		log(LogRecord.commentPost(handle, id, message, postIds.peek(), timestamp));
+		// new instance of Comment object, linked to the post it replies to
+		Comment c = new Comment(postIds.next(), a, p, message);
+		c.setTimestamp(timestamp);
+		posts.addComment(c);
+		rankings.postCreated(c);
+		changes.postChanged(c.getId());
+		return c.getId();
 	}
 
 	
@@ -378,49 +729,54 @@ public class SocialMedia implements SocialMediaPlatform {
 	 */
 	@Override
 	public void deletePost(int id) throws PostIDNotRecognisedException {
-		for (Post p : posts) {
-		    // check post ID exists in the system
-		    if (p.getPostId().equals(id)){
-			    // remove p from ArrayList of all posts
-			    posts.remove(p);
-		    } else {
-			    throw new PostIDNotRecognisedException("Post ID not recognised.");
-		    }
+		settleBeforeChange();
+		// check post ID exists in the system, then unlink it from its parent and children
+		int slot = posts.getEndorsements().slotOf(id);
+		Post p = slot == EndorsementStore.NONE ? posts.get(id) : null;
+		log(LogRecord.deletePost(id));
+		if (p == null) {
+			removeEndorsement(slot);
+		} else {
+			removePost(p);
 		}
 	}
 	
 	
 	/**
-         * The method generates a formated string containing the details of a single
-         * post. 
-         * <pre>
-         * ID: [post ID]
-         * Account: [account handle]
-         * No. endorsements: [number of endorsements received by the post] | No. comments: [number of comments
-          received by the post]
-         * [post message]
-         * </pre>
-         *
-         * @param id of the post to be shown.
-         * @return a formatted string containing post’s details.
-         * @throws PostIDNotRecognisedException if the ID does not match to any post in
-         * the system.
-         */
-	 @Override
-         public String showIndividualPost(int id) throws PostIDNotRecognisedException {
-	     // new string to display result
-             String result = new String();
-             for (Post p : posts) {
-		 // check post ID exists in the system
-                 if(p.getId() != id) {
-                     throw new PostIDNotRecognisedException("Post ID not recognised");
-                 } else {
-	             // format result as string
-                     result =  p.toString();
-                 }
-             }
-             return result;
-         }
+	 * The method generates a formated string containing the details of a single
+	 * post. 
+	 * <pre>
+	 * ID: [post ID]
+	 * Account: [account handle]
+	 * No. endorsements: [number of endorsements received by the post] | No. comments: [number of comments
+	 received by the post]
+	 * [post message]
+	 * </pre>
+	 *
+	 * @param id of the post to be shown.
+	 * @return a formatted string containing post's details.
+	 * @throws PostIDNotRecognisedException if the ID does not match to any post in
+	 * the system.
+	 */
+	@Override
+	public String showIndividualPost(int id) throws PostIDNotRecognisedException {
+		if (isWarmingUp()) {
+			try {
+				return mapped.showIndividualPost(id);
+			} catch (IOException e) {
+				// the load checks the whole file, so wait for it to fail or succeed
+				settleWarmUp();
+			}
+		}
+		// endorsements are formatted from their edges, which never change
+		int slot = posts.getEndorsements().slotOf(id);
+		if (slot != EndorsementStore.NONE) {
+			return showEndorsement(slot);
+		}
+		// check post ID exists in the system and format it as string, or reuse the
+		// string formatted last time if the post has not changed since
+		return renderCache.render(posts.get(id));
+	}
 	
         /**
          * The method builds a StringBuilder showing the details of the current post and
@@ -458,7 +814,7 @@ public class SocialMedia implements SocialMediaPlatform {
          * | > ID: 4
          * Account: user3
          * No. endorsements: 4 | No. comments: 0
-         * Can’t you do better than this?
+         * Can't you do better than this?
          *
          * | > ID: 7
          * Account: user5
@@ -499,8 +855,61 @@ public class SocialMedia implements SocialMediaPlatform {
         @Override
 	public StringBuilder showPostChildrenDetails(int id)
 			throws PostIDNotRecognisedException, NotActionablePostException {
-		// TODO Auto-generated method stub
-		return null;
+		settleWarmUp();
+		// check post ID exists in the system and is not an endorsement
+		Post p = posts.getActionable(id);
+		return new ThreadRenderer(renderCache).render(p);
+	}
+
+	/**
+	 * The method writes the details of a post and all its children posts into an
+	 * Appendable, in the format of showPostChildrenDetails(int), streaming them
+	 * through a bounded buffer rather than building the whole thread in memory.
+	 * @param id  of the post to be shown.
+	 * @param out where to write the details.
+	 * @throws PostIDNotRecognisedException if the ID does not match to any post in
+	 * the system.
+	 * @throws NotActionablePostException if the ID refers to an endorsement post.
+	 * @throws IOException if the Appendable cannot be written.
+	 */
+	@Override
+	public void showPostChildrenDetails(int id, Appendable out)
+			throws PostIDNotRecognisedException, NotActionablePostException, IOException {
+		settleWarmUp();
+		// check post ID exists in the system and is not an endorsement
+		Post p = posts.getActionable(id);
+		new ThreadRenderer(renderCache).render(p, out, ThreadRenderer.DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * The method shows a page of the children of a post, down to a maximum depth.
+	 * Comments are kept sorted by ID, so each page is read by binary search.
+	 * @param id       of the post to be shown.
+	 * @param maxDepth levels of children shown below the post.
+	 * @param pageSize children shown per post.
+	 * @param afterId  cursor of the previous page, or ThreadPage.NO_CURSOR.
+	 * @return the page, and the cursor of the next page.
+	 * @throws PostIDNotRecognisedException if the ID does not match to any post in
+	 * the system.
+	 * @throws NotActionablePostException if the ID refers to an endorsement post.
+	 */
+	@Override
+	public ThreadPage showPostChildrenDetails(int id, int maxDepth, int pageSize, int afterId)
+			throws PostIDNotRecognisedException, NotActionablePostException {
+		ThreadRenderer renderer = new ThreadRenderer(maxDepth, pageSize, renderCache);
+		settleWarmUp();
+		// check post ID exists in the system and is not an endorsement
+		Post p = posts.getActionable(id);
+		return renderer.renderPage(p, afterId);
+	}
+
+	/**
+	 * Getter method for the cache of formatted posts, e.g. to read its hit and
+	 * miss counts
+	 * @return the render cache
+	 */
+	public RenderCache getRenderCache() {
+		return renderCache;
 	}
 
 	
@@ -511,7 +920,7 @@ public class SocialMedia implements SocialMediaPlatform {
 	 */
 	@Override
 	public int getNumberOfAccounts() {
-		return accounts.size();
+		return isWarmingUp() ? mapped.getNumberOfAccounts() : accounts.size();
 	}
 
 	
@@ -522,7 +931,7 @@ public class SocialMedia implements SocialMediaPlatform {
 	 */
 	@Override
 	public int getTotalOriginalPosts() {
-		return posts.size();
+		return isWarmingUp() ? mapped.getTotalOriginalPosts() : posts.getOriginalCount();
 	}
 
 	
@@ -533,7 +942,7 @@ public class SocialMedia implements SocialMediaPlatform {
 	 */
 	@Override
 	public int getTotalEndorsmentPosts() {
-		return endorsements.size();
+		return isWarmingUp() ? mapped.getTotalEndorsmentPosts() : posts.getEndorsementCount();
 	}
 
 	
@@ -544,7 +953,7 @@ public class SocialMedia implements SocialMediaPlatform {
 	 */
 	@Override
 	public int getTotalCommentPosts() {
-		return comments.size();
+		return isWarmingUp() ? mapped.getTotalCommentPosts() : posts.getCommentCount();
 	}
 
 	
@@ -556,70 +965,280 @@ public class SocialMedia implements SocialMediaPlatform {
          */
         @Override
         public int getMostEndorsedPost() {
-	    // empty Post object
-            Post mostEndorsedPost = null;
-	    // compare number of post endorsements
-            for (Post i : posts) {
-                for (Post j : posts) {
-                    if (i.postEndorsements.size() > j.postEndorsements.size()) {
-                        mostEndorsedPost = i;
-                    } else {
-                        mostEndorsedPost = j;
-                    }
-                }
-            }
-            return mostEndorsedPost.getId();
+	    settleWarmUp();
+	    // head of the leaderboard, kept up to date on every endorsement
+            return rankings.getMostEndorsedPost();
         }
 
+	/**
+	 * This method identifies and returns the account with the most number of
+	 * endorsements, a.k.a. the most popular account.
+	 *
+	 * @return the ID of the most popular account.
+	 */
 	@Override
 	public int getMostEndorsedAccount() {
-		// TODO Auto-generated method stub
-		return null;
+		settleWarmUp();
+		// head of the leaderboard, kept up to date on every endorsement
+		return rankings.getMostEndorsedAccount();
+	}
+
+	/**
+	 * This method returns the IDs of the k posts with the most endorsements,
+	 * weighted by age if an endorsement half life is set.
+	 *
+	 * @param k maximum number of posts to return.
+	 * @return the IDs of up to k posts, most endorsed first.
+	 */
+	@Override
+	public int[] getTopEndorsedPosts(int k) {
+		settleWarmUp();
+		return rankings.getTopPosts(k);
+	}
+
+	/**
+	 * This method returns the IDs of the k accounts with the most endorsements,
+	 * weighted by age if an endorsement half life is set.
+	 *
+	 * @param k maximum number of accounts to return.
+	 * @return the IDs of up to k accounts, most endorsed first.
+	 */
+	@Override
+	public int[] getTopEndorsedAccounts(int k) {
+		settleWarmUp();
+		return rankings.getTopAccounts(k);
+	}
+
+	/**
+	 * This method checks whether an account has endorsed a post, in constant
+	 * time through the endorsers of the post.
+	 *
+	 * @param handle handle of the account.
+	 * @param id     ID of the post.
+	 * @return true if the account has at least one endorsement of the post.
+	 * @throws HandleNotRecognisedException if the handle does not match to any
+	 *                                      account in the system.
+	 * @throws PostIDNotRecognisedException if the ID does not match to any post in
+	 *                                      the system.
+	 * @throws NotActionablePostException   if the ID refers to an endorsement
+	 *                                      post.
+	 */
+	@Override
+	public boolean hasEndorsed(String handle, int id)
+			throws HandleNotRecognisedException, PostIDNotRecognisedException, NotActionablePostException {
+		settleWarmUp();
+		Account a = accounts.getByHandle(handle);
+		return posts.isEndorsedBy(a.getId(), posts.getActionable(id));
+	}
+
+	/**
+	 * This method returns the accounts that endorsed a post.
+	 *
+	 * @param id ID of the post.
+	 * @return the IDs of the endorsing accounts, in increasing order.
+	 * @throws PostIDNotRecognisedException if the ID does not match to any post in
+	 *                                      the system.
+	 * @throws NotActionablePostException   if the ID refers to an endorsement
+	 *                                      post.
+	 */
+	@Override
+	public int[] getEndorsers(int id) throws PostIDNotRecognisedException, NotActionablePostException {
+		settleWarmUp();
+		return posts.getEndorsers(posts.getActionable(id)).toArray();
+	}
+
+	/**
+	 * This method returns the accounts that endorsed both of two posts, by
+	 * intersecting their endorsers.
+	 *
+	 * @param firstId  ID of a post.
+	 * @param secondId ID of another post.
+	 * @return the IDs of the common endorsing accounts, in increasing order.
+	 * @throws PostIDNotRecognisedException if either ID does not match to any post
+	 *                                      in the system.
+	 * @throws NotActionablePostException   if either ID refers to an endorsement
+	 *                                      post.
+	 */
+	@Override
+	public int[] getCommonEndorsers(int firstId, int secondId)
+			throws PostIDNotRecognisedException, NotActionablePostException {
+		settleWarmUp();
+		IdBitmap first = posts.getEndorsers(posts.getActionable(firstId));
+		return first.and(posts.getEndorsers(posts.getActionable(secondId))).toArray();
+	}
+
+	/**
+	 * This method returns the number of accounts that endorsed both of two
+	 * posts.
+	 *
+	 * @param firstId  ID of a post.
+	 * @param secondId ID of another post.
+	 * @return the number of common endorsing accounts.
+	 * @throws PostIDNotRecognisedException if either ID does not match to any post
+	 *                                      in the system.
+	 * @throws NotActionablePostException   if either ID refers to an endorsement
+	 *                                      post.
+	 */
+	@Override
+	public int getEndorserOverlap(int firstId, int secondId)
+			throws PostIDNotRecognisedException, NotActionablePostException {
+		settleWarmUp();
+		IdBitmap first = posts.getEndorsers(posts.getActionable(firstId));
+		return first.andCardinality(posts.getEndorsers(posts.getActionable(secondId)));
+	}
+
+	/**
+	 * This method returns the accounts that endorsed at least one post or
+	 * comment of each of two accounts, by intersecting the endorsers kept for
+	 * each account as its content is endorsed.
+	 *
+	 * @param firstHandle  handle of an account.
+	 * @param secondHandle handle of another account.
+	 * @return the IDs of the common endorsing accounts, in increasing order.
+	 * @throws HandleNotRecognisedException if either handle does not match to any
+	 *                                      account in the system.
+	 */
+	@Override
+	public int[] getCommonAccountEndorsers(String firstHandle, String secondHandle)
+			throws HandleNotRecognisedException {
+		settleWarmUp();
+		Account first = accounts.getByHandle(firstHandle);
+		Account second = accounts.getByHandle(secondHandle);
+		IdBitmap endorsers = posts.getEndorsersOfAuthor(first.getId());
+		return endorsers.and(posts.getEndorsersOfAuthor(second.getId())).toArray();
+	}
+
+	/**
+	 * This method sets the time decay of endorsements used by the top posts and
+	 * accounts rankings.
+	 *
+	 * @param halfLife time for an endorsement to lose half of its value, or
+	 *                 null to count every endorsement equally.
+	 */
+	@Override
+	public void setEndorsementHalfLife(Duration halfLife) {
+		settleWarmUp();
+		rankings.setHalfLife(halfLife, accounts.getAccounts(), posts.getPosts(), posts.getEndorsements());
 	}
 
 	
 	/**
-	* This method clears all ArrayLists of posts, comments, endorsements and 
-	* accounts, thereby erasing the platform.
+	* This method clears the stores of posts and accounts, thereby erasing the
+	* platform, and restarts the account and post IDs.
 	*/
 	@Override
 	public void erasePlatform() {
+		settleWarmUp();
+		log(LogRecord.erasePlatform());
+		warmUpFailure = null;
 		posts.clear();
-		comments.clear();
-		endorsements.clear();
 		accounts.clear();
+		rankings.clear();
+		accountIds.reset();
+		postIds.reset();
+		changes.clear();
+		renderCache.clear();
+		savedFile = null;
 	}
 
 	
 	/**
-         * Method saves this SocialMediaPlatform’s contents into a serialised file, with
-         * the filename given in the argument.
+         * Method saves this SocialMediaPlatform's contents into a binary snapshot file
+         * (see {@link PlatformSnapshot}), with the filename given in the argument.
          *
          * @param filename location of the file to be saved
          * @throws IOException if there is a problem experienced when trying to save the
          * store contents to the file
          */
-	 @Override
-         public void savePlatform(String filename) throws IOException {
-             try {
-                 FileOutputStream fileOutputStream = new FileOutputStream(filename);
-                 BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(FileOutputStream);
-                 ObjectOutputStream objectOutputStream = new ObjectOutputStream(BufferedOutputStream);
-		 // save all ArrayLists
-                 objectOutputStream.writeObject(posts);
-                 objectOutputStream.writeObject(accounts);
-                 objectOutputStream.writeObject(comments);
-                 objectOutputStream.writeObject(endorsements);
-                 bufferedOutputStream.close();
-             } catch (IOException e) {
-                 System.out.println("Problem saving contents to file.");
-             }
-         }
+	@Override
+	public void savePlatform(String filename) throws IOException {
+		settleWarmUp();
+		// save all accounts and posts, with the next IDs to hand out, replacing any
+		// deltas of the file
+		Path file = Paths.get(filename).toAbsolutePath();
+		savedSequence = compactor.writeSnapshot(file, accounts.getAccounts(), allPosts(), accountIds.peek(),
+				postIds.peek());
+		savedFile = file;
+		changes.clear();
+	}
+
+	/**
+	 * Method saves the changes made to this SocialMediaPlatform since it was last
+	 * saved to, or loaded from, the file given in the argument. Only the accounts
+	 * and posts created, changed or removed since are written, as a delta snapshot
+	 * next to the file (see {@link DeltaSnapshot}), and
+	 * {@link #loadPlatform(String)} applies the deltas of a file when loading it.
+	 * If the platform was not last saved to or loaded from the file, its whole
+	 * contents are saved as with {@link #savePlatform(String)}.
+	 * <p>
+	 * Once a file has enough deltas, they are merged into it in the background,
+	 * see {@link #setCompactionThreshold(int)}.
+	 *
+	 * @param filename location of the file to be saved
+	 * @throws IOException if there is a problem experienced when trying to save the
+	 *                     changes to the file
+	 */
+	public void saveChanges(String filename) throws IOException {
+		settleWarmUp();
+		Path file = Paths.get(filename).toAbsolutePath();
+		if (!file.equals(savedFile) || !Files.exists(file)) {
+			savePlatform(filename);
+			return;
+		}
+		ArrayList<Account> changedAccounts = new ArrayList<>();
+		ArrayList<Post> changedPosts = new ArrayList<>();
+		try {
+			for (int id : changes.getChangedAccounts()) {
+				changedAccounts.add(accounts.getById(id));
+			}
+			for (int id : changes.getChangedPosts()) {
+				int slot = posts.getEndorsements().slotOf(id);
+				changedPosts.add(slot != EndorsementStore.NONE ? toEndorsement(slot) : posts.get(id));
+			}
+		} catch (AccountIDNotRecognisedException | PostIDNotRecognisedException e) {
+			// removed accounts and posts are no longer recorded as changed
+			throw new IllegalStateException(e);
+		}
+		long sequence = savedSequence + 1;
+		DeltaSnapshot.write(file, sequence, changedAccounts, changes.getRemovedAccounts(), changedPosts,
+				changes.getRemovedPosts(), accountIds.peek(), postIds.peek());
+		savedSequence = sequence;
+		changes.clear();
+		if (DeltaSnapshot.list(file).size() >= compactionThreshold) {
+			compactor.compactInBackground(file);
+		}
+	}
+
+	/**
+	 * Method sets how many deltas a file saved with {@link #saveChanges(String)}
+	 * may have before they are merged into it in the background.
+	 *
+	 * @param deltas number of deltas, at least 1
+	 */
+	public void setCompactionThreshold(int deltas) {
+		if (deltas < 1) {
+			throw new IllegalArgumentException("Compaction threshold must be at least 1");
+		}
+		compactionThreshold = deltas;
+	}
+
+	/**
+	 * Method waits until every background merge of deltas started so far is
+	 * complete.
+	 *
+	 * @throws IOException if the last merge failed, in which case the deltas are
+	 *                     kept and still applied when loading
+	 */
+	public void awaitCompaction() throws IOException {
+		compactor.awaitIdle();
+	}
 
 	
 	/**
 	 * Method should load and replace this SocialMediaPlatform's contents with the
-	 * serialised contents stored in the file given in the argument.
+	 * contents of the snapshot file given in the argument, with the deltas saved to
+	 * it by {@link #saveChanges(String)} applied. Every file is read and checked
+	 * before the current contents are replaced.
 	 * @param filename location of the file to be loaded
 	 * @throws IOException            if there is a problem experienced when trying
 	 *                                to load the store contents from the file
@@ -628,17 +1247,321 @@ public class SocialMedia implements SocialMediaPlatform {
 	 */
 	@Override
 	public void loadPlatform(String filename) throws IOException, ClassNotFoundException {
+		settleWarmUp();
+		warmUpFailure = null;
+		PlatformSnapshot snapshot = PlatformSnapshot.read(Paths.get(filename));
+		replaceContents(new Contents(snapshot, rankings.getHalfLife(), Paths.get(filename)));
+		if (log != null) {
+			// the loaded contents are not in the log
+			checkpoint();
+		}
+	}
+
+	/**
+	 * Method starts replacing this SocialMediaPlatform's contents with the contents
+	 * of the snapshot file given in the argument, returning as soon as the file is
+	 * memory-mapped. The file is then loaded in the background, and until it is,
+	 * {@link #showIndividualPost(int)}, {@link #showAccount(String)} and the post
+	 * and account counts are answered straight from the mapped file; every other
+	 * method waits for the load to complete first.
+	 * <p>
+	 * The current contents are only replaced once the whole file was read and
+	 * checked. If the load fails they are kept, and the failure is reported by
+	 * {@link #awaitWarmUp()}; until it is, every method changing the platform
+	 * throws an {@link UncheckedIOException}. A record of the mapped file that
+	 * turns out to be corrupted is not shown: the read waits for the load
+	 * instead.
+	 * <p>
+	 * If the file has deltas not merged into it yet, which the mapped file does not
+	 * include, or the platform has a log, which must be checkpointed with the
+	 * loaded contents, the file is loaded at once instead.
+	 *
+	 * @param filename location of the file to be opened
+	 * @throws IOException if the file cannot be mapped, or is not a snapshot file
+	 */
+	public void openPlatform(String filename) throws IOException {
+		settleWarmUp();
+		warmUpFailure = null;
+		Path file = Paths.get(filename);
+		List<Path> deltas = DeltaSnapshot.list(file);
+		if (log != null || (!deltas.isEmpty()
+				&& DeltaSnapshot.sequenceOf(deltas.get(deltas.size() - 1)) > PlatformSnapshot.readSequence(file))) {
+			replaceContents(new Contents(PlatformSnapshot.read(file), rankings.getHalfLife(), file));
+			if (log != null) {
+				checkpoint();
+			}
+			return;
+		}
+		MappedSnapshot snapshot = MappedSnapshot.open(file);
+		Duration halfLife = rankings.getHalfLife();
+		FutureTask<Contents> task = new FutureTask<>(() -> new Contents(PlatformSnapshot.read(file), halfLife, file));
+		Thread loader = new Thread(task, "platform-warm-up");
+		loader.setDaemon(true);
+		loader.start();
+		mapped = snapshot;
+		warmUp = task;
+	}
+
+	/**
+	 * Method waits until a file opened with {@link #openPlatform(String)} is fully
+	 * loaded.
+	 *
+	 * @throws IOException if the file could not be loaded, in which case the
+	 *                     contents from before it was opened are kept, and can
+	 *                     be changed again
+	 */
+	public void awaitWarmUp() throws IOException {
+		settleWarmUp();
+		IOException failure = warmUpFailure;
+		warmUpFailure = null;
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Checks whether reads must still be answered from the mapped file, switching
+	 * to the loaded contents if they became ready.
+	 * @return true while a file is warming up.
+	 */
+	private boolean isWarmingUp() {
+		if (warmUp != null && warmUp.isDone()) {
+			settleWarmUp();
+		}
+		return warmUp != null;
+	}
+
+	/**
+	 * Waits for the file that is warming up, if any, and switches to its contents.
+	 */
+	private void settleWarmUp() {
+		if (warmUp == null) {
+			return;
+		}
+		Contents contents = null;
+		boolean interrupted = false;
+		while (true) {
+			try {
+				contents = warmUp.get();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				warmUpFailure = cause instanceof IOException ? (IOException) cause
+						: new IOException("Could not load " + mapped.getFile(), cause);
+				break;
+			}
+		}
+		warmUp = null;
+		mapped = null;
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		if (contents != null) {
+			replaceContents(contents);
+		}
+	}
+
+	/**
+	 * Waits for the file that is warming up, if any, before the platform is
+	 * changed. A file that failed to load must be reported by awaitWarmUp first,
+	 * so no change is made to contents the caller did not expect.
+	 * @throws UncheckedIOException if the file failed to load and this was not
+	 * reported yet.
+	 */
+	private void settleBeforeChange() {
+		settleWarmUp();
+		if (warmUpFailure != null) {
+			throw new UncheckedIOException("Platform file failed to load, see awaitWarmUp", warmUpFailure);
+		}
+	}
+
+	/**
+	 * Replaces the platform contents with loaded ones.
+	 * @param contents contents built from a snapshot file.
+	 */
+	private void replaceContents(Contents contents) {
+		accounts = contents.accounts;
+		posts = contents.posts;
+		rankings = contents.rankings;
+		changes.clear();
+		renderCache.clear();
+		savedFile = contents.source == null ? null : contents.source.toAbsolutePath();
+		savedSequence = contents.snapshot.getSequence();
+		// continue handing out IDs after the loaded ones
+		accountIds.resumeAfter(contents.snapshot.getNextAccountId() - 1);
+		postIds.resumeAfter(contents.snapshot.getNextPostId() - 1);
+	}
+
+	/**
+	 * Method recovers this SocialMediaPlatform's contents from a directory of
+	 * checkpoints and write-ahead logs, then logs every later change to it. The
+	 * contents are those of the latest snapshot in the directory with every
+	 * change logged since replayed on top, or an empty platform for a new
+	 * directory.
+	 * <p>
+	 * Each change is logged once it was made, before the method making it
+	 * returns. With a zero commit delay the method also waits for the change to
+	 * be durable; otherwise changes are made durable in the background every
+	 * commit delay, and a crash may lose those of the last delay. If the log
+	 * cannot be written, the method making the change throws an
+	 * {@link UncheckedIOException} and the change may be lost on restart.
+	 *
+	 * @param directory   location of the directory, created if needed
+	 * @param commitDelay time between commits of the log, or zero to commit
+	 *                    every change as it is made
+	 * @throws IOException if the directory cannot be read, or its snapshot and
+	 *                     logs do not make up a valid history; the platform is
+	 *                     left empty
+	 */
+	public void openLog(String directory, Duration commitDelay) throws IOException {
+		settleWarmUp();
+		warmUpFailure = null;
+		closeLog();
+		CheckpointDirectory dir = new CheckpointDirectory(Paths.get(directory));
+		long lsn = dir.latestSnapshot();
 		try {
-			FileInputStream fileInputStream = new FileInputStream(filename);
-			BufferedInputStream bufferedInputStream = new BufferedInputStream(fileInputStream);
-			ObjectInputStream objectInputStream = new ObjectInputStream(bufferedInputStream);
-			Object object = objectInputStream.readObject();
-			objectInputStream.close();
+			if (lsn < 0) {
+				erasePlatform();
+				lsn = 0;
+			} else {
+				replaceContents(new Contents(PlatformSnapshot.read(dir.snapshotPath(lsn)), rankings.getHalfLife(), null));
+			}
+			for (long first : dir.logsFrom(lsn)) {
+				if (first != lsn) {
+					throw new IOException("Log records " + lsn + " to " + (first - 1) + " are missing from " + directory);
+				}
+				lsn = WriteAheadLog.replay(dir.logPath(first), this::replay);
+			}
 		} catch (IOException e) {
-			System.out.println("Problem loading content");
-		} catch (ClassNotFoundException e) {
-			System.out.println("Class cannot be found");
+			erasePlatform();
+			throw e;
+		}
+		// later changes go to a new log, after the last intact record
+		log = new WriteAheadLog(dir.logPath(lsn), lsn, commitDelay);
+		checkpoints = dir;
+		this.commitDelay = commitDelay;
+	}
+
+	/**
+	 * Method writes a snapshot of this SocialMediaPlatform's contents to its log
+	 * directory and deletes the snapshots and logs it makes obsolete, so that
+	 * recovery only replays the changes made after it.
+	 *
+	 * @throws IOException           if the snapshot cannot be written
+	 * @throws IllegalStateException if the platform has no log
+	 */
+	public void checkpoint() throws IOException {
+		settleWarmUp();
+		if (log == null) {
+			throw new IllegalStateException("The platform has no log");
+		}
+		long lsn = log.getNextLsn();
+		// later changes go to a new log before the snapshot is written, so a crash
+		// at any point leaves a snapshot and every log since it
+		log.close();
+		log = new WriteAheadLog(checkpoints.logPath(lsn), lsn, commitDelay);
+		PlatformSnapshot.write(checkpoints.snapshotPath(lsn), accounts.getAccounts(), allPosts(), accountIds.peek(),
+				postIds.peek());
+		checkpoints.deleteBefore(lsn);
+	}
+
+	/**
+	 * Method commits every logged change and stops logging changes.
+	 *
+	 * @throws IOException if the log cannot be written
+	 */
+	public void closeLog() throws IOException {
+		if (log == null) {
+			return;
+		}
+		try {
+			log.close();
+		} finally {
+			log = null;
+			checkpoints = null;
+		}
+	}
+
+	/**
+	 * Writes a change to the log, if the platform has one. Changes are logged
+	 * once they are checked and before they are made, so a change that cannot
+	 * be logged is not made either.
+	 * @param record the change.
+	 */
+	private void log(LogRecord record) {
+		if (log == null) {
+			return;
+		}
+		try {
+			log.write(record);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Writes the changes of a batch to the log, waiting once for all of them.
+	 * @param records the changes, or null if the platform has no log.
+	 */
+	private void log(List<LogRecord> records) {
+		if (log == null || records == null) {
+			return;
+		}
+		try {
+			log.write(records);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Makes a change read from the log again, checking it gives the logged result.
+	 * @param record the change.
+	 * @throws IOException if the change cannot be made.
+	 */
+	private void replay(LogRecord record) throws IOException {
+		int id = 0;
+		try {
+			switch (record.getOperation()) {
+			case LogRecord.CREATE_ACCOUNT:
+				id = createAccount(record.getHandle(), record.getText());
+				break;
+			case LogRecord.REMOVE_ACCOUNT:
+				removeAccount(record.getTargetId());
+				break;
+			case LogRecord.CHANGE_ACCOUNT_HANDLE:
+				changeAccountHandle(record.getHandle(), record.getText());
+				break;
+			case LogRecord.UPDATE_ACCOUNT_DESCRIPTION:
+				updateAccountDescription(record.getHandle(), record.getText());
+				break;
+			case LogRecord.CREATE_POST:
+				id = createPost(record.getHandle(), record.getText(), record.getTimestamp());
+				break;
+			case LogRecord.COMMENT_POST:
+				id = commentPost(record.getHandle(), record.getTargetId(), record.getText(), record.getTimestamp());
+				break;
+			case LogRecord.ENDORSE_POST:
+				id = endorsePost(record.getHandle(), record.getTargetId(), record.getTimestamp());
+				break;
+			case LogRecord.DELETE_POST:
+				deletePost(record.getTargetId());
+				break;
+			case LogRecord.ERASE_PLATFORM:
+				erasePlatform();
+				break;
+			default:
+				throw new IOException("Unknown logged operation " + record.getOperation());
+			}
+			if (id != record.getResultId()) {
+				throw new IOException("Replayed change gave ID " + id + " instead of " + record.getResultId());
+			}
+		} catch (IllegalHandleException | InvalidHandleException | HandleNotRecognisedException
+				| AccountIDNotRecognisedException | PostIDNotRecognisedException | NotActionablePostException
+				| InvalidPostException e) {
+			throw new IOException("Logged change can no longer be made: " + e.getMessage(), e);
 		}
 	}
-}
 }
@@ -0,0 +1,57 @@
+package socialmedia;
+
+/**
+ * ThreadPage is one page of a comment thread, as returned by
+ * {@link ThreadedSocialMediaPlatform#showPostChildrenDetails(int, int, int, int)}:
+ * the rendered details, and the cursor to pass to read the next page.
+ *
+ * @version 1.0
+ */
+public class ThreadPage {
+
+	/** Cursor of the first page, and of the page after the last one. */
+	public static final int NO_CURSOR = -1;
+
+	private final StringBuilder details;
+	private final int nextCursor;
+
+	/**
+	 * Constructor to create a page of a thread
+	 *
+	 * @param details    rendered details of the post and its children on the page
+	 * @param nextCursor ID of the last direct child on the page, or NO_CURSOR if
+	 *                   it is the last page
+	 */
+	public ThreadPage(StringBuilder details, int nextCursor) {
+		this.details = details;
+		this.nextCursor = nextCursor;
+	}
+
+	/**
+	 * Getter method for the rendered details of the page
+	 *
+	 * @return details, in the format of showPostChildrenDetails
+	 */
+	public StringBuilder getDetails() {
+		return details;
+	}
+
+	/**
+	 * Getter method for the cursor of the next page
+	 *
+	 * @return ID of the last direct child on the page, or NO_CURSOR if there are
+	 *         no more pages
+	 */
+	public int getNextCursor() {
+		return nextCursor;
+	}
+
+	/**
+	 * Method to check whether more direct children follow this page
+	 *
+	 * @return true if there is a next page
+	 */
+	public boolean hasNextPage() {
+		return nextCursor != NO_CURSOR;
+	}
+}
@@ -0,0 +1,275 @@
+package socialmedia;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * ThreadRenderer formats a post and all of its comments, nested to any depth,
+ * in the format of {@link SocialMediaPlatform#showPostChildrenDetails(int)}:
+ * each post is shown as by {@code showIndividualPost}, indented by four spaces
+ * per level, with its first line marked {@code | > } below the root, and a
+ * {@code |} line between a post and its comments, which follow sorted by ID.
+ * <p>
+ * The comment tree is walked depth first with an explicit stack, so threads of
+ * any depth can be rendered without running out of call stack. Threads can be
+ * built into a StringBuilder, or streamed into any Appendable through a buffer
+ * of bounded size, so that huge threads never have to be held in memory.
+ * <p>
+ * A renderer can be limited to a number of levels below the root post and to
+ * a page of comments per post. Comments are kept sorted by ID, so a page is
+ * found by binary search rather than by sorting or skipping, and the time to
+ * render it does not grow with the number of comments.
+ * <p>
+ * Subclasses can change how a post is formatted or its comments are read, e.g.
+ * to lock them while they are read.
+ *
+ * @version 1.0
+ */
+public class ThreadRenderer {
+
+	/** Default number of characters buffered before they are written out. */
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private static final String INDENT = "    ";
+	private static final String BRANCH = "| > ";
+	private static final String SEPARATOR = "|";
+
+	// levels of comments shown below the root, and comments shown per post
+	private final int maxDepth;
+	private final int pageSize;
+	// formatted posts to reuse, or null to format each post
+	private final RenderCache cache;
+
+	/**
+	 * Comments of a post being rendered, and the next one to render.
+	 */
+	private static final class Frame {
+		final List<Comment> children;
+		final int depth;
+		int next;
+
+		Frame(List<Comment> children, int depth) {
+			this.children = children;
+			this.depth = depth;
+		}
+	}
+
+	/**
+	 * Constructor to create a renderer of whole threads
+	 */
+	public ThreadRenderer() {
+		this(Integer.MAX_VALUE, Integer.MAX_VALUE, null);
+	}
+
+	/**
+	 * Constructor to create a renderer of whole threads, reusing formatted posts
+	 *
+	 * @param cache formatted posts to reuse, or null to format each post
+	 */
+	public ThreadRenderer(RenderCache cache) {
+		this(Integer.MAX_VALUE, Integer.MAX_VALUE, cache);
+	}
+
+	/**
+	 * Constructor to create a renderer limited in depth and in comments per post
+	 *
+	 * @param maxDepth levels of comments shown below the root post, 0 to show the
+	 *                 root post alone
+	 * @param pageSize comments shown per post, lowest IDs first
+	 * @param cache    formatted posts to reuse, or null to format each post
+	 */
+	public ThreadRenderer(int maxDepth, int pageSize, RenderCache cache) {
+		if (maxDepth < 0) {
+			throw new IllegalArgumentException("Maximum depth must not be negative");
+		}
+		if (pageSize < 1) {
+			throw new IllegalArgumentException("Page size must be at least 1");
+		}
+		this.maxDepth = maxDepth;
+		this.pageSize = pageSize;
+		this.cache = cache;
+	}
+
+	/**
+	 * Method to render a post and its comments
+	 *
+	 * @param root post to render
+	 * @return the rendered thread
+	 */
+	public StringBuilder render(Post root) {
+		StringBuilder out = new StringBuilder();
+		try {
+			render(root, ThreadPage.NO_CURSOR, out, null, 0);
+		} catch (IOException e) {
+			// nothing is written to an Appendable
+			throw new UncheckedIOException(e);
+		}
+		return out;
+	}
+
+	/**
+	 * Method to render a post and its comments into an Appendable. At most about
+	 * bufferSize characters, plus those of a single post, are held in memory
+	 * before they are written out.
+	 *
+	 * @param root       post to render
+	 * @param out        where to write the rendered thread
+	 * @param bufferSize number of characters buffered before they are written out
+	 * @throws IOException if the Appendable cannot be written
+	 */
+	public void render(Post root, Appendable out, int bufferSize) throws IOException {
+		if (out instanceof StringBuilder) {
+			// nothing to gain from buffering
+			render(root, ThreadPage.NO_CURSOR, (StringBuilder) out, null, 0);
+			return;
+		}
+		StringBuilder buffer = new StringBuilder(Math.max(bufferSize, 16));
+		render(root, ThreadPage.NO_CURSOR, buffer, out, bufferSize);
+		out.append(buffer);
+	}
+
+	/**
+	 * Method to render a page of the comments of a post: the post itself, then
+	 * the first page of its comments with IDs greater than the cursor, each with
+	 * its own comments down to the maximum depth.
+	 *
+	 * @param root    post to render
+	 * @param afterId ID of the last comment of the root shown on the previous
+	 *                page, or ThreadPage.NO_CURSOR for the first page
+	 * @return the rendered page, and the cursor of the next one
+	 */
+	public ThreadPage renderPage(Post root, int afterId) {
+		StringBuilder out = new StringBuilder();
+		try {
+			int nextCursor = render(root, afterId, out, null, 0);
+			return new ThreadPage(out, nextCursor);
+		} catch (IOException e) {
+			// nothing is written to an Appendable
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Renders a thread, returning the cursor of the page after the comments of
+	 * the root that were shown.
+	 */
+	private int render(Post root, int afterId, StringBuilder buffer, Appendable out, int bufferSize)
+			throws IOException {
+		ArrayDeque<Frame> stack = new ArrayDeque<>();
+		int nextCursor = ThreadPage.NO_CURSOR;
+		Post post = root;
+		int depth = 0;
+		while (true) {
+			appendPost(buffer, format(post), depth);
+			if (depth < maxDepth) {
+				List<Comment> children;
+				if (depth == 0) {
+					// one more than a page, to tell whether another page follows
+					children = childrenOf(post, afterId, pageSize == Integer.MAX_VALUE ? pageSize : pageSize + 1);
+					if (children.size() > pageSize) {
+						children = children.subList(0, pageSize);
+						nextCursor = children.get(pageSize - 1).getId();
+					}
+				} else {
+					children = childrenOf(post, ThreadPage.NO_CURSOR, pageSize);
+				}
+				if (!children.isEmpty()) {
+					appendSeparator(buffer, depth);
+					stack.push(new Frame(children, depth + 1));
+				}
+			}
+			if (out != null && buffer.length() >= bufferSize) {
+				out.append(buffer);
+				buffer.setLength(0);
+			}
+			// next comment to render, going back up once every comment of a post was
+			while (!stack.isEmpty() && stack.peek().next == stack.peek().children.size()) {
+				stack.pop();
+			}
+			if (stack.isEmpty()) {
+				return nextCursor;
+			}
+			Frame frame = stack.peek();
+			post = frame.children.get(frame.next++);
+			depth = frame.depth;
+		}
+	}
+
+	/**
+	 * Method to append one formatted post of a thread, indenting each of its
+	 * lines, so that platforms rendering threads of their own lay them out alike
+	 *
+	 * @param buffer where to append the post
+	 * @param text   the formatted post
+	 * @param depth  depth of the post in the thread, 0 for the root
+	 */
+	static void appendPost(StringBuilder buffer, String text, int depth) {
+		int start = 0;
+		boolean first = true;
+		while (true) {
+			int end = text.indexOf('\n', start);
+			if (end < 0) {
+				end = text.length();
+			}
+			if (depth > 0) {
+				if (first) {
+					indent(buffer, depth - 1);
+					buffer.append(BRANCH);
+				} else {
+					indent(buffer, depth);
+				}
+			}
+			buffer.append(text, start, end).append('\n');
+			if (end == text.length()) {
+				return;
+			}
+			start = end + 1;
+			first = false;
+		}
+	}
+
+	/**
+	 * Method to append the separator that follows a post with children
+	 *
+	 * @param buffer where to append the separator
+	 * @param depth  depth of the post in the thread
+	 */
+	static void appendSeparator(StringBuilder buffer, int depth) {
+		indent(buffer, depth);
+		buffer.append(SEPARATOR).append('\n');
+	}
+
+	private static void indent(StringBuilder buffer, int depth) {
+		for (int i = 0; i < depth; i++) {
+			buffer.append(INDENT);
+		}
+	}
+
+	/**
+	 * Method to format a single post, as shown by {@code showIndividualPost}
+	 *
+	 * @param post post to format
+	 * @return the formatted post
+	 */
+	protected String format(Post post) {
+		return cache == null ? post.toString() : cache.render(post);
+	}
+
+	/**
+	 * Method to read a page of the comments of a post. The list must not change
+	 * while the thread is rendered.
+	 *
+	 * @param post    post whose comments to read
+	 * @param afterId only comments with greater IDs are read
+	 * @param limit   maximum number of comments to read
+	 * @return the comments, sorted by ID
+	 */
+	protected List<Comment> childrenOf(Post post, int afterId, int limit) {
+		List<Comment> children = post.getComments();
+		int from = afterId == ThreadPage.NO_CURSOR ? 0 : post.firstCommentAfter(afterId);
+		int to = (int) Math.min(children.size(), (long) from + limit);
+		return from == 0 && to == children.size() ? children : children.subList(from, to);
+	}
+}
@@ -0,0 +1,54 @@
+package socialmedia;
+
+import java.io.IOException;
+
+/**
+ * ThreadedSocialMediaPlatform extends the SocialMediaPlatform interface with
+ * ways of showing comment threads too large to be built into a single
+ * StringBuilder, streaming them or showing them a page at a time.
+ *
+ * @version 1.0
+ */
+public interface ThreadedSocialMediaPlatform extends SocialMediaPlatform {
+
+	/**
+	 * The method writes the details of a post and all its children posts, in the
+	 * format of {@link #showPostChildrenDetails(int)}, into an Appendable such as
+	 * a Writer. The thread is streamed through a buffer of bounded size rather
+	 * than built in memory.
+	 *
+	 * @param id  of the post to be shown.
+	 * @param out where to write the details.
+	 * @throws PostIDNotRecognisedException if the ID does not match to any post in
+	 *                                      the system.
+	 * @throws NotActionablePostException   if the ID refers to an endorsement post.
+	 * @throws IOException                  if the Appendable cannot be written.
+	 */
+	void showPostChildrenDetails(int id, Appendable out)
+			throws PostIDNotRecognisedException, NotActionablePostException, IOException;
+
+	/**
+	 * The method shows a page of the children of a post, in the format of
+	 * {@link #showPostChildrenDetails(int)}: the post itself, then up to pageSize
+	 * of its direct children with IDs greater than the cursor, still sorted by ID.
+	 * Each child is shown with its own children down to maxDepth levels below the
+	 * post, and with at most pageSize children per post; the counts of each post
+	 * show what was left out. To read the next page, pass the cursor of the page
+	 * returned; to read further into a child, show the child itself.
+	 *
+	 * @param id       of the post to be shown.
+	 * @param maxDepth levels of children shown below the post, 0 to show the post
+	 *                 alone.
+	 * @param pageSize children shown per post.
+	 * @param afterId  cursor of the previous page, or ThreadPage.NO_CURSOR for the
+	 *                 first page.
+	 * @return the page, and the cursor of the next page.
+	 * @throws PostIDNotRecognisedException if the ID does not match to any post in
+	 *                                      the system.
+	 * @throws NotActionablePostException   if the ID refers to an endorsement post.
+	 * @throws IllegalArgumentException     if maxDepth is negative or pageSize is
+	 *                                      less than 1.
+	 */
+	ThreadPage showPostChildrenDetails(int id, int maxDepth, int pageSize, int afterId)
+			throws PostIDNotRecognisedException, NotActionablePostException;
+}
@@ -0,0 +1,187 @@
+package socialmedia;
+
+/**
+ * TracedCall is one call made through a {@link TracingSocialMedia} that was
+ * sampled, was slow, or is recorded by Java Flight Recorder. It is created by
+ * {@link CallTracer#begin(String)} and handed to the listener of the tracer
+ * once the call returns.
+ *
+ * @version 1.0
+ */
+public final class TracedCall {
+
+	// longest formatted argument, so that a long description does not flood logs
+	private static final int MAX_ARGUMENT_LENGTH = 100;
+
+	/** The call returned while nothing is traced; it is never reported. */
+	static final TracedCall DISABLED = new TracedCall(null, null, false, false);
+
+	private final CallTracer tracer;
+	private final String operation;
+	private final boolean sampled;
+	private final PlatformCallEvent event;
+	private final long start;
+	private final String threadName;
+	private long durationNanos;
+	private boolean slow;
+	private Throwable exception;
+	private String arguments = "";
+
+	/**
+	 * Constructor to start tracing a call
+	 *
+	 * @param tracer    tracer reporting the call
+	 * @param operation name of the platform method
+	 * @param sampled   true if the call is traced whatever its duration
+	 * @param recorded  true if the call is timed for Java Flight Recorder
+	 */
+	TracedCall(CallTracer tracer, String operation, boolean sampled, boolean recorded) {
+		this.tracer = tracer;
+		this.operation = operation;
+		this.sampled = sampled;
+		this.threadName = tracer == null ? null : Thread.currentThread().getName();
+		if (recorded) {
+			event = new PlatformCallEvent();
+			event.begin();
+		} else {
+			event = null;
+		}
+		this.start = tracer == null ? 0 : System.nanoTime();
+	}
+
+	/**
+	 * Method to note the exception thrown by the call
+	 *
+	 * @param e the exception
+	 */
+	void failed(Throwable e) {
+		exception = e;
+	}
+
+	/**
+	 * Method to stop timing the call
+	 *
+	 * @return true if the call must be reported, with {@link #report(Object...)}
+	 */
+	boolean end() {
+		if (tracer == null) {
+			return false;
+		}
+		durationNanos = System.nanoTime() - start;
+		slow = durationNanos >= tracer.getSlowCallThresholdNanos();
+		if (event != null) {
+			event.end();
+		}
+		return sampled || slow || event != null && event.shouldCommit();
+	}
+
+	/**
+	 * Method to report the call, once ended, with the arguments it was made with
+	 *
+	 * @param args arguments of the call
+	 */
+	void report(Object... args) {
+		StringBuilder formatted = new StringBuilder();
+		for (Object arg : args) {
+			if (formatted.length() > 0) {
+				formatted.append(", ");
+			}
+			if (arg instanceof String) {
+				String s = (String) arg;
+				formatted.append('"');
+				if (s.length() > MAX_ARGUMENT_LENGTH) {
+					formatted.append(s, 0, MAX_ARGUMENT_LENGTH).append("...");
+				} else {
+					formatted.append(s);
+				}
+				formatted.append('"');
+			} else {
+				formatted.append(arg);
+			}
+		}
+		arguments = formatted.toString();
+		if (event != null && event.shouldCommit()) {
+			event.operation = operation;
+			event.arguments = arguments;
+			event.exception = exception == null ? null : exception.getClass().getName();
+			event.commit();
+		}
+		if (sampled || slow) {
+			tracer.report(this);
+		}
+	}
+
+	/**
+	 * Getter method for the name of the platform method called
+	 *
+	 * @return name of the method
+	 */
+	public String getOperation() {
+		return operation;
+	}
+
+	/**
+	 * Getter method for the formatted arguments of the call
+	 *
+	 * @return arguments separated by commas, strings quoted
+	 */
+	public String getArguments() {
+		return arguments;
+	}
+
+	/**
+	 * Getter method for the duration of the call
+	 *
+	 * @return duration in nanoseconds
+	 */
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	/**
+	 * Getter method for the name of the thread that made the call
+	 *
+	 * @return thread name
+	 */
+	public String getThreadName() {
+		return threadName;
+	}
+
+	/**
+	 * Getter method for the exception thrown by the call
+	 *
+	 * @return the exception, or null if the call returned normally
+	 */
+	public Throwable getException() {
+		return exception;
+	}
+
+	/**
+	 * Getter method for whether the call was sampled
+	 *
+	 * @return true if the call was traced whatever its duration
+	 */
+	public boolean isSampled() {
+		return sampled;
+	}
+
+	/**
+	 * Getter method for whether the call was slow
+	 *
+	 * @return true if the call took at least the slow call threshold
+	 */
+	public boolean isSlow() {
+		return slow;
+	}
+
+	/**
+	 * Method to format the call for logs
+	 *
+	 * @return e.g. {@code removeAccount("alice") took 35.210 ms on main}
+	 */
+	@Override
+	public String toString() {
+		String s = String.format("%s(%s) took %.3f ms on %s", operation, arguments, durationNanos / 1e6, threadName);
+		return exception == null ? s : s + ", threw " + exception;
+	}
+}
@@ -0,0 +1,366 @@
+package socialmedia;
+
+import java.io.IOException;
+
+/**
+ * TracingSocialMedia wraps a platform, tracing the calls made through it as
+ * decided by its {@link CallTracer}: a sample of calls, calls slower than a
+ * threshold, and calls recorded by Java Flight Recorder as
+ * {@link PlatformCallEvent}s. Traced calls are reported with their arguments,
+ * so that pathological calls, such as showing a post with tens of thousands of
+ * replies, can be found in production:
+ *
+ * <pre>
+ * TracingSocialMedia platform = new TracingSocialMedia(new SocialMedia());
+ * platform.getTracer().setSlowCallThreshold(Duration.ofMillis(50));
+ * platform.getTracer().setSampleRate(1000);
+ * </pre>
+ *
+ * While nothing is traced, calls go straight through at the cost of a couple
+ * of field reads. Any platform can be wrapped, including an
+ * {@link InstrumentedSocialMedia}. The counting methods are not traced. The
+ * wrapper is as thread-safe as the platform it wraps.
+ *
+ * @version 1.0
+ */
+public class TracingSocialMedia implements SocialMediaPlatform {
+
+	private static final long serialVersionUID = 1L;
+
+	private final SocialMediaPlatform delegate;
+	private final CallTracer tracer;
+
+	/**
+	 * Constructor to trace a platform with a new tracer, initially disabled
+	 *
+	 * @param delegate platform to trace
+	 */
+	public TracingSocialMedia(SocialMediaPlatform delegate) {
+		this(delegate, new CallTracer());
+	}
+
+	/**
+	 * Constructor to trace a platform
+	 *
+	 * @param delegate platform to trace
+	 * @param tracer   tracer deciding which calls are traced, which may be shared
+	 *                 with other platforms
+	 */
+	public TracingSocialMedia(SocialMediaPlatform delegate, CallTracer tracer) {
+		this.delegate = delegate;
+		this.tracer = tracer;
+	}
+
+	/**
+	 * Getter method for the platform traced
+	 *
+	 * @return the wrapped platform
+	 */
+	public SocialMediaPlatform getDelegate() {
+		return delegate;
+	}
+
+	/**
+	 * Getter method for the tracer, to change what is traced
+	 *
+	 * @return the tracer
+	 */
+	public CallTracer getTracer() {
+		return tracer;
+	}
+
+	@Override
+	public int createAccount(String handle) throws IllegalHandleException, InvalidHandleException {
+		TracedCall call = tracer.begin("createAccount");
+		try {
+			return delegate.createAccount(handle);
+		} catch (Exception e) {
+			call.failed(e);
+			throw e;
+		} finally {
+			if (call.end()) {
+				call.report(handle);
+			}
+		}
+	}
+
+	@Override
+	public int createAccount(String handle, String description)
+			throws IllegalHandleException, InvalidHandleException {
+		TracedCall call = tracer.begin("createAccount");
+		try {
+			return delegate.createAccount(handle, description);
+		} catch (Exception e) {
+			call.failed(e);
+			throw e;
+		} finally {
+			if (call.end()) {
+				call.report(handle, description);
+			}
+		}
+	}
+
+	@Override
+	public void removeAccount(int id) throws AccountIDNotRecognisedException {
+		TracedCall call = tracer.begin("removeAccount");
+		try {
+			delegate.removeAccount(id);
+		} catch (Exception e) {
+			call.failed(e);
+			throw e;
+		} finally {
+			if (call.end()) {
+				call.report(id);
+			}
+		}
+	}
+
+	@Override
+	public void removeAccount(String handle) throws HandleNotRecognisedException {
+		TracedCall call = tracer.begin("removeAccount");
+		try {
+			delegate.removeAccount(handle);
+		} catch (Exception e) {
+			call.failed(e);
+			throw e;
+		} finally {
+			if (call.end()) {
+				call.report(handle);
+			}
+		}
+	}
+
+	@Override
+	public void changeAccountHandle(String oldHandle, String newHandle)
+			throws HandleNotRecognisedException, IllegalHandleException, InvalidHandleException {
+		TracedCall call = tracer.begin("changeAccountHandle");
+		try {
+			delegate.changeAccountHandle(oldHandle, newHandle);
+		} catch (Exception e) {
+			call.failed(e);
+			throw e;
+		} finally {
+			if (call.end()) {
+				call.report(oldHandle, newHandle);
+			}
+		}
+	}
+
+	@Override
+	public void updateAccountDescription(String handle, String description) throws HandleNotRecognisedException {
+		TracedCall call = tracer.begin("updateAccountDescription");
+		try {
+			delegate.updateAccountDescription(handle, description);
+		} catch (Exception e) {
+			call.failed(e);
+			throw e;
+		} finally {
+			if (call.end()) {
+				call.report(handle, description);
+			}
+		}
+	}
+
+	@Override
+	public String showAccount(String handle) throws HandleNotRecognisedException {
+		TracedCall call = tracer.begin("showAccount");
+		try {
+			return delegate.showAccount(handle);
+		} catch (Exception e) {
+			call.failed(e);
+			throw e;
+		} finally {
+			if (call.end()) {
+				call.report(handle);
+			}
+		}
+	}
+
+	@Override
+	public int createPost(String handle, String message) throws HandleNotRecognisedException, InvalidPostException {
+		TracedCall call = tracer.begin("createPost");
+		try {
+			return delegate.createPost(handle, message);
+		} catch (Exception e) {
+			call.failed(e);
+			throw e;
+		} finally {
+			if (call.end()) {
+				call.report(handle, message);
+			}
+		}
+	}
+
+	@Override
+	public int endorsePost(String handle, int id)
+			throws HandleNotRecognisedException, PostIDNotRecognisedException, NotActionablePostException {
+		TracedCall call = tracer.begin("endorsePost");
+		try {
+			return delegate.endorsePost(handle, id);
+		} catch (Exception e) {
+			call.failed(e);
+			throw e;
+		} finally {
+			if (call.end()) {
+				call.report(handle, id);
+			}
+		}
+	}
+
+	@Override
+	public int commentPost(String handle, int id, String message) throws HandleNotRecognisedException,
+			PostIDNotRecognisedException, NotActionablePostException, InvalidPostException {
+		TracedCall call = tracer.begin("commentPost");
+		try {
+			return delegate.commentPost(handle, id, message);
+		} catch (Exception e) {
+			call.failed(e);
+			throw e;
+		} finally {
+			if (call.end()) {
+				call.report(handle, id, message);
+			}
+		}
+	}
+
+	@Override
+	public void deletePost(int id) throws PostIDNotRecognisedException {
+		TracedCall call = tracer.begin("deletePost");
+		try {
+			delegate.deletePost(id);
+		} catch (Exception e) {
+			call.failed(e);
+			throw e;
+		} finally {
+			if (call.end()) {
+				call.report(id);
+			}
+		}
+	}
+
+	@Override
+	public String showIndividualPost(int id) throws PostIDNotRecognisedException {
+		TracedCall call = tracer.begin("showIndividualPost");
+		try {
+			return delegate.showIndividualPost(id);
+		} catch (Exception e) {
+			call.failed(e);
+			throw e;
+		} finally {
+			if (call.end()) {
+				call.report(id);
+			}
+		}
+	}
+
+	@Override
+	public StringBuilder showPostChildrenDetails(int id)
+			throws PostIDNotRecognisedException, NotActionablePostException {
+		TracedCall call = tracer.begin("showPostChildrenDetails");
+		try {
+			return delegate.showPostChildrenDetails(id);
+		} catch (Exception e) {
+			call.failed(e);
+			throw e;
+		} finally {
+			if (call.end()) {
+				call.report(id);
+			}
+		}
+	}
+
+	@Override
+	public int getNumberOfAccounts() {
+		return delegate.getNumberOfAccounts();
+	}
+
+	@Override
+	public int getTotalOriginalPosts() {
+		return delegate.getTotalOriginalPosts();
+	}
+
+	@Override
+	public int getTotalEndorsmentPosts() {
+		return delegate.getTotalEndorsmentPosts();
+	}
+
+	@Override
+	public int getTotalCommentPosts() {
+		return delegate.getTotalCommentPosts();
+	}
+
+	@Override
+	public int getMostEndorsedPost() {
+		TracedCall call = tracer.begin("getMostEndorsedPost");
+		try {
+			return delegate.getMostEndorsedPost();
+		} catch (RuntimeException e) {
+			call.failed(e);
+			throw e;
+		} finally {
+			if (call.end()) {
+				call.report();
+			}
+		}
+	}
+
+	@Override
+	public int getMostEndorsedAccount() {
+		TracedCall call = tracer.begin("getMostEndorsedAccount");
+		try {
+			return delegate.getMostEndorsedAccount();
+		} catch (RuntimeException e) {
+			call.failed(e);
+			throw e;
+		} finally {
+			if (call.end()) {
+				call.report();
+			}
+		}
+	}
+
+	@Override
+	public void erasePlatform() {
+		TracedCall call = tracer.begin("erasePlatform");
+		try {
+			delegate.erasePlatform();
+		} catch (RuntimeException e) {
+			call.failed(e);
+			throw e;
+		} finally {
+			if (call.end()) {
+				call.report();
+			}
+		}
+	}
+
+	@Override
+	public void savePlatform(String filename) throws IOException {
+		TracedCall call = tracer.begin("savePlatform");
+		try {
+			delegate.savePlatform(filename);
+		} catch (Exception e) {
+			call.failed(e);
+			throw e;
+		} finally {
+			if (call.end()) {
+				call.report(filename);
+			}
+		}
+	}
+
+	@Override
+	public void loadPlatform(String filename) throws IOException, ClassNotFoundException {
+		TracedCall call = tracer.begin("loadPlatform");
+		try {
+			delegate.loadPlatform(filename);
+		} catch (Exception e) {
+			call.failed(e);
+			throw e;
+		} finally {
+			if (call.end()) {
+				call.report(filename);
+			}
+		}
+	}
+}
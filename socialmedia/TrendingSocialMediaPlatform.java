@@ -0,0 +1,52 @@
+package socialmedia;
+
+import java.time.Duration;
+
+/**
+ * TrendingSocialMediaPlatform interface. This interface extends the
+ * SocialMediaPlatform with ranked lists of the most endorsed posts and
+ * accounts, for trending feeds. Rankings are maintained as endorsements are
+ * made and removed, so reading them does not scan the platform.
+ *
+ * @version 1.0
+ *
+ */
+public interface TrendingSocialMediaPlatform extends SocialMediaPlatform {
+
+	// Analytics-related methods ****************************************
+
+	/**
+	 * This method returns the IDs of the k posts with the most endorsements,
+	 * from most to least endorsed. If an endorsement half life is set, each
+	 * endorsement is weighted by its age.
+	 *
+	 * @param k maximum number of posts to return.
+	 * @return the IDs of up to k posts, most endorsed first.
+	 */
+	int[] getTopEndorsedPosts(int k);
+
+	/**
+	 * This method returns the IDs of the k accounts with the most endorsements,
+	 * from most to least endorsed. If an endorsement half life is set, each
+	 * endorsement is weighted by its age.
+	 *
+	 * @param k maximum number of accounts to return.
+	 * @return the IDs of up to k accounts, most endorsed first.
+	 */
+	int[] getTopEndorsedAccounts(int k);
+
+	/**
+	 * This method sets the exponential time decay applied to endorsements by
+	 * {@link #getTopEndorsedPosts(int)} and {@link #getTopEndorsedAccounts(int)}:
+	 * an endorsement counts for half as much for every half life elapsed since it
+	 * was made. It does not affect {@link #getMostEndorsedPost()} nor
+	 * {@link #getMostEndorsedAccount()}.
+	 *
+	 * @param halfLife time for an endorsement to lose half of its value, or
+	 *                 {@code null} to count every endorsement equally.
+	 */
+	void setEndorsementHalfLife(Duration halfLife);
+
+	// End Analytics-related methods ****************************************
+
+}
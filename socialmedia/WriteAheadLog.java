@@ -0,0 +1,410 @@
+package socialmedia;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * WriteAheadLog is an append-only file of {@link LogRecord}s. Each record gets a
+ * log sequence number (LSN), counting every record ever logged by the platform,
+ * and the file starts with the LSN of its first record.
+ * <p>
+ * Records are appended to a buffer in memory and made durable by a commit,
+ * which writes everything buffered with one sequential write and one fsync.
+ * Commits use group commit: a thread committing while another one syncs waits
+ * for it and, if its record was not included, syncs every record buffered in the
+ * meantime at once, so concurrent commits share fsyncs. A log can also batch
+ * commits by time, in which case appending returns at once and a background
+ * thread commits every few milliseconds, trading a short window of recent
+ * changes that a crash may lose for fewer fsyncs.
+ * <p>
+ * The file layout is a header (magic "SMWL", version and first LSN) followed
+ * by records, each written as its length, the CRC32 of its bytes and the
+ * bytes. A record cut short or corrupted by a crash ends the log when it is
+ * read.
+ * <p>
+ * The log is safe to use from several threads at once.
+ *
+ * @version 1.0
+ */
+public class WriteAheadLog implements Closeable {
+
+	/** First bytes of every log file. */
+	public static final int MAGIC = 0x534D574C; // "SMWL"
+	/** Version of the log layout written by this class. */
+	public static final int VERSION = 1;
+
+	// longest record accepted when reading, anything longer is corruption
+	private static final int MAX_RECORD_SIZE = 1 << 20;
+
+	/**
+	 * Handler of the records read from a log file.
+	 */
+	public interface RecordHandler {
+		/**
+		 * Method to apply a record read from the log
+		 *
+		 * @param record the record
+		 * @throws IOException if the record cannot be applied
+		 */
+		void apply(LogRecord record) throws IOException;
+	}
+
+	private final Path file;
+	private final FileChannel channel;
+	private final Duration commitDelay;
+	private final Thread committer;
+
+	private final Object lock = new Object();
+	// records appended but not yet written
+	private final ByteArrayOutputStream pending = new ByteArrayOutputStream(1 << 12);
+	private final DataOutputStream pendingOut = new DataOutputStream(pending);
+	// LSN of the next record to append, and of the first one not yet durable
+	private long nextLsn;
+	private long durableLsn;
+	// whether a thread is writing and syncing a batch
+	private boolean syncing;
+	private IOException failure;
+	// whether the committer is asked to stop, and whether the log is closed
+	private boolean stopping;
+	private boolean closed;
+
+	/**
+	 * Constructor to create a new, empty log file, replacing any file with the
+	 * same name
+	 *
+	 * @param file        log file to create
+	 * @param firstLsn    LSN of the first record of the file
+	 * @param commitDelay time between background commits, or zero to commit
+	 *                    every record as it is written
+	 * @throws IOException if the file cannot be created
+	 */
+	public WriteAheadLog(Path file, long firstLsn, Duration commitDelay) throws IOException {
+		if (commitDelay.isNegative()) {
+			throw new IllegalArgumentException("Commit delay must not be negative");
+		}
+		this.file = file;
+		this.commitDelay = commitDelay;
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		this.nextLsn = firstLsn;
+		this.durableLsn = firstLsn;
+		ByteBuffer header = ByteBuffer.allocate(13);
+		header.putInt(MAGIC).put((byte) VERSION).putLong(firstLsn).flip();
+		while (header.hasRemaining()) {
+			channel.write(header);
+		}
+		channel.force(true);
+		if (commitDelay.isZero()) {
+			committer = null;
+		} else {
+			committer = new Thread(this::commitPeriodically, "log-committer-" + file.getFileName());
+			committer.setDaemon(true);
+			committer.start();
+		}
+	}
+
+	/**
+	 * Getter method for the log file
+	 *
+	 * @return path of the file
+	 */
+	public Path getFile() {
+		return file;
+	}
+
+	/**
+	 * Getter method for the LSN the next appended record will get
+	 *
+	 * @return next LSN
+	 */
+	public long getNextLsn() {
+		synchronized (lock) {
+			return nextLsn;
+		}
+	}
+
+	/**
+	 * Method to append a record to the log, without waiting for it to be durable
+	 *
+	 * @param record record to append
+	 * @return the LSN of the record
+	 * @throws IOException if the log was closed or an earlier write failed
+	 */
+	public long append(LogRecord record) throws IOException {
+		byte[] bytes = record.encode();
+		CRC32 crc = new CRC32();
+		crc.update(bytes);
+		synchronized (lock) {
+			checkUsable();
+			pendingOut.writeInt(bytes.length);
+			pendingOut.writeInt((int) crc.getValue());
+			pendingOut.write(bytes);
+			return nextLsn++;
+		}
+	}
+
+	/**
+	 * Method to append a record to the log and, unless commits are batched by
+	 * time, wait for it to be durable
+	 *
+	 * @param record record to write
+	 * @throws IOException if the record cannot be written
+	 */
+	public void write(LogRecord record) throws IOException {
+		long lsn = append(record);
+		if (committer == null) {
+			commit(lsn);
+		}
+	}
+
+	/**
+	 * Method to append several records to the log and, unless commits are
+	 * batched by time, wait once for all of them to be durable
+	 *
+	 * @param records records to write, in order
+	 * @throws IOException if the records cannot be written
+	 */
+	public void write(List<LogRecord> records) throws IOException {
+		long lsn = -1;
+		for (LogRecord record : records) {
+			lsn = append(record);
+		}
+		if (committer == null && lsn >= 0) {
+			commit(lsn);
+		}
+	}
+
+	/**
+	 * Method to wait until the record with the given LSN, and every one before it,
+	 * is durable
+	 *
+	 * @param lsn LSN of the record
+	 * @throws IOException if the records cannot be written
+	 */
+	public void commit(long lsn) throws IOException {
+		byte[] batch;
+		long batchEnd;
+		boolean interrupted = false;
+		synchronized (lock) {
+			try {
+				while (true) {
+					if (durableLsn > lsn) {
+						return;
+					}
+					checkUsable();
+					if (!syncing) {
+						break;
+					}
+					// another thread is syncing, its batch may include this record
+					try {
+						lock.wait();
+					} catch (InterruptedException e) {
+						interrupted = true;
+					}
+				}
+			} finally {
+				if (interrupted) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			syncing = true;
+			batch = pending.toByteArray();
+			batchEnd = nextLsn;
+			pending.reset();
+		}
+		IOException error = null;
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(batch);
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(false);
+		} catch (IOException e) {
+			error = e;
+		}
+		synchronized (lock) {
+			syncing = false;
+			if (error == null) {
+				durableLsn = batchEnd;
+			} else {
+				// the batch is lost, so no later record can be written after it
+				failure = error;
+			}
+			lock.notifyAll();
+		}
+		if (error != null) {
+			throw error;
+		}
+	}
+
+	/**
+	 * Method to wait until every record appended so far is durable
+	 *
+	 * @throws IOException if the records cannot be written
+	 */
+	public void sync() throws IOException {
+		long last;
+		synchronized (lock) {
+			last = nextLsn - 1;
+		}
+		commit(last);
+	}
+
+	private void checkUsable() throws IOException {
+		if (failure != null) {
+			throw new IOException("Log " + file + " could not be written", failure);
+		}
+		if (closed) {
+			throw new IOException("Log " + file + " is closed");
+		}
+	}
+
+	private void commitPeriodically() {
+		while (true) {
+			// waits on the lock rather than sleeping, so that closing the log never
+			// interrupts a write, which would close the channel with it
+			synchronized (lock) {
+				long remaining = commitDelay.toNanos();
+				long deadline = System.nanoTime() + remaining;
+				while (!stopping && remaining > 0) {
+					try {
+						TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+					} catch (InterruptedException e) {
+						return;
+					}
+					remaining = deadline - System.nanoTime();
+				}
+				if (stopping) {
+					return;
+				}
+			}
+			try {
+				sync();
+			} catch (IOException e) {
+				// reported to every later caller of the log
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Method to commit every appended record and close the file
+	 *
+	 * @throws IOException if the records cannot be written
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (lock) {
+			if (closed || stopping) {
+				return;
+			}
+			stopping = true;
+			lock.notifyAll();
+		}
+		if (committer != null) {
+			// let a batch being written finish, then commit the rest here
+			boolean interrupted = false;
+			while (committer.isAlive()) {
+				try {
+					committer.join();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		try {
+			if (failure == null) {
+				sync();
+			}
+		} finally {
+			synchronized (lock) {
+				closed = true;
+			}
+			channel.close();
+		}
+	}
+
+	/**
+	 * Method to read the first LSN of a log file from its header
+	 *
+	 * @param file log file
+	 * @return the LSN of the first record of the file
+	 * @throws IOException if the file cannot be read or is not a log file
+	 */
+	public static long readFirstLsn(Path file) throws IOException {
+		try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+			return readHeader(file, in);
+		}
+	}
+
+	private static long readHeader(Path file, DataInputStream in) throws IOException {
+		try {
+			if (in.readInt() != MAGIC) {
+				throw new IOException(file + " is not a platform log");
+			}
+			int version = in.readUnsignedByte();
+			if (version != VERSION) {
+				throw new IOException("Unsupported log version " + version);
+			}
+			return in.readLong();
+		} catch (EOFException e) {
+			throw new IOException(file + " is not a platform log", e);
+		}
+	}
+
+	/**
+	 * Method to read every intact record of a log file, in order. Reading stops
+	 * at the end of the file or at the first record cut short or corrupted, which
+	 * is where a crash stopped writing.
+	 *
+	 * @param file    log file to read
+	 * @param handler handler applying each record
+	 * @return the LSN after the last record read
+	 * @throws IOException if the file cannot be read or the handler fails
+	 */
+	public static long replay(Path file, RecordHandler handler) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+			long lsn = readHeader(file, in);
+			CRC32 crc = new CRC32();
+			while (true) {
+				byte[] bytes;
+				int checksum;
+				try {
+					int length = in.readInt();
+					if (length < 0 || length > MAX_RECORD_SIZE) {
+						return lsn;
+					}
+					checksum = in.readInt();
+					bytes = new byte[length];
+					in.readFully(bytes);
+				} catch (EOFException e) {
+					return lsn;
+				}
+				crc.reset();
+				crc.update(bytes);
+				if ((int) crc.getValue() != checksum) {
+					return lsn;
+				}
+				handler.apply(LogRecord.decode(bytes));
+				lsn++;
+			}
+		}
+	}
+}